@@ -0,0 +1,100 @@
+package com.obuspartners.api.admin;
+
+import com.obuspartners.modules.common.cache.TwoLevelCache;
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Administrative controller for application caches
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/v1/caches")
+@RequiredArgsConstructor
+@Tag(name = "Admin Caches", description = "Administrative endpoints for cache statistics and clearing")
+public class AdminCacheController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping
+    @Operation(summary = "Get cache statistics", description = "Hit/miss counts per level, loads, load time and evictions for every cache on this node since startup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<List<TwoLevelCache.Stats>>> getCacheStats() {
+        List<TwoLevelCache.Stats> stats = cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(TwoLevelCache.class::isInstance)
+                .map(cache -> ((TwoLevelCache) cache).getStats())
+                .sorted(Comparator.comparing(TwoLevelCache.Stats::name))
+                .toList();
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Cache statistics retrieved successfully",
+                stats
+        ));
+    }
+
+    @GetMapping("/{cacheName}")
+    @Operation(summary = "Get statistics of one cache", description = "Hit/miss counts per level, loads, load time and evictions of a cache on this node since startup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<TwoLevelCache.Stats>> getCacheStats(@PathVariable String cacheName) {
+        if (!cacheManager.getCacheNames().contains(cacheName)
+                || !(cacheManager.getCache(cacheName) instanceof TwoLevelCache cache)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ResponseWrapper<>(
+                    false,
+                    404,
+                    "Cache not found: " + cacheName,
+                    null
+            ));
+        }
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Cache statistics retrieved successfully",
+                cache.getStats()
+        ));
+    }
+
+    @PostMapping("/{cacheName}/clear")
+    @Operation(summary = "Clear a cache", description = "Removes all entries of a cache from Redis and from the in-process cache on every node")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<String>> clearCache(@PathVariable String cacheName) {
+        if (!cacheManager.getCacheNames().contains(cacheName)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ResponseWrapper<>(
+                    false,
+                    404,
+                    "Cache not found: " + cacheName,
+                    null
+            ));
+        }
+
+        log.info("Clearing cache: {}", cacheName);
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        cache.clear();
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Cache cleared successfully",
+                cacheName
+        ));
+    }
+}
@@ -0,0 +1,62 @@
+package com.obuspartners.api.admin;
+
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.LedgerBalanceDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import com.obuspartners.modules.ledger_and_settlement_management.service.LedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Administrative controller for the partner and agent commission ledgers
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/v1/ledger")
+@RequiredArgsConstructor
+@Tag(name = "Admin Ledger", description = "Administrative endpoints for commission ledger balances")
+public class AdminLedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping("/balances/{accountType}/{accountId}")
+    @Operation(summary = "Get a ledger balance", description = "Running balance of a partner or agent commission ledger, including postings not yet written")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<LedgerBalanceDto>> getBalance(
+            @PathVariable LedgerAccountType accountType,
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String currency) {
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Ledger balance retrieved successfully",
+                ledgerService.getBalance(accountType, accountId, currency)
+        ));
+    }
+
+    @GetMapping("/balances/{accountType}/{accountId}/verify")
+    @Operation(summary = "Verify a ledger balance", description = "Compares the balance checkpoint of a ledger account with the sum of its journal entries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<LedgerBalanceDto>> verifyBalance(
+            @PathVariable LedgerAccountType accountType,
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String currency) {
+
+        log.info("Verifying ledger balance of {} {}", accountType, accountId);
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Ledger balance verified",
+                ledgerService.verifyBalance(accountType, accountId, currency)
+        ));
+    }
+}
@@ -0,0 +1,85 @@
+package com.obuspartners.api.admin;
+
+import com.obuspartners.modules.common.util.PageResponseWrapper;
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationMismatchDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import com.obuspartners.modules.ledger_and_settlement_management.service.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+
+/**
+ * Administrative controller for reconciling bus core system exports against our bookings
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/v1/reconciliations")
+@RequiredArgsConstructor
+@Tag(name = "Admin Reconciliation", description = "Administrative endpoints for bus core system reconciliation")
+public class AdminReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping(value = "/{busCoreSystemCode}/{date}", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+    @Operation(summary = "Reconcile a bus core export",
+               description = "Compares a CSV export (reference,amount[,currency]) of a date with our bookings and records the mismatches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<ReconciliationRunDto>> reconcile(
+            @PathVariable String busCoreSystemCode,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            InputStream export) {
+
+        log.info("Reconciling {} export of {}", busCoreSystemCode, date);
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Reconciliation finished",
+                reconciliationService.reconcile(busCoreSystemCode, date, export)
+        ));
+    }
+
+    @GetMapping("/{runId}")
+    @Operation(summary = "Get a reconciliation run", description = "Status and counts of a reconciliation run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<ReconciliationRunDto>> getReconciliation(@PathVariable Long runId) {
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Reconciliation retrieved successfully",
+                reconciliationService.getReconciliation(runId)
+        ));
+    }
+
+    @GetMapping("/{runId}/mismatches")
+    @Operation(summary = "Get reconciliation mismatches", description = "Retrieves a paginated list of a run's mismatches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponseWrapper<ReconciliationMismatchDto>> getMismatches(
+            @PathVariable Long runId,
+            @Parameter(description = "Mismatch type") @RequestParam(required = false) ReconciliationMismatchType type,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size) {
+
+        Page<ReconciliationMismatchDto> mismatches = reconciliationService.getMismatches(
+                runId, type, PageRequest.of(page, size, Sort.by("id")));
+        return ResponseEntity.ok(PageResponseWrapper.fromPage(mismatches, "Reconciliation mismatches retrieved successfully"));
+    }
+}
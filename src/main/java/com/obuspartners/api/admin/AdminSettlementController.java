@@ -0,0 +1,61 @@
+package com.obuspartners.api.admin;
+
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.service.SettlementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Administrative controller for daily partner and agent settlement
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/v1/settlements")
+@RequiredArgsConstructor
+@Tag(name = "Admin Settlement", description = "Administrative endpoints for daily commission settlement")
+public class AdminSettlementController {
+
+    private final SettlementService settlementService;
+
+    @PostMapping("/{date}")
+    @Operation(summary = "Settle a date", description = "Starts settling a day's bookings in the background, or resumes its failed run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<SettlementRunDto>> startSettlement(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        log.info("Starting settlement of {}", date);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ResponseWrapper<>(
+                true,
+                202,
+                "Settlement started",
+                settlementService.startSettlement(date)
+        ));
+    }
+
+    @GetMapping("/{date}")
+    @Operation(summary = "Get a settlement run", description = "Progress and status of the settlement of a date")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<SettlementRunDto>> getSettlement(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Settlement retrieved successfully",
+                settlementService.getSettlement(date)
+        ));
+    }
+}
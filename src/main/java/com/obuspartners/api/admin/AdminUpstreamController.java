@@ -0,0 +1,94 @@
+package com.obuspartners.api.admin;
+
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuard;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Administrative controller for upstream circuit breakers and bulkheads
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/v1/upstreams")
+@RequiredArgsConstructor
+@Tag(name = "Admin Upstreams", description = "Administrative endpoints for upstream circuit breaker state and call statistics")
+public class AdminUpstreamController {
+
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+
+    @GetMapping
+    @Operation(summary = "Get upstream status", description = "Circuit state, failure rate, free bulkhead slots, call counts per outcome and hedges for every upstream on this node")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<List<UpstreamGuard.Status>>> getUpstreams() {
+        List<UpstreamGuard.Status> statuses = upstreamGuardRegistry.getGuards().stream()
+                .map(UpstreamGuard::getStatus)
+                .toList();
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Upstream status retrieved successfully",
+                statuses
+        ));
+    }
+
+    @GetMapping("/{upstream}")
+    @Operation(summary = "Get status of one upstream", description = "Circuit state, failure rate, free bulkhead slots, call counts per outcome and hedges of an upstream on this node")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<UpstreamGuard.Status>> getUpstream(@PathVariable String upstream) {
+        Optional<UpstreamGuard> guard = upstreamGuardRegistry.find(upstream);
+        if (guard.isEmpty()) {
+            return notFound(upstream);
+        }
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Upstream status retrieved successfully",
+                guard.get().getStatus()
+        ));
+    }
+
+    @PostMapping("/{upstream}/reset")
+    @Operation(summary = "Reset an upstream circuit", description = "Closes the circuit of an upstream on this node and forgets its recorded failures")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseWrapper<UpstreamGuard.Status>> resetUpstream(@PathVariable String upstream) {
+        Optional<UpstreamGuard> guard = upstreamGuardRegistry.find(upstream);
+        if (guard.isEmpty()) {
+            return notFound(upstream);
+        }
+
+        log.info("Resetting upstream circuit: {}", upstream);
+        guard.get().reset();
+
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                200,
+                "Upstream circuit reset successfully",
+                guard.get().getStatus()
+        ));
+    }
+
+    private static <T> ResponseEntity<ResponseWrapper<T>> notFound(String upstream) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ResponseWrapper<>(
+                false,
+                404,
+                "Upstream not found: " + upstream,
+                null
+        ));
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import com.obuspartners.modules.agent_management.domain.dto.AgentLoginRequestDto;
 import com.obuspartners.modules.agent_management.domain.dto.AgentLoginResponseDto;
 import com.obuspartners.modules.agent_management.service.AgentAuthenticationService;
+import com.obuspartners.modules.common.exception.ApiException;
 import com.obuspartners.modules.common.util.ResponseWrapper;
 
 /**
@@ -37,7 +38,8 @@ public class AgentAuthController {
         @ApiResponse(responseCode = "200", description = "Authentication successful"),
         @ApiResponse(responseCode = "401", description = "Invalid credentials or API credentials"),
         @ApiResponse(responseCode = "403", description = "Agent account not active or agent doesn't belong to partner"),
-        @ApiResponse(responseCode = "400", description = "Invalid request data")
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "503", description = "Login capacity exhausted, retry shortly")
     })
     public ResponseEntity<ResponseWrapper<AgentLoginResponseDto>> login(
             @Valid @RequestBody AgentLoginRequestDto loginRequest) {
@@ -50,6 +52,16 @@ public class AgentAuthController {
             return ResponseEntity.ok()
                 .body(new ResponseWrapper<>(true, 200, "Login successful", response));
 
+        } catch (ApiException e) {
+            if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                // Login pool saturated; tell the client to retry rather than that its credentials are wrong
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(new ResponseWrapper<>(false, 503, e.getMessage(), null));
+            }
+            log.error("Agent authentication failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ResponseWrapper<>(false, 401, "Authentication failed: " + e.getMessage(), null));
         } catch (Exception e) {
             log.error("Agent authentication failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -14,6 +14,7 @@ import com.obuspartners.modules.auth_management.domain.dto.LoginRequest;
 import com.obuspartners.modules.auth_management.domain.dto.RefreshTokenRequest;
 import com.obuspartners.modules.auth_management.domain.dto.RegisterRequestDto;
 import com.obuspartners.modules.auth_management.service.RefreshTokenService;
+import com.obuspartners.modules.auth_management.service.TokenVersionStore;
 import com.obuspartners.modules.auth_management.util.JwtUtil;
 import com.obuspartners.modules.common.exception.DuplicateResourceException;
 import com.obuspartners.modules.common.util.ResponseWrapper;
@@ -44,6 +45,9 @@ public class AuthController {
     @Autowired
     private RefreshTokenService refreshTokenService;
 
+    @Autowired
+    private TokenVersionStore tokenVersionStore;
+
     /**
      * Login endpoint
      * 
@@ -70,9 +74,9 @@ public class AuthController {
         // Generate JWT token - limited scope if password change required
         String jwt;
         if (user.getRequirePasswordChange()) {
-            jwt = jwtUtil.generateLimitedToken((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal(), "password_change");
+            jwt = jwtUtil.generateLimitedToken((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal(), "password_change", tokenVersionStore.currentVersion(user.getUsername()));
         } else {
-            jwt = jwtUtil.generateToken((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal());
+            jwt = jwtUtil.generateToken((org.springframework.security.core.userdetails.UserDetails) authentication.getPrincipal(), tokenVersionStore.currentVersion(user.getUsername()));
         }
         
         // Create refresh token only if password change is not required
@@ -163,9 +167,9 @@ public class AuthController {
         // Generate new access token - maintain limited scope if password change required
         String newAccessToken;
         if (user.getRequirePasswordChange()) {
-            newAccessToken = jwtUtil.generateLimitedToken(user, "password_change");
+            newAccessToken = jwtUtil.generateLimitedToken(user, "password_change", tokenVersionStore.currentVersion(user.getUsername()));
         } else {
-            newAccessToken = jwtUtil.generateToken(user);
+            newAccessToken = jwtUtil.generateToken(user, tokenVersionStore.currentVersion(user.getUsername()));
         }
         
         // Create new refresh token (rotate refresh token)
@@ -0,0 +1,76 @@
+package com.obuspartners.api.gateway;
+
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldRequestDto;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldResponseDto;
+import com.obuspartners.modules.booking_management.service.BookingService;
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Seat holds and booking confirmation for the authenticated agent
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/partner/v1/agent-api/bookings")
+@RequiredArgsConstructor
+@Tag(name = "Gateway Bookings", description = "Seat holds and booking confirmation on the agent's bus core systems")
+public class GatewayBookingController {
+
+    private final BookingService bookingService;
+
+    @Operation(summary = "Hold Seats", description = "Holds seats on a trip until confirmed, released or expired; fails with 409 when a seat is not available - requires both partner API key authentication and agent JWT authentication")
+    @PostMapping("/holds")
+    public ResponseEntity<ResponseWrapper<SeatHoldResponseDto>> holdSeats(@Valid @RequestBody SeatHoldRequestDto request) {
+        SeatHoldResponseDto hold = bookingService.holdSeats(currentAgent(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ResponseWrapper<>(
+                true,
+                HttpStatus.CREATED.value(),
+                "Seats held successfully",
+                hold));
+    }
+
+    @Operation(summary = "Get Hold", description = "Returns a seat hold of the agent - requires both partner API key authentication and agent JWT authentication")
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<ResponseWrapper<SeatHoldResponseDto>> getHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                HttpStatus.OK.value(),
+                "Hold retrieved successfully",
+                bookingService.getHold(currentAgent(), holdId)));
+    }
+
+    @Operation(summary = "Confirm Hold", description = "Books the held seats on the bus core system; can be retried after a failure while the hold lasts - requires both partner API key authentication and agent JWT authentication")
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<ResponseWrapper<SeatHoldResponseDto>> confirmHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                HttpStatus.OK.value(),
+                "Booking confirmed successfully",
+                bookingService.confirmHold(currentAgent(), holdId)));
+    }
+
+    @Operation(summary = "Release Hold", description = "Releases the held seats - requires both partner API key authentication and agent JWT authentication")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<ResponseWrapper<SeatHoldResponseDto>> releaseHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                HttpStatus.OK.value(),
+                "Hold released successfully",
+                bookingService.releaseHold(currentAgent(), holdId)));
+    }
+
+    private static String currentAgent() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
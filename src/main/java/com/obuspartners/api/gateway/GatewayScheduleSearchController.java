@@ -0,0 +1,127 @@
+package com.obuspartners.api.gateway;
+
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.partner_integration.resilience.Deadline;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchRequest;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchResult;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Unified schedule search across the bus core systems of the authenticated agent
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/partner/v1/agent-api/schedules")
+@RequiredArgsConstructor
+@Tag(name = "Gateway Schedule Search", description = "Schedule search across all bus core systems of an agent")
+public class GatewayScheduleSearchController {
+
+    private final ScheduleSearchService scheduleSearchService;
+
+    /**
+     * Search schedules on all of the agent's bus core systems - requires both
+     * partner API key and agent JWT authentication
+     *
+     * @return merged schedules and the outcome per bus core system
+     */
+    @Operation(summary = "Search Schedules", description = "Searches all active bus core systems of the agent in parallel and merges the schedules; systems that do not answer before the deadline are reported as TIMEOUT - requires both partner API key authentication and agent JWT authentication")
+    @GetMapping("/search")
+    public ResponseEntity<ResponseWrapper<ScheduleSearchResult>> searchSchedules(
+            @RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "passengers", defaultValue = "1") int passengers,
+            @RequestParam(value = "class", required = false) String passengerClass) {
+        ScheduleSearchRequest request = validate(from, to, date, passengers, passengerClass);
+        if (request == null) {
+            return ResponseEntity.badRequest().body(new ResponseWrapper<>(
+                    false, HttpStatus.BAD_REQUEST.value(), "from, to and a date from today are required", null));
+        }
+
+        ScheduleSearchResult result = scheduleSearchService.search(currentAgent(), request, providerResult -> { });
+        return ResponseEntity.ok(new ResponseWrapper<>(
+                true,
+                HttpStatus.OK.value(),
+                result.complete() ? "Schedules retrieved successfully" : "Schedules retrieved, some systems did not answer",
+                result));
+    }
+
+    /**
+     * Stream schedules per bus core system as they arrive - requires both
+     * partner API key and agent JWT authentication
+     *
+     * Sends one {@code provider} event per bus core system, then a
+     * {@code complete} event with the merged result.
+     */
+    @Operation(summary = "Stream Schedule Search", description = "Server-sent events: one 'provider' event per bus core system as soon as it answers, then a 'complete' event with the merged result - requires both partner API key authentication and agent JWT authentication")
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSchedules(
+            @RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "passengers", defaultValue = "1") int passengers,
+            @RequestParam(value = "class", required = false) String passengerClass) {
+        ScheduleSearchRequest request = validate(from, to, date, passengers, passengerClass);
+        SseEmitter emitter = new SseEmitter(0L);
+        if (request == null) {
+            emitter.completeWithError(new IllegalArgumentException("from, to and a date from today are required"));
+            return emitter;
+        }
+
+        String agentPassName = currentAgent();
+        Duration remaining = Deadline.remaining();
+        Thread.ofVirtual().name("schedule-search-stream").start(() -> {
+            try (Deadline.Scope ignored = remaining != null ? Deadline.start(remaining) : () -> { }) {
+                ScheduleSearchResult result = scheduleSearchService.search(agentPassName, request,
+                        providerResult -> send(emitter, "provider", providerResult));
+                send(emitter, "complete", result);
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.warn("Streaming schedule search failed: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private static ScheduleSearchRequest validate(String from, String to, LocalDate date, int passengers,
+                                                  String passengerClass) {
+        if (from == null || from.isBlank() || to == null || to.isBlank() || date == null
+                || date.isBefore(LocalDate.now()) || passengers < 1) {
+            return null;
+        }
+        String seatClass = passengerClass == null || passengerClass.isBlank() ? null : passengerClass.trim();
+        return new ScheduleSearchRequest(from.trim(), to.trim(), date, passengers, seatClass);
+    }
+
+    private static void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // client went away; the search finishes on its own deadline
+            log.debug("Schedule stream client disconnected: {}", e.getMessage());
+        }
+    }
+
+    private static String currentAgent() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
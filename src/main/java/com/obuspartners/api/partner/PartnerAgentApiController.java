@@ -2,6 +2,9 @@ package com.obuspartners.api.partner;
 
 import com.obuspartners.modules.common.util.ResponseWrapper;
 import com.obuspartners.modules.partner_integration.bmslg.Auth;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.partner_integration.stations.Station;
+import com.obuspartners.modules.partner_integration.stations.StationCatalogService;
 import com.obuspartners.modules.partner_integration.stations.StationService;
 import com.obuspartners.modules.agent_management.service.AgentAuthenticationService;
 import com.obuspartners.modules.agent_management.service.AgentBusCoreSystemService;
@@ -21,6 +24,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,6 +46,8 @@ public class PartnerAgentApiController {
     private final PartnerService partnerService;
     private final PartnerApiKeyService partnerApiKeyService;
     private final StationService stationService;
+    private final StationCatalogService stationCatalogService;
+    private final Auth bmslgAuth;
 
     /**
      * Test endpoint for Partner Agent API - requires both partner API key and agent
@@ -180,7 +186,7 @@ public class PartnerAgentApiController {
 
         try {
             // Perform BMSLG authentication
-            Auth.AuthResponse authResponse = (new Auth()).authenticateWithDefaults(
+            Auth.AuthResponse authResponse = bmslgAuth.authenticateWithDefaults(
                     info.getUsername(),
                     info.getPassword(),
                     info.getOwnerId());
@@ -219,6 +225,58 @@ public class PartnerAgentApiController {
         return ResponseEntity.ok(stationsData);
     }
 
+    /**
+     * Type-ahead station search - requires both partner API key and agent JWT
+     * authentication
+     *
+     * @param q the text typed so far (English or Swahili name)
+     * @param limit maximum number of results (1-50)
+     * @return ResponseEntity with the best matching stations
+     */
+    @Operation(summary = "Search Stations", description = "Type-ahead search over station names (English and Swahili), best matches first - requires both partner API key authentication and agent JWT authentication")
+    @GetMapping("/stations/search")
+    public ResponseEntity<ResponseWrapper<List<Station>>> searchStations(@RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(new ResponseWrapper<>(
+                    false, HttpStatus.BAD_REQUEST.value(), "Search query is required", null));
+        }
+        try {
+            List<Station> stations = stationCatalogService.search(q, Math.max(1, Math.min(limit, 50)));
+            return ResponseEntity.ok(new ResponseWrapper<>(
+                    true, HttpStatus.OK.value(), "Stations retrieved successfully", stations));
+        } catch (ApiException e) {
+            log.warn("Station search failed: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(new ResponseWrapper<>(
+                    false, e.getStatusCode().value(), e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get a single station by its BMSLG ID - requires both partner API key and
+     * agent JWT authentication
+     *
+     * @param stationId BMSLG station ID
+     * @return ResponseEntity with the station
+     */
+    @Operation(summary = "Get Station", description = "Get a single station by its BMSLG ID - requires both partner API key authentication and agent JWT authentication")
+    @GetMapping("/stations/{stationId}")
+    public ResponseEntity<ResponseWrapper<Station>> getStation(@PathVariable String stationId) {
+        try {
+            Optional<Station> station = stationCatalogService.findById(stationId);
+            if (station.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ResponseWrapper<>(
+                        false, HttpStatus.NOT_FOUND.value(), "Station not found", null));
+            }
+            return ResponseEntity.ok(new ResponseWrapper<>(
+                    true, HttpStatus.OK.value(), "Station retrieved successfully", station.get()));
+        } catch (ApiException e) {
+            log.warn("Station lookup failed: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(new ResponseWrapper<>(
+                    false, e.getStatusCode().value(), e.getMessage(), null));
+        }
+    }
+
     @Data
     static class BmsAuthInfo {
         String username;
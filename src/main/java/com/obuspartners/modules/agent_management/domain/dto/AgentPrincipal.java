@@ -0,0 +1,21 @@
+package com.obuspartners.modules.agent_management.domain.dto;
+
+import com.obuspartners.modules.agent_management.domain.enums.AgentStatus;
+
+/**
+ * Lightweight authenticated agent identity resolved from an access token
+ * 
+ * @param passName the agent login name (token subject)
+ * @param agentId the agent ID
+ * @param partnerId the owning partner ID
+ * @param status the agent status at resolution time
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record AgentPrincipal(String passName, Long agentId, Long partnerId, AgentStatus status) {
+
+    public boolean isActive() {
+        return status == AgentStatus.ACTIVE;
+    }
+}
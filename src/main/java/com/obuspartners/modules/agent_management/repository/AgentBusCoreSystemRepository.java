@@ -72,6 +72,14 @@ public interface AgentBusCoreSystemRepository extends JpaRepository<AgentBusCore
     @Query("SELECT abcs.busCoreSystem FROM AgentBusCoreSystem abcs WHERE abcs.agent = :agent AND abcs.isActive = true")
     List<BusCoreSystem> findActiveBusCoreSystemsByAgent(@Param("agent") Agent agent);
 
+    /**
+     * Find an agent's active assignments with their (not deleted) bus core systems, the agent and its partner fetched
+     */
+    @Query("SELECT abcs FROM AgentBusCoreSystem abcs JOIN FETCH abcs.busCoreSystem bcs " +
+           "JOIN FETCH abcs.agent a JOIN FETCH a.partner " +
+           "WHERE a.passName = :passName AND abcs.isActive = true AND bcs.isDeleted = false")
+    List<AgentBusCoreSystem> findActiveWithBusCoreSystemByAgentPassName(@Param("passName") String passName);
+
     /**
      * Find all bus core systems assigned to an agent by agent ID
      */
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal;
 import com.obuspartners.modules.agent_management.domain.entity.Agent;
 import com.obuspartners.modules.agent_management.domain.enums.AgentStatus;
 import com.obuspartners.modules.agent_management.domain.enums.AgentType;
@@ -58,6 +59,34 @@ public interface AgentRepository extends JpaRepository<Agent, Long> {
      */
     Optional<Agent> findByPassName(String passName);
 
+    /**
+     * Find the lightweight principal of an agent by pass name, without loading the entity
+     * 
+     * @param passName the pass name
+     * @return Optional containing the agent principal if found
+     */
+    @Query("SELECT new com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal(a.passName, a.id, a.partner.id, a.status) " +
+           "FROM Agent a WHERE a.passName = :passName")
+    Optional<AgentPrincipal> findPrincipalByPassName(@Param("passName") String passName);
+
+    /**
+     * Find agent ID by UID
+     * 
+     * @param uid the agent UID
+     * @return Optional containing the agent ID if found
+     */
+    @Query("SELECT a.id FROM Agent a WHERE a.uid = :uid")
+    Optional<Long> findIdByUid(@Param("uid") String uid);
+
+    /**
+     * Find agent by pass name with its user account loaded, for login
+     * 
+     * @param passName the pass name
+     * @return Optional containing the agent if found
+     */
+    @Query("SELECT a FROM Agent a LEFT JOIN FETCH a.user WHERE a.passName = :passName")
+    Optional<Agent> findForLoginByPassName(@Param("passName") String passName);
+
     /**
      * Find agent by pass name and pass code
      * 
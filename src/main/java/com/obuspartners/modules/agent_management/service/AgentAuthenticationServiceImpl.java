@@ -2,8 +2,8 @@ package com.obuspartners.modules.agent_management.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.obuspartners.modules.agent_management.domain.dto.AgentLoginRequestDto;
@@ -13,10 +13,10 @@ import com.obuspartners.modules.agent_management.domain.entity.Agent;
 import com.obuspartners.modules.agent_management.domain.enums.AgentStatus;
 import com.obuspartners.modules.agent_management.repository.AgentRepository;
 import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.ActivityTracker;
+import com.obuspartners.modules.common.service.PasswordVerificationExecutor;
 import com.obuspartners.modules.auth_management.util.JwtUtil;
 import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
-import com.obuspartners.modules.partner_management.domain.entity.Partner;
-import com.obuspartners.modules.partner_management.repository.PartnerRepository;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -25,6 +25,9 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -42,13 +45,15 @@ public class AgentAuthenticationServiceImpl implements AgentAuthenticationServic
     private final AgentRepository agentRepository;
     private final JwtUtil jwtUtil;
     private final PartnerApiKeyService partnerApiKeyService;
-    private final PartnerRepository partnerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final ActivityTracker activityTracker;
+
+    private static final DateTimeFormatter RESPONSE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AgentLoginResponseDto authenticateAgent(AgentLoginRequestDto loginRequest) {
-        log.info("Authenticating agent with agent number: {}", loginRequest.getAgentNumber());
+        log.debug("Authenticating agent with agent number: {}", loginRequest.getAgentNumber());
 
         // Get API key and secret from request headers
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
@@ -59,46 +64,30 @@ public class AgentAuthenticationServiceImpl implements AgentAuthenticationServic
             throw new ApiException("API key and secret are required", HttpStatus.UNAUTHORIZED);
         }
 
-        // Authenticate partner using API key and secret
-        Optional<com.obuspartners.modules.partner_management.service.PartnerApiKeyService.ApiKeyInfo> apiKeyInfoOpt = 
-            partnerApiKeyService.validateApiKeyAndSecret(apiKey, apiSecret);
-        
-        if (apiKeyInfoOpt.isEmpty()) {
-            throw new ApiException("Invalid API credentials", HttpStatus.UNAUTHORIZED);
-        }
-
-        com.obuspartners.modules.partner_management.service.PartnerApiKeyService.ApiKeyInfo apiKeyInfo = apiKeyInfoOpt.get();
-        
-        // Get partner using partnerUid
-        Optional<Partner> partnerOpt = partnerRepository.findByUid(apiKeyInfo.getPartnerUid());
-        if (partnerOpt.isEmpty()) {
-            throw new ApiException("Partner not found", HttpStatus.UNAUTHORIZED);
-        }
-        
-        Partner partner = partnerOpt.get();
-        log.info("Partner authenticated: {} ({})", partner.getBusinessName(), partner.getCode());
+        // Authenticate partner using API key and secret; the key info already identifies the partner
+        PartnerApiKeyService.ApiKeyInfo apiKeyInfo = partnerApiKeyService.validateApiKeyAndSecret(apiKey, apiSecret)
+            .orElseThrow(() -> new ApiException("Invalid API credentials", HttpStatus.UNAUTHORIZED));
 
         // Construct full username: PARTNERCODE-AGENTNUMBER
-        String fullUsername = partner.getCode() + "-" + loginRequest.getAgentNumber();
-        log.info("Constructed full username: {}", fullUsername);
+        String fullUsername = apiKeyInfo.getPartnerCode() + "-" + loginRequest.getAgentNumber();
 
         // Find agent by full username
-        Optional<Agent> agentOpt = agentRepository.findByPassName(fullUsername);
+        Optional<Agent> agentOpt = agentRepository.findForLoginByPassName(fullUsername);
 
         if (agentOpt.isEmpty()) {
-            log.warn("Authentication failed for agent number: {} with partner: {}", loginRequest.getAgentNumber(), partner.getCode());
+            log.warn("Authentication failed for agent number: {} with partner: {}", loginRequest.getAgentNumber(), apiKeyInfo.getPartnerCode());
             throw new ApiException("Invalid login credentials", HttpStatus.UNAUTHORIZED);
         }
 
         Agent agent = agentOpt.get();
 
         // Verify agent belongs to the authenticated partner
-        if (!agent.getPartner().getId().equals(partner.getId())) {
+        if (!agent.getPartner().getId().equals(apiKeyInfo.getPartnerId())) {
             throw new ApiException("Agent does not belong to the authenticated partner", HttpStatus.FORBIDDEN);
         }
 
-        // Verify password
-        if (!passwordEncoder.matches(loginRequest.getPassCode(), agent.getPassCode())) {
+        // Verify password on the bounded verification pool
+        if (!passwordVerificationExecutor.matches(loginRequest.getPassCode(), agent.getPassCode())) {
             throw new ApiException("Invalid login credentials", HttpStatus.UNAUTHORIZED);
         }
 
@@ -108,16 +97,18 @@ public class AgentAuthenticationServiceImpl implements AgentAuthenticationServic
             //throw new ApiException("Agent account is not active", HttpStatus.FORBIDDEN);
         }
 
-        // Update last activity
-        agent.setLastActivityDate(LocalDateTime.now());
-        agentRepository.save(agent);
+        // Update last activity (written behind)
+        LocalDateTime loginAt = LocalDateTime.now();
+        activityTracker.touch(ActivityTracker.Activity.AGENT_LAST_ACTIVITY, agent.getId(), loginAt);
 
         // Generate JWT tokens
         // Always generate full access token for agents (no password change requirement)
-        String accessToken = generateAgentAccessToken(agent);
+        AgentUserDetails agentUserDetails = new AgentUserDetails(agent);
+        Date issuedAt = new Date();
+        String accessToken = jwtUtil.generateToken(agentUserDetails, issuedAt);
         
         // Always generate refresh token for agents
-        String refreshToken = generateAgentRefreshToken(agent);
+        String refreshToken = jwtUtil.generateRefreshToken(agentUserDetails);
 
         log.info("Agent {} authenticated successfully", agent.getPassName());
 
@@ -127,20 +118,20 @@ public class AgentAuthenticationServiceImpl implements AgentAuthenticationServic
             .type("Bearer")
             .passName(agent.getPassName())
             .partnerAgentNumber(agent.getPartnerAgentNumber())
-            .partnerCode(agent.getPartner().getCode())
+            .partnerCode(apiKeyInfo.getPartnerCode())
             .email(agent.getBusinessEmail())
             .userType("AGENT")
             .requireResetPassword(false) // Always false for agents
-            .partnerId(agent.getPartner().getId())
-            .partnerUid(agent.getPartner().getUid())
-            .partnerBusinessName(agent.getPartner().getBusinessName())
+            .partnerId(apiKeyInfo.getPartnerId())
+            .partnerUid(apiKeyInfo.getPartnerUid())
+            .partnerBusinessName(apiKeyInfo.getPartnerBusinessName())
             // Essential frontend fields
             .displayName(agent.getUser() != null ? agent.getUser().getDisplayName() : agent.getContactPerson())
             .roles(agent.getUser() != null ? agent.getUser().getRoles().stream().map(role -> role.getRoleType().getValue()).toList() : java.util.List.of())
-            .tokenExpiresAt(java.time.format.DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss").format(jwtUtil.getExpirationDateFromToken(accessToken).toInstant().atZone(java.time.ZoneOffset.UTC).toLocalDateTime()))
+            .tokenExpiresAt(RESPONSE_DATE_FORMAT.format(jwtUtil.getAccessTokenExpiration(issuedAt).toInstant().atZone(ZoneOffset.UTC)))
             .agentId(agent.getId())
             .agentStatus(agent.getStatus().name())
-            .lastLoginAt(agent.getLastActivityDate() != null ? java.time.format.DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss").format(agent.getLastActivityDate()) : null)
+            .lastLoginAt(RESPONSE_DATE_FORMAT.format(loginAt))
             .build();
     }
 
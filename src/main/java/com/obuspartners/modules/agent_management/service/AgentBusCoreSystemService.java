@@ -85,6 +85,12 @@ public interface AgentBusCoreSystemService {
      */
     List<AgentBusCoreSystemResponseDto> getActiveBusCoreSystemsByAgent(Agent agent);
 
+    /**
+     * Get an agent's active bus core system assignments, with the bus core systems loaded
+     * (for calls to the bus core systems on the agent's behalf)
+     */
+    List<AgentBusCoreSystem> getActiveAssignmentsByAgentPassName(String passName);
+
     /**
      * Get primary bus core system for an agent
      */
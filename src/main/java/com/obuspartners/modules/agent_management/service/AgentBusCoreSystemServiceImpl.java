@@ -8,7 +8,9 @@ import com.obuspartners.modules.agent_management.repository.AgentBusCoreSystemRe
 import com.obuspartners.modules.agent_management.repository.AgentRepository;
 import com.obuspartners.modules.bus_core_system.repository.BusCoreSystemRepository;
 import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.ActivityTracker;
 import com.obuspartners.modules.common.service.PasswordEncryptionService;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSessionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -34,6 +36,8 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
     private final PasswordEncryptionService passwordEncryptionService;
     private final AgentRepository agentRepository;
     private final BusCoreSystemRepository busCoreSystemRepository;
+    private final ActivityTracker activityTracker;
+    private final BmslgSessionCache bmslgSessionCache;
 
     @Override
     public AgentBusCoreSystemResponseDto assignAgentToBusCoreSystem(AssignAgentToBusCoreSystemRequest request) {
@@ -182,6 +186,9 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
         
         AgentBusCoreSystem updatedAgentBusCoreSystem = agentBusCoreSystemRepository.save(agentBusCoreSystem);
         log.info("Agent bus core system configuration updated successfully");
+        if (request.getAgentLoginName() != null || request.getPassword() != null || request.getIsActive() != null) {
+            bmslgSessionCache.evict(updatedAgentBusCoreSystem.getId());
+        }
         
         return convertToResponseDto(updatedAgentBusCoreSystem);
     }
@@ -246,6 +253,13 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgentBusCoreSystem> getActiveAssignmentsByAgentPassName(String passName) {
+        log.debug("Getting active bus core system assignments for agent {}", passName);
+        return agentBusCoreSystemRepository.findActiveWithBusCoreSystemByAgentPassName(passName);
+    }
+
     @Override
     public Optional<AgentBusCoreSystemResponseDto> getPrimaryBusCoreSystemByAgent(Agent agent) {
         log.debug("Getting primary bus core system for agent {}", agent.getId());
@@ -290,6 +304,7 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
         
         AgentBusCoreSystem updatedAgentBusCoreSystem = agentBusCoreSystemRepository.save(agentBusCoreSystem);
         log.info("Agent active status updated successfully");
+        bmslgSessionCache.evict(updatedAgentBusCoreSystem.getId());
         
         return convertToResponseDto(updatedAgentBusCoreSystem);
     }
@@ -306,6 +321,7 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
         
         AgentBusCoreSystem updatedAgentBusCoreSystem = agentBusCoreSystemRepository.save(agentBusCoreSystem);
         log.info("Agent active status updated successfully");
+        bmslgSessionCache.evict(updatedAgentBusCoreSystem.getId());
         
         return convertToResponseDto(updatedAgentBusCoreSystem);
     }
@@ -333,6 +349,8 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
         
         AgentBusCoreSystem updatedAgentBusCoreSystem = agentBusCoreSystemRepository.save(agentBusCoreSystem);
         log.info("Agent credentials updated successfully");
+        // The cached BMS session was signed in with the old credentials
+        bmslgSessionCache.evict(updatedAgentBusCoreSystem.getId());
         
         return convertToResponseDto(updatedAgentBusCoreSystem);
     }
@@ -357,8 +375,7 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
                          password.equals(decryptedPassword);
         
         if (isValid) {
-            agentBusCoreSystem.setLastAuthenticationDate(LocalDateTime.now());
-            agentBusCoreSystemRepository.save(agentBusCoreSystem);
+            activityTracker.touch(ActivityTracker.Activity.AGENT_BUS_CORE_LAST_AUTHENTICATION, agentBusCoreSystem.getId());
         }
         
         return isValid;
@@ -411,6 +428,7 @@ public class AgentBusCoreSystemServiceImpl implements AgentBusCoreSystemService
                 .orElseThrow(() -> new ApiException("Agent-Bus Core System relationship not found", org.springframework.http.HttpStatus.NOT_FOUND));
         
         agentBusCoreSystemRepository.delete(agentBusCoreSystem);
+        bmslgSessionCache.evict(agentBusCoreSystem.getId());
         log.info("Agent removed from bus core system successfully");
     }
 
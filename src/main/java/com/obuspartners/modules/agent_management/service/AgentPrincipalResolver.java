@@ -0,0 +1,195 @@
+package com.obuspartners.modules.agent_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal;
+import com.obuspartners.modules.agent_management.repository.AgentRepository;
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the agent principal behind an access token
+ *
+ * The token is parsed and verified once per request; the agent lookup is
+ * served from a short-TTL cache keyed by token id (jti, or the signature for
+ * tokens issued without one). Entries never outlive the token and are evicted
+ * on every node when the agent's status changes or the agent is deleted; an
+ * index of token ids by agent makes that eviction independent of the cache
+ * size.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class AgentPrincipalResolver {
+
+    static final String INVALIDATION_CHANNEL = "obus:cache:agent-principal:invalidate";
+
+    private final TokenVerifier tokenVerifier;
+    private final AgentRepository agentRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${app.security.agent-principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.agent-principal-cache.max-size:50000}")
+    private long maxSize;
+
+    private Cache<String, CachedPrincipal> cache;
+
+    /** Cached token ids per agent, maintained on put and removal */
+    private final ConcurrentHashMap<Long, Set<String>> tokenIdsByAgent = new ConcurrentHashMap<>();
+
+    /** Bumped on every eviction so lookups that raced with it are not cached */
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    public AgentPrincipalResolver(TokenVerifier tokenVerifier, AgentRepository agentRepository,
+                                  CacheInvalidationBus invalidationBus) {
+        this.tokenVerifier = tokenVerifier;
+        this.agentRepository = agentRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostConstruct
+    void init() {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, CachedPrincipal>() {
+                @Override
+                public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                    long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                        Math.max(0, value.tokenExpiresAtMillis() - System.currentTimeMillis()));
+                    return Math.min(ttlNanos, untilTokenExpiry);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .executor(Runnable::run)
+            .removalListener((String tokenId, CachedPrincipal value, RemovalCause cause) -> {
+                if (value != null && cause != RemovalCause.REPLACED) {
+                    unindex(value.principal().agentId(), tokenId);
+                }
+            })
+            .build();
+
+        invalidationBus.subscribe(INVALIDATION_CHANNEL, payload -> evictLocal(Long.valueOf(payload)));
+    }
+
+    /**
+     * Resolve the agent behind an access token
+     *
+     * @param token the raw JWT (without the Bearer prefix)
+     * @return the agent principal, or empty if the token is invalid or the agent does not exist
+     */
+    public Optional<AgentPrincipal> resolve(String token) {
+        return tokenVerifier.verify(token).flatMap(claims -> resolve(claims, token));
+    }
+
+    /**
+     * Resolve the agent behind an already verified access token
+     *
+     * @param claims the verified token claims
+     * @param token the raw JWT the claims were read from
+     * @return the agent principal, or empty if the agent does not exist
+     */
+    public Optional<AgentPrincipal> resolve(Claims claims, String token) {
+        String passName = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        if (passName == null || expiration == null) {
+            return Optional.empty();
+        }
+
+        String tokenId = claims.getId() != null ? claims.getId() : token.substring(token.lastIndexOf('.') + 1);
+        CachedPrincipal cached = cache.getIfPresent(tokenId);
+        if (cached != null && passName.equals(cached.principal().passName())) {
+            return Optional.of(cached.principal());
+        }
+
+        long epoch = invalidationEpoch.get();
+        Optional<AgentPrincipal> principal = agentRepository.findPrincipalByPassName(passName);
+        principal.ifPresent(p -> {
+            CachedPrincipal value = new CachedPrincipal(p, expiration.getTime());
+            cache.put(tokenId, value);
+            index(p.agentId(), tokenId);
+            if (invalidationEpoch.get() != epoch) {
+                // A status change raced with this lookup; do not keep what we read
+                cache.asMap().remove(tokenId, value);
+            }
+        });
+        return principal;
+    }
+
+    /**
+     * Evict every cached principal of an agent on this node now, and on all
+     * nodes once the current transaction commits
+     *
+     * @param agentId the agent ID
+     */
+    public void evictAgent(Long agentId) {
+        if (agentId == null) {
+            return;
+        }
+        evictLocal(agentId);
+        CacheInvalidationBus.runAfterCommit(() -> {
+            evictLocal(agentId);
+            invalidationBus.publish(INVALIDATION_CHANNEL, String.valueOf(agentId));
+        });
+    }
+
+    private void evictLocal(Long agentId) {
+        invalidationEpoch.incrementAndGet();
+        Set<String> tokenIds = tokenIdsByAgent.remove(agentId);
+        if (tokenIds != null) {
+            cache.invalidateAll(tokenIds);
+        }
+        log.debug("Evicted cached principals for agent: {}", agentId);
+    }
+
+    /**
+     * Index a token id after its entry is in the cache; an eviction in
+     * between is caught by the epoch check of the caller
+     */
+    private void index(Long agentId, String tokenId) {
+        tokenIdsByAgent.compute(agentId, (id, tokenIds) -> {
+            Set<String> indexed = tokenIds != null ? tokenIds : ConcurrentHashMap.newKeySet();
+            indexed.add(tokenId);
+            return indexed;
+        });
+    }
+
+    private void unindex(Long agentId, String tokenId) {
+        tokenIdsByAgent.computeIfPresent(agentId, (id, tokenIds) -> {
+            if (!cache.asMap().containsKey(tokenId)) {
+                tokenIds.remove(tokenId);
+            }
+            return tokenIds.isEmpty() ? null : tokenIds;
+        });
+    }
+
+    private record CachedPrincipal(AgentPrincipal principal, long tokenExpiresAtMillis) {
+    }
+}
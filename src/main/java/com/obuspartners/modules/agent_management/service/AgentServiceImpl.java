@@ -26,6 +26,7 @@ import com.obuspartners.modules.agent_management.domain.enums.AgentType;
 import com.obuspartners.modules.agent_management.repository.AgentRepository;
 import com.obuspartners.modules.partner_management.domain.entity.Partner;
 import com.obuspartners.modules.partner_management.repository.PartnerRepository;
+import com.obuspartners.modules.common.service.ActivityTracker;
 import com.obuspartners.modules.common.service.EmailService;
 import com.obuspartners.modules.common.service.EventProducerService;
 import com.obuspartners.modules.user_and_role_management.domain.entity.User;
@@ -52,6 +53,8 @@ public class AgentServiceImpl implements AgentService {
     private final AgentRequestService agentRequestService;
     private final PasswordEncoder passwordEncoder;
     private final UserService userService;
+    private final AgentPrincipalResolver agentPrincipalResolver;
+    private final ActivityTracker activityTracker;
 
     // CRUD Operations
 
@@ -280,6 +283,9 @@ public class AgentServiceImpl implements AgentService {
         }
 
         Agent updatedAgent = agentRepository.save(agent);
+        if (updateRequest.getStatus() != null) {
+            agentPrincipalResolver.evictAgent(updatedAgent.getId());
+        }
         log.info("Agent updated successfully with UID: {}", updatedAgent.getUid());
 
         return mapToAgentResponseDto(updatedAgent);
@@ -345,6 +351,7 @@ public class AgentServiceImpl implements AgentService {
         agent.approve();
         Agent approvedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(approvedAgent.getId());
         log.info("Agent approved successfully with UID: {}", approvedAgent.getUid());
         return mapToAgentResponseDto(approvedAgent);
     }
@@ -376,6 +383,7 @@ public class AgentServiceImpl implements AgentService {
         agent.setUpdatedAt(LocalDateTime.now());
         Agent rejectedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(rejectedAgent.getId());
         log.info("Agent rejected successfully with UID: {}", rejectedAgent.getUid());
         return mapToAgentResponseDto(rejectedAgent);
     }
@@ -391,6 +399,7 @@ public class AgentServiceImpl implements AgentService {
         agent.suspend();
         Agent suspendedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(suspendedAgent.getId());
         log.info("Agent suspended successfully with UID: {}", suspendedAgent.getUid());
         return mapToAgentResponseDto(suspendedAgent);
     }
@@ -406,6 +415,7 @@ public class AgentServiceImpl implements AgentService {
         agent.activate();
         Agent activatedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(activatedAgent.getId());
         log.info("Agent activated successfully with UID: {}", activatedAgent.getUid());
         return mapToAgentResponseDto(activatedAgent);
     }
@@ -421,6 +431,7 @@ public class AgentServiceImpl implements AgentService {
         agent.deactivate();
         Agent deactivatedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(deactivatedAgent.getId());
         log.info("Agent deactivated successfully with UID: {}", deactivatedAgent.getUid());
         return mapToAgentResponseDto(deactivatedAgent);
     }
@@ -437,6 +448,7 @@ public class AgentServiceImpl implements AgentService {
         agent.setUpdatedAt(LocalDateTime.now());
         Agent lockedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(lockedAgent.getId());
         log.info("Agent locked successfully with UID: {}", lockedAgent.getUid());
         return mapToAgentResponseDto(lockedAgent);
     }
@@ -457,6 +469,7 @@ public class AgentServiceImpl implements AgentService {
         
         Agent updatedAgent = agentRepository.save(agent);
 
+        agentPrincipalResolver.evictAgent(updatedAgent.getId());
         log.info("Agent status updated successfully with UID: {}", updatedAgent.getUid());
         return mapToAgentResponseDto(updatedAgent);
     }
@@ -757,13 +770,12 @@ public class AgentServiceImpl implements AgentService {
     }
 
     @Override
-    @Transactional
     public void updateLastActivity(String uid) {
-        Agent agent = agentRepository.findByUid(uid)
+        Long agentId = agentRepository.findIdByUid(uid)
                 .orElseThrow(() -> new ApiException("Agent not found with UID: " + uid, HttpStatus.NOT_FOUND));
 
-        agent.updateLastActivity();
-        agentRepository.save(agent);
+        // Written behind in a batched update
+        activityTracker.touch(ActivityTracker.Activity.AGENT_LAST_ACTIVITY, agentId);
     }
 
     // Statistics and Counting
@@ -861,6 +873,7 @@ public class AgentServiceImpl implements AgentService {
         });
 
         agentRepository.saveAll(agents);
+        agents.forEach(agent -> agentPrincipalResolver.evictAgent(agent.getId()));
         log.info("Bulk status update completed successfully");
     }
 
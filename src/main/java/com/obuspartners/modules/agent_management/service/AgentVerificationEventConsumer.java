@@ -25,9 +25,11 @@ import com.obuspartners.modules.agent_management.repository.AgentRequestReposito
 import com.obuspartners.modules.agent_management.repository.PartnerAgentVerificationRepository;
 import com.obuspartners.modules.common.exception.ApiException;
 import com.obuspartners.modules.common.service.EmailNotificationEventProducer;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
 import com.obuspartners.modules.partner_management.domain.entity.Partner;
 import com.obuspartners.modules.partner_management.repository.PartnerRepository;
 
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -91,6 +93,7 @@ public class AgentVerificationEventConsumer {
         private final EmailNotificationEventProducer emailNotificationEventProducer;
         private final PartnerAgentVerificationRepository partnerAgentVerificationRepository;
         private final PasswordEncoder passwordEncoder;
+        private final UpstreamGuardRegistry upstreamGuardRegistry;
 
         /**
          * Kafka listener for partner agent verification requested events.
@@ -237,12 +240,22 @@ public class AgentVerificationEventConsumer {
                 // Create HTTP entity
                 HttpEntity<MixxAccountInfoRequest> httpEntity = new HttpEntity<>(request, headers);
 
-                // Call MIXX API
+                // Call MIXX API through its circuit breaker and bulkhead; a 4xx is MIXX
+                // rejecting this request, not MIXX failing, so it does not count against the circuit
                 String mixxApiUrl = "https://accessgwtest.tigo.co.tz:8443/accountInfo";
-                ResponseEntity<MixxAccountInfoResponse> response = restTemplate.postForEntity(
-                                mixxApiUrl,
-                                httpEntity,
-                                MixxAccountInfoResponse.class);
+                ResponseEntity<MixxAccountInfoResponse> response;
+                try {
+                        response = upstreamGuardRegistry.guard(UpstreamGuardRegistry.MIXX).execute(
+                                        timeout -> restTemplate.postForEntity(
+                                                        mixxApiUrl,
+                                                        httpEntity,
+                                                        MixxAccountInfoResponse.class),
+                                        result -> result.getStatusCode().is5xxServerError(),
+                                        error -> !(error instanceof HttpClientErrorException));
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ApiException("MIXX verification interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+                }
 
                 if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                         MixxAccountInfoResponse mixxResponse = response.getBody();
@@ -1,6 +1,7 @@
 package com.obuspartners.modules.auth_management.security;
 
 import com.obuspartners.modules.auth_management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +33,8 @@ import java.io.IOException;
 public class LimitedTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenVerifier tokenVerifier;
+    private final StatelessTokenAuthenticator statelessTokenAuthenticator;
     private final UserDetailsService userDetailsService;
 
     // Allowed endpoints for password change scope
@@ -47,23 +50,11 @@ public class LimitedTokenFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
         
-        final String requestTokenHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwtToken = null;
-
-        // Extract token from header
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.debug("Unable to get JWT Token or JWT Token has expired");
-            }
-        }
+        Claims claims = tokenVerifier.verify(request).orElse(null);
 
         // Check if token is limited scope
-        if (username != null && jwtUtil.isLimitedToken(jwtToken)) {
-            String tokenScope = jwtUtil.getTokenScope(jwtToken);
+        if (claims != null && "limited".equals(claims.get("type", String.class))) {
+            String tokenScope = claims.get("scope", String.class);
             
             // Block access to non-allowed endpoints for limited tokens
             if (!isAllowedForScope(request.getRequestURI(), tokenScope)) {
@@ -80,10 +71,17 @@ public class LimitedTokenFilter extends OncePerRequestFilter {
         }
 
         // Continue with normal authentication flow
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && statelessTokenAuthenticator.isSelfContained(claims)) {
+            UsernamePasswordAuthenticationToken authToken = statelessTokenAuthenticator.authenticate(claims);
+            if (authToken != null) {
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        } else if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
 
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (jwtUtil.validateClaims(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,153 @@
+package com.obuspartners.modules.auth_management.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.obuspartners.modules.auth_management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens once per request for all security filters
+ *
+ * The first filter that asks for a request's token verifies it and stores the
+ * outcome as a request attribute; later filters and controllers reuse it.
+ * Recently verified tokens are kept in a small bounded cache until their own
+ * expiry, so repeated calls with the same token skip signature verification.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class TokenVerifier {
+
+    /**
+     * Request attribute holding the verified {@link Claims} of the bearer token
+     */
+    public static final String CLAIMS_ATTRIBUTE = TokenVerifier.class.getName() + ".CLAIMS";
+
+    /**
+     * Request attribute marking that verification already ran for this request
+     */
+    private static final String VERIFIED_ATTRIBUTE = TokenVerifier.class.getName() + ".VERIFIED";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${app.security.token-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, Claims> verifiedTokens;
+
+    public TokenVerifier(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @PostConstruct
+    void init() {
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Verify the bearer token of a request, at most once per request
+     *
+     * @param request the HTTP request
+     * @return the verified claims, or empty when there is no valid bearer token
+     */
+    public Optional<Claims> verify(HttpServletRequest request) {
+        if (request.getAttribute(VERIFIED_ATTRIBUTE) != null) {
+            return Optional.ofNullable((Claims) request.getAttribute(CLAIMS_ATTRIBUTE));
+        }
+
+        String token = extractBearerToken(request);
+        Optional<Claims> claims = token != null ? verify(token) : Optional.empty();
+
+        request.setAttribute(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+        claims.ifPresent(c -> request.setAttribute(CLAIMS_ATTRIBUTE, c));
+        return claims;
+    }
+
+    /**
+     * Verify a token (signature and expiry)
+     *
+     * @param token the raw JWT
+     * @return the verified claims, or empty when the token is invalid or expired
+     */
+    public Optional<Claims> verify(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.getExpiration().after(new Date())) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(token);
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            log.debug("Token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+
+        verifiedTokens.put(token, claims);
+        return Optional.of(claims);
+    }
+
+    /**
+     * Extract the raw bearer token from the Authorization header
+     *
+     * @param request the HTTP request
+     * @return the token, or null when absent
+     */
+    public static String extractBearerToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    /**
+     * Claims verified earlier in this request, if any
+     *
+     * @param request the HTTP request
+     * @return the claims, or null when no token was verified
+     */
+    public static Claims getVerifiedClaims(HttpServletRequest request) {
+        return (Claims) request.getAttribute(CLAIMS_ATTRIBUTE);
+    }
+}
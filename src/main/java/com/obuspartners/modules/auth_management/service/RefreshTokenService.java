@@ -29,6 +29,9 @@ public class RefreshTokenService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionStore tokenVersionStore;
+
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
@@ -80,10 +83,11 @@ public class RefreshTokenService {
     }
 
     /**
-     * Revoke all refresh tokens for a user
+     * Revoke all refresh tokens for a user, and every access token issued to them so far
      */
     public void revokeAllTokensByUser(User user) {
         refreshTokenRepository.revokeAllTokensByUser(user);
+        tokenVersionStore.bump(user.getUsername());
     }
 
     /**
@@ -0,0 +1,119 @@
+package com.obuspartners.modules.auth_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user access token version
+ *
+ * Access tokens carry the version that was current when they were issued.
+ * Bumping the version revokes every token issued before it. Versions live in
+ * Redis and are read through a short-TTL local near-cache, which is
+ * invalidated on all nodes when a version is bumped. When Redis is not
+ * reachable versions bumped on this node are still enforced locally.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class TokenVersionStore {
+
+    static final String INVALIDATION_CHANNEL = "obus:cache:token-version:invalidate";
+
+    private static final String KEY_PREFIX = "obus:auth:token-version:";
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${app.security.token-version.near-cache-ttl-seconds:30}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${app.security.token-version.near-cache-max-size:50000}")
+    private long nearCacheMaxSize;
+
+    private Cache<String, Long> nearCache;
+
+    /** Versions bumped on this node, enforced even when Redis is unavailable */
+    private final ConcurrentHashMap<String, Long> localVersions = new ConcurrentHashMap<>();
+
+    public TokenVersionStore(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                             CacheInvalidationBus invalidationBus) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostConstruct
+    void init() {
+        nearCache = Caffeine.newBuilder()
+            .maximumSize(nearCacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(nearCacheTtlSeconds))
+            .build();
+        invalidationBus.subscribe(INVALIDATION_CHANNEL, nearCache::invalidate);
+    }
+
+    /**
+     * Current token version of a user
+     *
+     * @param username the username (token subject)
+     * @return the current version; 0 if never bumped
+     */
+    public long currentVersion(String username) {
+        return nearCache.get(username, this::loadVersion);
+    }
+
+    /**
+     * Revoke all access tokens issued to a user so far
+     *
+     * @param username the username (token subject)
+     * @return the new version
+     */
+    public long bump(String username) {
+        long newVersion;
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        Long redisVersion = null;
+        if (redisTemplate != null) {
+            try {
+                redisVersion = redisTemplate.opsForValue().increment(KEY_PREFIX + username);
+            } catch (Exception e) {
+                log.warn("Failed to bump token version in Redis for {}: {}", username, e.getMessage());
+            }
+        }
+        if (redisVersion != null) {
+            newVersion = redisVersion;
+            localVersions.merge(username, newVersion, Math::max);
+        } else {
+            newVersion = localVersions.merge(username, 1L, (current, one) -> current + one);
+        }
+
+        nearCache.put(username, newVersion);
+        invalidationBus.publish(INVALIDATION_CHANNEL, username);
+        log.info("Token version bumped to {} for user: {}", newVersion, username);
+        return newVersion;
+    }
+
+    private Long loadVersion(String username) {
+        long local = localVersions.getOrDefault(username, 0L);
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return local;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + username);
+            return value != null ? Math.max(local, Long.parseLong(value)) : local;
+        } catch (Exception e) {
+            log.warn("Failed to read token version from Redis for {}: {}", username, e.getMessage());
+            return local;
+        }
+    }
+}
@@ -2,16 +2,22 @@ package com.obuspartners.modules.auth_management.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -32,8 +38,23 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    public static final String AUTHORITIES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        // Key and parser are immutable and thread-safe; build them once
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String getUsernameFromToken(String token) {
@@ -49,17 +70,13 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    /**
+     * Parse and verify a token, returning all of its claims
+     * 
+     * @throws JwtException if the token is malformed, has an invalid signature or is expired
+     */
+    public Claims getAllClaimsFromToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -67,6 +84,22 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername(), expiration);
     }
 
+    /**
+     * Generate an access token issued at the given time; its expiry is
+     * {@link #getAccessTokenExpiration(Date)} of the same time
+     */
+    public String generateToken(UserDetails userDetails, Date issuedAt) {
+        Map<String, Object> claims = new HashMap<>();
+        return createToken(claims, userDetails.getUsername(), expiration, issuedAt.getTime());
+    }
+
+    /**
+     * Expiry of an access token issued at the given time
+     */
+    public Date getAccessTokenExpiration(Date issuedAt) {
+        return new Date(issuedAt.getTime() + expiration * 1000);
+    }
+
     public String generateLimitedToken(UserDetails userDetails, String scope) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("scope", scope);
@@ -74,6 +107,62 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername(), expiration);
     }
 
+    /**
+     * Generate a self-contained access token carrying the user's authorities
+     * and token version, so requests can be authenticated without loading the user
+     */
+    public String generateToken(UserDetails userDetails, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(AUTHORITIES_CLAIM, authorityNames(userDetails));
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
+        return createToken(claims, userDetails.getUsername(), expiration);
+    }
+
+    /**
+     * Generate a self-contained limited scope token (see {@link #generateToken(UserDetails, long)})
+     */
+    public String generateLimitedToken(UserDetails userDetails, String scope, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("scope", scope);
+        claims.put("type", "limited");
+        claims.put(AUTHORITIES_CLAIM, authorityNames(userDetails));
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
+        return createToken(claims, userDetails.getUsername(), expiration);
+    }
+
+    /**
+     * Authorities carried by a self-contained token
+     *
+     * @return the authorities, or null when the token does not carry them
+     */
+    public List<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+        Object authorities = claims.get(AUTHORITIES_CLAIM);
+        if (!(authorities instanceof List<?> names)) {
+            return null;
+        }
+        List<GrantedAuthority> result = new ArrayList<>(names.size());
+        for (Object name : names) {
+            result.add(new SimpleGrantedAuthority(String.valueOf(name)));
+        }
+        return result;
+    }
+
+    /**
+     * Token version carried by a self-contained token
+     *
+     * @return the version, or null when the token does not carry one
+     */
+    public Long getTokenVersionFromClaims(Claims claims) {
+        Object version = claims.get(TOKEN_VERSION_CLAIM);
+        return version instanceof Number number ? number.longValue() : null;
+    }
+
+    private static List<String> authorityNames(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", "refresh");
@@ -81,11 +170,16 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
+        return createToken(claims, subject, expirationTime, System.currentTimeMillis());
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, Long expirationTime, long issuedAtMillis) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime * 1000))
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(issuedAtMillis))
+                .setExpiration(new Date(issuedAtMillis + expirationTime * 1000))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -101,8 +195,14 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(getAllClaimsFromToken(token), userDetails);
+    }
+
+    /**
+     * Validate already verified claims against a user
+     */
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     /**
@@ -112,7 +212,7 @@ public class JwtUtil {
         try {
             Claims claims = getAllClaimsFromToken(token);
             String tokenType = claims.get("type", String.class);
-            return "refresh".equals(tokenType) && !isTokenExpired(token);
+            return "refresh".equals(tokenType) && !claims.getExpiration().before(new Date());
         } catch (Exception e) {
             return false;
         }
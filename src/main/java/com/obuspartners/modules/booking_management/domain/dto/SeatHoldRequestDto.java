@@ -0,0 +1,43 @@
+package com.obuspartners.modules.booking_management.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for holding seats on a trip
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRequestDto {
+
+    @NotBlank(message = "Bus core system code is required")
+    private String busCoreSystemCode;
+
+    @NotBlank(message = "Schedule ID is required")
+    private String scheduleId;
+
+    @NotBlank(message = "Departure station is required")
+    private String fromStationId;
+
+    @NotBlank(message = "Arrival station is required")
+    private String toStationId;
+
+    @NotNull(message = "Travel date is required")
+    private LocalDate travelDate;
+
+    @NotEmpty(message = "At least one seat is required")
+    private List<Integer> seatNumbers;
+}
@@ -0,0 +1,36 @@
+package com.obuspartners.modules.booking_management.domain.dto;
+
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for seat hold response
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponseDto {
+
+    private String holdId;
+    private SeatHoldStatus status;
+    private String busCoreSystemCode;
+    private String scheduleId;
+    private String fromStationId;
+    private String toStationId;
+    private LocalDate travelDate;
+    private List<Integer> seatNumbers;
+    private Instant createdAt;
+    private Instant expiresAt;
+    private String bookingReference;
+}
@@ -0,0 +1,30 @@
+package com.obuspartners.modules.booking_management.domain.enums;
+
+/**
+ * Seat hold lifecycle
+ *
+ * HELD → CONFIRMING → CONFIRMED, or HELD → RELEASED / EXPIRED; a failed
+ * confirmation goes back from CONFIRMING to HELD.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum SeatHoldStatus {
+    /** Seats are reserved for the agent until the hold expires */
+    HELD,
+    /** The booking is being confirmed with the bus core system, or is booked and its seats not yet sold in Redis */
+    CONFIRMING,
+    /** The bus core system confirmed the booking; the seats are sold */
+    CONFIRMED,
+    /** The agent released the seats */
+    RELEASED,
+    /** The hold ran out before it was confirmed */
+    EXPIRED;
+
+    /**
+     * Whether the hold can no longer change
+     */
+    public boolean isFinal() {
+        return this == CONFIRMED || this == RELEASED || this == EXPIRED;
+    }
+}
@@ -0,0 +1,42 @@
+package com.obuspartners.modules.booking_management.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Application event published when a booking on a trip is confirmed
+ *
+ * Seats on the trip changed, so cached schedule availability for it is
+ * dropped (see ScheduleSearchCache); commissions on the amount are posted to
+ * the partner and agent ledgers (see LedgerService), and the booking is
+ * recorded for daily settlement (see SettlementBookingRecorder).
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingConfirmedEvent {
+
+    private String bookingReference;
+    private String busCoreSystemCode;
+    private String scheduleId;
+    private String fromStationId;
+    private String toStationId;
+    private LocalDate travelDate;
+    private int seats;
+    private Long agentId;
+    private Long partnerId;
+    /** Partner commission rate in percent at the time of booking */
+    private Double partnerCommissionRate;
+    /** Amount charged, or null when the bus core system did not say */
+    private BigDecimal totalAmount;
+    private String currency;
+}
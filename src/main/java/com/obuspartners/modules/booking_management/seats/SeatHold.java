@@ -0,0 +1,116 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Seats of one trip reserved for an agent
+ *
+ * The status only changes by compare-and-set, so expiry, release and
+ * confirmation racing for the same hold are decided exactly once.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public final class SeatHold {
+
+    private final String holdId;
+    private final TripKey trip;
+    private final String fromStationId;
+    private final String toStationId;
+    private final int[] seats;
+    private final String agentPassName;
+    private final Instant createdAt;
+    private final Instant expiresAt;
+    private final AtomicReference<SeatHoldStatus> status = new AtomicReference<>(SeatHoldStatus.HELD);
+
+    private volatile TimingWheel.Timeout expiry;
+    private volatile String bookingReference;
+
+    SeatHold(String holdId, TripKey trip, String fromStationId, String toStationId, int[] seats,
+             String agentPassName, Instant createdAt, Instant expiresAt) {
+        this.holdId = holdId;
+        this.trip = trip;
+        this.fromStationId = fromStationId;
+        this.toStationId = toStationId;
+        this.seats = seats;
+        this.agentPassName = agentPassName;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public TripKey getTrip() {
+        return trip;
+    }
+
+    public String getFromStationId() {
+        return fromStationId;
+    }
+
+    public String getToStationId() {
+        return toStationId;
+    }
+
+    /**
+     * Seat numbers in ascending order
+     */
+    public int[] getSeats() {
+        return seats.clone();
+    }
+
+    public String getAgentPassName() {
+        return agentPassName;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public SeatHoldStatus getStatus() {
+        return status.get();
+    }
+
+    /**
+     * The bus core system's booking reference, once confirmed
+     */
+    public String getBookingReference() {
+        return bookingReference;
+    }
+
+    boolean isPastExpiry(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    boolean transition(SeatHoldStatus from, SeatHoldStatus to) {
+        return status.compareAndSet(from, to);
+    }
+
+    int[] seats() {
+        return seats;
+    }
+
+    void setExpiry(TimingWheel.Timeout expiry) {
+        this.expiry = expiry;
+    }
+
+    void cancelExpiry() {
+        TimingWheel.Timeout timeout = expiry;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    void setBookingReference(String bookingReference) {
+        this.bookingReference = bookingReference;
+    }
+}
@@ -0,0 +1,452 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+import com.obuspartners.modules.common.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds seats on trips for agents, without locks
+ *
+ * <ul>
+ *   <li>Each trip has a {@link SeatMap}; a hold claims its seats there with
+ *       compare-and-set, so contended seats are refused in process</li>
+ *   <li>The claim is then made in Redis ({@link SeatHoldReplicator}), which
+ *       decides between nodes; if another node holds a seat the local claim
+ *       is rolled back</li>
+ *   <li>Every hold gets a timeout on a {@link TimingWheel}; when it fires
+ *       before confirmation the seats are freed</li>
+ *   <li>Confirming a hold first moves its expiry in Redis past the
+ *       confirmation timeout, so no other node can claim the seats
+ *       meanwhile; the seats are sold only if the hold still owns them all</li>
+ *   <li>A booking made while Redis cannot be reached stays CONFIRMING and
+ *       the sale is retried on the wheel until Redis records it</li>
+ *   <li>Holds made on other nodes are mirrored in the local seat maps until
+ *       they are released or expire</li>
+ * </ul>
+ * Hold status changes are compare-and-set on the hold, so expiry, release
+ * and confirmation of the same hold are decided exactly once.
+ *
+ * Settings are under {@code app.booking.holds.}: {@code ttl-seconds} (600),
+ * {@code confirm-timeout-seconds} (120, longer than any confirmation call),
+ * {@code max-seats-per-trip} (128), {@code max-seats-per-hold} (10),
+ * {@code sale-retry-ms} (1000, doubled up to 30s), {@code wheel-tick-ms} (100)
+ * and {@code wheel-size} (512).
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SeatHoldEngine {
+
+    private static final long MAX_SALE_RETRY_MS = 30_000;
+
+    private final SeatHoldReplicator replicator;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<TripKey, SeatMap> trips = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SeatHold> holds = new ConcurrentHashMap<>();
+    /** Holds made on other nodes, by hold ID */
+    private final ConcurrentMap<String, RemoteHold> remoteHolds = new ConcurrentHashMap<>();
+    private final AtomicInteger activeHolds = new AtomicInteger();
+    private final ExecutorService expiryExecutor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("seat-hold-expiry-", 0).factory());
+
+    private TimingWheel wheel;
+    private Counter held;
+    private Counter conflicts;
+    private Counter released;
+    private Counter expired;
+    private Counter confirmed;
+
+    @Value("${app.booking.holds.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${app.booking.holds.confirm-timeout-seconds:120}")
+    private long confirmTimeoutSeconds;
+
+    @Value("${app.booking.holds.max-seats-per-trip:128}")
+    private int maxSeatsPerTrip;
+
+    @Value("${app.booking.holds.max-seats-per-hold:10}")
+    private int maxSeatsPerHold;
+
+    @Value("${app.booking.holds.sale-retry-ms:1000}")
+    private long saleRetryMs;
+
+    @Value("${app.booking.holds.wheel-tick-ms:100}")
+    private long wheelTickMs;
+
+    @Value("${app.booking.holds.wheel-size:512}")
+    private int wheelSize;
+
+    public SeatHoldEngine(SeatHoldReplicator replicator, MeterRegistry meterRegistry) {
+        this.replicator = replicator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel("seat-hold-wheel", Duration.ofMillis(wheelTickMs), wheelSize, expiryExecutor);
+        held = holds("held");
+        conflicts = holds("conflict");
+        released = holds("released");
+        expired = holds("expired");
+        confirmed = holds("confirmed");
+        Gauge.builder("seat.holds.active", activeHolds, AtomicInteger::get)
+            .description("Seat holds on this node not yet confirmed, released or expired")
+            .register(meterRegistry);
+        replicator.subscribe(this::onReplication);
+        log.info("Seat hold engine started (hold TTL {}s, {} seats per trip, wheel {} x {}ms)",
+            holdTtlSeconds, maxSeatsPerTrip, wheelSize, wheelTickMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wheel != null) {
+            wheel.close();
+        }
+        expiryExecutor.shutdownNow();
+    }
+
+    /**
+     * Hold seats on a trip, all or none
+     *
+     * @param trip the trip
+     * @param fromStationId departure station ID
+     * @param toStationId arrival station ID
+     * @param seats seat numbers, from 1
+     * @param agentPassName the agent holding them
+     * @return the hold
+     * @throws ApiException 400 for invalid seats, 409 when a seat is not available
+     */
+    public SeatHold hold(TripKey trip, String fromStationId, String toStationId, int[] seats, String agentPassName) {
+        int[] sorted = normalize(seats);
+        SeatMap seatMap = trips.computeIfAbsent(trip, key -> new SeatMap(maxSeatsPerTrip));
+        int taken = seatMap.tryClaim(sorted);
+        if (taken != SeatMap.CLAIMED) {
+            conflicts.increment();
+            throw new ApiException("Seat " + taken + " is not available", HttpStatus.CONFLICT);
+        }
+
+        String holdId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(holdTtlSeconds);
+        int takenElsewhere;
+        try {
+            takenElsewhere = replicator.claim(trip, holdId, sorted, expiresAt);
+        } catch (RuntimeException e) {
+            seatMap.release(sorted);
+            throw e;
+        }
+        if (takenElsewhere != SeatMap.CLAIMED) {
+            seatMap.release(sorted);
+            conflicts.increment();
+            throw new ApiException("Seat " + takenElsewhere + " is not available", HttpStatus.CONFLICT);
+        }
+
+        SeatHold hold = new SeatHold(holdId, trip, fromStationId, toStationId, sorted, agentPassName, now, expiresAt);
+        holds.put(holdId, hold);
+        activeHolds.incrementAndGet();
+        hold.setExpiry(wheel.schedule(() -> expire(hold), Duration.ofSeconds(holdTtlSeconds)));
+        replicator.publish(new SeatHoldReplicator.Replication(
+            SeatHoldReplicator.Operation.HOLD, trip, holdId, sorted, expiresAt.toEpochMilli()));
+        held.increment();
+        return hold;
+    }
+
+    /**
+     * A hold made on this node
+     *
+     * @param holdId the hold ID
+     * @return the hold, or null when unknown
+     */
+    public SeatHold get(String holdId) {
+        return holdId != null ? holds.get(holdId) : null;
+    }
+
+    /**
+     * Free the seats of a hold that is not being confirmed; the hold is forgotten
+     *
+     * @return false when the hold was no longer HELD
+     */
+    public boolean release(SeatHold hold) {
+        if (!finish(hold, SeatHoldStatus.HELD, SeatHoldStatus.RELEASED)) {
+            return false;
+        }
+        holds.remove(hold.getHoldId());
+        released.increment();
+        return true;
+    }
+
+    /**
+     * Start confirming a hold; it cannot expire or be released until
+     * {@link #completeConfirm} or {@link #abortConfirm}
+     *
+     * The hold's seats are kept in Redis for at least the confirmation
+     * timeout. If Redis already gave a seat to another hold, the hold expires.
+     *
+     * @return false when the hold is not HELD (or has just expired)
+     * @throws ApiException 503 when Redis is configured but cannot be reached; the hold stays HELD
+     */
+    public boolean beginConfirm(SeatHold hold) {
+        Instant now = Instant.now();
+        if (hold.isPastExpiry(now)) {
+            expire(hold);
+            return false;
+        }
+        if (!hold.transition(SeatHoldStatus.HELD, SeatHoldStatus.CONFIRMING)) {
+            return false;
+        }
+
+        Instant confirmBy = now.plusSeconds(confirmTimeoutSeconds);
+        boolean extended;
+        try {
+            extended = !confirmBy.isAfter(hold.getExpiresAt())
+                || replicator.extend(hold.getTrip(), hold.getHoldId(), hold.seats(), confirmBy);
+        } catch (RuntimeException e) {
+            resumeHold(hold);
+            throw e;
+        }
+        if (!extended) {
+            if (finish(hold, SeatHoldStatus.CONFIRMING, SeatHoldStatus.EXPIRED)) {
+                expired.increment();
+                log.info("Hold {} on {} lost its seats in Redis before confirmation", hold.getHoldId(),
+                    hold.getTrip().asString());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The bus core system confirmed the booking: the seats are sold
+     *
+     * When Redis cannot be reached the hold stays CONFIRMING, keeping its
+     * seats on this node, and the sale is retried until Redis records it;
+     * only then is the hold CONFIRMED and the sale published.
+     *
+     * @return false when the hold no longer owned all its seats in Redis; the
+     *         hold is then RELEASED and the booking conflicts with another one
+     */
+    public boolean completeConfirm(SeatHold hold, String bookingReference) {
+        hold.setBookingReference(bookingReference);
+        if (hold.getStatus() != SeatHoldStatus.CONFIRMING) {
+            return hold.getStatus() == SeatHoldStatus.CONFIRMED;
+        }
+        int sold = replicator.sell(hold.getTrip(), hold.getHoldId(), hold.seats());
+        if (sold < 0) {
+            hold.cancelExpiry();
+            retrySale(hold, saleRetryMs);
+            return true;
+        }
+        return sold(hold, sold);
+    }
+
+    /**
+     * Confirmation failed: the hold is HELD again, or expires now if its time is up
+     */
+    public void abortConfirm(SeatHold hold) {
+        if (hold.getStatus() != SeatHoldStatus.CONFIRMING) {
+            return;
+        }
+        if (hold.getExpiresAt().isAfter(Instant.now())) {
+            // Give the seats back their own expiry, which beginConfirm may have moved
+            try {
+                replicator.extend(hold.getTrip(), hold.getHoldId(), hold.seats(), hold.getExpiresAt());
+            } catch (RuntimeException e) {
+                log.warn("Hold {} keeps its seats in Redis until the confirmation timeout: {}",
+                    hold.getHoldId(), e.getMessage());
+            }
+        }
+        resumeHold(hold);
+    }
+
+    /**
+     * Whether a seat is held or sold, as far as this node knows
+     */
+    public boolean isTaken(TripKey trip, int seat) {
+        SeatMap seatMap = trips.get(trip);
+        return seatMap != null && seatMap.isTaken(seat);
+    }
+
+    /**
+     * Drop expired and confirmed holds after an hour, and trips once their travel date has passed
+     */
+    @Scheduled(fixedDelayString = "${app.booking.holds.purge-interval-ms:600000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(1));
+        holds.values().removeIf(hold -> hold.getStatus().isFinal() && hold.getExpiresAt().isBefore(cutoff));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        trips.keySet().removeIf(trip -> trip.travelDate().isBefore(yesterday));
+    }
+
+    private void retrySale(SeatHold hold, long delayMs) {
+        log.warn("Hold {} was booked as {} on {}; marking its seats sold in Redis again in {}ms",
+            hold.getHoldId(), hold.getBookingReference(), hold.getTrip().asString(), delayMs);
+        wheel.schedule(() -> {
+            if (hold.getStatus() != SeatHoldStatus.CONFIRMING) {
+                return;
+            }
+            int sold = replicator.sell(hold.getTrip(), hold.getHoldId(), hold.seats());
+            if (sold < 0) {
+                retrySale(hold, Math.min(delayMs * 2, MAX_SALE_RETRY_MS));
+            } else {
+                sold(hold, sold);
+            }
+        }, Duration.ofMillis(delayMs));
+    }
+
+    /**
+     * Settle a confirmation once Redis answered the sale
+     */
+    private boolean sold(SeatHold hold, int sold) {
+        if (sold < hold.seats().length) {
+            if (finish(hold, SeatHoldStatus.CONFIRMING, SeatHoldStatus.RELEASED)) {
+                conflicts.increment();
+                log.error("Hold {} was booked as {} on {}, but its seats are held by another hold",
+                    hold.getHoldId(), hold.getBookingReference(), hold.getTrip().asString());
+            }
+            return false;
+        }
+        if (!hold.transition(SeatHoldStatus.CONFIRMING, SeatHoldStatus.CONFIRMED)) {
+            return hold.getStatus() == SeatHoldStatus.CONFIRMED;
+        }
+        hold.cancelExpiry();
+        activeHolds.decrementAndGet();
+        replicator.publish(new SeatHoldReplicator.Replication(
+            SeatHoldReplicator.Operation.SALE, hold.getTrip(), hold.getHoldId(), hold.seats(), 0));
+        confirmed.increment();
+        return true;
+    }
+
+    private void expire(SeatHold hold) {
+        if (finish(hold, SeatHoldStatus.HELD, SeatHoldStatus.EXPIRED)) {
+            expired.increment();
+            log.debug("Hold {} on {} expired", hold.getHoldId(), hold.getTrip().asString());
+        }
+    }
+
+    private void resumeHold(SeatHold hold) {
+        if (!hold.transition(SeatHoldStatus.CONFIRMING, SeatHoldStatus.HELD)) {
+            return;
+        }
+        // The timeout may have fired (and been ignored) while confirming
+        Duration left = Duration.between(Instant.now(), hold.getExpiresAt());
+        if (left.isNegative() || left.isZero()) {
+            expire(hold);
+        } else {
+            hold.cancelExpiry();
+            hold.setExpiry(wheel.schedule(() -> expire(hold), left));
+        }
+    }
+
+    private boolean finish(SeatHold hold, SeatHoldStatus from, SeatHoldStatus to) {
+        if (!hold.transition(from, to)) {
+            return false;
+        }
+        hold.cancelExpiry();
+        activeHolds.decrementAndGet();
+        SeatMap seatMap = trips.get(hold.getTrip());
+        if (seatMap != null) {
+            seatMap.release(hold.seats());
+        }
+        replicator.release(hold.getTrip(), hold.getHoldId(), hold.seats());
+        replicator.publish(new SeatHoldReplicator.Replication(
+            SeatHoldReplicator.Operation.RELEASE, hold.getTrip(), hold.getHoldId(), hold.seats(), 0));
+        return true;
+    }
+
+    private void onReplication(SeatHoldReplicator.Replication replication) {
+        switch (replication.operation()) {
+            case HOLD -> {
+                trips.computeIfAbsent(replication.trip(), key -> new SeatMap(maxSeatsPerTrip)).mark(replication.seats());
+                Duration left = Duration.ofMillis(Math.max(0, replication.expiresAtMillis() - System.currentTimeMillis()));
+                RemoteHold remoteHold = new RemoteHold(replication.trip(), replication.seats());
+                remoteHolds.put(replication.holdId(), remoteHold);
+                remoteHold.expiry = wheel.schedule(() -> freeRemote(replication.holdId()), left);
+            }
+            case RELEASE -> freeRemote(replication.holdId());
+            case SALE -> {
+                RemoteHold remoteHold = remoteHolds.remove(replication.holdId());
+                if (remoteHold != null && remoteHold.expiry != null) {
+                    remoteHold.expiry.cancel();
+                }
+                trips.computeIfAbsent(replication.trip(), key -> new SeatMap(maxSeatsPerTrip)).mark(replication.seats());
+            }
+        }
+    }
+
+    private void freeRemote(String holdId) {
+        RemoteHold remoteHold = remoteHolds.remove(holdId);
+        if (remoteHold == null) {
+            return;
+        }
+        if (remoteHold.expiry != null) {
+            remoteHold.expiry.cancel();
+        }
+        SeatMap seatMap = trips.get(remoteHold.trip);
+        if (seatMap != null) {
+            seatMap.release(remoteHold.seats);
+        }
+    }
+
+    /**
+     * Distinct seat numbers in ascending order
+     */
+    private int[] normalize(int[] seats) {
+        if (seats == null || seats.length == 0) {
+            throw new ApiException("At least one seat is required", HttpStatus.BAD_REQUEST);
+        }
+        int[] sorted = Arrays.stream(seats).distinct().sorted().toArray();
+        if (sorted.length > maxSeatsPerHold) {
+            throw new ApiException("At most " + maxSeatsPerHold + " seats can be held at once", HttpStatus.BAD_REQUEST);
+        }
+        if (sorted[0] < 1 || sorted[sorted.length - 1] > maxSeatsPerTrip) {
+            throw new ApiException("Seat numbers must be between 1 and " + maxSeatsPerTrip, HttpStatus.BAD_REQUEST);
+        }
+        return sorted;
+    }
+
+    private Counter holds(String result) {
+        return Counter.builder("seat.holds")
+            .description("Seat hold outcomes")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Seats of a hold made on another node
+     */
+    private static final class RemoteHold {
+
+        private final TripKey trip;
+        private final int[] seats;
+        private volatile TimingWheel.Timeout expiry;
+
+        private RemoteHold(TripKey trip, int[] seats) {
+            this.trip = trip;
+            this.seats = seats;
+        }
+    }
+}
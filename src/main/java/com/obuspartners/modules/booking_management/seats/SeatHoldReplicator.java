@@ -0,0 +1,258 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps seat holds consistent across nodes through Redis
+ *
+ * Redis is the authority: each trip is a hash of seat number to
+ * {@code holdId|expiresAtMillis} ({@code 0} for sold seats), and a Lua
+ * script claims all seats of a hold or none, treating holds past their
+ * expiry as free. A node that dies therefore never leaves seats blocked
+ * beyond the hold TTL. A hold being confirmed has its expiry moved in Redis
+ * first, and its seats are sold only while the hold still owns all of them,
+ * so a confirmation never sells seats another node has claimed since.
+ * Trip keys expire two days after the travel date.
+ *
+ * Holds, releases and sales are also broadcast on {@value #CHANNEL}, so that
+ * other nodes mark the seats in their local {@link SeatMap} and refuse
+ * contended seats without asking Redis.
+ *
+ * Without Redis holds are local to the node. When Redis is configured but
+ * unreachable, new holds are refused rather than risk double holds.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SeatHoldReplicator {
+
+    static final String CHANNEL = "obus:booking:seat-holds";
+
+    private static final String KEY_PREFIX = "obus:seats:";
+    private static final char SEPARATOR = '\n';
+
+    /** ARGV: now, owner value, key expiry (epoch ms), seats...; returns 0 or the first seat held elsewhere */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+        local now = tonumber(ARGV[1])
+        for i = 4, #ARGV do
+          local owner = redis.call('HGET', KEYS[1], ARGV[i])
+          if owner then
+            local expires = tonumber(string.sub(owner, string.find(owner, '|', 1, true) + 1))
+            if expires == 0 or expires > now then return tonumber(ARGV[i]) end
+          end
+        end
+        for i = 4, #ARGV do redis.call('HSET', KEYS[1], ARGV[i], ARGV[2]) end
+        redis.call('PEXPIREAT', KEYS[1], ARGV[3])
+        return 0
+        """, Long.class);
+
+    /** ARGV: hold ID, seats...; only seats still held (not sold) by the hold are freed; returns the number freed */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+        local prefix = ARGV[1] .. '|'
+        local changed = 0
+        for i = 2, #ARGV do
+          local owner = redis.call('HGET', KEYS[1], ARGV[i])
+          if owner and string.sub(owner, 1, #prefix) == prefix and owner ~= prefix .. '0' then
+            redis.call('HDEL', KEYS[1], ARGV[i])
+            changed = changed + 1
+          end
+        end
+        return changed
+        """, Long.class);
+
+    /** ARGV: hold ID, new owner value, seats...; all seats must be held (not sold) by the hold; returns the number changed */
+    private static final RedisScript<Long> TRANSFER_SCRIPT = new DefaultRedisScript<>("""
+        local prefix = ARGV[1] .. '|'
+        for i = 3, #ARGV do
+          local owner = redis.call('HGET', KEYS[1], ARGV[i])
+          if not owner or string.sub(owner, 1, #prefix) ~= prefix or owner == prefix .. '0' then return 0 end
+        end
+        for i = 3, #ARGV do redis.call('HSET', KEYS[1], ARGV[i], ARGV[2]) end
+        return #ARGV - 2
+        """, Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final CacheInvalidationBus invalidationBus;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SeatHoldReplicator(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                              CacheInvalidationBus invalidationBus) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Claim seats for a hold in Redis, all or none
+     *
+     * @return {@link SeatMap#CLAIMED}, or the first seat held by another node
+     * @throws ApiException 503 when Redis is configured but cannot be reached
+     */
+    public int claim(TripKey trip, String holdId, int[] seats, Instant expiresAt) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return SeatMap.CLAIMED;
+        }
+        List<String> args = new ArrayList<>(seats.length + 3);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(holdId + '|' + expiresAt.toEpochMilli());
+        args.add(String.valueOf(keyExpiry(trip)));
+        Arrays.stream(seats).mapToObj(String::valueOf).forEach(args::add);
+        try {
+            Long result = redisTemplate.execute(CLAIM_SCRIPT, List.of(KEY_PREFIX + trip.asString()), args.toArray());
+            return result != null ? result.intValue() : SeatMap.CLAIMED;
+        } catch (Exception e) {
+            log.warn("Could not reach Redis to hold seats on {}: {}", trip.asString(), e.getMessage());
+            throw new ApiException("Seat holds are temporarily unavailable, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Move the expiry of a hold's seats in Redis, all or none
+     *
+     * @return false when a seat is no longer held by the hold, i.e. its time ran out and another hold claimed it
+     * @throws ApiException 503 when Redis is configured but cannot be reached
+     */
+    public boolean extend(TripKey trip, String holdId, int[] seats, Instant expiresAt) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return true;
+        }
+        try {
+            return transfer(redisTemplate, trip, holdId, holdId + '|' + expiresAt.toEpochMilli(), seats) == seats.length;
+        } catch (Exception e) {
+            log.warn("Could not reach Redis to extend hold {}: {}", holdId, e.getMessage());
+            throw new ApiException("Seat holds are temporarily unavailable, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Free a hold's seats in Redis; seats since claimed by another hold, or sold, are left alone
+     */
+    public void release(TripKey trip, String holdId, int[] seats) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        List<String> args = new ArrayList<>(seats.length + 1);
+        args.add(holdId);
+        Arrays.stream(seats).mapToObj(String::valueOf).forEach(args::add);
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + trip.asString()), args.toArray());
+        } catch (Exception e) {
+            log.warn("Could not free seats of hold {} in Redis, they stay held until it expires: {}",
+                holdId, e.getMessage());
+        }
+    }
+
+    /**
+     * Mark a hold's seats sold in Redis, all or none
+     *
+     * @return the number of seats sold: all of them, 0 when a seat is no longer held by the hold,
+     *         or -1 when Redis could not be reached and the seats stay held until the hold's expiry
+     */
+    public int sell(TripKey trip, String holdId, int[] seats) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return seats.length;
+        }
+        try {
+            return transfer(redisTemplate, trip, holdId, holdId + "|0", seats);
+        } catch (Exception e) {
+            log.warn("Could not mark seats of hold {} sold in Redis, they stay held until it expires: {}",
+                holdId, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Tell other nodes about a hold, release or sale
+     */
+    public void publish(Replication replication) {
+        invalidationBus.publish(CHANNEL, nodeId + SEPARATOR + replication.operation().code + SEPARATOR
+            + replication.trip().asString() + SEPARATOR + replication.holdId() + SEPARATOR
+            + Arrays.stream(replication.seats()).mapToObj(String::valueOf).collect(Collectors.joining(","))
+            + SEPARATOR + replication.expiresAtMillis());
+    }
+
+    /**
+     * Receive holds, releases and sales made on other nodes
+     */
+    public void subscribe(Consumer<Replication> listener) {
+        invalidationBus.subscribe(CHANNEL, payload -> {
+            String[] parts = payload.split(String.valueOf(SEPARATOR));
+            if (parts.length != 6 || nodeId.equals(parts[0]) || parts[1].length() != 1) {
+                return;
+            }
+            Operation operation = Operation.of(parts[1].charAt(0));
+            if (operation == null) {
+                return;
+            }
+            int[] seats = Arrays.stream(parts[4].split(",")).mapToInt(Integer::parseInt).toArray();
+            listener.accept(new Replication(operation, TripKey.parse(parts[2]), parts[3], seats, Long.parseLong(parts[5])));
+        });
+    }
+
+    private static int transfer(StringRedisTemplate redisTemplate, TripKey trip, String holdId, String owner,
+                                int[] seats) {
+        List<String> args = new ArrayList<>(seats.length + 2);
+        args.add(holdId);
+        args.add(owner);
+        Arrays.stream(seats).mapToObj(String::valueOf).forEach(args::add);
+        Long changed = redisTemplate.execute(TRANSFER_SCRIPT, List.of(KEY_PREFIX + trip.asString()), args.toArray());
+        return changed != null ? changed.intValue() : 0;
+    }
+
+    private static long keyExpiry(TripKey trip) {
+        return trip.travelDate().plusDays(2).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * What happened to a hold on another node
+     *
+     * @param operation hold, release or sale
+     * @param trip the trip
+     * @param holdId the hold
+     * @param seats its seats
+     * @param expiresAtMillis hold expiry (epoch ms)
+     */
+    public record Replication(Operation operation, TripKey trip, String holdId, int[] seats, long expiresAtMillis) {
+    }
+
+    public enum Operation {
+        HOLD('H'), RELEASE('R'), SALE('S');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        static Operation of(char code) {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Taken seats of one trip, one bit per seat
+ *
+ * Seats are claimed all-or-nothing without locks: the words covering the
+ * seats are updated in ascending order with compare-and-set, and if a seat
+ * turns out to be taken the words already updated are rolled back. Two
+ * claims can therefore never both get a seat. While a claim is being rolled
+ * back its seats look taken, so a racing claim can be refused for a seat
+ * that ends up free; callers report that as "not available" like any other
+ * conflict.
+ *
+ * Seats are numbered from 1.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public final class SeatMap {
+
+    /** Returned by {@link #tryClaim} when all seats were claimed */
+    public static final int CLAIMED = 0;
+
+    private final int capacity;
+    private final AtomicLongArray words;
+
+    public SeatMap(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Claim all of the seats or none
+     *
+     * @param seats distinct seat numbers in ascending order
+     * @return {@link #CLAIMED}, or the first seat found taken
+     */
+    public int tryClaim(int[] seats) {
+        int i = 0;
+        while (i < seats.length) {
+            int word = index(seats[i]) >>> 6;
+            long mask = 0;
+            int end = i;
+            while (end < seats.length && index(seats[end]) >>> 6 == word) {
+                mask |= 1L << index(seats[end]);
+                end++;
+            }
+            while (true) {
+                long current = words.get(word);
+                long taken = current & mask;
+                if (taken != 0) {
+                    rollBack(seats, i);
+                    return (word << 6) + Long.numberOfTrailingZeros(taken) + 1;
+                }
+                if (words.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+            }
+            i = end;
+        }
+        return CLAIMED;
+    }
+
+    /**
+     * Mark seats taken whatever their state (holds decided elsewhere)
+     *
+     * @param seats seat numbers
+     */
+    public void mark(int[] seats) {
+        update(seats, seats.length, true);
+    }
+
+    /**
+     * Free seats
+     *
+     * @param seats seat numbers
+     */
+    public void release(int[] seats) {
+        update(seats, seats.length, false);
+    }
+
+    public boolean isTaken(int seat) {
+        int index = index(seat);
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Number of taken seats
+     */
+    public int takenCount() {
+        int count = 0;
+        for (int word = 0; word < words.length(); word++) {
+            count += Long.bitCount(words.get(word));
+        }
+        return count;
+    }
+
+    /**
+     * Free the first {@code count} seats of a claim that hit a taken seat
+     */
+    private void rollBack(int[] seats, int count) {
+        update(seats, count, false);
+    }
+
+    private void update(int[] seats, int count, boolean take) {
+        for (int i = 0; i < count; i++) {
+            int index = index(seats[i]);
+            int word = index >>> 6;
+            long bit = 1L << index;
+            while (true) {
+                long current = words.get(word);
+                long updated = take ? current | bit : current & ~bit;
+                if (current == updated || words.compareAndSet(word, current, updated)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private int index(int seat) {
+        if (seat < 1 || seat > capacity) {
+            throw new IllegalArgumentException("Seat " + seat + " is outside 1.." + capacity);
+        }
+        return seat - 1;
+    }
+}
@@ -0,0 +1,174 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of short timeouts
+ *
+ * Scheduling only appends to a lock-free queue; one worker thread advances
+ * the wheel every tick, moves new timeouts into their slot and hands the
+ * expired ones to an executor. Cancelling just flags the timeout, and the
+ * worker drops it when its slot comes round. Cost per timeout is constant,
+ * unlike one scheduled task per timeout, and timeouts fire up to one tick
+ * late.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+public final class TimingWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final Queue<Timeout>[] slots;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Executor executor;
+    private final Thread worker;
+    private final long startNanos = System.nanoTime();
+
+    private volatile boolean running = true;
+
+    /** Ticks processed so far; only the worker writes it */
+    private long tick;
+
+    /**
+     * @param name worker thread name
+     * @param tickDuration resolution of the wheel
+     * @param wheelSize number of slots, rounded up to a power of two
+     * @param executor runs the expired tasks
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(String name, Duration tickDuration, int wheelSize, Executor executor) {
+        this.tickNanos = Math.max(1, tickDuration.toNanos());
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+        this.worker = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Run a task after a delay
+     *
+     * @param task the task, run on the executor
+     * @param delay how long from now
+     * @return handle to cancel the timeout with
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, delay.toNanos()));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Number of timeouts not yet fired or dropped, approximately
+     */
+    public int size() {
+        int size = pending.size();
+        for (Queue<Timeout> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+                continue;
+            }
+            try {
+                transferPending();
+                expire(slots[(int) (tick & mask)]);
+            } catch (RuntimeException e) {
+                log.error("Timing wheel tick failed: {}", e.getMessage(), e);
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * Move newly scheduled timeouts into the slot of the tick they are due at
+     */
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long dueTick = Math.max(tick, timeout.deadlineNanos / tickNanos);
+            timeout.remainingRounds = (dueTick - tick) / slots.length;
+            slots[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> slot) {
+        Iterator<Timeout> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                if (timeout.fired.compareAndSet(false, true)) {
+                    executor.execute(timeout.task);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * A scheduled task
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicBoolean fired = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        /** Full turns of the wheel left; only the worker touches it */
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancel the task unless it has already been handed to the executor
+         *
+         * @return true when the task will not run
+         */
+        public boolean cancel() {
+            cancelled = true;
+            return fired.compareAndSet(false, true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
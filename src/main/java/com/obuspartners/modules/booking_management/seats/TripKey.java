@@ -0,0 +1,33 @@
+package com.obuspartners.modules.booking_management.seats;
+
+import java.time.LocalDate;
+
+/**
+ * One departure of one bus core system
+ *
+ * @param busCoreSystemCode bus core system code
+ * @param scheduleId the trip's ID in that bus core system
+ * @param travelDate travel date
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record TripKey(String busCoreSystemCode, String scheduleId, LocalDate travelDate) {
+
+    /**
+     * String form, used in Redis keys and replication messages
+     */
+    public String asString() {
+        return busCoreSystemCode + ':' + scheduleId + ':' + travelDate;
+    }
+
+    /**
+     * Parse the form written by {@link #asString()}
+     */
+    public static TripKey parse(String value) {
+        int last = value.lastIndexOf(':');
+        int first = value.indexOf(':');
+        return new TripKey(value.substring(0, first), value.substring(first + 1, last),
+            LocalDate.parse(value.substring(last + 1)));
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Booking Management Seats Package
+ * 
+ * This package contains the seat-hold engine: per-trip seat bitmaps claimed
+ * with compare-and-set, hold expiry on a timing wheel, and replication of
+ * holds between nodes through Redis.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.booking_management.seats;
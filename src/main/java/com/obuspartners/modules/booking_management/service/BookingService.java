@@ -1,5 +1,49 @@
 package com.obuspartners.modules.booking_management.service;
 
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldRequestDto;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldResponseDto;
+
+/**
+ * Service interface for seat holds and their confirmation as bookings
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
 public interface BookingService {
 
+    /**
+     * Hold seats on a trip of one of the agent's bus core systems
+     * 
+     * @param agentPassName the agent's pass name
+     * @param request the trip and seats
+     * @return the hold
+     */
+    SeatHoldResponseDto holdSeats(String agentPassName, SeatHoldRequestDto request);
+
+    /**
+     * Get one of the agent's holds
+     * 
+     * @param agentPassName the agent's pass name
+     * @param holdId the hold ID
+     * @return the hold
+     */
+    SeatHoldResponseDto getHold(String agentPassName, String holdId);
+
+    /**
+     * Book the held seats on the bus core system
+     * 
+     * @param agentPassName the agent's pass name
+     * @param holdId the hold ID
+     * @return the confirmed hold, with the bus core system's booking reference
+     */
+    SeatHoldResponseDto confirmHold(String agentPassName, String holdId);
+
+    /**
+     * Release the held seats
+     * 
+     * @param agentPassName the agent's pass name
+     * @param holdId the hold ID
+     * @return the released hold
+     */
+    SeatHoldResponseDto releaseHold(String agentPassName, String holdId);
 }
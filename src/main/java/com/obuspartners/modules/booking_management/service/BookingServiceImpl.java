@@ -0,0 +1,212 @@
+package com.obuspartners.modules.booking_management.service;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.agent_management.service.AgentBusCoreSystemService;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldRequestDto;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldResponseDto;
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.booking_management.seats.SeatHold;
+import com.obuspartners.modules.booking_management.seats.SeatHoldEngine;
+import com.obuspartners.modules.booking_management.seats.TripKey;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.partner_integration.bookings.BookingConfirmation;
+import com.obuspartners.modules.partner_integration.bookings.BookingProvider;
+import com.obuspartners.modules.partner_integration.bookings.BookingReceipt;
+import com.obuspartners.modules.partner_integration.bookings.BookingRejectedException;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuard;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of BookingService on the seat-hold engine
+ *
+ * Holds are kept by {@link SeatHoldEngine}. Confirmation marks the hold
+ * CONFIRMING (so it cannot expire meanwhile), books it through the first
+ * {@link BookingProvider} supporting the bus core system, guarded like
+ * schedule searches ({@code bms-<code>}), and publishes a
+ * {@link BookingConfirmedEvent}. If the system fails the hold is HELD again
+ * and can be confirmed again; the hold ID is sent as reference so a retry
+ * does not book twice. If the system refuses, the seats are released. If
+ * the seats were taken on another node while the system was booking them,
+ * the confirmation answers 409 and no event is published.
+ *
+ * Seats are exclusive across nodes, but a hold is kept by the node that
+ * created it: requests for a hold must reach that node (agent affinity at
+ * the load balancer), other nodes answer 404.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingServiceImpl implements BookingService {
+
+    private static final String UPSTREAM_PREFIX = "bms-";
+
+    private final SeatHoldEngine seatHoldEngine;
+    private final AgentBusCoreSystemService agentBusCoreSystemService;
+    private final List<BookingProvider> bookingProviders;
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public SeatHoldResponseDto holdSeats(String agentPassName, SeatHoldRequestDto request) {
+        assignment(agentPassName, request.getBusCoreSystemCode());
+        int[] seats = request.getSeatNumbers().stream()
+            .mapToInt(seat -> seat != null ? seat : 0)
+            .toArray();
+        SeatHold hold = seatHoldEngine.hold(
+            new TripKey(request.getBusCoreSystemCode(), request.getScheduleId(), request.getTravelDate()),
+            request.getFromStationId(), request.getToStationId(), seats, agentPassName);
+        log.info("Agent {} holds seats {} on {} ({})", agentPassName, Arrays.toString(hold.getSeats()),
+            hold.getTrip().asString(), hold.getHoldId());
+        return toDto(hold);
+    }
+
+    @Override
+    public SeatHoldResponseDto getHold(String agentPassName, String holdId) {
+        return toDto(ownHold(agentPassName, holdId));
+    }
+
+    @Override
+    public SeatHoldResponseDto confirmHold(String agentPassName, String holdId) {
+        SeatHold hold = ownHold(agentPassName, holdId);
+        if (hold.getStatus() == SeatHoldStatus.CONFIRMED
+                || (hold.getStatus() == SeatHoldStatus.CONFIRMING && hold.getBookingReference() != null)) {
+            // Booked already; a CONFIRMING hold is still having its seats marked sold
+            return toDto(hold);
+        }
+        if (!seatHoldEngine.beginConfirm(hold)) {
+            throw notHeld(hold);
+        }
+
+        String code = hold.getTrip().busCoreSystemCode();
+        AgentBusCoreSystem assignment;
+        BookingReceipt receipt;
+        try {
+            assignment = assignment(agentPassName, code);
+            BookingProvider provider = bookingProviders.stream()
+                .filter(candidate -> candidate.supports(assignment.getBusCoreSystem()))
+                .findFirst()
+                .orElseThrow(() -> new ApiException("Booking is not supported on " + code, HttpStatus.NOT_IMPLEMENTED));
+            BookingConfirmation confirmation = new BookingConfirmation(hold.getHoldId(), hold.getTrip().scheduleId(),
+                hold.getFromStationId(), hold.getToStationId(), hold.getTrip().travelDate(),
+                Arrays.stream(hold.getSeats()).boxed().toList());
+
+            // A refusal is an answer, not a failure of the system, so it does not count towards the circuit
+            UpstreamGuard guard = upstreamGuardRegistry.guard(UPSTREAM_PREFIX + code.toLowerCase(Locale.ROOT));
+            AgentBusCoreSystem agentSystem = assignment;
+            ConfirmResult result = guard.execute(timeout -> {
+                try {
+                    return new ConfirmResult(provider.confirm(agentSystem, confirmation, timeout), null);
+                } catch (BookingRejectedException e) {
+                    return new ConfirmResult(null, e);
+                }
+            });
+            if (result.rejection() != null) {
+                throw result.rejection();
+            }
+            receipt = result.receipt();
+        } catch (BookingRejectedException e) {
+            seatHoldEngine.abortConfirm(hold);
+            seatHoldEngine.release(hold);
+            log.info("{} refused hold {}: {}", code, hold.getHoldId(), e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            seatHoldEngine.abortConfirm(hold);
+            log.warn("Booking hold {} on {} failed: {}", hold.getHoldId(), code, e.getMessage());
+            throw new ApiException("Booking failed on " + code + ", please retry", HttpStatus.BAD_GATEWAY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            seatHoldEngine.abortConfirm(hold);
+            throw new ApiException("Booking was interrupted, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            seatHoldEngine.abortConfirm(hold);
+            throw e;
+        }
+
+        String reference = receipt.reference();
+        if (!seatHoldEngine.completeConfirm(hold, reference)) {
+            throw new ApiException("Seats of hold " + hold.getHoldId() + " were taken while confirming; booking "
+                + reference + " on " + code + " must be cancelled", HttpStatus.CONFLICT);
+        }
+        eventPublisher.publishEvent(BookingConfirmedEvent.builder()
+            .bookingReference(reference)
+            .busCoreSystemCode(code)
+            .scheduleId(hold.getTrip().scheduleId())
+            .fromStationId(hold.getFromStationId())
+            .toStationId(hold.getToStationId())
+            .travelDate(hold.getTrip().travelDate())
+            .seats(hold.getSeats().length)
+            .agentId(assignment.getAgent().getId())
+            .partnerId(assignment.getAgent().getPartner().getId())
+            .partnerCommissionRate(assignment.getAgent().getPartner().getCommissionRate())
+            .totalAmount(receipt.totalAmount())
+            .currency(receipt.currency())
+            .build());
+        log.info("Hold {} confirmed on {}: booking {}", hold.getHoldId(), code, reference);
+        return toDto(hold);
+    }
+
+    @Override
+    public SeatHoldResponseDto releaseHold(String agentPassName, String holdId) {
+        SeatHold hold = ownHold(agentPassName, holdId);
+        if (!seatHoldEngine.release(hold)) {
+            throw notHeld(hold);
+        }
+        return toDto(hold);
+    }
+
+    private AgentBusCoreSystem assignment(String agentPassName, String busCoreSystemCode) {
+        return agentBusCoreSystemService.getActiveAssignmentsByAgentPassName(agentPassName).stream()
+            .filter(assignment -> assignment.getBusCoreSystem().getCode().equals(busCoreSystemCode))
+            .findFirst()
+            .orElseThrow(() -> new ApiException("Agent is not assigned to bus core system " + busCoreSystemCode,
+                HttpStatus.FORBIDDEN));
+    }
+
+    private SeatHold ownHold(String agentPassName, String holdId) {
+        SeatHold hold = seatHoldEngine.get(holdId);
+        if (hold == null || !hold.getAgentPassName().equals(agentPassName)) {
+            throw new ApiException("Hold not found: " + holdId, HttpStatus.NOT_FOUND);
+        }
+        return hold;
+    }
+
+    private static ApiException notHeld(SeatHold hold) {
+        SeatHoldStatus status = hold.getStatus();
+        return status == SeatHoldStatus.EXPIRED
+            ? new ApiException("Hold has expired", HttpStatus.GONE)
+            : new ApiException("Hold is " + status, HttpStatus.CONFLICT);
+    }
+
+    private static SeatHoldResponseDto toDto(SeatHold hold) {
+        return SeatHoldResponseDto.builder()
+            .holdId(hold.getHoldId())
+            .status(hold.getStatus())
+            .busCoreSystemCode(hold.getTrip().busCoreSystemCode())
+            .scheduleId(hold.getTrip().scheduleId())
+            .fromStationId(hold.getFromStationId())
+            .toStationId(hold.getToStationId())
+            .travelDate(hold.getTrip().travelDate())
+            .seatNumbers(Arrays.stream(hold.getSeats()).boxed().toList())
+            .createdAt(hold.getCreatedAt())
+            .expiresAt(hold.getExpiresAt())
+            .bookingReference(hold.getBookingReference())
+            .build();
+    }
+
+    private record ConfirmResult(BookingReceipt receipt, BookingRejectedException rejection) {
+    }
+}
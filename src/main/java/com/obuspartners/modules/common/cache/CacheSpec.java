@@ -0,0 +1,62 @@
+package com.obuspartners.modules.common.cache;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and TTL settings of one named cache
+ *
+ * Built-in defaults can be overridden per cache with
+ * {@code app.cache.<cacheName>.maximum-size}, {@code .local-ttl-seconds}
+ * and {@code .remote-ttl-seconds}; unknown caches use {@code app.cache.default.*}.
+ *
+ * @param maximumSize maximum number of entries held in process
+ * @param localTtl how long an entry is served from process memory before re-reading Redis
+ * @param remoteTtl how long an entry lives in Redis
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record CacheSpec(long maximumSize, Duration localTtl, Duration remoteTtl) {
+
+    public static final String DEFAULT = "default";
+
+    /**
+     * Built-in settings; stationCache lives long in Redis because StationServiceImpl serves it stale on errors,
+     * and scheduleCache entries live as long as ScheduleSearchCache keeps timetables (freshness is checked per entry)
+     */
+    static final Map<String, CacheSpec> DEFAULTS = Map.of(
+        DEFAULT, new CacheSpec(10_000, Duration.ofSeconds(60), Duration.ofMinutes(5)),
+        "stationCache", new CacheSpec(16, Duration.ofSeconds(60), Duration.ofHours(24)),
+        "partnerCache", new CacheSpec(10_000, Duration.ofSeconds(60), Duration.ofMinutes(10)),
+        "agentCache", new CacheSpec(50_000, Duration.ofSeconds(60), Duration.ofMinutes(15)),
+        "scheduleCache", new CacheSpec(20_000, Duration.ofMinutes(15), Duration.ofMinutes(15)));
+
+    /**
+     * Names of the caches with built-in settings
+     */
+    public static List<String> knownCacheNames() {
+        return DEFAULTS.keySet().stream().filter(name -> !DEFAULT.equals(name)).sorted().toList();
+    }
+
+    /**
+     * Settings of a cache: configured values over the built-in defaults
+     *
+     * @param environment the Spring environment
+     * @param cacheName the cache name
+     * @return the settings
+     */
+    public static CacheSpec resolve(Environment environment, String cacheName) {
+        CacheSpec fallback = cacheName.equals(DEFAULT)
+            ? DEFAULTS.get(DEFAULT)
+            : DEFAULTS.getOrDefault(cacheName, resolve(environment, DEFAULT));
+        String prefix = "app.cache." + cacheName + ".";
+        return new CacheSpec(
+            environment.getProperty(prefix + "maximum-size", Long.class, fallback.maximumSize()),
+            Duration.ofSeconds(environment.getProperty(prefix + "local-ttl-seconds", Long.class, fallback.localTtl().toSeconds())),
+            Duration.ofSeconds(environment.getProperty(prefix + "remote-ttl-seconds", Long.class, fallback.remoteTtl().toSeconds())));
+    }
+}
@@ -0,0 +1,136 @@
+package com.obuspartners.modules.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Binary Redis value serializer: Jackson Smile, LZ4-compressed above a size threshold
+ *
+ * Every value starts with a format byte so the encoding can change during a
+ * rolling upgrade:
+ * <ul>
+ *   <li>{@code 0x01} Smile</li>
+ *   <li>{@code 0x02} LZ4 block of Smile, preceded by the 4-byte uncompressed length</li>
+ * </ul>
+ * Values written by {@link GenericJackson2JsonRedisSerializer} (JSON, starting
+ * with '{', '[' or '"') are still read, so existing entries stay valid. An
+ * unknown format byte fails with a {@link SerializationException}, which the
+ * cache treats as a miss.
+ *
+ * Type information is embedded as with the JSON serializer, so any cached
+ * object can be read back without knowing its class up front.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT_SMILE = 0x01;
+    static final byte FORMAT_SMILE_LZ4 = 0x02;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ObjectMapper mapper;
+    private final GenericJackson2JsonRedisSerializer legacySerializer;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold encoded size in bytes from which values are compressed
+     */
+    public CompactRedisSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        this.mapper = new ObjectMapper(new SmileFactory());
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        this.legacySerializer = new GenericJackson2JsonRedisSerializer();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile;
+        try {
+            smile = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+
+        if (smile.length >= compressionThreshold) {
+            int maxLength = COMPRESSOR.maxCompressedLength(smile.length);
+            byte[] compressed = new byte[5 + maxLength];
+            int compressedLength = COMPRESSOR.compress(smile, 0, smile.length, compressed, 5, maxLength);
+            if (compressedLength < smile.length) {
+                compressed[0] = FORMAT_SMILE_LZ4;
+                writeInt(compressed, 1, smile.length);
+                return Arrays.copyOf(compressed, 5 + compressedLength);
+            }
+        }
+
+        byte[] result = new byte[1 + smile.length];
+        result[0] = FORMAT_SMILE;
+        System.arraycopy(smile, 0, result, 1, smile.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            switch (bytes[0]) {
+                case FORMAT_SMILE:
+                    return mapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case FORMAT_SMILE_LZ4: {
+                    int length = readInt(bytes, 1);
+                    byte[] smile = new byte[length];
+                    DECOMPRESSOR.decompress(bytes, 5, smile, 0, length);
+                    return mapper.readValue(smile, Object.class);
+                }
+                case '{':
+                case '[':
+                case '"':
+                    return legacySerializer.deserialize(bytes);
+                default:
+                    throw new SerializationException("Unknown cache value format: " + bytes[0]);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof SerializationException serializationException) {
+                throw serializationException;
+            }
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return ((source[offset] & 0xff) << 24) | ((source[offset + 1] & 0xff) << 16)
+            | ((source[offset + 2] & 0xff) << 8) | (source[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,344 @@
+package com.obuspartners.modules.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Spring cache backed by a bounded in-process Caffeine cache (L1) in front
+ * of a shared Redis cache (L2)
+ *
+ * Reads are served from L1 and fall through to L2, then to the value loader;
+ * concurrent misses for one key on a node share one L2 read or load. The L2
+ * read and the loader run outside Caffeine's compute, so a slow Redis call or
+ * loader never holds a lock on the L1 hash bin; the result is put into L1
+ * afterwards unless the key was evicted meanwhile. Writes
+ * and evictions go to L2 first, then L1, and are broadcast so other nodes
+ * drop their L1 copy. When Redis is unavailable the cache keeps working
+ * from L1 only, and the L1 TTL bounds how stale other nodes can get.
+ *
+ * L1 is keyed by the key's string form, as L2 is, so invalidations received
+ * from other nodes match.
+ *
+ * Hits, misses and evictions are counted per level, and value loads are
+ * timed; see {@link #getStats()}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final TwoLevelCacheManager manager;
+
+    // Misses in progress, per L1 key: plain L2 reads and loader calls are tracked apart
+    private final ConcurrentMap<String, CompletableFuture<Object>> remoteReads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    TwoLevelCache(String name,
+                  com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                  Cache remote,
+                  TwoLevelCacheManager manager,
+                  boolean allowNullValues) {
+        super(allowNullValues);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        return stored != null ? stored : loadOnce(remoteReads, localKey, () -> remoteLookup(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        if (stored == null) {
+            stored = loadOnce(loads, localKey, () -> {
+                Object found = remoteLookup(key);
+                if (found != null) {
+                    return found;
+                }
+                T value;
+                long started = System.nanoTime();
+                try {
+                    value = valueLoader.call();
+                    loadSuccesses.increment();
+                } catch (Exception e) {
+                    loadFailures.increment();
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                } finally {
+                    loadNanos.add(System.nanoTime() - started);
+                }
+                if (value == null && !isAllowNullValues()) {
+                    return null;
+                }
+                remotePut(key, value);
+                manager.publishEvict(name, localKey);
+                return toStoreValue(value);
+            });
+        }
+        return (T) fromStoreValue(stored);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        puts.increment();
+        remotePut(key, value);
+        forgetInFlight(localKey(key));
+        local.put(localKey(key), stored);
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        Object stored = toStoreValue(value);
+        puts.increment();
+        forgetInFlight(localKey);
+        if (remote != null && manager.isRemoteAvailable()) {
+            try {
+                ValueWrapper existing = remote.putIfAbsent(key, value);
+                local.put(localKey, existing != null ? toStoreValue(existing.get()) : stored);
+                if (existing == null) {
+                    manager.publishEvict(name, localKey);
+                }
+                return existing;
+            } catch (RuntimeException e) {
+                manager.remoteFailed(name, e);
+            }
+        }
+        ValueWrapper existing = toValueWrapper(local.asMap().putIfAbsent(localKey, stored));
+        if (existing == null) {
+            manager.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        if (remote != null && manager.isRemoteAvailable()) {
+            try {
+                remote.evict(key);
+            } catch (RuntimeException e) {
+                manager.remoteFailed(name, e);
+            }
+        }
+        forgetInFlight(localKey(key));
+        local.invalidate(localKey(key));
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        if (remote != null && manager.isRemoteAvailable()) {
+            try {
+                remote.clear();
+            } catch (RuntimeException e) {
+                manager.remoteFailed(name, e);
+            }
+        }
+        remoteReads.clear();
+        loads.clear();
+        local.invalidateAll();
+        manager.publishClear(name);
+    }
+
+    /**
+     * Drop an entry from L1 only (invalidation received from another node)
+     */
+    void evictLocal(String localKey) {
+        forgetInFlight(localKey);
+        local.invalidate(localKey);
+    }
+
+    /**
+     * Drop all entries from L1 only (invalidation received from another node)
+     */
+    void clearLocal() {
+        remoteReads.clear();
+        loads.clear();
+        local.invalidateAll();
+    }
+
+    /**
+     * Counters since startup
+     */
+    public Stats getStats() {
+        CacheStats local = this.local.stats();
+        return new Stats(name, this.local.estimatedSize(), remote != null,
+            local.hitCount(), local.missCount(), remoteHits.sum(), remoteMisses.sum(),
+            loadSuccesses.sum(), loadFailures.sum(), loadNanos.sum(),
+            puts.sum(), evictions.sum(), local.evictionCount());
+    }
+
+    /**
+     * Run a miss once per key: the first caller runs the supplier and stores a
+     * non-null result in L1, concurrent callers wait for its result
+     *
+     * An eviction while the supplier runs removes the in-flight entry, and the
+     * result is then returned to the waiting callers but not stored.
+     */
+    private Object loadOnce(ConcurrentMap<String, CompletableFuture<Object>> inFlight, String localKey,
+                            Supplier<Object> supplier) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        Object stored;
+        try {
+            // A load that finished between our L1 miss and registering this one
+            stored = local.asMap().get(localKey);
+            if (stored == null) {
+                stored = supplier.get();
+            }
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(localKey, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+        Object result = stored;
+        inFlight.computeIfPresent(localKey, (k, current) -> {
+            if (current != load) {
+                return current;
+            }
+            if (result != null) {
+                local.put(localKey, result);
+            }
+            return null;
+        });
+        load.complete(result);
+        return result;
+    }
+
+    private void forgetInFlight(String localKey) {
+        remoteReads.remove(localKey);
+        loads.remove(localKey);
+    }
+
+    private Object remoteLookup(Object key) {
+        if (remote == null || !manager.isRemoteAvailable()) {
+            remoteMisses.increment();
+            return null;
+        }
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return toStoreValue(wrapper.get());
+        } catch (RuntimeException e) {
+            remoteMisses.increment();
+            manager.remoteFailed(name, e);
+            return null;
+        }
+    }
+
+    private void remotePut(Object key, Object value) {
+        if (remote == null || !manager.isRemoteAvailable()) {
+            return;
+        }
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            manager.remoteFailed(name, e);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Cache counters
+     *
+     * @param name cache name
+     * @param size entries in L1
+     * @param remoteEnabled whether the cache has an L2
+     * @param localHits reads served from L1
+     * @param localMisses reads not found in L1
+     * @param remoteHits L1 misses served from L2
+     * @param remoteMisses L1 misses not found in L2 (or with L2 unavailable)
+     * @param loadSuccesses values computed by a value loader
+     * @param loadFailures value loaders that threw
+     * @param totalLoadTimeNanos time spent in value loaders
+     * @param puts explicit writes
+     * @param evictions explicit evictions
+     * @param expirations L1 entries dropped for size or TTL
+     */
+    public record Stats(String name, long size, boolean remoteEnabled,
+                        long localHits, long localMisses, long remoteHits, long remoteMisses,
+                        long loadSuccesses, long loadFailures, long totalLoadTimeNanos,
+                        long puts, long evictions, long expirations) {
+
+        /** Reads answered from either level */
+        @JsonProperty
+        public long hits() {
+            return localHits + remoteHits;
+        }
+
+        /** Reads answered by neither level */
+        @JsonProperty
+        public long misses() {
+            return remoteMisses;
+        }
+
+        @JsonProperty
+        public double hitRatio() {
+            long requests = localHits + localMisses;
+            return requests == 0 ? 0.0 : (double) hits() / requests;
+        }
+
+        @JsonProperty
+        public double averageLoadMillis() {
+            long loads = loadSuccesses + loadFailures;
+            return loads == 0 ? 0.0 : totalLoadTimeNanos / 1_000_000.0 / loads;
+        }
+    }
+}
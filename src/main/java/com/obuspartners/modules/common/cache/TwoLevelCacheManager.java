@@ -0,0 +1,135 @@
+package com.obuspartners.modules.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Cache manager combining a bounded in-process L1 with an optional shared L2
+ *
+ * Each named cache gets a Caffeine L1 sized and expired per its
+ * {@link CacheSpec}, in front of the cache of the same name from the L2
+ * manager (Redis). Without an L2 manager the caches are L1 only.
+ *
+ * Writes and evictions are broadcast on {@value #INVALIDATION_CHANNEL} so that
+ * other nodes drop their L1 copy; a node ignores its own messages. After an
+ * L2 connection failure L2 is bypassed for {@code remoteRetryMillis} instead
+ * of failing every call.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    static final String INVALIDATION_CHANNEL = "obus:cache:invalidate";
+
+    private static final char SEPARATOR = '\n';
+    private static final char OP_EVICT = 'E';
+    private static final char OP_CLEAR = 'C';
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final Function<String, CacheSpec> specs;
+    private final long remoteRetryMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /** Until when L2 is bypassed after a connection failure (epoch ms) */
+    private volatile long remoteSuspendedUntil;
+
+    /**
+     * @param remoteCacheManager L2 caches, or null for L1 only
+     * @param invalidationBus cross-node invalidation
+     * @param specs settings per cache name
+     * @param initialCacheNames caches to create up front
+     * @param remoteRetryMillis how long to bypass L2 after a connection failure
+     */
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationBus invalidationBus,
+                                Function<String, CacheSpec> specs,
+                                Collection<String> initialCacheNames,
+                                long remoteRetryMillis) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.specs = specs;
+        this.remoteRetryMillis = remoteRetryMillis;
+        initialCacheNames.forEach(this::getCache);
+        invalidationBus.subscribe(INVALIDATION_CHANNEL, this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    boolean isRemoteAvailable() {
+        return System.currentTimeMillis() >= remoteSuspendedUntil;
+    }
+
+    void remoteFailed(String cacheName, RuntimeException e) {
+        if (e instanceof DataAccessException) {
+            remoteSuspendedUntil = System.currentTimeMillis() + remoteRetryMillis;
+            log.warn("Redis cache unavailable, serving {} from local memory only for {}ms: {}",
+                cacheName, remoteRetryMillis, e.getMessage());
+        } else {
+            log.warn("Redis cache operation failed for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        invalidationBus.publish(INVALIDATION_CHANNEL, nodeId + SEPARATOR + OP_EVICT + SEPARATOR + cacheName + SEPARATOR + localKey);
+    }
+
+    void publishClear(String cacheName) {
+        invalidationBus.publish(INVALIDATION_CHANNEL, nodeId + SEPARATOR + OP_CLEAR + SEPARATOR + cacheName + SEPARATOR);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        CacheSpec spec = specs.apply(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(spec.maximumSize())
+            .expireAfterWrite(spec.localTtl())
+            .recordStats()
+            .build();
+        Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+        log.debug("Cache {} created (L1 max {} entries, L1 TTL {}, L2 {})", name, spec.maximumSize(), spec.localTtl(),
+            remote != null ? spec.remoteTtl() : "none");
+        // Redis does not store nulls, so null values are only cached when there is no L2
+        return new TwoLevelCache(name, local, remote, this, remote == null);
+    }
+
+    /**
+     * Payload: node ID, operation, cache name and key, separated by newlines
+     */
+    private void onInvalidation(String payload) {
+        String[] parts = payload.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length < 4 || nodeId.equals(parts[0]) || parts[1].length() != 1) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (parts[1].charAt(0) == OP_CLEAR) {
+            cache.clearLocal();
+        } else if (parts[1].charAt(0) == OP_EVICT) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
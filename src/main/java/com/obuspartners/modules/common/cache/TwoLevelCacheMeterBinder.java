@@ -0,0 +1,91 @@
+package com.obuspartners.modules.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Micrometer metrics of a {@link TwoLevelCache}
+ *
+ * Besides the standard cache.gets/puts/evictions/size meters, publishes
+ * per-level gets ({@code cache.level.gets}, tagged level=l1|l2 and
+ * result=hit|miss), value loads ({@code cache.loads} timer and
+ * {@code cache.loads.failed}) and L1 size/TTL evictions ({@code cache.local.expirations}).
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public class TwoLevelCacheMeterBinder extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getStats().size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        return stat(TwoLevelCache.Stats::hits);
+    }
+
+    @Override
+    protected Long missCount() {
+        return stat(TwoLevelCache.Stats::misses);
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return stat(stats -> stats.evictions() + stats.expirations());
+    }
+
+    @Override
+    protected long putCount() {
+        return stat(TwoLevelCache.Stats::puts);
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        levelGets(registry, cache, "l1", "hit", TwoLevelCache.Stats::localHits);
+        levelGets(registry, cache, "l1", "miss", TwoLevelCache.Stats::localMisses);
+        levelGets(registry, cache, "l2", "hit", TwoLevelCache.Stats::remoteHits);
+        levelGets(registry, cache, "l2", "miss", TwoLevelCache.Stats::remoteMisses);
+
+        FunctionTimer.builder("cache.loads", cache,
+                c -> c.getStats().loadSuccesses() + c.getStats().loadFailures(),
+                c -> c.getStats().totalLoadTimeNanos(), TimeUnit.NANOSECONDS)
+            .tags(getTagsWithCacheName())
+            .description("Value loader calls and the time spent in them")
+            .register(registry);
+        FunctionCounter.builder("cache.loads.failed", cache, c -> c.getStats().loadFailures())
+            .tags(getTagsWithCacheName())
+            .description("Value loader calls that threw")
+            .register(registry);
+        FunctionCounter.builder("cache.local.expirations", cache, c -> c.getStats().expirations())
+            .tags(getTagsWithCacheName())
+            .description("In-process entries dropped for size or TTL")
+            .register(registry);
+    }
+
+    private void levelGets(MeterRegistry registry, TwoLevelCache cache, String level, String result,
+                           ToLongFunction<TwoLevelCache.Stats> count) {
+        FunctionCounter.builder("cache.level.gets", cache, c -> count.applyAsLong(c.getStats()))
+            .tags(getTagsWithCacheName()).tag("level", level).tag("result", result)
+            .description("Cache reads per level")
+            .register(registry);
+    }
+
+    private long stat(ToLongFunction<TwoLevelCache.Stats> value) {
+        TwoLevelCache cache = getCache();
+        return cache != null ? value.applyAsLong(cache.getStats()) : 0L;
+    }
+}
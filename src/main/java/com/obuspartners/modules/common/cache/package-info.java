@@ -0,0 +1,11 @@
+/**
+ * Common Cache Package
+ * 
+ * This package contains the two-level (in-process + Redis) Spring cache
+ * implementation shared by all modules.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.common.cache;
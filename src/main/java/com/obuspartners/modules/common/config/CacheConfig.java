@@ -3,11 +3,15 @@ package com.obuspartners.modules.common.config;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 
+import com.obuspartners.modules.common.cache.CacheSpec;
+import com.obuspartners.modules.common.cache.TwoLevelCacheManager;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
 /**
  * Fallback cache configuration for when Redis is not available
  * 
@@ -25,17 +29,13 @@ public class CacheConfig {
     /**
      * Configure fallback cache manager when Redis is not available
      * This will be used automatically when Redis is not running
+     *
+     * Caches are in-process only, but still bounded and expiring per cache
+     * (see {@link CacheSpec}).
      */
     @Bean
-    public CacheManager fallbackCacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        
-        // Configure cache names including station cache
-        cacheManager.setCacheNames(java.util.Arrays.asList("partnerCache", "agentCache", "stationCache"));
-        
-        // Allow dynamic cache creation and null values
-        cacheManager.setAllowNullValues(true);
-        
-        return cacheManager;
+    public CacheManager fallbackCacheManager(CacheInvalidationBus invalidationBus, Environment environment) {
+        return new TwoLevelCacheManager(null, invalidationBus,
+            cacheName -> CacheSpec.resolve(environment, cacheName), CacheSpec.knownCacheNames(), 0);
     }
 }
@@ -0,0 +1,27 @@
+package com.obuspartners.modules.common.config;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.obuspartners.modules.common.cache.TwoLevelCache;
+import com.obuspartners.modules.common.cache.TwoLevelCacheMeterBinder;
+
+/**
+ * Cache metrics configuration
+ *
+ * Lets Spring Boot's cache metrics registrar bind every {@link TwoLevelCache}
+ * (Redis-backed or fallback) to Micrometer, published as cache.* meters
+ * tagged with the cache name.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMeterBinder::new;
+    }
+}
@@ -1,5 +1,7 @@
 package com.obuspartners.modules.common.config;
 
+import com.obuspartners.modules.common.service.DistributedRateLimiter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -13,22 +15,25 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * @version 1.0.0
  */
 @Configuration
+@RequiredArgsConstructor
 public class RateLimitConfig implements WebMvcConfigurer {
 
+    private final DistributedRateLimiter distributedRateLimiter;
+
     /**
      * Configure rate limiting for API endpoints
-     * In production, integrate with Redis-based rate limiting
+     * Limits are shared cluster-wide through Redis
      */
     @Override
     public void addInterceptors(@NonNull InterceptorRegistry registry) {
         // Add rate limiting interceptor for API key validation endpoints
         registry.addInterceptor(rateLimitInterceptor())
-                .addPathPatterns("/api/partner/**")
-                .excludePathPatterns("/api/partner/health", "/api/partner/docs");
+                .addPathPatterns("/partner/**", "/api/partner/**")
+                .excludePathPatterns("/partner/health", "/partner/docs", "/api/partner/health", "/api/partner/docs");
     }
 
     @Bean
     public RateLimitInterceptor rateLimitInterceptor() {
-        return new RateLimitInterceptor();
+        return new RateLimitInterceptor(distributedRateLimiter);
     }
 }
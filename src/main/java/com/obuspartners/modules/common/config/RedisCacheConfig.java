@@ -1,7 +1,9 @@
 package com.obuspartners.modules.common.config;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.cache.CacheManager;
@@ -9,21 +11,29 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.obuspartners.modules.common.cache.CacheSpec;
+import com.obuspartners.modules.common.cache.CompactRedisSerializer;
+import com.obuspartners.modules.common.cache.TwoLevelCacheManager;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
 /**
  * Redis Cache configuration for high-performance caching
  * 
  * Features:
- * - Native TTL support with Redis
- * - JSON serialization for complex objects
- * - Configurable cache TTL per cache name
- * - Connection pooling for better performance
+ * - Two levels: bounded in-process Caffeine cache (L1) in front of Redis (L2)
+ * - Hot reads served from local memory, without a network round trip
+ * - Cross-node L1 invalidation over Redis pub/sub
+ * - Per-cache size and TTL (see {@link CacheSpec}), native TTL in Redis
+ * - Compact binary values (Smile, LZ4 above a size threshold); JSON still selectable
  * - Automatic fallback to in-memory cache when Redis unavailable
  * 
  * @author OBUS Team
@@ -35,42 +45,59 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @ConditionalOnMissingBean(name = "fallbackCacheManager")
 public class RedisCacheConfig {
 
+    @Value("${app.cache.redis-retry-millis:5000}")
+    private long redisRetryMillis;
+
+    /** Redis value encoding: "smile" (binary, see CompactRedisSerializer) or "json" */
+    @Value("${app.cache.value-format:smile}")
+    private String valueFormat;
+
+    @Value("${app.cache.compression-threshold-bytes:1024}")
+    private int compressionThresholdBytes;
+
     /**
-     * Configure Redis cache manager with TTL support
+     * Configure the two-level cache manager
      * 
      * @param connectionFactory Redis connection factory
-     * @return Redis cache manager
+     * @param invalidationBus cross-node invalidation
+     * @param environment per-cache settings
+     * @return two-level cache manager
      */
     @Bean
     @Primary
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                          CacheInvalidationBus invalidationBus,
+                                          Environment environment) {
         
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(5)) // Default 5 minutes TTL
+            .entryTtl(CacheSpec.resolve(environment, CacheSpec.DEFAULT).remoteTtl())
             .serializeKeysWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new StringRedisSerializer()))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
-                .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .fromSerializer(valueSerializer()))
             .disableCachingNullValues();
 
-        // Station cache with 1-hour TTL (3600 seconds)
-        RedisCacheConfiguration stationCacheConfig = defaultConfig
-            .entryTtl(Duration.ofSeconds(3600));
-
-        // Partner cache with 10-minute TTL
-        RedisCacheConfiguration partnerCacheConfig = defaultConfig
-            .entryTtl(Duration.ofMinutes(10));
+        // Redis TTL per known cache (stationCache 24h, partnerCache 10m, agentCache 15m by default)
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        for (String cacheName : CacheSpec.knownCacheNames()) {
+            cacheConfigs.put(cacheName, defaultConfig.entryTtl(CacheSpec.resolve(environment, cacheName).remoteTtl()));
+        }
 
-        // Agent cache with 15-minute TTL
-        RedisCacheConfiguration agentCacheConfig = defaultConfig
-            .entryTtl(Duration.ofMinutes(15));
-
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
-            .withCacheConfiguration("stationCache", stationCacheConfig)
-            .withCacheConfiguration("partnerCache", partnerCacheConfig)
-            .withCacheConfiguration("agentCache", agentCacheConfig)
+            .withInitialCacheConfigurations(cacheConfigs)
             .build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, invalidationBus,
+            cacheName -> CacheSpec.resolve(environment, cacheName), CacheSpec.knownCacheNames(), redisRetryMillis);
+    }
+
+    private RedisSerializer<Object> valueSerializer() {
+        if ("json".equalsIgnoreCase(valueFormat)) {
+            return new GenericJackson2JsonRedisSerializer();
+        }
+        return new CompactRedisSerializer(compressionThresholdBytes);
     }
 }
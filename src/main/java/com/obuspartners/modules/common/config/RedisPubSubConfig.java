@@ -0,0 +1,36 @@
+package com.obuspartners.modules.common.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub configuration
+ *
+ * Provides the shared listener container used to broadcast cache
+ * invalidations between application nodes.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnClass(RedisConnectionFactory.class)
+public class RedisPubSubConfig {
+
+    /**
+     * Shared Redis message listener container
+     *
+     * @param connectionFactory Redis connection factory
+     * @return listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Keep retrying in the background when Redis is down instead of failing startup
+        container.setRecoveryInterval(5000L);
+        return container;
+    }
+}
@@ -0,0 +1,219 @@
+package com.obuspartners.modules.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obuspartners.modules.common.security.ApiKeyAuthenticationFilter;
+import com.obuspartners.modules.common.security.CachedBodyHttpServletRequest;
+import com.obuspartners.modules.common.util.ResponseWrapper;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes POST endpoints safe to retry with an {@code Idempotency-Key} header
+ *
+ * Partner apps retry on mobile network timeouts. A request sent again with
+ * the same key gets the first response back (marked with
+ * {@code Idempotent-Replayed: true}) without running again; a duplicate
+ * sent while the first is still running waits for it. Reusing a key for a
+ * different request (method, path, query or body) is refused with 422.
+ *
+ * Keys are scoped to the validated API key or the authenticated user, so
+ * unauthenticated requests are passed through. Server errors and
+ * transient refusals (401, 403, 408, 429) are not stored, so their retries
+ * run again.
+ *
+ * Settings are under {@code app.idempotency.}: {@code enabled},
+ * {@code paths} (register-self and agent bookings), {@code wait-seconds} (30),
+ * {@code max-request-bytes} and {@code max-response-bytes}.
+ *
+ * Runs after {@link ApiKeyAuthenticationFilter}, which validates the API key
+ * it scopes keys with.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<Integer> NOT_STORED = List.of(401, 403, 408, 429);
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.paths:/partner/v1/agents/register-self,/api/partner/v1/agents/register-self,/partner/v1/agent-api/bookings/**,/api/partner/v1/agent-api/bookings/**}")
+    private List<String> paths;
+
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    @Value("${app.idempotency.max-request-bytes:1048576}")
+    private int maxRequestBytes;
+
+    @Value("${app.idempotency.max-response-bytes:65536}")
+    private int maxResponseBytes;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String requestURI = request.getRequestURI();
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern.trim(), requestURI));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        String scope = scope(request);
+        if (scope == null) {
+            // Not authenticated; left to the authentication layer
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest;
+        try {
+            cachedRequest = request instanceof CachedBodyHttpServletRequest cached
+                ? cached : new CachedBodyHttpServletRequest(request, maxRequestBytes);
+        } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+            return;
+        }
+        String fingerprint = fingerprint(cachedRequest);
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.claim(scope + ":" + idempotencyKey, fingerprint, Duration.ofSeconds(waitSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted");
+            return;
+        }
+
+        switch (claim.outcome()) {
+            case EXECUTE -> execute(cachedRequest, response, filterChain, claim);
+            case REPLAY -> replay(response, claim.response());
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpStatus.CONFLICT,
+                    "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            byte[] body = responseWrapper.getContentAsByteArray();
+            if (status < 500 && !NOT_STORED.contains(status) && body.length <= maxResponseBytes) {
+                store.complete(claim, new StoredResponse(claim.fingerprint(), status, responseWrapper.getContentType(), body));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(claim);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        log.debug("Replaying stored response ({}) for idempotent request", stored.status());
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ResponseWrapper<>(false, status.value(), message, null));
+    }
+
+    /**
+     * Who the key belongs to: the validated API key, else the authenticated user
+     */
+    private static String scope(HttpServletRequest request) {
+        if (request.getAttribute(ApiKeyAuthenticationFilter.API_KEY_INFO_ATTRIBUTE)
+                instanceof PartnerApiKeyService.ApiKeyInfo apiKeyInfo) {
+            return "key:" + apiKeyInfo.getApiKey();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return null;
+    }
+
+    /**
+     * SHA-256 of method, path with query and body
+     */
+    private static String fingerprint(CachedBodyHttpServletRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        String query = request.getQueryString();
+        String target = request.getMethod() + "\n" + request.getRequestURI() + (query != null ? "?" + query : "") + "\n";
+        digest.update(target.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(request.getBody()));
+    }
+}
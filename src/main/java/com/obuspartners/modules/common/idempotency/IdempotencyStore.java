@@ -0,0 +1,306 @@
+package com.obuspartners.modules.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the responses of requests sent with an idempotency key
+ *
+ * The first request with a key claims it and is executed; its response is
+ * then stored with the request fingerprint for {@code window-seconds} (24
+ * hours). A later request with the same key gets that response back, or is
+ * refused when its fingerprint differs. A request arriving while the first
+ * is still running waits for its response instead of running again:
+ * <ul>
+ *   <li>on the same node it waits on the running execution</li>
+ *   <li>on other nodes it polls Redis, where the running execution keeps a
+ *       pending marker for at most {@code in-flight-seconds} (60), so a crashed
+ *       node does not block the key for good</li>
+ * </ul>
+ * Responses are also kept in process. When Redis is unavailable only the
+ * local store applies, so a retry sent to another node may run again.
+ *
+ * Settings are under {@code app.idempotency.}. Claims are counted in
+ * {@code idempotency.requests}, tagged with {@code result} executed, replayed,
+ * mismatch or in_progress.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "obus:idem:";
+    private static final String PENDING = "P\n";
+    private static final String DONE = "D\n";
+
+    /** Replace our pending marker with the response, unless the marker expired and was taken over */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end return 0",
+        Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+        Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    /** Executions running on this node, by key */
+    private final ConcurrentMap<String, Execution> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatches;
+    private final Counter stillInProgress;
+
+    @Value("${app.idempotency.window-seconds:86400}")
+    private long windowSeconds;
+
+    @Value("${app.idempotency.in-flight-seconds:60}")
+    private long inFlightSeconds;
+
+    @Value("${app.idempotency.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${app.idempotency.local-max-size:100000}")
+    private long localMaxSize;
+
+    private Cache<String, StoredResponse> completed;
+
+    public IdempotencyStore(ObjectProvider<StringRedisTemplate> redisTemplateProvider, MeterRegistry meterRegistry) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.mismatches = requests(meterRegistry, "mismatch");
+        this.stillInProgress = requests(meterRegistry, "in_progress");
+    }
+
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+            .build();
+    }
+
+    /**
+     * What to do with a request
+     */
+    public enum Outcome {
+        /** Run the request, then {@link #complete} or {@link #abandon} the claim */
+        EXECUTE,
+        /** Send the stored response */
+        REPLAY,
+        /** The key was used for a different request */
+        MISMATCH,
+        /** The first request is still running after the wait */
+        IN_PROGRESS
+    }
+
+    /**
+     * The answer to {@link #claim}
+     *
+     * @param outcome what to do with the request
+     * @param response the stored response, for REPLAY
+     */
+    public record Claim(Outcome outcome, StoredResponse response, String key, String fingerprint,
+                        String marker, Execution execution) {
+    }
+
+    /**
+     * A request running on this node; local duplicates wait on its response
+     * (null when it was abandoned)
+     */
+    record Execution(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    /**
+     * Claim a key for a request, waiting for a running request with the same key
+     *
+     * @param key the idempotency key, scoped to the caller
+     * @param fingerprint fingerprint of the request
+     * @param maxWait how long to wait for a running request with the same key
+     * @return the claim
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public Claim claim(String key, String fingerprint, Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            StoredResponse done = completed.getIfPresent(key);
+            if (done != null) {
+                return answer(key, fingerprint, done);
+            }
+
+            Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+            Execution running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                Claim claim = claimShared(key, fingerprint, execution, deadline);
+                if (claim != null) {
+                    return claim;
+                }
+                continue;
+            }
+
+            if (!running.fingerprint().equals(fingerprint)) {
+                return mismatch(key, fingerprint);
+            }
+            StoredResponse response;
+            try {
+                response = running.response().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return inProgress(key, fingerprint);
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            if (response != null) {
+                return answer(key, fingerprint, response);
+            }
+            // The running request was abandoned; try to take the key
+        }
+    }
+
+    /**
+     * Store the response of a request that was executed
+     *
+     * @param claim the EXECUTE claim
+     * @param response the response
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        completed.put(claim.key(), response);
+        StringRedisTemplate redisTemplate = claim.marker() != null ? redisTemplateProvider.getIfAvailable() : null;
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.execute(COMPLETE_SCRIPT, List.of(KEY_PREFIX + claim.key()), claim.marker(),
+                    DONE + response.encode(), Long.toString(windowSeconds * 1000));
+            } catch (Exception e) {
+                log.warn("Could not store idempotent response in Redis for key {}: {}", claim.key(), e.getMessage());
+            }
+        }
+        finishLocal(claim.key(), claim.execution(), response);
+    }
+
+    /**
+     * Give up a claim without a response to store (e.g. the request failed
+     * with a server error); the next request with the key runs again
+     *
+     * @param claim the EXECUTE claim
+     */
+    public void abandon(Claim claim) {
+        StringRedisTemplate redisTemplate = claim.marker() != null ? redisTemplateProvider.getIfAvailable() : null;
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + claim.key()), claim.marker());
+            } catch (Exception e) {
+                log.warn("Could not release idempotency key {}, it will expire: {}", claim.key(), e.getMessage());
+            }
+        }
+        finishLocal(claim.key(), claim.execution(), null);
+    }
+
+    /**
+     * Claim the key in Redis once this node holds it
+     *
+     * @return the claim, or null to start over
+     */
+    private Claim claimShared(String key, String fingerprint, Execution execution, long deadline)
+            throws InterruptedException {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return execute(key, fingerprint, null, execution);
+        }
+        String redisKey = KEY_PREFIX + key;
+        String marker = PENDING + UUID.randomUUID() + "\n" + fingerprint;
+        try {
+            while (true) {
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(redisKey, marker, Duration.ofSeconds(inFlightSeconds)))) {
+                    return execute(key, fingerprint, marker, execution);
+                }
+                String current = redisTemplate.opsForValue().get(redisKey);
+                if (current == null) {
+                    continue;
+                }
+                if (current.startsWith(DONE)) {
+                    StoredResponse response = StoredResponse.decode(current.substring(DONE.length()));
+                    completed.put(key, response);
+                    finishLocal(key, execution, response);
+                    return answer(key, fingerprint, response);
+                }
+                // Running on another node
+                if (!current.endsWith("\n" + fingerprint)) {
+                    finishLocal(key, execution, null);
+                    return mismatch(key, fingerprint);
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    finishLocal(key, execution, null);
+                    return inProgress(key, fingerprint);
+                }
+                Thread.sleep(Math.min(pollIntervalMs, remainingMillis));
+            }
+        } catch (InterruptedException e) {
+            finishLocal(key, execution, null);
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key {} checked on this node only: {}", key, e.getMessage());
+            return execute(key, fingerprint, null, execution);
+        }
+    }
+
+    private void finishLocal(String key, Execution execution, StoredResponse response) {
+        inFlight.remove(key, execution);
+        execution.response().complete(response);
+    }
+
+    private Claim execute(String key, String fingerprint, String marker, Execution execution) {
+        executed.increment();
+        return new Claim(Outcome.EXECUTE, null, key, fingerprint, marker, execution);
+    }
+
+    private Claim answer(String key, String fingerprint, StoredResponse response) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            return mismatch(key, fingerprint);
+        }
+        replayed.increment();
+        return new Claim(Outcome.REPLAY, response, key, fingerprint, null, null);
+    }
+
+    private Claim mismatch(String key, String fingerprint) {
+        mismatches.increment();
+        return new Claim(Outcome.MISMATCH, null, key, fingerprint, null, null);
+    }
+
+    private Claim inProgress(String key, String fingerprint) {
+        stillInProgress.increment();
+        return new Claim(Outcome.IN_PROGRESS, null, key, fingerprint, null, null);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.requests")
+            .description("Requests sent with an idempotency key")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.obuspartners.modules.common.idempotency;
+
+import java.util.Base64;
+
+/**
+ * The response recorded for an idempotency key
+ *
+ * @param fingerprint fingerprint of the request that produced it
+ * @param status HTTP status
+ * @param contentType content type, or null
+ * @param body response body
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Encode as {@code fingerprint \n status \n contentType \n base64(body)}
+     */
+    String encode() {
+        return fingerprint + SEPARATOR + status + SEPARATOR + (contentType != null ? contentType : "")
+            + SEPARATOR + Base64.getEncoder().encodeToString(body);
+    }
+
+    /**
+     * Decode a response written with {@link #encode()}
+     *
+     * @throws IllegalArgumentException when malformed
+     */
+    static StoredResponse decode(String encoded) {
+        String[] parts = encoded.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed stored response");
+        }
+        return new StoredResponse(parts[0], Integer.parseInt(parts[1]), parts[2].isEmpty() ? null : parts[2],
+            Base64.getDecoder().decode(parts[3]));
+    }
+}
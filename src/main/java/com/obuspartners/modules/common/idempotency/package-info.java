@@ -0,0 +1,12 @@
+/**
+ * Common Idempotency Package
+ *
+ * This package contains the Idempotency-Key support for POST endpoints:
+ * the store of request fingerprints and responses (Redis + in-process) and
+ * the servlet filter that replays responses to retried requests.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.common.idempotency;
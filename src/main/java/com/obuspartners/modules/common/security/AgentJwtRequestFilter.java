@@ -14,10 +14,14 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.obuspartners.modules.agent_management.service.AgentAuthenticationService;
+import com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal;
+import com.obuspartners.modules.agent_management.service.AgentPrincipalResolver;
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT Request Filter for Agent authentication
@@ -30,83 +34,65 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class AgentJwtRequestFilter extends OncePerRequestFilter {
 
-    private final AgentAuthenticationService agentAuthenticationService;
+    private static final List<SimpleGrantedAuthority> AGENT_AUTHORITIES =
+        Collections.singletonList(new SimpleGrantedAuthority("ROLE_AGENT"));
+
+    private final TokenVerifier tokenVerifier;
+    private final AgentPrincipalResolver agentPrincipalResolver;
+    private final PartnerCredentialsVerifier partnerCredentialsVerifier;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain chain) throws ServletException, IOException {
 
-        log.info("AgentJwtRequestFilter processing request: {}", request.getRequestURI());
+        log.debug("AgentJwtRequestFilter processing request: {}", request.getRequestURI());
 
         // Skip JWT processing if authentication is already set (by other filters)
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            log.info("Authentication already set, skipping AgentJwtRequestFilter");
+            log.debug("Authentication already set, skipping AgentJwtRequestFilter");
             chain.doFilter(request, response);
             return;
         }
 
-        // Extract API Key and Secret for partner validation
-        final String apiKey = request.getHeader("X-API-Key");
-        final String apiSecret = request.getHeader("X-API-Secret");
-        
-        log.info("API Key present: {}, API Secret present: {}", 
-            apiKey != null, apiSecret != null);
-
-        // Extract JWT token for agent authentication
-        final String requestTokenHeader = request.getHeader("Authorization");
-        log.info("Authorization header: {}", requestTokenHeader != null ? "Bearer ***" : "null");
-
-        String jwtToken = null;
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            log.info("JWT token extracted, length: {}", jwtToken.length());
-        } else {
-            log.info("No JWT Token found in request");
-        }
-
-        // Both API key/secret and JWT token are required
-        if (apiKey == null || apiSecret == null) {
-            log.info("Missing API Key or Secret");
-            chain.doFilter(request, response);
+        // Partner credentials (API key with secret, or request signature) must be valid; the API
+        // key filter runs after the security chain and reuses this outcome
+        HttpServletRequest requestToUse = partnerCredentialsVerifier.verify(request);
+        if (PartnerCredentialsVerifier.verifiedApiKey(request).isEmpty()) {
+            log.debug("Missing or invalid partner credentials");
+            chain.doFilter(requestToUse, response);
             return;
         }
 
+        // Extract JWT token for agent authentication
+        final String jwtToken = TokenVerifier.extractBearerToken(request);
         if (jwtToken == null) {
-            log.info("Missing JWT Token");
-            chain.doFilter(request, response);
+            log.debug("Missing JWT Token");
+            chain.doFilter(requestToUse, response);
             return;
         }
 
-        // TODO: Validate API Key and Secret here (partner validation)
-        // For now, we'll assume they're valid and proceed with JWT validation
-        log.info("API Key and Secret validation - TODO: implement partner validation");
-
-        // Validate JWT token and authenticate agent
-        log.info("Validating agent token...");
-        if (agentAuthenticationService.validateAgentToken(jwtToken)) {
-            log.info("Agent token validation successful");
-            var agentResponse = agentAuthenticationService.getAgentFromToken(jwtToken);
+        // Verify the token once per request and resolve the agent (cached per token)
+        Optional<AgentPrincipal> principalOpt = tokenVerifier.verify(request)
+            .flatMap(claims -> agentPrincipalResolver.resolve(claims, jwtToken));
+        if (principalOpt.isPresent() && principalOpt.get().isActive()) {
+            AgentPrincipal principal = principalOpt.get();
+            UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
+                new UsernamePasswordAuthenticationToken(
+                    principal.passName(), null, AGENT_AUTHORITIES);
+            
+            usernamePasswordAuthenticationToken
+                .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             
-            if (agentResponse != null) {
-                log.info("Agent found: {}", agentResponse.getPassName());
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
-                    new UsernamePasswordAuthenticationToken(
-                        agentResponse.getPassName(), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_AGENT")));
-                
-                usernamePasswordAuthenticationToken
-                    .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-                
-                log.info("Agent JWT authentication successful for: {}", agentResponse.getPassName());
-            } else {
-                log.info("Agent response is null");
-            }
+            log.debug("Agent JWT authentication successful for: {}", principal.passName());
+        } else if (principalOpt.isPresent()) {
+            log.debug("Agent {} is not active, status: {}", principalOpt.get().passName(), principalOpt.get().status());
         } else {
-            log.info("Agent token validation failed");
+            log.debug("Agent token validation failed");
         }
         
-        chain.doFilter(request, response);
+        chain.doFilter(requestToUse, response);
     }
 
     @Override
@@ -122,7 +108,7 @@ public class AgentJwtRequestFilter extends OncePerRequestFilter {
             shouldNotFilter = true;
         }
         
-        log.info("AgentJwtRequestFilter shouldNotFilter: {} for URI: {}", shouldNotFilter, requestURI);
+        log.debug("AgentJwtRequestFilter shouldNotFilter: {} for URI: {}", shouldNotFilter, requestURI);
         return shouldNotFilter;
     }
 }
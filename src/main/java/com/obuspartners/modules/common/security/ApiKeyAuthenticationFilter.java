@@ -7,88 +7,79 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.Optional;
 
 /**
  * API Key Authentication Filter
- * Validates API key and secret for partner authentication
+ * Validates API key and secret, or an HMAC request signature, for partner authentication
+ * (through {@link PartnerCredentialsVerifier})
+ * 
+ * Ordered ahead of the other servlet filters so they see the validated key
+ * (e.g. the idempotency filter, which scopes keys by it).
  * 
  * @author OBUS Team
  * @version 1.0.0
  */
 @Slf4j
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
 public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Request attribute holding the validated {@link PartnerApiKeyService.ApiKeyInfo} */
+    public static final String API_KEY_INFO_ATTRIBUTE = ApiKeyAuthenticationFilter.class.getName() + ".API_KEY_INFO";
+
     @Autowired
-    private PartnerApiKeyService partnerApiKeyService;
+    private PartnerCredentialsVerifier partnerCredentialsVerifier;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-        String apiKey = request.getHeader("X-API-Key");
-        String apiSecret = request.getHeader("X-API-Secret");
+        // Agent API calls were verified by AgentJwtRequestFilter already; this reuses that outcome
+        HttpServletRequest requestToUse = partnerCredentialsVerifier.verify(request);
+        PartnerCredentialsVerifier.verifiedApiKey(request).ifPresent(this::authenticate);
 
-        log.debug("API Key Filter - Request URI: {}, API Key: {}, API Secret: {}", 
-                 request.getRequestURI(), apiKey, apiSecret != null ? "***" : "null");
+        filterChain.doFilter(requestToUse, response);
+    }
 
-        if (apiKey != null && apiSecret != null) {
-            try {
-                // Validate the API key and secret using the service
-                Optional<PartnerApiKeyService.ApiKeyInfo> apiKeyInfoOpt = 
-                    partnerApiKeyService.validateApiKeyAndSecret(apiKey, apiSecret);
-                
-                if (apiKeyInfoOpt.isPresent()) {
-                    PartnerApiKeyService.ApiKeyInfo apiKeyInfo = apiKeyInfoOpt.get();
-                    
-                    // Record usage
-                    partnerApiKeyService.recordApiKeyUsage(apiKey);
-                    
-                    // Create authentication token with partner UID (no roles needed for API key auth)
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(
-                            apiKeyInfo.getPartnerUid(),
-                            null,
-                            Collections.emptyList() // No roles - just authenticated
-                        );
-                    
-                    // Add API key info as details for later use
-                    authToken.setDetails(apiKeyInfo);
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.debug("API key authentication successful for partner: {} with key: {}", 
-                             apiKeyInfo.getPartnerUid(), apiKeyInfo.getKeyName());
-                    
-                } else {
-                    log.warn("Invalid API key or secret: {}", apiKey);
-                    // Set specific error message for invalid credentials
-                    request.setAttribute("AUTH_ERROR_MESSAGE", "Invalid API key or secret provided");
-                    request.setAttribute("AUTH_ERROR_TYPE", "INVALID_CREDENTIALS");
-                }
-                
-            } catch (Exception e) {
-                log.error("Error during API key authentication: {}", e.getMessage());
-                // Set specific error message for authentication errors
-                request.setAttribute("AUTH_ERROR_MESSAGE", "API key authentication failed: " + e.getMessage());
-                request.setAttribute("AUTH_ERROR_TYPE", "AUTH_ERROR");
-            }
-        } else {
-            log.debug("No API key or secret provided in headers");
-            // Set specific error message for missing credentials
-            request.setAttribute("AUTH_ERROR_MESSAGE", "API key and secret are required");
-            request.setAttribute("AUTH_ERROR_TYPE", "MISSING_CREDENTIALS");
+    /**
+     * Set the partner authentication for a validated API key, unless an agent
+     * is already authenticated for the request
+     */
+    private void authenticate(PartnerApiKeyService.ApiKeyInfo apiKeyInfo) {
+        // This filter runs after the security chain; keep the agent authenticated there for agent API calls
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        if (current != null && current.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_AGENT".equals(authority.getAuthority()))) {
+            log.debug("API key validated for partner: {}, keeping agent authentication: {}", 
+                     apiKeyInfo.getPartnerUid(), current.getName());
+            return;
         }
-
-        filterChain.doFilter(request, response);
+        
+        // Create authentication token with partner UID (no roles needed for API key auth)
+        UsernamePasswordAuthenticationToken authToken = 
+            new UsernamePasswordAuthenticationToken(
+                apiKeyInfo.getPartnerUid(),
+                null,
+                Collections.emptyList() // No roles - just authenticated
+            );
+        
+        // Add API key info as details for later use
+        authToken.setDetails(apiKeyInfo);
+        
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        log.debug("API key authentication successful for partner: {} with key: {}", 
+                 apiKeyInfo.getPartnerUid(), apiKeyInfo.getKeyName());
     }
 
     @Override
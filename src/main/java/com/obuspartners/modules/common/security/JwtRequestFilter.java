@@ -16,9 +16,13 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.obuspartners.modules.auth_management.security.StatelessTokenAuthenticator;
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
 import com.obuspartners.modules.auth_management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Request Filter
@@ -38,6 +42,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVerifier tokenVerifier;
+
+    @Autowired
+    private StatelessTokenAuthenticator statelessTokenAuthenticator;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain chain) throws ServletException, IOException {
@@ -48,26 +58,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String requestTokenHeader = request.getHeader("Authorization");
-
-        String username = null;
-        String jwtToken = null;
-
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.error("Unable to get JWT Token or JWT Token has expired");
-            }
-        } else {
-            log.debug("No JWT Token found in request");
+        Optional<Claims> claims = tokenVerifier.verify(request);
+        if (claims.isEmpty()) {
+            log.debug("No valid JWT Token found in request");
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims.isPresent() && statelessTokenAuthenticator.isSelfContained(claims.get())) {
+            // Authorities and token version travel in the token; no user lookup needed
+            UsernamePasswordAuthenticationToken authentication = statelessTokenAuthenticator.authenticate(claims.get());
+            if (authentication != null) {
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        } else if (claims.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.get().getSubject());
 
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (jwtUtil.validateClaims(claims.get(), userDetails)) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
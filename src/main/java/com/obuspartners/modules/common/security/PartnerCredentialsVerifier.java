@@ -0,0 +1,123 @@
+package com.obuspartners.modules.common.security;
+
+import com.obuspartners.modules.partner_management.service.ApiKeyUsageMeter;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Partner Credentials Verifier
+ * Validates the API key and secret, or the HMAC request signature, of a request
+ *
+ * Verification runs once per request, in whichever filter asks first (the agent
+ * filter inside the security chain, or the API key filter after it); later calls
+ * reuse the outcome, so a signature nonce is only spent once. A valid key is
+ * metered and kept in {@link ApiKeyAuthenticationFilter#API_KEY_INFO_ATTRIBUTE};
+ * otherwise the reason is left for the authentication entry point.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartnerCredentialsVerifier {
+
+    private static final String VERIFIED_ATTRIBUTE = PartnerCredentialsVerifier.class.getName() + ".VERIFIED";
+
+    private final PartnerApiKeyService partnerApiKeyService;
+    private final RequestSignatureVerifier requestSignatureVerifier;
+    private final ApiKeyUsageMeter apiKeyUsageMeter;
+
+    /**
+     * Verify the partner credentials of a request, unless already done for it
+     *
+     * @param request the request
+     * @return the request to pass on; its body is buffered when the request is signed
+     */
+    public HttpServletRequest verify(HttpServletRequest request) {
+        if (request.getAttribute(VERIFIED_ATTRIBUTE) != null) {
+            return request;
+        }
+        request.setAttribute(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+
+        String apiKey = request.getHeader("X-API-Key");
+        String apiSecret = request.getHeader("X-API-Secret");
+        HttpServletRequest requestToUse = request;
+
+        log.debug("Partner credentials - Request URI: {}, API Key: {}, API Secret: {}, Signed: {}",
+                 request.getRequestURI(), apiKey, apiSecret != null ? "***" : "null", RequestSignatureVerifier.isSigned(request));
+
+        if (apiKey != null && RequestSignatureVerifier.isSigned(request)) {
+            try {
+                // Buffer the body so it can be hashed here and still read by the controller
+                CachedBodyHttpServletRequest cachedRequest =
+                    new CachedBodyHttpServletRequest(request, requestSignatureVerifier.getMaxBodyBytes());
+                requestToUse = cachedRequest;
+
+                Optional<PartnerApiKeyService.ApiKeyInfo> apiKeyInfoOpt = requestSignatureVerifier.verify(cachedRequest);
+                if (apiKeyInfoOpt.isPresent()) {
+                    accept(request, apiKeyInfoOpt.get());
+                } else {
+                    log.warn("Invalid or replayed request signature for API key: {}", apiKey);
+                    request.setAttribute("AUTH_ERROR_MESSAGE", "Invalid, expired or replayed request signature");
+                    request.setAttribute("AUTH_ERROR_TYPE", "INVALID_SIGNATURE");
+                }
+            } catch (Exception e) {
+                log.error("Error during signed request authentication: {}", e.getMessage());
+                request.setAttribute("AUTH_ERROR_MESSAGE", "Request signature authentication failed: " + e.getMessage());
+                request.setAttribute("AUTH_ERROR_TYPE", "AUTH_ERROR");
+            }
+        } else if (apiKey != null && apiSecret != null) {
+            try {
+                // Validate the API key and secret using the service
+                Optional<PartnerApiKeyService.ApiKeyInfo> apiKeyInfoOpt =
+                    partnerApiKeyService.validateApiKeyAndSecret(apiKey, apiSecret);
+
+                if (apiKeyInfoOpt.isPresent()) {
+                    accept(request, apiKeyInfoOpt.get());
+                } else {
+                    log.warn("Invalid API key or secret: {}", apiKey);
+                    // Set specific error message for invalid credentials
+                    request.setAttribute("AUTH_ERROR_MESSAGE", "Invalid API key or secret provided");
+                    request.setAttribute("AUTH_ERROR_TYPE", "INVALID_CREDENTIALS");
+                }
+
+            } catch (Exception e) {
+                log.error("Error during API key authentication: {}", e.getMessage());
+                // Set specific error message for authentication errors
+                request.setAttribute("AUTH_ERROR_MESSAGE", "API key authentication failed: " + e.getMessage());
+                request.setAttribute("AUTH_ERROR_TYPE", "AUTH_ERROR");
+            }
+        } else {
+            log.debug("No API key or secret provided in headers");
+            // Set specific error message for missing credentials
+            request.setAttribute("AUTH_ERROR_MESSAGE", "API key and secret (or request signature) are required");
+            request.setAttribute("AUTH_ERROR_TYPE", "MISSING_CREDENTIALS");
+        }
+
+        return requestToUse;
+    }
+
+    /**
+     * The validated API key of a request, if its partner credentials were verified
+     */
+    public static Optional<PartnerApiKeyService.ApiKeyInfo> verifiedApiKey(HttpServletRequest request) {
+        return request.getAttribute(ApiKeyAuthenticationFilter.API_KEY_INFO_ATTRIBUTE)
+                instanceof PartnerApiKeyService.ApiKeyInfo apiKeyInfo
+            ? Optional.of(apiKeyInfo)
+            : Optional.empty();
+    }
+
+    private void accept(HttpServletRequest request, PartnerApiKeyService.ApiKeyInfo apiKeyInfo) {
+        // Record usage: counted in memory by key ID and flushed in batches, so it survives regeneration
+        apiKeyUsageMeter.record(apiKeyInfo.getApiKeyId());
+
+        // Keep the validated key for later stages (e.g. rate limiting)
+        request.setAttribute(ApiKeyAuthenticationFilter.API_KEY_INFO_ATTRIBUTE, apiKeyInfo);
+    }
+}
@@ -0,0 +1,92 @@
+package com.obuspartners.modules.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Rejects replayed signed requests
+ *
+ * A signed request is accepted only when its timestamp is within the allowed
+ * clock skew and its nonce has not been seen for the same API key inside that
+ * window. Nonces are remembered locally and in Redis (SET NX with expiry) so a
+ * request replayed against another node is rejected too. When Redis is
+ * unavailable only the local check applies.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SignatureReplayGuard {
+
+    private static final String KEY_PREFIX = "obus:auth:nonce:";
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.security.request-signature.max-skew-seconds:300}")
+    private long maxSkewSeconds;
+
+    @Value("${app.security.request-signature.nonce-cache-max-size:1000000}")
+    private long nonceCacheMaxSize;
+
+    private Cache<String, Boolean> seenNonces;
+
+    public SignatureReplayGuard(ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this.redisTemplateProvider = redisTemplateProvider;
+    }
+
+    @PostConstruct
+    void init() {
+        // A nonce must be remembered for as long as its timestamp can still be accepted
+        seenNonces = Caffeine.newBuilder()
+            .maximumSize(nonceCacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(2 * maxSkewSeconds))
+            .build();
+    }
+
+    /**
+     * Whether a request timestamp is within the allowed clock skew
+     *
+     * @param timestampSeconds request timestamp (Unix epoch seconds)
+     * @return true when fresh
+     */
+    public boolean isFresh(long timestampSeconds) {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        return Math.abs(nowSeconds - timestampSeconds) <= maxSkewSeconds;
+    }
+
+    /**
+     * Record a nonce as used
+     *
+     * @param apiKey the API key the request was signed with
+     * @param nonce the request nonce
+     * @return true if the nonce was not used before, false for a replay
+     */
+    public boolean markUsed(String apiKey, String nonce) {
+        String key = apiKey + ":" + nonce;
+        if (seenNonces.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            return false;
+        }
+
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return true;
+        }
+        try {
+            Boolean firstUse = redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + key, "1", Duration.ofSeconds(2 * maxSkewSeconds));
+            return !Boolean.FALSE.equals(firstUse);
+        } catch (Exception e) {
+            log.warn("Nonce replay check skipped in Redis: {}", e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.obuspartners.modules.common.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind tracker for activity timestamps
+ *
+ * Request threads record "row X touched at T" in memory; repeated touches of
+ * the same row are coalesced to the latest time. A scheduled flush writes
+ * each timestamp column with one UPDATE ... SET col = CASE id ... END per
+ * chunk of rows, so hot paths never load, dirty-check or lock an entity just
+ * to move a timestamp. Timestamps are never moved backwards.
+ *
+ * Entries are dropped only after a successful write; a failed flush is
+ * retried on the next run.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ActivityTracker {
+
+    /**
+     * Tracked timestamp columns
+     */
+    public enum Activity {
+        AGENT_LAST_ACTIVITY("agents", "last_activity_date"),
+        SYSTEM_USER_LAST_LOGIN("system_users", "last_login_date"),
+        AGENT_BUS_CORE_LAST_AUTHENTICATION("agent_bus_core_systems", "last_authentication_date"),
+        AGENT_BUS_CORE_LAST_BOOKING("agent_bus_core_systems", "last_booking_date");
+
+        private final String table;
+        private final String column;
+
+        Activity(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.activity-tracker.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Activity, ConcurrentHashMap<Long, LocalDateTime>> pending = new EnumMap<>(Activity.class);
+
+    public ActivityTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Activity activity : Activity.values()) {
+            pending.put(activity, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Record that a row was touched now
+     *
+     * @param activity the timestamp column
+     * @param id the row ID
+     */
+    public void touch(Activity activity, Long id) {
+        touch(activity, id, LocalDateTime.now());
+    }
+
+    /**
+     * Record that a row was touched at a given time
+     *
+     * @param activity the timestamp column
+     * @param id the row ID
+     * @param at when the activity happened
+     */
+    public void touch(Activity activity, Long id, LocalDateTime at) {
+        if (id == null) {
+            return;
+        }
+        pending.get(activity).merge(id, at, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    /**
+     * Write pending timestamps to the database
+     */
+    @Scheduled(fixedDelayString = "${app.activity-tracker.flush-interval-ms:5000}")
+    public void flush() {
+        for (Activity activity : Activity.values()) {
+            flush(activity);
+        }
+    }
+
+    private void flush(Activity activity) {
+        ConcurrentHashMap<Long, LocalDateTime> touched = pending.get(activity);
+        if (touched.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, LocalDateTime>> chunk = new ArrayList<>(Math.min(batchSize, touched.size()));
+        for (Map.Entry<Long, LocalDateTime> entry : touched.entrySet()) {
+            chunk.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (chunk.size() == batchSize) {
+                if (!write(activity, chunk)) {
+                    return;
+                }
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(activity, chunk);
+        }
+    }
+
+    private boolean write(Activity activity, List<Map.Entry<Long, LocalDateTime>> chunk) {
+        StringBuilder sql = new StringBuilder(64 + chunk.size() * 64)
+            .append("UPDATE ").append(activity.table)
+            .append(" SET ").append(activity.column).append(" = CASE id");
+        Object[] args = new Object[chunk.size() * 4];
+        int i = 0;
+        for (Map.Entry<Long, LocalDateTime> entry : chunk) {
+            Timestamp at = Timestamp.valueOf(entry.getValue());
+            sql.append(" WHEN ? THEN GREATEST(COALESCE(").append(activity.column).append(", ?), ?)");
+            args[i++] = entry.getKey();
+            args[i++] = at;
+            args[i++] = at;
+        }
+        sql.append(" ELSE ").append(activity.column).append(" END WHERE id IN (");
+        for (int j = 0; j < chunk.size(); j++) {
+            sql.append(j == 0 ? "?" : ",?");
+            args[i++] = chunk.get(j).getKey();
+        }
+        sql.append(')');
+
+        try {
+            jdbcTemplate.update(sql.toString(), args);
+        } catch (Exception e) {
+            log.warn("Failed to flush {} {} updates, will retry: {}", chunk.size(), activity, e.getMessage());
+            return false;
+        }
+
+        // Only drop entries that were not touched again while flushing
+        ConcurrentHashMap<Long, LocalDateTime> touched = pending.get(activity);
+        for (Map.Entry<Long, LocalDateTime> entry : chunk) {
+            touched.remove(entry.getKey(), entry.getValue());
+        }
+        log.debug("Flushed {} {} updates", chunk.size(), activity);
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
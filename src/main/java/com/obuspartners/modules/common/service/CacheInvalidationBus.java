@@ -0,0 +1,106 @@
+package com.obuspartners.modules.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidation messages to every application node
+ *
+ * Uses Redis pub/sub when Redis is available. Publishing never throws:
+ * when Redis is unreachable the message is only applied locally and the
+ * TTL of the remote caches bounds the staleness.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider;
+
+    public CacheInvalidationBus(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.listenerContainerProvider = listenerContainerProvider;
+    }
+
+    /**
+     * Register a handler for messages published on a channel
+     *
+     * @param channel the channel name
+     * @param handler called with the message payload
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        if (container == null) {
+            log.debug("No Redis listener container, invalidations on {} stay node-local", channel);
+            return;
+        }
+        container.addMessageListener((message, pattern) -> {
+            try {
+                handler.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                log.warn("Error handling invalidation on channel {}: {}", channel, e.getMessage());
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    /**
+     * Publish a message to all nodes (including this one)
+     *
+     * @param channel the channel name
+     * @param payload the message payload
+     */
+    public void publish(String channel, String payload) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            log.warn("Failed to publish invalidation on channel {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * Publish a message once the current transaction commits, or immediately
+     * when no transaction is active
+     *
+     * @param channel the channel name
+     * @param payload the message payload
+     */
+    public void publishAfterCommit(String channel, String payload) {
+        runAfterCommit(() -> publish(channel, payload));
+    }
+
+    /**
+     * Run an action after the current transaction commits, or immediately
+     * when no transaction synchronization is active
+     *
+     * @param action the action to run
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.obuspartners.modules.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived cluster-wide locks in Redis
+ *
+ * A lock is a key set with NX and a TTL, holding a random token; only the
+ * holder of the token can release it, and a crashed holder's lock expires
+ * with its TTL. Locks are advisory: when Redis is unavailable every caller
+ * gets the lock, so callers must still be safe (if wasteful) when two nodes
+ * run the guarded work at once.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class DistributedLock {
+
+    private static final String KEY_PREFIX = "obus:lock:";
+
+    /** Token returned when Redis could not be asked */
+    private static final String LOCAL_TOKEN = "local";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+        Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    public DistributedLock(ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this.redisTemplateProvider = redisTemplateProvider;
+    }
+
+    /**
+     * Try to take a lock without waiting
+     *
+     * @param name the lock name
+     * @param ttl how long the lock is held at most
+     * @return the token to release the lock with, or null when another node holds it
+     */
+    public String tryLock(String name, Duration ttl) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return LOCAL_TOKEN;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("Could not reach Redis for lock {}, continuing without it: {}", name, e.getMessage());
+            return LOCAL_TOKEN;
+        }
+    }
+
+    /**
+     * Release a lock taken with {@link #tryLock}
+     *
+     * @param name the lock name
+     * @param token the token returned by tryLock
+     */
+    public void unlock(String name, String token) {
+        if (token == null || LOCAL_TOKEN.equals(token)) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + name), token);
+        } catch (Exception e) {
+            log.warn("Could not release lock {}, it will expire: {}", name, e.getMessage());
+        }
+    }
+}
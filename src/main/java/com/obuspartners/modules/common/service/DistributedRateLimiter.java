@@ -0,0 +1,316 @@
+package com.obuspartners.modules.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide token-bucket rate limiter
+ *
+ * Each API key has one bucket in Redis holding up to a minute's worth of
+ * tokens and refilling continuously at its per-minute limit. The bucket is
+ * refilled and debited atomically by a Lua script that uses the Redis clock,
+ * so all nodes share one limit regardless of how many are deployed.
+ *
+ * Nodes do not call Redis per request. They lease a small batch of tokens,
+ * sized to roughly {@code lease-millis} worth of the key's rate, and serve
+ * requests from it with a single atomic decrement. When a lease expires its
+ * unused tokens are handed back to the bucket, either with the node's next
+ * lease call or by a periodic sweep for keys that went quiet, so a node
+ * never holds more than one short lease of a key's budget and the nodes
+ * together can still use the full rate. When a bucket is empty the node
+ * remembers it until the next token is due instead of asking Redis again.
+ *
+ * If Redis is unavailable each node falls back to a local bucket with the
+ * same limit until Redis can be reached again.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class DistributedRateLimiter {
+
+    private static final String KEY_PREFIX = "obus:ratelimit:";
+
+    /**
+     * KEYS[1] bucket; ARGV[1] capacity, ARGV[2] refill tokens per ms, ARGV[3] tokens requested,
+     * ARGV[4] unused tokens returned from an expired lease. Returns {granted, tokens left, ms until full, ms until next token}.
+     */
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = listScript(
+        "local capacity = tonumber(ARGV[1])\n" +
+        "local rate = tonumber(ARGV[2])\n" +
+        "local requested = tonumber(ARGV[3])\n" +
+        "local returned = tonumber(ARGV[4])\n" +
+        "local time = redis.call('TIME')\n" +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+        "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+        "local tokens = tonumber(state[1])\n" +
+        "local ts = tonumber(state[2])\n" +
+        "if tokens == nil or ts == nil then tokens = capacity ts = now end\n" +
+        "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) ts = now end\n" +
+        "tokens = math.min(capacity, tokens + returned)\n" +
+        "local granted = math.max(0, math.min(requested, math.floor(tokens)))\n" +
+        "tokens = tokens - granted\n" +
+        "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))\n" +
+        "local untilFull = math.ceil((capacity - tokens) / rate)\n" +
+        "local untilNext = 0\n" +
+        "if tokens < 1 then untilNext = math.ceil((1 - tokens) / rate) end\n" +
+        "redis.call('PEXPIRE', KEYS[1], untilFull + 1000)\n" +
+        "return {granted, math.floor(tokens), untilFull, untilNext}");
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.rate-limit.lease-millis:200}")
+    private long leaseMillis;
+
+    @Value("${app.rate-limit.max-lease-tokens:1000}")
+    private int maxLeaseTokens;
+
+    @Value("${app.rate-limit.redis-retry-millis:5000}")
+    private long redisRetryMillis;
+
+    @Value("${app.rate-limit.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    private Cache<String, Bucket> buckets;
+
+    private Clock clock = Clock.systemUTC();
+
+    /** Until when Redis is skipped after a failure (epoch ms) */
+    private volatile long redisSuspendedUntil;
+
+    public DistributedRateLimiter(ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this.redisTemplateProvider = redisTemplateProvider;
+    }
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+            .maximumSize(maxTrackedKeys)
+            .expireAfterAccess(Duration.ofMinutes(2))
+            .build();
+        log.info("Distributed rate limiter initialized (lease: {}ms, max lease tokens: {})", leaseMillis, maxLeaseTokens);
+    }
+
+    /**
+     * Take one token for an API key
+     *
+     * @param apiKey the API key string
+     * @param limitPerMinute the key's limit
+     * @return the decision with the values for the X-RateLimit-* headers
+     */
+    public Decision tryAcquire(String apiKey, int limitPerMinute) {
+        Bucket bucket = buckets.get(apiKey, Bucket::new);
+        long now = clock.millis();
+
+        if (bucket.limit == limitPerMinute && now < bucket.leaseExpiresAt) {
+            long left = bucket.leased.decrementAndGet();
+            if (left >= 0) {
+                return bucket.allowed(left);
+            }
+        }
+
+        synchronized (bucket) {
+            if (bucket.limit != limitPerMinute) {
+                bucket.reset(limitPerMinute);
+            }
+            if (now < bucket.leaseExpiresAt) {
+                long left = bucket.leased.decrementAndGet();
+                if (left >= 0) {
+                    return bucket.allowed(left);
+                }
+            }
+            if (now < bucket.emptyUntil) {
+                return bucket.rejected(now);
+            }
+            return lease(bucket, limitPerMinute, now);
+        }
+    }
+
+    private Decision lease(Bucket bucket, int limitPerMinute, long now) {
+        int batch = leaseSize(limitPerMinute);
+        long unused = bucket.takeUnused();
+        long[] result = null;
+        if (now >= redisSuspendedUntil) {
+            result = leaseFromRedis(bucket, limitPerMinute, batch, bucket.leasedFromRedis ? unused : 0);
+        }
+        if (result == null) {
+            result = bucket.leaseLocally(limitPerMinute, batch, bucket.leasedFromRedis ? 0 : unused, now);
+            bucket.leasedFromRedis = false;
+        } else {
+            bucket.leasedFromRedis = true;
+        }
+
+        long granted = result[0];
+        bucket.clusterRemaining = result[1];
+        bucket.resetAt = now + result[2];
+        if (granted <= 0) {
+            bucket.leased.set(0);
+            bucket.leaseExpiresAt = 0;
+            bucket.emptyUntil = now + Math.max(1, result[3]);
+            return bucket.rejected(now);
+        }
+        bucket.leased.set(granted - 1);
+        bucket.leaseExpiresAt = now + leaseMillis;
+        bucket.emptyUntil = 0;
+        return bucket.allowed(granted - 1);
+    }
+
+    /**
+     * Hand the unused tokens of expired leases back to the cluster bucket
+     *
+     * Keys that are still busy return them with their next lease; this catches
+     * the keys that stopped receiving requests while holding a lease.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.return-interval-ms:1000}")
+    public void returnExpiredLeases() {
+        long now = clock.millis();
+        for (Bucket bucket : buckets.asMap().values()) {
+            if (bucket.leaseExpiresAt == 0 || now < bucket.leaseExpiresAt || bucket.leased.get() <= 0) {
+                continue;
+            }
+            synchronized (bucket) {
+                if (bucket.leaseExpiresAt == 0 || now < bucket.leaseExpiresAt) {
+                    continue;
+                }
+                long unused = bucket.takeUnused();
+                bucket.leaseExpiresAt = 0;
+                if (unused <= 0) {
+                    continue;
+                }
+                if (!bucket.leasedFromRedis) {
+                    bucket.leaseLocally(bucket.limit, 0, unused, now);
+                } else if (now >= redisSuspendedUntil) {
+                    leaseFromRedis(bucket, bucket.limit, 0, unused);
+                }
+            }
+        }
+    }
+
+    private long[] leaseFromRedis(Bucket bucket, int limitPerMinute, int batch, long returned) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            List<Long> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, bucket.redisKeys,
+                Integer.toString(limitPerMinute), Double.toString(limitPerMinute / 60_000.0), Integer.toString(batch),
+                Long.toString(returned));
+            if (result == null || result.size() < 4) {
+                return null;
+            }
+            return new long[] { result.get(0), result.get(1), result.get(2), result.get(3) };
+        } catch (Exception e) {
+            redisSuspendedUntil = clock.millis() + redisRetryMillis;
+            log.warn("Rate limiter falling back to local buckets for {}ms: {}", redisRetryMillis, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tokens to lease: about lease-millis worth of the key's rate, at least one
+     */
+    private int leaseSize(int limitPerMinute) {
+        long perLease = (long) Math.ceil(limitPerMinute * (double) leaseMillis / 60_000.0);
+        return (int) Math.max(1, Math.min(maxLeaseTokens, perLease));
+    }
+
+    /**
+     * A script returning a list of integers; Lua numbers come back as Long
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> listScript(String script) {
+        DefaultRedisScript<List<Long>> redisScript = new DefaultRedisScript<>(script);
+        redisScript.setResultType((Class<List<Long>>) (Class<?>) List.class);
+        return redisScript;
+    }
+
+    /**
+     * Outcome of a rate limit check
+     *
+     * @param allowed whether the request may proceed
+     * @param limit the key's limit per minute
+     * @param remaining tokens left cluster-wide, as last seen by this node
+     * @param resetAtMillis when the bucket will be full again (epoch ms)
+     * @param retryAfterSeconds seconds until a token is available, when rejected
+     */
+    public record Decision(boolean allowed, int limit, long remaining, long resetAtMillis, long retryAfterSeconds) {
+    }
+
+    /**
+     * Per-key state on this node
+     */
+    private static final class Bucket {
+
+        final List<String> redisKeys;
+        final AtomicLong leased = new AtomicLong();
+        volatile int limit;
+        volatile long leaseExpiresAt;
+        volatile long emptyUntil;
+        volatile long clusterRemaining;
+        volatile long resetAt;
+        volatile boolean leasedFromRedis;
+
+        // Local fallback bucket, guarded by this
+        double localTokens = -1;
+        long localUpdatedAt;
+
+        Bucket(String apiKey) {
+            this.redisKeys = List.of(KEY_PREFIX + apiKey);
+        }
+
+        /**
+         * Take the tokens left in the current lease, guarded by this
+         */
+        long takeUnused() {
+            return Math.max(0, leased.getAndSet(0));
+        }
+
+        void reset(int newLimit) {
+            limit = newLimit;
+            leased.set(0);
+            leaseExpiresAt = 0;
+            emptyUntil = 0;
+            localTokens = -1;
+        }
+
+        Decision allowed(long leasedLeft) {
+            return new Decision(true, limit, clusterRemaining + leasedLeft, resetAt, 0);
+        }
+
+        Decision rejected(long now) {
+            long retryAfter = Math.max(1, (emptyUntil - now + 999) / 1000);
+            return new Decision(false, limit, 0, resetAt, retryAfter);
+        }
+
+        long[] leaseLocally(int limitPerMinute, int batch, long returned, long now) {
+            double rate = limitPerMinute / 60_000.0;
+            if (localTokens < 0) {
+                localTokens = limitPerMinute;
+            } else if (now > localUpdatedAt) {
+                localTokens = Math.min(limitPerMinute, localTokens + (now - localUpdatedAt) * rate);
+            }
+            localTokens = Math.min(limitPerMinute, localTokens + returned);
+            localUpdatedAt = now;
+            long granted = Math.max(0, Math.min(batch, (long) Math.floor(localTokens)));
+            localTokens -= granted;
+            long untilFull = (long) Math.ceil((limitPerMinute - localTokens) / rate);
+            long untilNext = localTokens < 1 ? (long) Math.ceil((1 - localTokens) / rate) : 0;
+            return new long[] { granted, (long) Math.floor(localTokens), untilFull, untilNext };
+        }
+    }
+}
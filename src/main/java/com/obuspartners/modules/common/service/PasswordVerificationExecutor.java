@@ -0,0 +1,111 @@
+package com.obuspartners.modules.common.service;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for password hash verification
+ *
+ * BCrypt checks are CPU-bound and deliberately slow. Running them on request
+ * threads lets a login storm occupy every servlet thread and every core at
+ * once. Here they run on a fixed pool sized to the cores, behind a bounded
+ * queue: when the queue is full a login is rejected immediately with 503
+ * instead of waiting behind work it cannot finish in time.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class PasswordVerificationExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.security.password-verification.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password-verification.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.security.password-verification.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    public PasswordVerificationExecutor(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-verify-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password verification executor initialized (threads: {}, queue capacity: {})", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check a raw password against its stored hash on the verification pool
+     *
+     * @param rawPassword the presented password
+     * @param encodedPassword the stored hash
+     * @return true if the password matches
+     * @throws ApiException with 503 when the pool is saturated or the check times out
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            log.warn("Password verification queue full ({} waiting), rejecting login", executor.getQueue().size());
+            throw new ApiException("Login service is busy, please retry shortly", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new ApiException("Login service is busy, please retry shortly", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new ApiException("Login interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * Number of verifications waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+}
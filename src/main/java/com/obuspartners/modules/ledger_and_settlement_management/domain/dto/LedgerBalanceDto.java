@@ -0,0 +1,33 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.dto;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a ledger account balance
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalanceDto {
+
+    private LedgerAccountType accountType;
+    private Long accountId;
+    private String currency;
+    private BigDecimal balance;
+    private Long balanceMinor;
+
+    // Verification fields, set only when the balance was verified against the journal
+    private Long checkpointBalanceMinor;
+    private Long journalBalanceMinor;
+    private Boolean consistent;
+}
@@ -0,0 +1,27 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.dto;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one reconciliation mismatch
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationMismatchDto {
+
+    private ReconciliationMismatchType mismatchType;
+    private String bookingReference;
+    private Long busCoreAmountMinor;
+    private String busCoreCurrency;
+    private Long ledgerAmountMinor;
+    private String ledgerCurrency;
+}
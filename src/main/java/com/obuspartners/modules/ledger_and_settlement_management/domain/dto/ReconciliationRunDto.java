@@ -0,0 +1,38 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.dto;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a reconciliation run and its counts
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRunDto {
+
+    private Long id;
+    private String busCoreSystemCode;
+    private LocalDate reconciliationDate;
+    private ReconciliationStatus status;
+    private Long busCoreLines;
+    private Long ledgerLines;
+    private Long invalidLines;
+    private Long matched;
+    private Long missing;
+    private Long extra;
+    private Long amountDrift;
+    private Integer spillFiles;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
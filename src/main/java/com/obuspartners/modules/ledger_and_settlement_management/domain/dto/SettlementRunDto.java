@@ -0,0 +1,39 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.dto;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.SettlementRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a settlement run and its timing
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRunDto {
+
+    private Long id;
+    private LocalDate settlementDate;
+    private SettlementRunStatus status;
+    private Integer attempts;
+    private Integer partitionsTotal;
+    private Integer partitionsDone;
+    private Long bookingsProcessed;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    // Timing of the last attempt, set only by the node that ran it
+    private Integer partitionsFailed;
+    private Long elapsedMs;
+    private Long bookingsPerSecond;
+}
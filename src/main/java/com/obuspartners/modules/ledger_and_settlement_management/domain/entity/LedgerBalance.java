@@ -0,0 +1,52 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance checkpoint of a ledger account
+ *
+ * Updated by the ledger journal in the same transaction as the entries it
+ * adds up, so balance and entry count always match the journal; the balance
+ * never has to be summed from the journal.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "ledger_balances",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ledger_balances_account",
+           columnNames = {"account_type", "account_id", "currency"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 20)
+    private LedgerAccountType accountType;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "balance_minor", nullable = false)
+    private Long balanceMinor;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
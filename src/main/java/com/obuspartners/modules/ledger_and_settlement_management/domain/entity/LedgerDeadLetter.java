@@ -0,0 +1,49 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ledger posting the journal could not write
+ *
+ * Written by the ledger journal when the database refuses a posting on its
+ * own (e.g. a value too long for its column). The posting is not in the
+ * journal or the checkpoints; {@code details} holds its reference and every
+ * entry, so it can be corrected and posted again.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "ledger_dead_letters",
+       indexes = {
+           @Index(name = "idx_ledger_dead_letters_posting", columnList = "posting_id")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "posting_id", nullable = false, length = 26)
+    private String postingId;
+
+    @Column(name = "details", nullable = false, columnDefinition = "TEXT")
+    private String details;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
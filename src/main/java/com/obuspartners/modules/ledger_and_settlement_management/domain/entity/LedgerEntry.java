@@ -0,0 +1,63 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerEntryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the append-only ledger journal
+ *
+ * Rows are written in multi-row batches by the ledger journal and never
+ * updated or deleted; corrections are new entries. Amounts are in minor
+ * units of the currency. All entries of one posting share its posting ID.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "ledger_entries",
+       indexes = {
+           @Index(name = "idx_ledger_entries_account", columnList = "account_type, account_id, currency, id"),
+           @Index(name = "idx_ledger_entries_posting", columnList = "posting_id"),
+           @Index(name = "idx_ledger_entries_reference", columnList = "reference")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "posting_id", nullable = false, length = 26)
+    private String postingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 20)
+    private LedgerAccountType accountType;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 40)
+    private LedgerEntryType entryType;
+
+    @Column(name = "amount_minor", nullable = false)
+    private Long amountMinor;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "reference", length = 100)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,66 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One difference found by a reconciliation run
+ *
+ * Amounts are in minor units; the side a booking is missing from has no
+ * amount or currency.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "reconciliation_mismatches",
+       indexes = {
+           @Index(name = "idx_reconciliation_mismatches_run", columnList = "run_id, mismatch_type"),
+           @Index(name = "idx_reconciliation_mismatches_reference", columnList = "booking_reference")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "bus_core_system_code", nullable = false, length = 50)
+    private String busCoreSystemCode;
+
+    @Column(name = "reconciliation_date", nullable = false)
+    private LocalDate reconciliationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mismatch_type", nullable = false, length = 20)
+    private ReconciliationMismatchType mismatchType;
+
+    @Column(name = "booking_reference", nullable = false, length = 100)
+    private String bookingReference;
+
+    @Column(name = "bus_core_amount_minor")
+    private Long busCoreAmountMinor;
+
+    @Column(name = "bus_core_currency", length = 3)
+    private String busCoreCurrency;
+
+    @Column(name = "ledger_amount_minor")
+    private Long ledgerAmountMinor;
+
+    @Column(name = "ledger_currency", length = 3)
+    private String ledgerCurrency;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,73 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reconciliation of one bus core system's export for a date against our booking records
+ *
+ * Only mismatches are stored (in reconciliation_mismatches); matched lines
+ * are counted here.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "reconciliation_runs",
+       indexes = @Index(name = "idx_reconciliation_runs_system_date", columnList = "bus_core_system_code, reconciliation_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bus_core_system_code", nullable = false, length = 50)
+    private String busCoreSystemCode;
+
+    @Column(name = "reconciliation_date", nullable = false)
+    private LocalDate reconciliationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ReconciliationStatus status;
+
+    @Column(name = "bus_core_lines", nullable = false)
+    private Long busCoreLines;
+
+    @Column(name = "ledger_lines", nullable = false)
+    private Long ledgerLines;
+
+    @Column(name = "invalid_lines", nullable = false)
+    private Long invalidLines;
+
+    @Column(name = "matched", nullable = false)
+    private Long matched;
+
+    @Column(name = "missing", nullable = false)
+    private Long missing;
+
+    @Column(name = "extra", nullable = false)
+    private Long extra;
+
+    @Column(name = "amount_drift", nullable = false)
+    private Long amountDrift;
+
+    /** Sorted runs spilled to temp files; 0 when both sides fitted in the sort buffer */
+    @Column(name = "spill_files", nullable = false)
+    private Integer spillFiles;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,58 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A confirmed booking as input to settlement
+ *
+ * Rows are appended in batches from BookingConfirmedEvent and never
+ * updated. Amounts are in minor units of the currency. The partner index
+ * covers every column settlement reads and the system index every column
+ * reconciliation reads, so a partner's or a bus core system's day is read
+ * from an index alone.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "settlement_bookings",
+       indexes = {
+           @Index(name = "idx_settlement_bookings_partner", columnList = "partner_id, booked_at, agent_id, amount_minor, currency"),
+           @Index(name = "idx_settlement_bookings_system", columnList = "bus_core_system_code, booked_at, booking_reference, amount_minor, currency"),
+           @Index(name = "idx_settlement_bookings_reference", columnList = "booking_reference")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_reference", nullable = false, length = 100)
+    private String bookingReference;
+
+    @Column(name = "bus_core_system_code", length = 50)
+    private String busCoreSystemCode;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Column(name = "agent_id")
+    private Long agentId;
+
+    @Column(name = "amount_minor", nullable = false)
+    private Long amountMinor;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "booked_at", nullable = false)
+    private LocalDateTime bookedAt;
+}
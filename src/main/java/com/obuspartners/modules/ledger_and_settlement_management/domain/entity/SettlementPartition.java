@@ -0,0 +1,43 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one partner settled in a run
+ *
+ * Written in the same transaction as the partner's settlement results, so a
+ * partner is either fully settled and checkpointed or not at all.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "settlement_partitions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_settlement_partitions_run_partner",
+           columnNames = {"run_id", "partner_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
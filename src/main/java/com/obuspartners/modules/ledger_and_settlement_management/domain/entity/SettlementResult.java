@@ -0,0 +1,67 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Commission settled to a partner or agent for one day's bookings of a partner
+ *
+ * An agent booking for several partners, or a super agent whose sub-agents
+ * do, has one row per partner. For agents, booking_count and
+ * gross_amount_minor cover their own bookings only; commission_minor also
+ * includes the super-agent share of their sub-agents' bookings.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "settlement_results",
+       uniqueConstraints = @UniqueConstraint(name = "uk_settlement_results_account",
+           columnNames = {"settlement_date", "partner_id", "account_type", "account_id", "currency"}),
+       indexes = @Index(name = "idx_settlement_results_account", columnList = "account_type, account_id, settlement_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 20)
+    private LedgerAccountType accountType;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    @Column(name = "gross_amount_minor", nullable = false)
+    private Long grossAmountMinor;
+
+    @Column(name = "commission_minor", nullable = false)
+    private Long commissionMinor;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
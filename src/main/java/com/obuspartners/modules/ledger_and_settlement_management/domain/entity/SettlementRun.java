@@ -0,0 +1,61 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.entity;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.SettlementRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Settlement of one day's bookings
+ *
+ * One row per settlement date. A failed run is resumed by starting the date
+ * again: partners already in settlement_partitions are skipped.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "settlement_runs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_settlement_runs_date", columnNames = "settlement_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SettlementRunStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "partitions_total", nullable = false)
+    private Integer partitionsTotal;
+
+    @Column(name = "partitions_done", nullable = false)
+    private Integer partitionsDone;
+
+    @Column(name = "bookings_processed", nullable = false)
+    private Long bookingsProcessed;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    /** Bumped whenever a partition completes; a RUNNING run not bumped for a while is taken over */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
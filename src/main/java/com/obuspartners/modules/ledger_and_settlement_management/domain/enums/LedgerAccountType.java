@@ -0,0 +1,14 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.enums;
+
+/**
+ * Kinds of ledger accounts
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum LedgerAccountType {
+    /** Commission ledger of a partner (account ID is the partner ID) */
+    PARTNER,
+    /** Commission ledger of an agent (account ID is the agent ID) */
+    AGENT
+}
@@ -0,0 +1,18 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.enums;
+
+/**
+ * Reasons for ledger entries
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum LedgerEntryType {
+    /** Commission earned on a confirmed booking */
+    BOOKING_COMMISSION,
+    /** Share of a partner's booking commission passed to the agent */
+    AGENT_COMMISSION_SHARE,
+    /** Amount paid out to the account holder */
+    SETTLEMENT,
+    /** Manual correction */
+    ADJUSTMENT
+}
@@ -0,0 +1,16 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.enums;
+
+/**
+ * Kinds of differences between a bus core system's export and our booking records
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum ReconciliationMismatchType {
+    /** In the bus core system's export, not in our records */
+    MISSING,
+    /** In our records, not in the bus core system's export */
+    EXTRA,
+    /** On both sides with a different amount or currency */
+    AMOUNT_DRIFT
+}
@@ -0,0 +1,16 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.enums;
+
+/**
+ * States of a reconciliation run
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum ReconciliationStatus {
+    /** Export and ledger are being sorted and compared */
+    RUNNING,
+    /** Every mismatch was written */
+    COMPLETED,
+    /** The run stopped; mismatches written so far are kept */
+    FAILED
+}
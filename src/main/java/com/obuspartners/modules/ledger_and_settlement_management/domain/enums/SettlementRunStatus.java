@@ -0,0 +1,16 @@
+package com.obuspartners.modules.ledger_and_settlement_management.domain.enums;
+
+/**
+ * States of a settlement run
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum SettlementRunStatus {
+    /** Partitions are being settled */
+    RUNNING,
+    /** Every partner was settled */
+    COMPLETED,
+    /** Some partners failed; a new run for the date resumes with them */
+    FAILED
+}
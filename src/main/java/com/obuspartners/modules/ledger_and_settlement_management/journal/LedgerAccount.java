@@ -0,0 +1,24 @@
+package com.obuspartners.modules.ledger_and_settlement_management.journal;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+
+/**
+ * A ledger account: one balance per holder and currency
+ *
+ * @param type kind of holder
+ * @param id holder ID (partner or agent ID)
+ * @param currency ISO currency code
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record LedgerAccount(LedgerAccountType type, long id, String currency) {
+
+    public static LedgerAccount partner(long partnerId, String currency) {
+        return new LedgerAccount(LedgerAccountType.PARTNER, partnerId, currency);
+    }
+
+    public static LedgerAccount agent(long agentId, String currency) {
+        return new LedgerAccount(LedgerAccountType.AGENT, agentId, currency);
+    }
+}
@@ -0,0 +1,567 @@
+package com.obuspartners.modules.ledger_and_settlement_management.journal;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only ledger journal with running balances in memory
+ *
+ * Posting costs no database access: the posting is queued and its amounts
+ * are added to the running balances of its accounts. A single writer
+ * thread drains the queue and writes each batch in one transaction:
+ * <ul>
+ *   <li>the entries with multi-row INSERTs ({@code rows-per-statement} rows
+ *       per statement)</li>
+ *   <li>the balance checkpoints of the accounts touched, as one multi-row
+ *       upsert adding the batch's total per account</li>
+ * </ul>
+ * so a checkpoint always equals the sum of its journal entries. A posting's
+ * future completes when its batch has committed. A batch that fails twice,
+ * or that the database refuses (rather than cannot be reached), is split in
+ * halves and retried, down to single postings; a single posting the
+ * database refuses twice is written to {@code ledger_dead_letters} and its
+ * future fails. While the database cannot be reached batches are retried,
+ * and postings are refused (503) while {@code max-pending-postings} are
+ * waiting. Postings still unwritten at shutdown are logged one by one.
+ *
+ * A running balance is the account's checkpoint plus this node's postings
+ * not yet in it. Checkpoints are re-read (by the writer, one row per
+ * account) when first needed and when older than {@code balance-max-age-ms},
+ * which picks up postings made on other nodes; reads never sum the journal.
+ * A first read waits at most {@code balance-load-timeout-ms} for the writer.
+ *
+ * Settings are under {@code app.ledger.}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class LedgerJournal {
+
+    private static final String INSERT_ENTRIES_SQL =
+        "INSERT INTO ledger_entries (posting_id, account_type, account_id, entry_type, amount_minor, currency, " +
+        "reference, created_at) VALUES ";
+    private static final String ENTRY_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_BALANCES_SQL =
+        "INSERT INTO ledger_balances (account_type, account_id, currency, balance_minor, entry_count, updated_at) VALUES ";
+    private static final String BALANCE_VALUES = "(?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_BALANCES_SUFFIX =
+        " ON DUPLICATE KEY UPDATE balance_minor = balance_minor + VALUES(balance_minor), " +
+        "entry_count = entry_count + VALUES(entry_count), updated_at = VALUES(updated_at)";
+
+    private static final String SELECT_BALANCE_SQL =
+        "SELECT balance_minor FROM ledger_balances WHERE account_type = ? AND account_id = ? AND currency = ?";
+
+    private static final String SUM_ENTRIES_SQL =
+        "SELECT COALESCE(SUM(amount_minor), 0) FROM ledger_entries WHERE account_type = ? AND account_id = ? AND currency = ?";
+
+    private static final String INSERT_DEAD_LETTER_SQL =
+        "INSERT INTO ledger_dead_letters (posting_id, details, error, posted_at, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    /** Accounts in a fixed order, so concurrent upserts from several nodes lock rows in the same order */
+    private static final Comparator<LedgerAccount> ACCOUNT_ORDER = Comparator
+        .comparing(LedgerAccount::type)
+        .thenComparingLong(LedgerAccount::id)
+        .thenComparing(LedgerAccount::currency);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentHashMap<LedgerAccount, RunningBalance> balances = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<RunningBalance> refreshRequests = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread writer;
+    private String fullInsertSql;
+
+    private Counter accepted;
+    private Counter rejected;
+    private Counter entriesWritten;
+    private Counter failedBatches;
+    private Counter deadLettered;
+    private Timer batchTimer;
+
+    @Value("${app.ledger.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    @Value("${app.ledger.max-batch-postings:5000}")
+    private int maxBatchPostings;
+
+    @Value("${app.ledger.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${app.ledger.max-pending-postings:200000}")
+    private int maxPendingPostings;
+
+    @Value("${app.ledger.balance-max-age-ms:2000}")
+    private long balanceMaxAgeMs;
+
+    @Value("${app.ledger.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${app.ledger.balance-load-timeout-ms:5000}")
+    private long balanceLoadTimeoutMs;
+
+    public LedgerJournal(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        fullInsertSql = insertSql(rowsPerStatement);
+        accepted = postings("accepted");
+        rejected = postings("rejected");
+        entriesWritten = Counter.builder("ledger.entries.written")
+            .description("Ledger entries committed to the journal")
+            .register(meterRegistry);
+        failedBatches = Counter.builder("ledger.batches.failed")
+            .description("Journal batches that failed and were retried")
+            .register(meterRegistry);
+        deadLettered = postings("dead_lettered");
+        batchTimer = Timer.builder("ledger.batches")
+            .description("Time to write a journal batch with its balance checkpoints")
+            .register(meterRegistry);
+        Gauge.builder("ledger.postings.pending", queued, AtomicInteger::get)
+            .description("Postings waiting to be written to the journal")
+            .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Ledger journal started ({} rows per statement, up to {} postings per batch)",
+            rowsPerStatement, maxBatchPostings);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        // Postings the writer never took; it logs the ones it was holding when it gave up
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            abandon(pending);
+        }
+        if (queued.get() > 0) {
+            log.error("Ledger journal stopped with {} postings not written", queued.get());
+        }
+    }
+
+    /**
+     * Queue a posting and add it to the running balances
+     *
+     * @param posting the posting
+     * @return completes when the posting is committed to the journal
+     * @throws ApiException 400 for an empty posting, 503 when too many postings are waiting
+     */
+    public CompletableFuture<Void> post(Posting posting) {
+        if (posting.entries() == null || posting.entries().isEmpty()) {
+            throw new ApiException("A posting needs at least one entry", HttpStatus.BAD_REQUEST);
+        }
+        if (!running) {
+            throw new ApiException("Ledger is not running", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (queued.incrementAndGet() > maxPendingPostings) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new ApiException("Ledger is busy, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        for (Posting.Entry entry : posting.entries()) {
+            runningBalance(entry.account()).posted.add(entry.amountMinor());
+        }
+        Pending pending = new Pending(posting, new CompletableFuture<>());
+        queue.add(pending);
+        accepted.increment();
+        if (queued.get() >= maxBatchPostings) {
+            LockSupport.unpark(writer);
+        }
+        return pending.committed();
+    }
+
+    /**
+     * Balance of an account, including this node's postings not yet written
+     *
+     * @param account the account
+     * @return the balance in minor units
+     */
+    public long balance(LedgerAccount account) {
+        RunningBalance balance = runningBalance(account);
+        if (!balance.loaded) {
+            // The checkpoint has never been read: wait for the writer to read it
+            CompletableFuture<Void> loaded = balance.requestRefresh(refreshRequests);
+            LockSupport.unpark(writer);
+            try {
+                loaded.get(balanceLoadTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Ledger balance is not available, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new ApiException("Ledger balance is not available, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        } else if (System.currentTimeMillis() - balance.refreshedAtMillis > balanceMaxAgeMs) {
+            balance.requestRefresh(refreshRequests);
+        }
+        return balance.base + balance.posted.sum();
+    }
+
+    /**
+     * Sum of an account's committed journal entries, for verifying its checkpoint
+     *
+     * @param account the account
+     * @return the sum in minor units
+     */
+    public long journalSum(LedgerAccount account) {
+        Long sum = jdbcTemplate.queryForObject(SUM_ENTRIES_SQL, Long.class,
+            account.type().name(), account.id(), account.currency());
+        return sum != null ? sum : 0L;
+    }
+
+    /**
+     * Balance checkpoint of an account as committed
+     *
+     * @param account the account
+     * @return the balance in minor units (0 without a checkpoint)
+     */
+    public long checkpointBalance(LedgerAccount account) {
+        List<Long> rows = jdbcTemplate.queryForList(SELECT_BALANCE_SQL, Long.class,
+            account.type().name(), account.id(), account.currency());
+        return rows.isEmpty() ? 0L : rows.get(0);
+    }
+
+    /**
+     * Number of postings waiting to be written
+     */
+    public int pendingCount() {
+        return queued.get();
+    }
+
+    private RunningBalance runningBalance(LedgerAccount account) {
+        RunningBalance balance = balances.get(account);
+        return balance != null ? balance : balances.computeIfAbsent(account, RunningBalance::new);
+    }
+
+    private void writeLoop() {
+        // Failed batches and the halves of split ones, retried before new postings
+        Deque<Batch> retries = new ArrayDeque<>();
+        while (running || queued.get() > 0) {
+            refreshBalances();
+            Batch batch = retries.pollFirst();
+            if (batch == null) {
+                List<Pending> postings = new ArrayList<>();
+                Pending pending;
+                while (postings.size() < maxBatchPostings && (pending = queue.poll()) != null) {
+                    postings.add(pending);
+                }
+                if (postings.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                    continue;
+                }
+                batch = new Batch(postings, 0);
+            }
+            try {
+                write(batch.postings());
+                queued.addAndGet(-batch.size());
+                batch.postings().forEach(pending -> pending.committed().complete(null));
+            } catch (Exception e) {
+                failedBatches.increment();
+                if (!running) {
+                    // Shutting down: the postings cannot be written
+                    log.error("Error writing {} ledger postings at shutdown: {}", batch.size(), e.getMessage());
+                    batch.postings().forEach(this::abandon);
+                    retries.forEach(retry -> retry.postings().forEach(this::abandon));
+                    return;
+                }
+                retry(batch, e, retries);
+            }
+        }
+    }
+
+    /**
+     * Retry a failed batch: split it when it failed twice or was refused,
+     * dead-letter a single posting that was refused twice
+     */
+    private void retry(Batch batch, Exception e, Deque<Batch> retries) {
+        boolean refused = !isUnavailable(e);
+        int attempts = batch.attempts() + 1;
+        if (batch.size() == 1 && refused && attempts >= 2) {
+            deadLetter(batch.postings().get(0), e);
+            return;
+        }
+        if (batch.size() > 1 && (refused || attempts >= 2)) {
+            int half = batch.size() / 2;
+            retries.addFirst(new Batch(batch.postings().subList(half, batch.size()), 0));
+            retries.addFirst(new Batch(batch.postings().subList(0, half), 0));
+            log.warn("Error writing {} ledger postings, retrying in halves: {}", batch.size(), e.getMessage());
+            if (refused) {
+                return;
+            }
+        } else {
+            retries.addFirst(new Batch(batch.postings(), attempts));
+            log.error("Error writing {} ledger postings, will retry: {}", batch.size(), e.getMessage());
+        }
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryBackoffMs));
+    }
+
+    /**
+     * Whether the database could not be reached or was busy, rather than refusing the rows
+     */
+    private static boolean isUnavailable(Exception e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException || e instanceof TransactionException;
+    }
+
+    /**
+     * Take a posting the database refuses out of the journal: record it in
+     * ledger_dead_letters (or the log) and take it off the running balances
+     */
+    private void deadLetter(Pending pending, Exception e) {
+        Posting posting = pending.posting();
+        String error = e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage();
+        try {
+            jdbcTemplate.update(INSERT_DEAD_LETTER_SQL, posting.postingId(), describe(posting), error,
+                Timestamp.valueOf(posting.createdAt()), Timestamp.valueOf(LocalDateTime.now()));
+            log.error("Ledger posting {} was refused and moved to ledger_dead_letters: {}", posting.postingId(), error);
+        } catch (Exception deadLetterError) {
+            log.error("Ledger posting {} was refused and dropped: {} ({})", posting.postingId(), describe(posting), error);
+        }
+        deadLettered.increment();
+        unpost(pending, e);
+    }
+
+    /**
+     * Give up on a posting at shutdown, logging all of it
+     */
+    private void abandon(Pending pending) {
+        log.error("Ledger posting {} not written at shutdown: {}", pending.posting().postingId(), describe(pending.posting()));
+        unpost(pending, new IllegalStateException("Ledger stopped before the posting was written"));
+    }
+
+    private void unpost(Pending pending, Exception cause) {
+        for (Posting.Entry entry : pending.posting().entries()) {
+            runningBalance(entry.account()).posted.add(-entry.amountMinor());
+        }
+        queued.decrementAndGet();
+        pending.committed().completeExceptionally(cause);
+    }
+
+    private static String describe(Posting posting) {
+        return "reference=" + posting.reference() + ", createdAt=" + posting.createdAt() + ", entries=["
+            + posting.entries().stream()
+                .map(entry -> entry.account() + " " + entry.type() + " " + entry.amountMinor())
+                .collect(Collectors.joining("; "))
+            + "]";
+    }
+
+    /**
+     * Write a batch of postings and their balance checkpoints in one transaction
+     */
+    private void write(List<Pending> batch) {
+        List<Posting.Entry> entries = new ArrayList<>();
+        List<Posting> entryPostings = new ArrayList<>();
+        Map<LedgerAccount, long[]> deltas = new TreeMap<>(ACCOUNT_ORDER);
+        for (Pending pending : batch) {
+            for (Posting.Entry entry : pending.posting().entries()) {
+                entries.add(entry);
+                entryPostings.add(pending.posting());
+                long[] delta = deltas.computeIfAbsent(entry.account(), account -> new long[2]);
+                delta[0] += entry.amountMinor();
+                delta[1]++;
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<LedgerAccount, long[]>> accounts = new ArrayList<>(deltas.entrySet());
+
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < entries.size(); from += rowsPerStatement) {
+                int to = Math.min(from + rowsPerStatement, entries.size());
+                int first = from;
+                String sql = to - from == rowsPerStatement ? fullInsertSql : insertSql(to - from);
+                jdbcTemplate.update(sql, ps -> {
+                    int index = 1;
+                    for (int i = first; i < to; i++) {
+                        index = setEntry(ps, index, entries.get(i), entryPostings.get(i));
+                    }
+                });
+            }
+            for (int from = 0; from < accounts.size(); from += rowsPerStatement) {
+                int to = Math.min(from + rowsPerStatement, accounts.size());
+                int first = from;
+                jdbcTemplate.update(upsertSql(to - from), ps -> {
+                    int index = 1;
+                    for (int i = first; i < to; i++) {
+                        LedgerAccount account = accounts.get(i).getKey();
+                        long[] delta = accounts.get(i).getValue();
+                        ps.setString(index++, account.type().name());
+                        ps.setLong(index++, account.id());
+                        ps.setString(index++, account.currency());
+                        ps.setLong(index++, delta[0]);
+                        ps.setLong(index++, delta[1]);
+                        ps.setTimestamp(index++, now);
+                    }
+                });
+            }
+        });
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        entriesWritten.increment(entries.size());
+
+        // Committed: these postings are now part of the checkpoints
+        for (Map.Entry<LedgerAccount, long[]> account : accounts) {
+            runningBalance(account.getKey()).flushed += account.getValue()[0];
+        }
+        log.debug("Wrote {} ledger postings ({} entries, {} accounts)", batch.size(), entries.size(), accounts.size());
+    }
+
+    /**
+     * Re-read requested checkpoints; only the writer changes base and flushed, so they always match
+     */
+    private void refreshBalances() {
+        RunningBalance balance;
+        while ((balance = refreshRequests.poll()) != null) {
+            try {
+                long checkpoint = checkpointBalance(balance.account);
+                balance.base = checkpoint - balance.flushed;
+                balance.refreshedAtMillis = System.currentTimeMillis();
+                balance.loaded = true;
+                balance.refreshed();
+            } catch (Exception e) {
+                log.warn("Could not read ledger balance of {}: {}", balance.account, e.getMessage());
+                balance.refreshFailed(e);
+            }
+        }
+    }
+
+    private static int setEntry(PreparedStatement ps, int index, Posting.Entry entry, Posting posting) throws SQLException {
+        ps.setString(index++, posting.postingId());
+        ps.setString(index++, entry.account().type().name());
+        ps.setLong(index++, entry.account().id());
+        ps.setString(index++, entry.type().name());
+        ps.setLong(index++, entry.amountMinor());
+        ps.setString(index++, entry.account().currency());
+        ps.setString(index++, posting.reference());
+        ps.setTimestamp(index++, Timestamp.valueOf(posting.createdAt()));
+        return index;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_ENTRIES_SQL.length() + rows * (ENTRY_VALUES.length() + 2));
+        sql.append(INSERT_ENTRIES_SQL);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ENTRY_VALUES);
+        }
+        return sql.toString();
+    }
+
+    private static String upsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPSERT_BALANCES_SQL);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(BALANCE_VALUES);
+        }
+        return sql.append(UPSERT_BALANCES_SUFFIX).toString();
+    }
+
+    private Counter postings(String result) {
+        return Counter.builder("ledger.postings")
+            .description("Ledger postings")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record Pending(Posting posting, CompletableFuture<Void> committed) {
+    }
+
+    /**
+     * Postings written together, and how often this batch has failed
+     */
+    private record Batch(List<Pending> postings, int attempts) {
+        int size() {
+            return postings.size();
+        }
+    }
+
+    /**
+     * Running balance of an account: base + posted, where base is the
+     * checkpoint minus the part of posted already in it
+     */
+    private static final class RunningBalance {
+        final LedgerAccount account;
+        /** This node's postings since startup */
+        final LongAdder posted = new LongAdder();
+        /** Part of posted committed to the checkpoint; writer only */
+        long flushed;
+        volatile long base;
+        volatile boolean loaded;
+        volatile long refreshedAtMillis;
+        /** Outstanding refresh, or null */
+        private CompletableFuture<Void> refresh;
+
+        RunningBalance(LedgerAccount account) {
+            this.account = account;
+        }
+
+        synchronized CompletableFuture<Void> requestRefresh(ConcurrentLinkedQueue<RunningBalance> requests) {
+            if (refresh == null) {
+                refresh = new CompletableFuture<>();
+                requests.add(this);
+            }
+            return refresh;
+        }
+
+        synchronized void refreshed() {
+            refresh.complete(null);
+            refresh = null;
+        }
+
+        synchronized void refreshFailed(Exception e) {
+            refresh.completeExceptionally(e);
+            refresh = null;
+        }
+    }
+}
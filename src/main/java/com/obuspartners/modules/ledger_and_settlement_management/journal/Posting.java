@@ -0,0 +1,30 @@
+package com.obuspartners.modules.ledger_and_settlement_management.journal;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerEntryType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Entries written to the journal together
+ *
+ * @param postingId ID shared by the entries
+ * @param reference what the entries are for (e.g. booking reference), or null
+ * @param createdAt when the posting was made
+ * @param entries the entries
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record Posting(String postingId, String reference, LocalDateTime createdAt, List<Entry> entries) {
+
+    /**
+     * One amount on one account
+     *
+     * @param account the account
+     * @param type reason for the entry
+     * @param amountMinor signed amount in minor units; positive is owed to the account holder
+     */
+    public record Entry(LedgerAccount account, LedgerEntryType type, long amountMinor) {
+    }
+}
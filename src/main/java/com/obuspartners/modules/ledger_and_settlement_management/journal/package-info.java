@@ -0,0 +1,12 @@
+/**
+ * Ledger Journal Package
+ * 
+ * This package contains the append-only ledger journal: postings buffered
+ * in memory, written in multi-row batches together with the balance
+ * checkpoints of their accounts, and running balances kept in memory.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.ledger_and_settlement_management.journal;
@@ -0,0 +1,180 @@
+package com.obuspartners.modules.ledger_and_settlement_management.reconciliation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of reconciliation lines
+ *
+ * Lines are buffered on the heap up to {@code bufferBytes}; a full buffer
+ * is sorted and spilled as a run to a temp file written and read through
+ * memory-mapped buffers, so spilled lines live in the page cache rather
+ * than the heap. {@link #sorted()} k-way merges the runs; when nothing was
+ * spilled it sorts the buffer in place. A sorter is used by one thread,
+ * and {@link #close()} deletes its files.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+final class ExternalSorter implements Closeable {
+
+    /**
+     * Sorted lines, null after the last
+     */
+    interface Cursor {
+        ReconciliationLine next();
+    }
+
+    private final Path directory;
+    private final long bufferBytes;
+    private final String prefix;
+    private final List<Path> runs = new ArrayList<>();
+    private List<ReconciliationLine> buffer = new ArrayList<>();
+    private long buffered;
+    private long count;
+
+    /**
+     * @param directory   where runs are spilled
+     * @param bufferBytes heap for buffered lines, at most 1 GB so a run fits one mapping
+     * @param prefix      temp file name prefix
+     */
+    ExternalSorter(Path directory, long bufferBytes, String prefix) {
+        if (bufferBytes <= 0 || bufferBytes > 1L << 30) {
+            throw new IllegalArgumentException("Sort buffer must be between 1 byte and 1 GB: " + bufferBytes);
+        }
+        this.directory = directory;
+        this.bufferBytes = bufferBytes;
+        this.prefix = prefix;
+    }
+
+    void add(ReconciliationLine line) {
+        buffer.add(line);
+        count++;
+        buffered += ReconciliationLine.HEAP_OVERHEAD + line.reference().length;
+        if (buffered >= bufferBytes) {
+            spill();
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    int spillFiles() {
+        return runs.size();
+    }
+
+    /**
+     * All added lines in order; add no more lines afterwards
+     */
+    Cursor sorted() {
+        if (runs.isEmpty()) {
+            buffer.sort(null);
+            Iterator<ReconciliationLine> lines = buffer.iterator();
+            return () -> lines.hasNext() ? lines.next() : null;
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        buffer = List.of();
+
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(runs.size());
+        for (Path run : runs) {
+            RunReader reader = new RunReader(map(run));
+            if (reader.head != null) {
+                heads.add(reader);
+            }
+        }
+        return () -> {
+            RunReader reader = heads.poll();
+            if (reader == null) {
+                return null;
+            }
+            ReconciliationLine line = reader.head;
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+            return line;
+        };
+    }
+
+    private void spill() {
+        buffer.sort(null);
+        long size = 0;
+        for (ReconciliationLine line : buffer) {
+            size += line.encodedSize();
+        }
+        try {
+            Path run = Files.createTempFile(directory, prefix, ".run");
+            runs.add(run);
+            try (FileChannel channel = FileChannel.open(run, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                for (ReconciliationLine line : buffer) {
+                    line.writeTo(mapped);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill reconciliation lines to " + directory, e);
+        }
+        log.debug("Spilled {} lines ({} bytes) to run {}", buffer.size(), size, runs.size());
+        buffer = new ArrayList<>(buffer.size());
+        buffered = 0;
+    }
+
+    private static MappedByteBuffer map(Path run) {
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read reconciliation run " + run, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        buffer = List.of();
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                log.warn("Could not delete reconciliation run {}: {}", run, e.getMessage());
+            }
+        }
+        runs.clear();
+    }
+
+    /**
+     * Head of one spilled run
+     */
+    private static final class RunReader implements Comparable<RunReader> {
+        private final MappedByteBuffer mapped;
+        private ReconciliationLine head;
+
+        RunReader(MappedByteBuffer mapped) {
+            this.mapped = mapped;
+            advance();
+        }
+
+        boolean advance() {
+            head = mapped.hasRemaining() ? ReconciliationLine.readFrom(mapped) : null;
+            return head != null;
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            return head.compareTo(other.head);
+        }
+    }
+}
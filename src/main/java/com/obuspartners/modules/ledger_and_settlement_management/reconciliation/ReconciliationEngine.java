@@ -0,0 +1,332 @@
+package com.obuspartners.modules.ledger_and_settlement_management.reconciliation;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reconciliation of a bus core system's export against our recorded bookings
+ *
+ * The export is a CSV of {@code reference,amount[,currency]} lines, amounts
+ * in major units (an optional header line is skipped). Our side is the
+ * system's settlement_bookings of the date. Both sides go through an
+ * ExternalSorter and are compared in one merge pass by booking reference;
+ * only mismatches are written, in batches, to reconciliation_mismatches:
+ * <ul>
+ *   <li>MISSING - in the export, not recorded by us</li>
+ *   <li>EXTRA - recorded by us, not in the export</li>
+ *   <li>AMOUNT_DRIFT - on both sides with a different amount or currency</li>
+ * </ul>
+ * The heap needed is about twice {@code sort-buffer-mb} whatever the size
+ * of the export; larger inputs spill to {@code temp-dir}, which needs
+ * about the size of both sides.
+ *
+ * On MySQL the JDBC URL needs {@code useCursorFetch=true} for the fetch
+ * size to stream our bookings.
+ *
+ * Settings are under {@code app.reconciliation.}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ReconciliationEngine {
+
+    private static final int MAX_REFERENCE_BYTES = 100;
+
+    private static final String RUN_COLUMNS =
+        "id, bus_core_system_code, reconciliation_date, status, bus_core_lines, ledger_lines, invalid_lines, " +
+        "matched, missing, extra, amount_drift, spill_files, started_at, finished_at";
+
+    private static final String SELECT_RUN_SQL =
+        "SELECT " + RUN_COLUMNS + " FROM reconciliation_runs WHERE id = ?";
+
+    private static final String INSERT_RUN_SQL =
+        "INSERT INTO reconciliation_runs (bus_core_system_code, reconciliation_date, status, bus_core_lines, " +
+        "ledger_lines, invalid_lines, matched, missing, extra, amount_drift, spill_files, started_at) " +
+        "VALUES (?, ?, 'RUNNING', 0, 0, 0, 0, 0, 0, 0, 0, ?)";
+
+    private static final String FINISH_RUN_SQL =
+        "UPDATE reconciliation_runs SET status = ?, bus_core_lines = ?, ledger_lines = ?, invalid_lines = ?, " +
+        "matched = ?, missing = ?, extra = ?, amount_drift = ?, spill_files = ?, finished_at = ? WHERE id = ?";
+
+    private static final String SELECT_BOOKINGS_SQL =
+        "SELECT booking_reference, amount_minor, currency FROM settlement_bookings " +
+        "WHERE bus_core_system_code = ? AND booked_at >= ? AND booked_at < ?";
+
+    private static final String INSERT_MISMATCH_SQL =
+        "INSERT INTO reconciliation_mismatches (run_id, bus_core_system_code, reconciliation_date, mismatch_type, " +
+        "booking_reference, bus_core_amount_minor, bus_core_currency, ledger_amount_minor, ledger_currency, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<ReconciliationRunDto> RUN_MAPPER = (rs, rowNum) -> ReconciliationRunDto.builder()
+        .id(rs.getLong("id"))
+        .busCoreSystemCode(rs.getString("bus_core_system_code"))
+        .reconciliationDate(rs.getDate("reconciliation_date").toLocalDate())
+        .status(ReconciliationStatus.valueOf(rs.getString("status")))
+        .busCoreLines(rs.getLong("bus_core_lines"))
+        .ledgerLines(rs.getLong("ledger_lines"))
+        .invalidLines(rs.getLong("invalid_lines"))
+        .matched(rs.getLong("matched"))
+        .missing(rs.getLong("missing"))
+        .extra(rs.getLong("extra"))
+        .amountDrift(rs.getLong("amount_drift"))
+        .spillFiles(rs.getInt("spill_files"))
+        .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+        .finishedAt(rs.getTimestamp("finished_at") != null ? rs.getTimestamp("finished_at").toLocalDateTime() : null)
+        .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reconciliation.sort-buffer-mb:64}")
+    private long sortBufferMb;
+
+    @Value("${app.reconciliation.temp-dir:${java.io.tmpdir}}")
+    private String tempDir;
+
+    @Value("${app.reconciliation.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.reconciliation.write-batch-size:1000}")
+    private int writeBatchSize;
+
+    @Value("${app.ledger.default-currency:TZS}")
+    private String defaultCurrency;
+
+    public ReconciliationEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get a reconciliation run
+     *
+     * @param runId the run ID
+     * @return the run, if it exists
+     */
+    public Optional<ReconciliationRunDto> find(long runId) {
+        return jdbcTemplate.query(SELECT_RUN_SQL, RUN_MAPPER, runId).stream().findFirst();
+    }
+
+    /**
+     * Reconcile a bus core system's export of a date against our bookings of that date
+     *
+     * @param busCoreSystemCode the bus core system
+     * @param date              the date the export covers
+     * @param export            the CSV export, read to the end but not closed
+     * @return the finished run, COMPLETED or FAILED
+     */
+    public ReconciliationRunDto reconcile(String busCoreSystemCode, LocalDate date, InputStream export) {
+        long started = System.nanoTime();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_RUN_SQL, new String[] { "id" });
+            ps.setString(1, busCoreSystemCode);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        }, keyHolder);
+        long runId = keyHolder.getKey().longValue();
+        log.info("Reconciling {} bookings of {} (run {})", busCoreSystemCode, date, runId);
+
+        Counts counts = new Counts();
+        ReconciliationStatus status = ReconciliationStatus.COMPLETED;
+        long bufferBytes = sortBufferMb * 1024 * 1024;
+        Path directory = Path.of(tempDir);
+        try (ExternalSorter busCore = new ExternalSorter(directory, bufferBytes, "reconcile-" + runId + "-bus-core-");
+             ExternalSorter ledger = new ExternalSorter(directory, bufferBytes, "reconcile-" + runId + "-ledger-")) {
+            try {
+                readExport(export, busCore, counts);
+                readBookings(busCoreSystemCode, date, ledger);
+                counts.busCoreLines = busCore.count();
+                counts.ledgerLines = ledger.count();
+                counts.spillFiles = busCore.spillFiles() + ledger.spillFiles();
+                compare(runId, busCoreSystemCode, date, busCore.sorted(), ledger.sorted(), counts);
+            } catch (IOException | RuntimeException e) {
+                status = ReconciliationStatus.FAILED;
+                counts.busCoreLines = Math.max(counts.busCoreLines, busCore.count());
+                counts.ledgerLines = Math.max(counts.ledgerLines, ledger.count());
+                counts.spillFiles = busCore.spillFiles() + ledger.spillFiles();
+                log.error("Reconciliation of {} for {} failed: {}", busCoreSystemCode, date, e.getMessage());
+            }
+        }
+
+        jdbcTemplate.update(FINISH_RUN_SQL, status.name(), counts.busCoreLines, counts.ledgerLines, counts.invalidLines,
+            counts.matched, counts.missing, counts.extra, counts.amountDrift, counts.spillFiles,
+            Timestamp.valueOf(LocalDateTime.now()), runId);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Reconciliation of {} for {} {} in {} ms: {} bus core and {} ledger lines, {} matched, "
+                + "{} missing, {} extra, {} amount drift, {} invalid, {} spill files",
+            busCoreSystemCode, date, status, elapsedMs, counts.busCoreLines, counts.ledgerLines, counts.matched,
+            counts.missing, counts.extra, counts.amountDrift, counts.invalidLines, counts.spillFiles);
+        return find(runId).orElseThrow();
+    }
+
+    /**
+     * Parse the export into the sorter; unreadable lines are counted and skipped
+     */
+    private void readExport(InputStream export, ExternalSorter sorter, Counts counts) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(export, StandardCharsets.UTF_8), 1 << 16);
+        Map<String, Integer> fractionDigits = new HashMap<>(8);
+        String text;
+        long lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            ReconciliationLine line = parse(text, fractionDigits);
+            if (line != null) {
+                sorter.add(line);
+            } else if (lineNumber > 1) {
+                counts.invalidLines++;
+                if (counts.invalidLines <= 10) {
+                    log.warn("Skipping invalid export line {}: {}", lineNumber, text);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the line, or null when it has no reference, a bad amount or an unknown currency
+     */
+    private ReconciliationLine parse(String text, Map<String, Integer> fractionDigits) {
+        String[] fields = text.split(",", -1);
+        if (fields.length < 2 || fields.length > 3) {
+            return null;
+        }
+        byte[] reference = unquote(fields[0]).getBytes(StandardCharsets.UTF_8);
+        if (reference.length == 0 || reference.length > MAX_REFERENCE_BYTES) {
+            return null;
+        }
+        String code = fields.length == 3 && !unquote(fields[2]).isEmpty()
+            ? unquote(fields[2]).toUpperCase(Locale.ROOT) : defaultCurrency;
+        try {
+            int digits = fractionDigits.computeIfAbsent(code,
+                c -> Math.max(0, Currency.getInstance(c).getDefaultFractionDigits()));
+            long amountMinor = new BigDecimal(unquote(fields[1]))
+                .movePointRight(digits).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+            return new ReconciliationLine(reference, amountMinor, ReconciliationLine.packCurrency(code));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '"' && trimmed.charAt(trimmed.length() - 1) == '"') {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    /**
+     * Stream our bookings of the system and date into the sorter
+     */
+    private void readBookings(String busCoreSystemCode, LocalDate date, ExternalSorter sorter) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_BOOKINGS_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, busCoreSystemCode);
+            ps.setTimestamp(2, Timestamp.valueOf(date.atStartOfDay()));
+            ps.setTimestamp(3, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            return ps;
+        }, (RowCallbackHandler) rs -> sorter.add(new ReconciliationLine(
+            rs.getString(1).getBytes(StandardCharsets.UTF_8), rs.getLong(2), ReconciliationLine.packCurrency(rs.getString(3)))));
+    }
+
+    /**
+     * Merge both sorted sides by reference and write the mismatches
+     */
+    private void compare(long runId, String busCoreSystemCode, LocalDate date,
+                         ExternalSorter.Cursor busCore, ExternalSorter.Cursor ledger, Counts counts) {
+        Date reconciliationDate = Date.valueOf(date);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> mismatches = new ArrayList<>(writeBatchSize);
+        ReconciliationLine ours = ledger.next();
+        ReconciliationLine theirs = busCore.next();
+        while (theirs != null || ours != null) {
+            int order = theirs == null ? 1 : ours == null ? -1 : theirs.compareReference(ours);
+            ReconciliationMismatchType type;
+            if (order < 0) {
+                type = ReconciliationMismatchType.MISSING;
+                counts.missing++;
+            } else if (order > 0) {
+                type = ReconciliationMismatchType.EXTRA;
+                counts.extra++;
+            } else if (theirs.amountMinor() != ours.amountMinor() || theirs.currency() != ours.currency()) {
+                type = ReconciliationMismatchType.AMOUNT_DRIFT;
+                counts.amountDrift++;
+            } else {
+                type = null;
+                counts.matched++;
+            }
+
+            if (type != null) {
+                ReconciliationLine reported = order > 0 ? ours : theirs;
+                mismatches.add(new Object[] { runId, busCoreSystemCode, reconciliationDate, type.name(),
+                    new String(reported.reference(), StandardCharsets.UTF_8),
+                    order <= 0 ? theirs.amountMinor() : null,
+                    order <= 0 ? ReconciliationLine.currencyCode(theirs.currency()) : null,
+                    order >= 0 ? ours.amountMinor() : null,
+                    order >= 0 ? ReconciliationLine.currencyCode(ours.currency()) : null,
+                    now });
+                if (mismatches.size() == writeBatchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_MISMATCH_SQL, mismatches);
+                    mismatches.clear();
+                }
+            }
+            if (order <= 0) {
+                theirs = busCore.next();
+            }
+            if (order >= 0) {
+                ours = ledger.next();
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MISMATCH_SQL, mismatches);
+        }
+    }
+
+    private static final class Counts {
+        long busCoreLines;
+        long ledgerLines;
+        long invalidLines;
+        long matched;
+        long missing;
+        long extra;
+        long amountDrift;
+        int spillFiles;
+    }
+}
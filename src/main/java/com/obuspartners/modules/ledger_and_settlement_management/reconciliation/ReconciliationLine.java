@@ -0,0 +1,68 @@
+package com.obuspartners.modules.ledger_and_settlement_management.reconciliation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One booking on one side of a reconciliation
+ *
+ * The reference is kept as UTF-8 bytes and the currency packed into an int
+ * (three ASCII letters), so a line is two objects and is written to and
+ * read from spill files without decoding. Lines order by reference
+ * (unsigned bytes), then amount and currency, so duplicates of a
+ * reference pair up the same way on both sides.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+record ReconciliationLine(byte[] reference, long amountMinor, int currency) implements Comparable<ReconciliationLine> {
+
+    /** Rough heap size of a buffered line besides its reference bytes */
+    static final int HEAP_OVERHEAD = 56;
+
+    static int packCurrency(String code) {
+        return (code.charAt(0) & 0xFF) << 16 | (code.charAt(1) & 0xFF) << 8 | (code.charAt(2) & 0xFF);
+    }
+
+    static String currencyCode(int currency) {
+        return new String(new char[] { (char) (currency >>> 16 & 0xFF), (char) (currency >>> 8 & 0xFF), (char) (currency & 0xFF) });
+    }
+
+    int compareReference(ReconciliationLine other) {
+        return Arrays.compareUnsigned(reference, other.reference);
+    }
+
+    @Override
+    public int compareTo(ReconciliationLine other) {
+        int byReference = compareReference(other);
+        if (byReference != 0) {
+            return byReference;
+        }
+        int byAmount = Long.compare(amountMinor, other.amountMinor);
+        return byAmount != 0 ? byAmount : Integer.compare(currency, other.currency);
+    }
+
+    /**
+     * Bytes written by {@link #writeTo(ByteBuffer)}: reference length, reference, amount, currency
+     */
+    int encodedSize() {
+        return 2 + reference.length + 8 + 3;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putShort((short) reference.length);
+        buffer.put(reference);
+        buffer.putLong(amountMinor);
+        buffer.put((byte) (currency >>> 16));
+        buffer.put((byte) (currency >>> 8));
+        buffer.put((byte) currency);
+    }
+
+    static ReconciliationLine readFrom(ByteBuffer buffer) {
+        byte[] reference = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(reference);
+        long amountMinor = buffer.getLong();
+        int currency = (buffer.get() & 0xFF) << 16 | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF);
+        return new ReconciliationLine(reference, amountMinor, currency);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Reconciliation Package
+ * 
+ * This package contains the reconciliation of a bus core system's daily
+ * export against the bookings we recorded: both sides are sorted by
+ * booking reference with an external merge sort that spills to
+ * memory-mapped temp files, then compared in a single merge pass that
+ * writes only the mismatches.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.ledger_and_settlement_management.reconciliation;
@@ -0,0 +1,28 @@
+package com.obuspartners.modules.ledger_and_settlement_management.repository;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.entity.ReconciliationMismatch;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ReconciliationMismatch entity
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+
+    /**
+     * Find the mismatches of a run
+     */
+    Page<ReconciliationMismatch> findByRunId(Long runId, Pageable pageable);
+
+    /**
+     * Find the mismatches of a run of one type
+     */
+    Page<ReconciliationMismatch> findByRunIdAndMismatchType(Long runId, ReconciliationMismatchType mismatchType, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.obuspartners.modules.ledger_and_settlement_management.repository;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ReconciliationRun entity
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+}
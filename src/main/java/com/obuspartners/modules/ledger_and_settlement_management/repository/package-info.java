@@ -0,0 +1,12 @@
+/**
+ * Ledger and Settlement Management Repository Package
+ * 
+ * This package contains repository interfaces for reading settlement and
+ * reconciliation results. Ledger and settlement rows are written with
+ * batched JDBC by the journal, settlement and reconciliation engines.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.ledger_and_settlement_management.repository;
@@ -0,0 +1,42 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.LedgerBalanceDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+
+/**
+ * Service interface for the partner and agent commission ledgers
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public interface LedgerService {
+
+    /**
+     * Post the commissions of a confirmed booking
+     * 
+     * @param event the confirmed booking
+     * @return true when commissions were posted, false when the booking has no amount to post
+     */
+    boolean postBookingCommission(BookingConfirmedEvent event);
+
+    /**
+     * Get the balance of a ledger account
+     * 
+     * @param accountType the kind of account
+     * @param accountId the partner or agent ID
+     * @param currency the currency, or null for the default currency
+     * @return the balance
+     */
+    LedgerBalanceDto getBalance(LedgerAccountType accountType, Long accountId, String currency);
+
+    /**
+     * Get the balance of a ledger account and check its checkpoint against the journal
+     * 
+     * @param accountType the kind of account
+     * @param accountId the partner or agent ID
+     * @param currency the currency, or null for the default currency
+     * @return the balance with checkpoint and journal sums
+     */
+    LedgerBalanceDto verifyBalance(LedgerAccountType accountType, Long accountId, String currency);
+}
@@ -0,0 +1,154 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.LedgerBalanceDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerEntryType;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerAccount;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerJournal;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.Posting;
+import de.huxhorn.sulky.ulid.ULID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of LedgerService on the ledger journal
+ *
+ * Every confirmed booking with an amount posts the partner's commission
+ * (amount x partner commission rate) to the partner's ledger. When
+ * {@code app.ledger.commission.agent-share} is set, that fraction of it is
+ * moved on to the booking agent's ledger in the same posting. Postings the
+ * journal refuses end up in {@code ledger_dead_letters}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final ULID POSTING_IDS = new ULID();
+
+    private final LedgerJournal ledgerJournal;
+
+    @Value("${app.ledger.default-currency:TZS}")
+    private String defaultCurrency;
+
+    @Value("${app.ledger.commission.agent-share:0}")
+    private BigDecimal agentShare;
+
+    @EventListener
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        try {
+            postBookingCommission(event);
+        } catch (RuntimeException e) {
+            // The booking stands, but nothing posts the commission later (reconciliation only
+            // compares settlement bookings): this log line is the record to post it from
+            log.error("Could not post commission for booking {} (partner {}, agent {}, amount {} {}, rate {}): {}",
+                event.getBookingReference(), event.getPartnerId(), event.getAgentId(), event.getTotalAmount(),
+                event.getCurrency(), event.getPartnerCommissionRate(), e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean postBookingCommission(BookingConfirmedEvent event) {
+        if (event.getTotalAmount() == null || event.getPartnerId() == null || event.getPartnerCommissionRate() == null) {
+            log.debug("Booking {} has no amount or partner, no commission posted", event.getBookingReference());
+            return false;
+        }
+        String currency = currency(event.getCurrency());
+        BigDecimal commission = event.getTotalAmount()
+            .multiply(BigDecimal.valueOf(event.getPartnerCommissionRate()))
+            .movePointLeft(2);
+        long commissionMinor = toMinor(commission, currency);
+        if (commissionMinor == 0) {
+            return false;
+        }
+
+        List<Posting.Entry> entries = new ArrayList<>(3);
+        LedgerAccount partner = LedgerAccount.partner(event.getPartnerId(), currency);
+        entries.add(new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, commissionMinor));
+        long agentMinor = event.getAgentId() != null
+            ? BigDecimal.valueOf(commissionMinor).multiply(agentShare).setScale(0, RoundingMode.HALF_EVEN).longValueExact()
+            : 0;
+        if (agentMinor != 0) {
+            entries.add(new Posting.Entry(partner, LedgerEntryType.AGENT_COMMISSION_SHARE, -agentMinor));
+            entries.add(new Posting.Entry(LedgerAccount.agent(event.getAgentId(), currency),
+                LedgerEntryType.AGENT_COMMISSION_SHARE, agentMinor));
+        }
+
+        ledgerJournal.post(new Posting(POSTING_IDS.nextULID(), event.getBookingReference(), LocalDateTime.now(), entries));
+        log.debug("Posted commission {} {} for booking {} (agent share {})",
+            commission, currency, event.getBookingReference(), agentMinor);
+        return true;
+    }
+
+    @Override
+    public LedgerBalanceDto getBalance(LedgerAccountType accountType, Long accountId, String currency) {
+        LedgerAccount account = new LedgerAccount(accountType, accountId, currency(currency));
+        return toDto(account, balance(account));
+    }
+
+    @Override
+    public LedgerBalanceDto verifyBalance(LedgerAccountType accountType, Long accountId, String currency) {
+        LedgerAccount account = new LedgerAccount(accountType, accountId, currency(currency));
+        LedgerBalanceDto dto = toDto(account, balance(account));
+        long checkpoint = ledgerJournal.checkpointBalance(account);
+        long journal = ledgerJournal.journalSum(account);
+        dto.setCheckpointBalanceMinor(checkpoint);
+        dto.setJournalBalanceMinor(journal);
+        dto.setConsistent(checkpoint == journal);
+        if (checkpoint != journal) {
+            log.error("Ledger checkpoint of {} is {} but its journal sums to {}", account, checkpoint, journal);
+        }
+        return dto;
+    }
+
+    private long balance(LedgerAccount account) {
+        try {
+            return ledgerJournal.balance(account);
+        } catch (RuntimeException e) {
+            log.warn("Could not read ledger balance of {}: {}", account, e.getMessage());
+            throw new ApiException("Ledger balance is not available, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private String currency(String currency) {
+        String code = currency != null && !currency.isBlank() ? currency.trim().toUpperCase(Locale.ROOT) : defaultCurrency;
+        try {
+            return Currency.getInstance(code).getCurrencyCode();
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Unknown currency: " + code, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static long toMinor(BigDecimal amount, String currency) {
+        int digits = Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits());
+        return amount.movePointRight(digits).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private static LedgerBalanceDto toDto(LedgerAccount account, long balanceMinor) {
+        int digits = Math.max(0, Currency.getInstance(account.currency()).getDefaultFractionDigits());
+        return LedgerBalanceDto.builder()
+            .accountType(account.type())
+            .accountId(account.id())
+            .currency(account.currency())
+            .balance(BigDecimal.valueOf(balanceMinor, digits))
+            .balanceMinor(balanceMinor)
+            .build();
+    }
+}
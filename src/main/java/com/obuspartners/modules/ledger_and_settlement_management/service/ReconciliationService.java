@@ -0,0 +1,47 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationMismatchDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+
+/**
+ * Service interface for reconciling bus core system exports against our bookings
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public interface ReconciliationService {
+
+    /**
+     * Reconcile a bus core system's export of a date
+     * 
+     * @param busCoreSystemCode the bus core system
+     * @param date the date the export covers
+     * @param export the CSV export
+     * @return the finished run
+     */
+    ReconciliationRunDto reconcile(String busCoreSystemCode, LocalDate date, InputStream export);
+
+    /**
+     * Get a reconciliation run
+     * 
+     * @param runId the run ID
+     * @return the run
+     */
+    ReconciliationRunDto getReconciliation(Long runId);
+
+    /**
+     * Get the mismatches of a reconciliation run
+     * 
+     * @param runId the run ID
+     * @param type only mismatches of this type, or all when null
+     * @param pageable pagination information
+     * @return page of mismatches
+     */
+    Page<ReconciliationMismatchDto> getMismatches(Long runId, ReconciliationMismatchType type, Pageable pageable);
+}
@@ -0,0 +1,72 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.bus_core_system.repository.BusCoreSystemRepository;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationMismatchDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.entity.ReconciliationMismatch;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationMismatchType;
+import com.obuspartners.modules.ledger_and_settlement_management.reconciliation.ReconciliationEngine;
+import com.obuspartners.modules.ledger_and_settlement_management.repository.ReconciliationMismatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+
+/**
+ * Implementation of ReconciliationService on the reconciliation engine
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private final ReconciliationEngine reconciliationEngine;
+    private final ReconciliationMismatchRepository reconciliationMismatchRepository;
+    private final BusCoreSystemRepository busCoreSystemRepository;
+
+    @Override
+    public ReconciliationRunDto reconcile(String busCoreSystemCode, LocalDate date, InputStream export) {
+        if (busCoreSystemRepository.findByCodeAndIsDeletedFalse(busCoreSystemCode).isEmpty()) {
+            throw new ApiException("Bus core system not found: " + busCoreSystemCode, HttpStatus.NOT_FOUND);
+        }
+        if (date.isAfter(LocalDate.now())) {
+            throw new ApiException("Future dates cannot be reconciled", HttpStatus.BAD_REQUEST);
+        }
+        return reconciliationEngine.reconcile(busCoreSystemCode, date, export);
+    }
+
+    @Override
+    public ReconciliationRunDto getReconciliation(Long runId) {
+        return reconciliationEngine.find(runId)
+            .orElseThrow(() -> new ApiException("Reconciliation not found: " + runId, HttpStatus.NOT_FOUND));
+    }
+
+    @Override
+    public Page<ReconciliationMismatchDto> getMismatches(Long runId, ReconciliationMismatchType type, Pageable pageable) {
+        getReconciliation(runId);
+        Page<ReconciliationMismatch> mismatches = type != null
+            ? reconciliationMismatchRepository.findByRunIdAndMismatchType(runId, type, pageable)
+            : reconciliationMismatchRepository.findByRunId(runId, pageable);
+        return mismatches.map(this::convertToDto);
+    }
+
+    private ReconciliationMismatchDto convertToDto(ReconciliationMismatch mismatch) {
+        return ReconciliationMismatchDto.builder()
+            .mismatchType(mismatch.getMismatchType())
+            .bookingReference(mismatch.getBookingReference())
+            .busCoreAmountMinor(mismatch.getBusCoreAmountMinor())
+            .busCoreCurrency(mismatch.getBusCoreCurrency())
+            .ledgerAmountMinor(mismatch.getLedgerAmountMinor())
+            .ledgerCurrency(mismatch.getLedgerCurrency())
+            .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for daily partner and agent settlement
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public interface SettlementService {
+
+    /**
+     * Start settling a date in the background, or resume its failed run
+     * 
+     * @param date the settlement date
+     * @return the run, RUNNING
+     */
+    SettlementRunDto startSettlement(LocalDate date);
+
+    /**
+     * Get the settlement run of a date
+     * 
+     * @param date the settlement date
+     * @return the run
+     */
+    SettlementRunDto getSettlement(LocalDate date);
+}
@@ -0,0 +1,70 @@
+package com.obuspartners.modules.ledger_and_settlement_management.service;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.settlement.SettlementEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Implementation of SettlementService on the settlement engine
+ *
+ * Yesterday's bookings are settled every night at
+ * {@code app.settlement.cron}; on several nodes only one claims the run.
+ * Runs are executed on their own virtual thread, never on the caller's or
+ * the scheduler's.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementServiceImpl implements SettlementService {
+
+    private final SettlementEngine settlementEngine;
+
+    @Override
+    public SettlementRunDto startSettlement(LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            throw new ApiException("Only past dates can be settled", HttpStatus.BAD_REQUEST);
+        }
+        SettlementRunDto run = settlementEngine.claim(date);
+        executeInBackground(run);
+        return run;
+    }
+
+    @Override
+    public SettlementRunDto getSettlement(LocalDate date) {
+        return settlementEngine.find(date)
+            .orElseThrow(() -> new ApiException("No settlement for " + date, HttpStatus.NOT_FOUND));
+    }
+
+    @Scheduled(cron = "${app.settlement.cron:0 30 0 * * *}")
+    public void settleYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            executeInBackground(settlementEngine.claim(yesterday));
+        } catch (ApiException e) {
+            log.info("Nightly settlement of {} skipped: {}", yesterday, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Nightly settlement of {} failed: {}", yesterday, e.getMessage());
+        }
+    }
+
+    private void executeInBackground(SettlementRunDto run) {
+        LocalDate date = run.getSettlementDate();
+        Thread.ofVirtual().name("settlement-" + date).start(() -> {
+            try {
+                settlementEngine.execute(run);
+            } catch (RuntimeException e) {
+                log.error("Settlement of {} stopped: {}", date, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Ledger and Settlement Management Service Package
+ * 
+ * This package contains the services posting commissions to the partner and
+ * agent ledgers, reading their balances, running daily settlement and
+ * reconciling bus core system exports.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.ledger_and_settlement_management.service;
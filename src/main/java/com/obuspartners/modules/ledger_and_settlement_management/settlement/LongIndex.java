@@ -0,0 +1,97 @@
+package com.obuspartners.modules.ledger_and_settlement_management.settlement;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing index of primitive long keys
+ *
+ * Gives each distinct key a dense index (0, 1, 2, ... in insertion order),
+ * so callers keep per-key values in plain primitive arrays instead of boxed
+ * map entries. Not thread-safe.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+final class LongIndex {
+
+    private long[] keys;
+    /** Hash table of dense index + 1; 0 is an empty slot */
+    private int[] table;
+    private int mask;
+    private int size;
+
+    LongIndex(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        table = new int[capacity];
+        mask = capacity - 1;
+        keys = new long[Math.max(8, expectedKeys)];
+    }
+
+    /**
+     * @return the index of the key, or -1 when it was never added
+     */
+    int indexOf(long key) {
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the key, adding it when absent
+     */
+    int add(long key) {
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int index = size++;
+        keys[index] = key;
+        table[slot] = index + 1;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return index;
+    }
+
+    boolean contains(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    long keyAt(int index) {
+        return keys[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hash(keys[index]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
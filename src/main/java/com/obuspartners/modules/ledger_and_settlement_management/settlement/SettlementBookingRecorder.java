@@ -0,0 +1,209 @@
+package com.obuspartners.modules.ledger_and_settlement_management.settlement;
+
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind recorder of confirmed bookings as settlement input
+ *
+ * Bookings with an amount and a partner are queued from
+ * BookingConfirmedEvent and appended to settlement_bookings by a scheduled
+ * flush with batched INSERTs, each batch in one transaction. A batch that
+ * fails twice, or that the database refuses (rather than cannot be
+ * reached), is split in halves and retried, down to single bookings; a
+ * single booking the database refuses twice is logged in full and dropped.
+ * While the database cannot be reached batches are kept and written first
+ * on the next flush, and new bookings are dropped (and logged) only while
+ * {@code max-pending} are waiting.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SettlementBookingRecorder {
+
+    private static final String INSERT_BOOKING_SQL =
+        "INSERT INTO settlement_bookings (booking_reference, bus_core_system_code, partner_id, agent_id, " +
+        "amount_minor, currency, booked_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentLinkedQueue<Object[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Failed batches and the halves of split ones, written before new bookings; only touched by the flusher */
+    private final Deque<Batch> retries = new ArrayDeque<>();
+
+    @Value("${app.ledger.default-currency:TZS}")
+    private String defaultCurrency;
+
+    @Value("${app.settlement.bookings.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.settlement.bookings.max-pending:100000}")
+    private int maxPending;
+
+    public SettlementBookingRecorder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        if (event.getTotalAmount() == null || event.getPartnerId() == null) {
+            return;
+        }
+        String code = event.getCurrency() != null && !event.getCurrency().isBlank()
+            ? event.getCurrency().trim().toUpperCase(Locale.ROOT) : defaultCurrency;
+        long amountMinor;
+        try {
+            int digits = Math.max(0, Currency.getInstance(code).getDefaultFractionDigits());
+            amountMinor = event.getTotalAmount().movePointRight(digits).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.error("Booking {} not recorded for settlement, bad amount {} {}",
+                event.getBookingReference(), event.getTotalAmount(), code);
+            return;
+        }
+        if (queued.incrementAndGet() > maxPending) {
+            queued.decrementAndGet();
+            log.error("Booking {} not recorded for settlement, {} bookings waiting", event.getBookingReference(), maxPending);
+            return;
+        }
+        queue.add(new Object[] { event.getBookingReference(), event.getBusCoreSystemCode(), event.getPartnerId(),
+            event.getAgentId(), amountMinor, code, Timestamp.valueOf(LocalDateTime.now()) });
+    }
+
+    /**
+     * Number of bookings recorded but not yet written
+     */
+    public int pendingCount() {
+        return queued.get();
+    }
+
+    /**
+     * Write queued bookings to the database
+     */
+    @Scheduled(fixedDelayString = "${app.settlement.bookings.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error writing settlement bookings, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    synchronized void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error writing settlement bookings on shutdown: {}", e.getMessage());
+        }
+        if (queued.get() > 0) {
+            log.error("{} bookings not recorded for settlement at shutdown", queued.get());
+            retries.forEach(batch -> batch.rows().forEach(row ->
+                log.error("Booking not recorded for settlement: {}", describe(row))));
+            queue.forEach(row -> log.error("Booking not recorded for settlement: {}", describe(row)));
+        }
+    }
+
+    synchronized void flush() {
+        while (true) {
+            Batch batch = retries.pollFirst();
+            if (batch == null) {
+                List<Object[]> rows = new ArrayList<>(batchSize);
+                Object[] row;
+                while (rows.size() < batchSize && (row = queue.poll()) != null) {
+                    rows.add(row);
+                }
+                if (rows.isEmpty()) {
+                    return;
+                }
+                batch = new Batch(rows, 0);
+            }
+            try {
+                List<Object[]> rows = batch.rows();
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_BOOKING_SQL, rows));
+                queued.addAndGet(-batch.size());
+                log.debug("Recorded {} bookings for settlement", batch.size());
+            } catch (Exception e) {
+                if (!retry(batch, e)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retry a failed batch: split it when it failed twice or was refused,
+     * drop a single booking that was refused twice
+     *
+     * @return whether to go on writing now rather than on the next flush
+     */
+    private boolean retry(Batch batch, Exception e) {
+        boolean refused = !isUnavailable(e);
+        int attempts = batch.attempts() + 1;
+        if (batch.size() == 1 && refused && attempts >= 2) {
+            queued.decrementAndGet();
+            log.error("Booking refused by the database and not recorded for settlement: {} ({})",
+                describe(batch.rows().get(0)), e.getMessage());
+            return true;
+        }
+        if (batch.size() > 1 && (refused || attempts >= 2)) {
+            int half = batch.size() / 2;
+            retries.addFirst(new Batch(batch.rows().subList(half, batch.size()), 0));
+            retries.addFirst(new Batch(batch.rows().subList(0, half), 0));
+            log.warn("Error writing {} settlement bookings, retrying in halves: {}", batch.size(), e.getMessage());
+            return refused;
+        }
+        retries.addFirst(new Batch(batch.rows(), attempts));
+        log.error("Error writing {} settlement bookings, will retry: {}", batch.size(), e.getMessage());
+        return false;
+    }
+
+    /**
+     * Whether the database could not be reached or was busy, rather than refusing the rows
+     */
+    private static boolean isUnavailable(Exception e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException || e instanceof TransactionException;
+    }
+
+    private static String describe(Object[] row) {
+        return "reference=" + row[0] + ", system=" + row[1] + ", partner=" + row[2] + ", agent=" + row[3]
+            + ", amount=" + row[4] + " " + row[5] + " (minor units), bookedAt=" + row[6];
+    }
+
+    /**
+     * Bookings written together, and how often this batch has failed
+     */
+    private record Batch(List<Object[]> rows, int attempts) {
+        int size() {
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.obuspartners.modules.ledger_and_settlement_management.settlement;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.SettlementRunStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settlement batch over a day's bookings
+ *
+ * A run settles one date, partitioned by partner. Partners are settled in
+ * parallel on virtual threads, at most {@code parallelism} at a time (each
+ * holds a database connection). A partition streams the partner's
+ * bookings through a forward-only cursor and adds them up in primitive
+ * arrays keyed by agent, so memory depends on the number of agents, not
+ * bookings. For each booking:
+ * <ul>
+ *   <li>commission = amount x the partner's commission_rate %</li>
+ *   <li>the booking agent gets {@code app.ledger.commission.agent-share} of
+ *       it, as in the ledger</li>
+ *   <li>for a sub-agent, its super agent gets
+ *       {@code super-agent-share} of the agent's part</li>
+ * </ul>
+ * All amounts are in minor units, rounded half-even per booking.
+ *
+ * A partner's results are written with batched INSERTs in one transaction
+ * with its checkpoint in settlement_partitions. The running node refreshes
+ * the run every {@code heartbeat-ms}, so a long partition does not look
+ * abandoned. A run that fails, or whose node dies (no refresh for
+ * {@code stale-run-minutes}), is resumed by settling the date again and
+ * only redoes the partners not checkpointed. Every update of a run is
+ * fenced by its attempts, so a node whose run was taken over stops writing
+ * to it.
+ *
+ * On MySQL the JDBC URL needs {@code useCursorFetch=true} for the fetch
+ * size to stream rows; without it the driver reads a partition's whole
+ * result into memory.
+ *
+ * Settings are under {@code app.settlement.}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SettlementEngine {
+
+    private static final String RUN_COLUMNS =
+        "id, settlement_date, status, attempts, partitions_total, partitions_done, bookings_processed, " +
+        "started_at, updated_at, finished_at";
+
+    private static final String SELECT_RUN_SQL =
+        "SELECT " + RUN_COLUMNS + " FROM settlement_runs WHERE settlement_date = ?";
+
+    private static final String INSERT_RUN_SQL =
+        "INSERT INTO settlement_runs (settlement_date, status, attempts, partitions_total, partitions_done, " +
+        "bookings_processed, started_at, updated_at) VALUES (?, 'RUNNING', 1, 0, 0, 0, ?, ?)";
+
+    /** Attempts doubles as a version, so only one node takes over a run */
+    private static final String RESUME_RUN_SQL =
+        "UPDATE settlement_runs SET status = 'RUNNING', attempts = attempts + 1, updated_at = ?, finished_at = NULL " +
+        "WHERE id = ? AND status = ? AND attempts = ?";
+
+    private static final String START_RUN_SQL =
+        "UPDATE settlement_runs SET partitions_total = ?, updated_at = ? WHERE id = ? AND attempts = ?";
+
+    private static final String HEARTBEAT_RUN_SQL =
+        "UPDATE settlement_runs SET updated_at = ? WHERE id = ? AND attempts = ? AND status = 'RUNNING'";
+
+    private static final String CHECKPOINT_RUN_SQL =
+        "UPDATE settlement_runs SET partitions_done = partitions_done + 1, " +
+        "bookings_processed = bookings_processed + ?, updated_at = ? WHERE id = ? AND attempts = ?";
+
+    private static final String FINISH_RUN_SQL =
+        "UPDATE settlement_runs SET status = ?, updated_at = ?, finished_at = ? WHERE id = ? AND attempts = ?";
+
+    private static final String SELECT_PARTNERS_SQL = "SELECT id, commission_rate FROM partners";
+
+    private static final String SELECT_SUB_AGENTS_SQL =
+        "SELECT id, super_agent_id FROM agents WHERE super_agent_id IS NOT NULL";
+
+    private static final String SELECT_SETTLED_PARTNERS_SQL =
+        "SELECT partner_id FROM settlement_partitions WHERE run_id = ?";
+
+    private static final String SELECT_BOOKINGS_SQL =
+        "SELECT agent_id, amount_minor, currency FROM settlement_bookings " +
+        "WHERE partner_id = ? AND booked_at >= ? AND booked_at < ?";
+
+    private static final String INSERT_RESULT_SQL =
+        "INSERT INTO settlement_results (run_id, settlement_date, partner_id, account_type, account_id, currency, " +
+        "booking_count, gross_amount_minor, commission_minor, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PARTITION_SQL =
+        "INSERT INTO settlement_partitions (run_id, partner_id, booking_count, completed_at) VALUES (?, ?, ?, ?)";
+
+    private static final RowMapper<SettlementRunDto> RUN_MAPPER = (rs, rowNum) -> SettlementRunDto.builder()
+        .id(rs.getLong("id"))
+        .settlementDate(rs.getDate("settlement_date").toLocalDate())
+        .status(SettlementRunStatus.valueOf(rs.getString("status")))
+        .attempts(rs.getInt("attempts"))
+        .partitionsTotal(rs.getInt("partitions_total"))
+        .partitionsDone(rs.getInt("partitions_done"))
+        .bookingsProcessed(rs.getLong("bookings_processed"))
+        .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+        .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+        .finishedAt(rs.getTimestamp("finished_at") != null ? rs.getTimestamp("finished_at").toLocalDateTime() : null)
+        .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.settlement.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.settlement.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.settlement.write-batch-size:1000}")
+    private int writeBatchSize;
+
+    @Value("${app.settlement.stale-run-minutes:30}")
+    private long staleRunMinutes;
+
+    @Value("${app.settlement.heartbeat-ms:60000}")
+    private long heartbeatMs;
+
+    @Value("${app.ledger.commission.agent-share:0}")
+    private BigDecimal agentShare;
+
+    @Value("${app.settlement.super-agent-share:0}")
+    private BigDecimal superAgentShare;
+
+    public SettlementEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Claim and run the settlement of a date
+     *
+     * @param date the settlement date
+     * @return the finished run
+     * @throws ApiException 409 when the date is settled or being settled
+     */
+    public SettlementRunDto settle(LocalDate date) {
+        return execute(claim(date));
+    }
+
+    /**
+     * Get the settlement run of a date
+     *
+     * @param date the settlement date
+     * @return the run, if the date was ever settled
+     */
+    public Optional<SettlementRunDto> find(LocalDate date) {
+        return jdbcTemplate.query(SELECT_RUN_SQL, RUN_MAPPER, Date.valueOf(date)).stream().findFirst();
+    }
+
+    /**
+     * Start a new run for a date, or take over its failed or abandoned run
+     *
+     * @param date the settlement date
+     * @return the claimed run, RUNNING
+     * @throws ApiException 409 when the date is settled or being settled
+     */
+    public SettlementRunDto claim(LocalDate date) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Optional<SettlementRunDto> existing = find(date);
+        if (existing.isEmpty()) {
+            try {
+                jdbcTemplate.update(INSERT_RUN_SQL, Date.valueOf(date), now, now);
+            } catch (DuplicateKeyException e) {
+                throw new ApiException("Settlement of " + date + " is already running", HttpStatus.CONFLICT);
+            }
+            log.info("Starting settlement of {}", date);
+            return find(date).orElseThrow();
+        }
+
+        SettlementRunDto run = existing.get();
+        if (run.getStatus() == SettlementRunStatus.COMPLETED) {
+            throw new ApiException("Bookings of " + date + " are already settled", HttpStatus.CONFLICT);
+        }
+        if (run.getStatus() == SettlementRunStatus.RUNNING
+                && run.getUpdatedAt().isAfter(LocalDateTime.now().minusMinutes(staleRunMinutes))) {
+            throw new ApiException("Settlement of " + date + " is already running", HttpStatus.CONFLICT);
+        }
+        if (jdbcTemplate.update(RESUME_RUN_SQL, now, run.getId(), run.getStatus().name(), run.getAttempts()) == 0) {
+            throw new ApiException("Settlement of " + date + " is already running", HttpStatus.CONFLICT);
+        }
+        log.info("Resuming {} settlement of {} ({} of {} partners settled)",
+            run.getStatus(), date, run.getPartitionsDone(), run.getPartitionsTotal());
+        return find(date).orElseThrow();
+    }
+
+    /**
+     * Settle every partner of a claimed run not yet checkpointed
+     *
+     * @param run a run returned by {@link #claim(LocalDate)}
+     * @return the run with its final status and the timing of this attempt
+     */
+    public SettlementRunDto execute(SettlementRunDto run) {
+        long started = System.nanoTime();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bookings = new AtomicLong();
+        AtomicBoolean takenOver = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread.ofVirtual().name("settlement-heartbeat-" + run.getSettlementDate())
+            .start(() -> heartbeat(run, finished, takenOver));
+        try {
+            Rules rules = loadRules(run.getId());
+            if (jdbcTemplate.update(START_RUN_SQL, rules.partnerIds.length, Timestamp.valueOf(LocalDateTime.now()),
+                    run.getId(), run.getAttempts()) == 0) {
+                takenOver.set(true);
+                throw takenOver(run);
+            }
+
+            Timestamp from = Timestamp.valueOf(run.getSettlementDate().atStartOfDay());
+            Timestamp to = Timestamp.valueOf(run.getSettlementDate().plusDays(1).atStartOfDay());
+            Semaphore permits = new Semaphore(parallelism);
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("settlement-", 0).factory())) {
+                for (int i = 0; i < rules.partnerIds.length; i++) {
+                    long partnerId = rules.partnerIds[i];
+                    if (rules.settled.contains(partnerId)) {
+                        continue;
+                    }
+                    Fraction rate = rules.rates[i];
+                    executor.execute(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            if (takenOver.get()) {
+                                return;
+                            }
+                            bookings.addAndGet(settlePartner(run, partnerId, rate, rules, from, to, takenOver));
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.error("Settlement of partner {} for {} failed: {}",
+                                partnerId, run.getSettlementDate(), e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Settlement of {} failed: {}", run.getSettlementDate(), e.getMessage());
+        } finally {
+            finished.countDown();
+        }
+
+        SettlementRunStatus status = failed.get() == 0 && !takenOver.get()
+            ? SettlementRunStatus.COMPLETED : SettlementRunStatus.FAILED;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(FINISH_RUN_SQL, status.name(), now, now, run.getId(), run.getAttempts()) == 0) {
+            log.warn("Settlement of {} was taken over by another node; attempt {} leaves the run to it",
+                run.getSettlementDate(), run.getAttempts());
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        SettlementRunDto result = find(run.getSettlementDate()).orElseThrow();
+        result.setPartitionsFailed(failed.get());
+        result.setElapsedMs(elapsedMs);
+        result.setBookingsPerSecond(bookings.get() * 1000 / Math.max(1, elapsedMs));
+        log.info("Settlement of {} {}: {} bookings in {} ms ({}/s), {} of {} partners settled, {} failed",
+            run.getSettlementDate(), status, bookings.get(), elapsedMs, result.getBookingsPerSecond(),
+            result.getPartitionsDone(), result.getPartitionsTotal(), failed.get());
+        return result;
+    }
+
+    /**
+     * Stream one partner's bookings, add them up and write the results with the checkpoint
+     *
+     * @return number of bookings settled
+     */
+    private long settlePartner(SettlementRunDto run, long partnerId, Fraction rate, Rules rules,
+                               Timestamp from, Timestamp to, AtomicBoolean takenOver) {
+        Map<String, Totals> byCurrency = new HashMap<>(4);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_BOOKINGS_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, partnerId);
+            ps.setTimestamp(2, from);
+            ps.setTimestamp(3, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long agentId = rs.getLong(1);
+            boolean agentBooking = !rs.wasNull();
+            long amount = rs.getLong(2);
+            Totals totals = byCurrency.computeIfAbsent(rs.getString(3), currency -> new Totals());
+
+            long commission = rate.of(amount);
+            long agentPart = agentBooking ? rules.agentShare.of(commission) : 0;
+            totals.bookings++;
+            totals.gross += amount;
+            totals.commission += commission - agentPart;
+            if (agentBooking) {
+                int sub = rules.subAgents.indexOf(agentId);
+                long superPart = sub >= 0 ? rules.superAgentShare.of(agentPart) : 0;
+                totals.agent(agentId, 1, amount, agentPart - superPart);
+                if (superPart != 0) {
+                    totals.agent(rules.superAgentOf[sub], 0, 0, superPart);
+                }
+            }
+        });
+
+        Date settlementDate = Date.valueOf(run.getSettlementDate());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        long bookings = 0;
+        for (Map.Entry<String, Totals> currency : byCurrency.entrySet()) {
+            Totals totals = currency.getValue();
+            bookings += totals.bookings;
+            rows.add(new Object[] { run.getId(), settlementDate, partnerId, LedgerAccountType.PARTNER.name(), partnerId,
+                currency.getKey(), totals.bookings, totals.gross, totals.commission, now });
+            for (int i = 0; i < totals.agents.size(); i++) {
+                rows.add(new Object[] { run.getId(), settlementDate, partnerId, LedgerAccountType.AGENT.name(),
+                    totals.agents.keyAt(i), currency.getKey(), totals.agentBookings[i], totals.agentGross[i],
+                    totals.agentCommission[i], now });
+            }
+        }
+        long settled = bookings;
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int start = 0; start < rows.size(); start += writeBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, rows.subList(start, Math.min(start + writeBatchSize, rows.size())));
+            }
+            jdbcTemplate.update(INSERT_PARTITION_SQL, run.getId(), partnerId, settled, now);
+            if (jdbcTemplate.update(CHECKPOINT_RUN_SQL, settled, now, run.getId(), run.getAttempts()) == 0) {
+                // Rolls back this partner's results: they belong to the node that took over
+                takenOver.set(true);
+                throw takenOver(run);
+            }
+        });
+        log.debug("Settled partner {} for {}: {} bookings, {} result rows",
+            partnerId, run.getSettlementDate(), settled, rows.size());
+        return settled;
+    }
+
+    /**
+     * Keep the run's updated_at fresh until it finishes, so long partitions do not make it look abandoned
+     */
+    private void heartbeat(SettlementRunDto run, CountDownLatch finished, AtomicBoolean takenOver) {
+        try {
+            while (!finished.await(heartbeatMs, TimeUnit.MILLISECONDS)) {
+                try {
+                    if (jdbcTemplate.update(HEARTBEAT_RUN_SQL, Timestamp.valueOf(LocalDateTime.now()),
+                            run.getId(), run.getAttempts()) == 0) {
+                        takenOver.set(true);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh the settlement run of {}: {}", run.getSettlementDate(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ApiException takenOver(SettlementRunDto run) {
+        return new ApiException("Settlement of " + run.getSettlementDate() + " was taken over by another node",
+            HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Partner rates, the super-agent hierarchy and the partners already settled in the run
+     */
+    private Rules loadRules(long runId) {
+        List<Long> partnerIds = new ArrayList<>();
+        List<Fraction> rates = new ArrayList<>();
+        jdbcTemplate.query(SELECT_PARTNERS_SQL, (RowCallbackHandler) rs -> {
+            partnerIds.add(rs.getLong(1));
+            double rate = rs.getDouble(2);
+            // Percent: amount x rate / 100
+            rates.add(Fraction.of(BigDecimal.valueOf(rate).movePointLeft(2)));
+        });
+
+        LongIndex subAgents = new LongIndex(1024);
+        long[][] superAgentOf = { new long[1024] };
+        jdbcTemplate.query(SELECT_SUB_AGENTS_SQL, (RowCallbackHandler) rs -> {
+            int index = subAgents.add(rs.getLong(1));
+            if (index == superAgentOf[0].length) {
+                superAgentOf[0] = Arrays.copyOf(superAgentOf[0], index * 2);
+            }
+            superAgentOf[0][index] = rs.getLong(2);
+        });
+
+        LongIndex settled = new LongIndex(Math.max(16, partnerIds.size()));
+        jdbcTemplate.query(SELECT_SETTLED_PARTNERS_SQL, (RowCallbackHandler) rs -> settled.add(rs.getLong(1)), runId);
+
+        return new Rules(partnerIds.stream().mapToLong(Long::longValue).toArray(), rates.toArray(Fraction[]::new),
+            subAgents, superAgentOf[0], settled, Fraction.of(agentShare), Fraction.of(superAgentShare));
+    }
+
+    private record Rules(long[] partnerIds, Fraction[] rates, LongIndex subAgents, long[] superAgentOf,
+                         LongIndex settled, Fraction agentShare, Fraction superAgentShare) {
+    }
+
+    /**
+     * An exact decimal factor as numerator / power of ten, applied with half-even rounding
+     */
+    record Fraction(long numerator, long denominator) {
+
+        static Fraction of(BigDecimal value) {
+            BigDecimal stripped = value.stripTrailingZeros();
+            if (stripped.scale() <= 0) {
+                return new Fraction(stripped.longValueExact(), 1);
+            }
+            return new Fraction(stripped.unscaledValue().longValueExact(), BigDecimal.TEN.pow(stripped.scale()).longValueExact());
+        }
+
+        long of(long value) {
+            long product = Math.multiplyExact(value, numerator);
+            long quotient = product / denominator;
+            long remainder = product % denominator;
+            long twice = Math.abs(remainder) * 2;
+            if (twice > denominator || (twice == denominator && (quotient & 1) != 0)) {
+                quotient += Long.signum(product);
+            }
+            return quotient;
+        }
+    }
+
+    /**
+     * Totals of one partner in one currency, with per-agent totals in primitive arrays
+     */
+    private static final class Totals {
+        long bookings;
+        long gross;
+        long commission;
+        final LongIndex agents = new LongIndex(64);
+        long[] agentBookings = new long[64];
+        long[] agentGross = new long[64];
+        long[] agentCommission = new long[64];
+
+        void agent(long agentId, long bookingCount, long amount, long agentCommissionMinor) {
+            int index = agents.add(agentId);
+            if (index == agentBookings.length) {
+                agentBookings = Arrays.copyOf(agentBookings, index * 2);
+                agentGross = Arrays.copyOf(agentGross, index * 2);
+                agentCommission = Arrays.copyOf(agentCommission, index * 2);
+            }
+            agentBookings[index] += bookingCount;
+            agentGross[index] += amount;
+            agentCommission[index] += agentCommissionMinor;
+        }
+    }
+}
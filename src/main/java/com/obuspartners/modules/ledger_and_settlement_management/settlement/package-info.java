@@ -0,0 +1,13 @@
+/**
+ * Settlement Package
+ * 
+ * This package contains the daily settlement batch: confirmed bookings
+ * recorded as settlement input, and the engine that streams a day's
+ * bookings per partner, computes partner, agent and super-agent commission
+ * and writes the results with per-partner checkpoints.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.ledger_and_settlement_management.settlement;
@@ -1,34 +1,35 @@
 package com.obuspartners.modules.partner_integration.bmslg;
 
+import com.obuspartners.modules.partner_integration.resilience.UpstreamUnavailableException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * BMSLG Authentication Service
  * Handles authentication with BMSLG (Bus Management System Login Gateway)
+ * Requests are signed by {@link BmslgSigner} and sent through the shared {@link BmslgClient}
+ * Operations on behalf of an agent should take the session from {@link BmslgSessionCache}
+ * rather than signing in each time
  * 
  * @author OBUS Team
  * @version 1.0.0
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class Auth {
 
-    private static final String BMSLG_SIGN_IN_URL = "https://bms.oacl.co.tz/api/Agents-V8/Sign-In.php";
-    private static final String LOGIN_SALT = "l0g!n";
-    private static final String POST_SALT = "5mS!0g1n";
+    private final BmslgClient bmslgClient;
+    private final BmslgSigner signer;
 
     /**
      * Encrypts a string using the specified algorithm
@@ -38,89 +39,7 @@ public class Auth {
      * @return Encrypted string or null if algorithm not supported
      */
     public String encrypt(int algorithmType, String input) {
-        if (input == null) {
-            return null;
-        }
-
-        try {
-            MessageDigest digest;
-            switch (algorithmType) {
-                case 1:
-                    digest = MessageDigest.getInstance("MD5");
-                    break;
-                case 2:
-                    digest = MessageDigest.getInstance("SHA-1");
-                    break;
-                case 3:
-                    digest = MessageDigest.getInstance("SHA-256");
-                    break;
-                case 4:
-                    digest = MessageDigest.getInstance("SHA-512");
-                    break;
-                default:
-                    log.warn("Unsupported algorithm type: {}", algorithmType);
-                    return null;
-            }
-
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Algorithm not supported: {}", algorithmType, e);
-            return null;
-        }
-    }
-
-    /**
-     * Helper method to generate MD5 hash
-     */
-    private String md5(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("MD5 algorithm not supported", e);
-            return null;
-        }
-    }
-
-    /**
-     * Helper method to generate SHA512 hash
-     */
-    private String sha512(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-512");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-512 algorithm not supported", e);
-            return null;
-        }
+        return signer.hash(algorithmType, input);
     }
 
     /**
@@ -169,25 +88,24 @@ public class Auth {
             throw new IllegalArgumentException("Missing required fields: " + missingFields);
         }
 
-        // Generate GET key - match BMSLG server logic: encrpt(auth_key, md5(hash("sha512", owner_id + auth_key + "l0g!n")))
-        String getKeyInput = ownerId + authKey + LOGIN_SALT;
-        String getKey = encrypt(authKey, md5(sha512(getKeyInput)));
-
         // Encrypt password - match Dart implementation: SHA1 -> SHA512 -> authKey
-        String hashedPassword = password;
-        // First apply algorithm 2 (SHA1)
-        hashedPassword = encrypt(2, hashedPassword);
-        // Then apply algorithm 4 (SHA512)
-        hashedPassword = encrypt(4, hashedPassword);
-        // Finally apply the authKey algorithm
-        String encryptedPassword = encrypt(authKey, hashedPassword);
-
-        // Create raw string for POST key
-        String rawString = username + encryptedPassword + isFrom + platform + language +
-                          imei + latitude + longitude + ipAddress + ownerId + authKey + POST_SALT;
-
-        // Generate POST key - match BMSLG server logic: encrpt(auth_key, md5(hash("sha512", rawString)))
-        String postKey = encrypt(authKey, md5(sha512(rawString)));
+        String encryptedPassword = signer.encryptPassword(authKey, password);
+
+        // GET and POST keys - match BMSLG server logic: encrpt(auth_key, md5(hash("sha512", fields + salt)))
+        Map<String, String> fields = new HashMap<>();
+        fields.put("username", username);
+        fields.put("pswd", encryptedPassword);
+        fields.put("is_from", isFrom);
+        fields.put("pltfm", platform);
+        fields.put("lang", language);
+        fields.put("imei", imei);
+        fields.put("lat", latitude);
+        fields.put("long", longitude);
+        fields.put("ip", ipAddress);
+        fields.put("owner_id", ownerId);
+        fields.put("auth_key", String.valueOf(authKey));
+        String getKey = signer.key(authKey, BmslgEndpoint.SIGN_IN.getGetKey(), fields);
+        String postKey = signer.key(authKey, BmslgEndpoint.SIGN_IN.getPostKey(), fields);
 
         return new AuthRequestData(getKey, encryptedPassword, postKey);
     }
@@ -214,74 +132,93 @@ public class Auth {
                                   String ownerId, int authKey, String isFrom,
                                   String platform, String language, String appVersion) {
         
-        try {
-            AuthRequestData authData = createAuthRequest(username, password, imei, latitude, 
-                                                       longitude, ipAddress, ownerId, authKey, 
-                                                       isFrom, platform, language, appVersion);
-
-            // Prepare POST data
-            Map<String, String> postData = new HashMap<>();
-            postData.put("username", username);
-            postData.put("pswd", authData.getEncryptedPassword());
-            postData.put("imei", imei);
-            postData.put("lat", latitude);
-            postData.put("long", longitude);
-            postData.put("ip", ipAddress);
-            postData.put("owner_id", ownerId);
-            postData.put("auth_key", String.valueOf(authKey));
-            postData.put("key", authData.getPostKey());
-            postData.put("is_from", isFrom);
-            postData.put("pltfm", platform);
-            postData.put("lang", language);
-            postData.put("app_ver", appVersion);
-
-            // Prepare GET parameters
-            Map<String, String> getData = new HashMap<>();
-            getData.put("key", authData.getGetKey());
+        Map<String, String> query = new LinkedHashMap<>();
+        Map<String, String> postData = new LinkedHashMap<>();
+        prepareSignIn(username, password, imei, latitude, longitude, ipAddress, ownerId, authKey,
+                      isFrom, platform, language, appVersion, query, postData);
 
-            // Build URL with GET parameters
-            StringBuilder urlBuilder = new StringBuilder(BMSLG_SIGN_IN_URL);
-            urlBuilder.append("?");
-            getData.forEach((key, value) -> 
-                urlBuilder.append(key).append("=").append(value).append("&"));
-            String url = urlBuilder.toString().replaceAll("&$", "");
-
-            // Build POST body
-            StringBuilder postBody = new StringBuilder();
-            postData.forEach((key, value) -> 
-                postBody.append(key).append("=").append(value).append("&"));
-            String postBodyStr = postBody.toString().replaceAll("&$", "");
-
-            log.info("BMSLG Auth URL: {}", url);
-            log.info("BMSLG Auth Payload: {}", postBodyStr);
-
-            // Send HTTP request
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(postBodyStr))
-                .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        try {
+            HttpResponse<String> response = bmslgClient.postForm(BmslgEndpoint.SIGN_IN.getName(), BmslgEndpoint.SIGN_IN.getUrl(), query, postData);
 
             log.info("BMSLG Auth HTTP Code: {}", response.statusCode());
-            log.info("BMSLG Auth Response: {}", response.body());
+            log.debug("BMSLG Auth Response: {}", response.body());
 
             return new AuthResponse(response.statusCode(), response.body());
 
-        } catch (IOException | InterruptedException e) {
+        } catch (UpstreamUnavailableException e) {
+            log.warn("BMSLG authentication not attempted: {}", e.getMessage());
+            return new AuthResponse(e.getStatusCode().value(), e.getMessage());
+        } catch (IOException e) {
             log.error("Error during BMSLG authentication", e);
             return new AuthResponse(500, "Authentication request failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("BMSLG authentication interrupted", e);
+            return new AuthResponse(500, "Authentication request failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Sends authentication request to BMSLG without blocking the caller
+     * (parameters as for {@link #authenticate})
+     *
+     * @return future completed with the authentication response; I/O failures complete it with a 500 response
+     */
+    public CompletableFuture<AuthResponse> authenticateAsync(String username, String password, String imei,
+                                                             String latitude, String longitude, String ipAddress,
+                                                             String ownerId, int authKey, String isFrom,
+                                                             String platform, String language, String appVersion) {
+        Map<String, String> query = new LinkedHashMap<>();
+        Map<String, String> postData = new LinkedHashMap<>();
+        prepareSignIn(username, password, imei, latitude, longitude, ipAddress, ownerId, authKey,
+                      isFrom, platform, language, appVersion, query, postData);
+
+        return bmslgClient.postFormAsync(BmslgEndpoint.SIGN_IN.getName(), BmslgEndpoint.SIGN_IN.getUrl(), query, postData)
+            .thenApply(response -> new AuthResponse(response.statusCode(), response.body()))
+            .exceptionally(e -> {
+                log.error("Error during BMSLG authentication", e);
+                return new AuthResponse(500, "Authentication request failed: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Fill the sign-in query parameters and form fields
+     */
+    private void prepareSignIn(String username, String password, String imei,
+                               String latitude, String longitude, String ipAddress,
+                               String ownerId, int authKey, String isFrom,
+                               String platform, String language, String appVersion,
+                               Map<String, String> query, Map<String, String> postData) {
+        AuthRequestData authData = createAuthRequest(username, password, imei, latitude, 
+                                                   longitude, ipAddress, ownerId, authKey, 
+                                                   isFrom, platform, language, appVersion);
+
+        // Prepare POST data
+        postData.put("username", username);
+        postData.put("pswd", authData.getEncryptedPassword());
+        postData.put("imei", imei);
+        postData.put("lat", latitude);
+        postData.put("long", longitude);
+        postData.put("ip", ipAddress);
+        postData.put("owner_id", ownerId);
+        postData.put("auth_key", String.valueOf(authKey));
+        postData.put("key", authData.getPostKey());
+        postData.put("is_from", isFrom);
+        postData.put("pltfm", platform);
+        postData.put("lang", language);
+        postData.put("app_ver", appVersion);
+
+        // Prepare GET parameters
+        query.put("key", authData.getGetKey());
+
+        log.debug("BMSLG Auth request prepared for user: {}", username);
+    }
+
     /**
      * Convenience method for authentication with default values
      */
     public AuthResponse authenticateWithDefaults(String username, String password, String ownerId) {
-        Random random = new Random();
-        int authKey = random.nextInt(4) + 1; // Random between 1-4
+        int authKey = ThreadLocalRandom.current().nextInt(4) + 1; // Random between 1-4
 
         return authenticate(username, password, "123456789012345", "0.0", "0.0", 
                           "192.168.0.101", ownerId, authKey, "4", "0", "0", "4.88");
@@ -0,0 +1,231 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuard;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared HTTP client for the BMSLG API
+ *
+ * One {@link HttpClient} is reused for every BMSLG call, so connections (and
+ * their TLS sessions) are kept alive and pooled, and HTTP/2 is negotiated
+ * where the server supports it. Connect and request timeouts are enforced and
+ * asynchronous work runs on a bounded executor. Every call is timed per
+ * endpoint in the {@code bmslg.client.requests} metric.
+ *
+ * Calls go through the {@value UpstreamGuardRegistry#BMSLG} upstream guard
+ * (circuit breaker, bulkhead, deadline-aware timeout); HTTP 5xx responses
+ * count as failures. Rejected or timed-out calls throw
+ * {@link com.obuspartners.modules.partner_integration.resilience.UpstreamUnavailableException}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class BmslgClient {
+
+    private static final String METRIC_NAME = "bmslg.client.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final ThreadPoolExecutor executor;
+    private final Duration requestTimeout;
+    private final UpstreamGuard guard;
+
+    /** Latency timers per endpoint, registered on the endpoint's first call */
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public BmslgClient(MeterRegistry meterRegistry,
+                       UpstreamGuardRegistry upstreamGuardRegistry,
+                       @Value("${app.bmslg.connect-timeout-ms:5000}") long connectTimeoutMs,
+                       @Value("${app.bmslg.request-timeout-ms:20000}") long requestTimeoutMs,
+                       @Value("${app.bmslg.executor-threads:8}") int executorThreads,
+                       @Value("${app.bmslg.executor-queue-capacity:1000}") int executorQueueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.guard = upstreamGuardRegistry.guard(UpstreamGuardRegistry.BMSLG);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(executorThreads, executorThreads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(executorQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bmslg-http-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executor)
+            .build();
+        log.info("BMSLG client initialized (connect timeout: {}ms, request timeout: {}ms, executor threads: {})",
+            connectTimeoutMs, requestTimeoutMs, executorThreads);
+    }
+
+    /**
+     * POST a form and wait for the response
+     *
+     * @param endpoint endpoint name used in metrics (e.g. "sign-in")
+     * @param baseUrl endpoint URL without query string
+     * @param query query parameters
+     * @param form form fields
+     * @return the response
+     */
+    public HttpResponse<String> postForm(String endpoint, String baseUrl, Map<String, String> query,
+                                         Map<String, String> form) throws IOException, InterruptedException {
+        return guard.execute(timeout -> send(endpoint, baseUrl, query, form, timeout), BmslgClient::isServerError);
+    }
+
+    /**
+     * POST a form, sending a second request if the first is slow (idempotent reads only)
+     *
+     * @param endpoint endpoint name used in metrics
+     * @param baseUrl endpoint URL without query string
+     * @param query query parameters
+     * @param form form fields
+     * @return the first successful response
+     */
+    public HttpResponse<String> postFormHedged(String endpoint, String baseUrl, Map<String, String> query,
+                                               Map<String, String> form) throws IOException, InterruptedException {
+        return guard.executeHedged(timeout -> send(endpoint, baseUrl, query, form, timeout), BmslgClient::isServerError);
+    }
+
+    /**
+     * POST a form without blocking the caller
+     *
+     * @param endpoint endpoint name used in metrics
+     * @param baseUrl endpoint URL without query string
+     * @param query query parameters
+     * @param form form fields
+     * @return future completed with the response, or exceptionally on I/O failure or timeout
+     */
+    public CompletableFuture<HttpResponse<String>> postFormAsync(String endpoint, String baseUrl,
+                                                                 Map<String, String> query, Map<String, String> form) {
+        return guard.executeAsync(timeout -> send(endpoint, baseUrl, query, form, timeout), BmslgClient::isServerError);
+    }
+
+    /**
+     * Build a URI from a base URL and query parameters
+     */
+    public static URI buildUri(String baseUrl, Map<String, String> query) {
+        if (query == null || query.isEmpty()) {
+            return URI.create(baseUrl);
+        }
+        StringBuilder url = new StringBuilder(baseUrl.length() + 16 * query.size()).append(baseUrl).append('?');
+        appendEncoded(url, query);
+        return URI.create(url.toString());
+    }
+
+    /**
+     * Encode fields as application/x-www-form-urlencoded
+     */
+    public static String formEncode(Map<String, String> fields) {
+        StringBuilder body = new StringBuilder(32 * fields.size());
+        appendEncoded(body, fields);
+        return body.toString();
+    }
+
+    private static void appendEncoded(StringBuilder target, Map<String, String> fields) {
+        boolean first = true;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (!first) {
+                target.append('&');
+            }
+            first = false;
+            target.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8))
+                  .append('=')
+                  .append(field.getValue() != null ? URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8) : "");
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, String baseUrl, Map<String, String> query,
+                                      Map<String, String> form, Duration timeout) throws IOException, InterruptedException {
+        HttpRequest request = formRequest(baseUrl, query, form, timeout);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            record(endpoint, start, outcome(response.statusCode()));
+            return response;
+        } catch (IOException | InterruptedException e) {
+            record(endpoint, start, Outcome.IO_ERROR);
+            throw e;
+        }
+    }
+
+    private HttpRequest formRequest(String baseUrl, Map<String, String> query, Map<String, String> form,
+                                    Duration timeout) {
+        return HttpRequest.newBuilder()
+            .uri(buildUri(baseUrl, query))
+            .timeout(timeout.compareTo(requestTimeout) < 0 ? timeout : requestTimeout)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(formEncode(form)))
+            .build();
+    }
+
+    private void record(String endpoint, long startNanos, Outcome outcome) {
+        timers.computeIfAbsent(endpoint, this::registerTimers)[outcome.ordinal()]
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] registerTimers(String endpoint) {
+        Outcome[] outcomes = Outcome.values();
+        Timer[] endpointTimers = new Timer[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            endpointTimers[outcome.ordinal()] = Timer.builder(METRIC_NAME)
+                .description("BMSLG API call latency")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+        return endpointTimers;
+    }
+
+    private static boolean isServerError(HttpResponse<String> response) {
+        return response.statusCode() >= 500;
+    }
+
+    private static Outcome outcome(int statusCode) {
+        return statusCode >= 200 && statusCode < 300 ? Outcome.SUCCESS
+             : statusCode >= 500 ? Outcome.SERVER_ERROR
+             : Outcome.CLIENT_ERROR;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Value of the {@code outcome} metric tag
+     */
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, IO_ERROR
+    }
+}
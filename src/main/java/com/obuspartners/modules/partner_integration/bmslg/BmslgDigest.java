@@ -0,0 +1,62 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Digest algorithms selectable by a BMSLG auth key
+ *
+ * Each algorithm keeps one {@link MessageDigest} per thread, so hashing
+ * never goes through {@link MessageDigest#getInstance}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum BmslgDigest {
+    MD5(1, "MD5"),
+    SHA1(2, "SHA-1"),
+    SHA256(3, "SHA-256"),
+    SHA512(4, "SHA-512");
+
+    private final int authKey;
+    private final ThreadLocal<MessageDigest> digest;
+
+    BmslgDigest(int authKey, String algorithm) {
+        this.authKey = authKey;
+        this.digest = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(algorithm + " not available", e);
+            }
+        });
+    }
+
+    public int getAuthKey() {
+        return authKey;
+    }
+
+    /**
+     * This thread's digest instance, reset and ready for use
+     */
+    MessageDigest digest() {
+        MessageDigest instance = digest.get();
+        instance.reset();
+        return instance;
+    }
+
+    /**
+     * Algorithm selected by an auth key (1=MD5, 2=SHA1, 3=SHA256, 4=SHA512)
+     *
+     * @return the algorithm, or null when the key is not supported
+     */
+    public static BmslgDigest ofAuthKey(int authKey) {
+        return switch (authKey) {
+            case 1 -> MD5;
+            case 2 -> SHA1;
+            case 3 -> SHA256;
+            case 4 -> SHA512;
+            default -> null;
+        };
+    }
+}
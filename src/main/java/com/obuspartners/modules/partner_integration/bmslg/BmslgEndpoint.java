@@ -0,0 +1,68 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import java.util.List;
+
+/**
+ * BMSLG endpoints and their request-signing recipes
+ *
+ * Each request carries a GET key and a POST key. A key is the auth-key
+ * algorithm applied to the concatenation of the listed form fields and a salt,
+ * after an optional chain of pre-hashes (each hashing the previous hex digest).
+ * New endpoints are added here, not in code.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public enum BmslgEndpoint {
+
+    SIGN_IN("sign-in", "https://bms.oacl.co.tz/api/Agents-V8/Sign-In.php",
+        new KeyRecipe(List.of("owner_id", "auth_key"), "l0g!n",
+            List.of(BmslgDigest.SHA512, BmslgDigest.MD5)),
+        new KeyRecipe(List.of("username", "pswd", "is_from", "pltfm", "lang", "imei", "lat", "long", "ip", "owner_id", "auth_key"), "5mS!0g1n",
+            List.of(BmslgDigest.SHA512, BmslgDigest.MD5))),
+
+    SEARCH_STATIONS("search-stations", "https://bms.oacl.co.tz/api/Agents-V8/Search-Stations.php",
+        new KeyRecipe(List.of("owner_id", "auth_key"), "5t@t!0n$", List.of()),
+        new KeyRecipe(List.of("owner_id", "is_from", "pltfm", "lang", "imei", "lat", "long", "ip", "auth_key"), "5t@t!0n$", List.of()));
+
+    private final String name;
+    private final String url;
+    private final KeyRecipe getKey;
+    private final KeyRecipe postKey;
+
+    BmslgEndpoint(String name, String url, KeyRecipe getKey, KeyRecipe postKey) {
+        this.name = name;
+        this.url = url;
+        this.getKey = getKey;
+        this.postKey = postKey;
+    }
+
+    /**
+     * Endpoint name used in logs and metrics
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public KeyRecipe getGetKey() {
+        return getKey;
+    }
+
+    public KeyRecipe getPostKey() {
+        return postKey;
+    }
+
+    /**
+     * How one key is derived
+     *
+     * @param fields form fields concatenated in order
+     * @param salt appended after the fields
+     * @param preHash digests applied before the auth-key digest, in order
+     */
+    public record KeyRecipe(List<String> fields, String salt, List<BmslgDigest> preHash) {
+    }
+}
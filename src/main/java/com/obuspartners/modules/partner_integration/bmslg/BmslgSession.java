@@ -0,0 +1,35 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import java.time.Instant;
+
+/**
+ * Result of a BMSLG sign-in for one agent on one bus core system
+ *
+ * @param agentBusCoreSystemId the AgentBusCoreSystem the session belongs to
+ * @param httpCode HTTP status of the sign-in response
+ * @param responseBody sign-in response body
+ * @param token session token from the response, or null when it carries none
+ * @param issuedAt when the sign-in completed
+ * @param expiresAt when the session expires upstream
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record BmslgSession(Long agentBusCoreSystemId, int httpCode, String responseBody, String token,
+                           Instant issuedAt, Instant expiresAt) {
+
+    public boolean isSuccess() {
+        return httpCode >= 200 && httpCode < 300;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    /**
+     * The session as the response of {@link Auth#authenticate}
+     */
+    public Auth.AuthResponse toAuthResponse() {
+        return new Auth.AuthResponse(httpCode, responseBody);
+    }
+}
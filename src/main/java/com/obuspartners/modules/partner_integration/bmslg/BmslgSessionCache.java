@@ -0,0 +1,318 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import com.obuspartners.modules.common.service.PasswordEncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the BMSLG sign-in per AgentBusCoreSystem (agent + bus core system)
+ *
+ * A sign-in costs the password hash chain, two signed keys and a network
+ * round trip; the resulting session is reused until it expires. The expiry
+ * is read from the sign-in response ({@code expires_in} or an absolute
+ * {@code expires_at}/{@code expiry}) and falls back to
+ * {@code app.bmslg.session.default-ttl-seconds}. An expired session is
+ * signed in again by the next call that needs it; there is no background
+ * refresh, so agents that stop calling cost no BMSLG traffic.
+ *
+ * Concurrent requests for the same agent share one sign-in. Failed sign-ins
+ * are not cached. Sessions are evicted on every node when the agent's
+ * credentials change; a session is also never served for credentials other
+ * than the ones it was signed in with. Sessions stay in process memory only.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class BmslgSessionCache {
+
+    static final String INVALIDATION_CHANNEL = "obus:cache:bmslg-session:invalidate";
+
+    private static final List<String> TOKEN_FIELDS = List.of("token", "session_token", "access_token", "auth_token", "session_id");
+    private static final List<String> RELATIVE_EXPIRY_FIELDS = List.of("expires_in", "expiry_in", "session_timeout");
+    private static final List<String> ABSOLUTE_EXPIRY_FIELDS = List.of("expires_at", "expiry", "expiry_time", "token_expiry", "session_expiry");
+    private static final DateTimeFormatter BMSLG_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Auth auth;
+    private final PasswordEncryptionService passwordEncryptionService;
+    private final CacheInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.bmslg.session.default-ttl-seconds:1800}")
+    private long defaultTtlSeconds;
+
+    @Value("${app.bmslg.session.max-ttl-seconds:86400}")
+    private long maxTtlSeconds;
+
+    @Value("${app.bmslg.session.max-size:50000}")
+    private long maxSize;
+
+    @Value("${app.bmslg.owner-id:64}")
+    private String ownerId;
+
+    @Value("${app.bmslg.zone:Africa/Dar_es_Salaam}")
+    private String zone;
+
+    private Cache<Long, CachedSession> cache;
+    private final ConcurrentMap<String, CompletableFuture<BmslgSession>> inFlight = new ConcurrentHashMap<>();
+
+    /** Bumped on every eviction so sign-ins that raced with it are not cached */
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private Counter hits;
+    private Counter signIns;
+
+    public BmslgSessionCache(Auth auth, PasswordEncryptionService passwordEncryptionService,
+                             CacheInvalidationBus invalidationBus, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.auth = auth;
+        this.passwordEncryptionService = passwordEncryptionService;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<Long, CachedSession>() {
+                @Override
+                public long expireAfterCreate(Long key, CachedSession value, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(
+                        Math.max(0, value.session().expiresAt().toEpochMilli() - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(Long key, CachedSession value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(Long key, CachedSession value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+        hits = Counter.builder("bmslg.sessions").tag("result", "hit").register(meterRegistry);
+        signIns = Counter.builder("bmslg.sessions").tag("result", "sign_in").register(meterRegistry);
+        Gauge.builder("bmslg.sessions.cached", cache, Cache::estimatedSize).register(meterRegistry);
+
+        invalidationBus.subscribe(INVALIDATION_CHANNEL, payload -> evictLocal(Long.valueOf(payload)));
+    }
+
+    /**
+     * The BMSLG session of an agent on a bus core system, signing in when there is none
+     *
+     * @param agentBusCoreSystem the agent's credentials for the bus core system
+     * @return the session; check {@link BmslgSession#isSuccess()}, failed sign-ins are returned but not cached
+     */
+    public BmslgSession getSession(AgentBusCoreSystem agentBusCoreSystem) {
+        Long id = agentBusCoreSystem.getId();
+        Credentials credentials = new Credentials(agentBusCoreSystem.getAgentLoginName(),
+            agentBusCoreSystem.getEncryptedPassword());
+
+        CachedSession cached = cache.getIfPresent(id);
+        if (cached != null && cached.credentials().equals(credentials) && !cached.session().isExpired(Instant.now())) {
+            hits.increment();
+            return cached.session();
+        }
+        return signIn(id, credentials);
+    }
+
+    /**
+     * Evict the session of an AgentBusCoreSystem on this node now, and on all
+     * nodes once the current transaction commits
+     *
+     * @param agentBusCoreSystemId the AgentBusCoreSystem ID
+     */
+    public void evict(Long agentBusCoreSystemId) {
+        if (agentBusCoreSystemId == null) {
+            return;
+        }
+        evictLocal(agentBusCoreSystemId);
+        CacheInvalidationBus.runAfterCommit(() -> {
+            evictLocal(agentBusCoreSystemId);
+            invalidationBus.publish(INVALIDATION_CHANNEL, String.valueOf(agentBusCoreSystemId));
+        });
+    }
+
+    /**
+     * Number of sessions currently cached on this node
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Sign in, sharing the sign-in with concurrent callers for the same credentials
+     */
+    private BmslgSession signIn(Long id, Credentials credentials) {
+        String flightKey = id + "\n" + credentials.loginName() + "\n" + credentials.encryptedPassword();
+        CompletableFuture<BmslgSession> mine = new CompletableFuture<>();
+        CompletableFuture<BmslgSession> running = inFlight.putIfAbsent(flightKey, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        long epoch = invalidationEpoch.get();
+        try {
+            signIns.increment();
+            String password = passwordEncryptionService.decryptPassword(credentials.encryptedPassword());
+            Auth.AuthResponse response = auth.authenticateWithDefaults(credentials.loginName(), password, ownerId);
+            SignIn signIn = toSession(id, response);
+
+            if (signIn.cacheable()) {
+                CachedSession value = new CachedSession(signIn.session(), credentials);
+                cache.put(id, value);
+                if (invalidationEpoch.get() != epoch) {
+                    // Credentials changed while signing in; do not keep the session
+                    cache.asMap().remove(id, value);
+                }
+            } else {
+                log.warn("BMSLG sign-in for agent bus core system {} not cached (HTTP {})", id, response.getHttpCode());
+            }
+            mine.complete(signIn.session());
+            return signIn.session();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    /**
+     * Read token and expiry from a sign-in response; a body with a false
+     * {@code status} is a rejected sign-in even with HTTP 200
+     */
+    SignIn toSession(Long id, Auth.AuthResponse response) {
+        Instant now = Instant.now();
+        boolean accepted = response.isSuccess();
+        String token = null;
+        Instant expiresAt = null;
+
+        if (accepted && response.getResponseBody() != null && !response.getResponseBody().isBlank()) {
+            try {
+                JsonNode root = objectMapper.readTree(response.getResponseBody());
+                JsonNode status = root.get("status");
+                if (status != null && !isTruthy(status)) {
+                    accepted = false;
+                }
+                token = text(root, TOKEN_FIELDS);
+                expiresAt = expiry(root, now);
+            } catch (IOException e) {
+                log.debug("BMSLG sign-in response is not JSON, using the default session TTL");
+            }
+        }
+
+        Instant maxExpiry = now.plusSeconds(maxTtlSeconds);
+        if (expiresAt == null) {
+            expiresAt = now.plusSeconds(defaultTtlSeconds);
+        } else if (expiresAt.isAfter(maxExpiry)) {
+            expiresAt = maxExpiry;
+        }
+        BmslgSession session = new BmslgSession(id, response.getHttpCode(), response.getResponseBody(), token, now, expiresAt);
+        return new SignIn(session, accepted && expiresAt.isAfter(now));
+    }
+
+    private Instant expiry(JsonNode root, Instant now) {
+        for (String field : RELATIVE_EXPIRY_FIELDS) {
+            JsonNode value = root.findValue(field);
+            if (value != null && (value.isNumber() || value.asText().matches("\\d+"))) {
+                return now.plusSeconds(value.asLong());
+            }
+        }
+        for (String field : ABSOLUTE_EXPIRY_FIELDS) {
+            JsonNode value = root.findValue(field);
+            if (value == null || value.isNull()) {
+                continue;
+            }
+            String text = value.asText().trim();
+            if (text.matches("\\d+")) {
+                long epoch = Long.parseLong(text);
+                // seconds until the year 5138, milliseconds above
+                return epoch < 100_000_000_000L ? Instant.ofEpochSecond(epoch) : Instant.ofEpochMilli(epoch);
+            }
+            try {
+                return text.endsWith("Z") || text.contains("+")
+                    ? Instant.parse(text)
+                    : LocalDateTime.parse(text.replace('T', ' '), BMSLG_DATE_TIME).atZone(ZoneId.of(zone)).toInstant();
+            } catch (DateTimeException e) {
+                log.debug("Unrecognized BMSLG session expiry: {}", text);
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode root, List<String> fields) {
+        for (String field : fields) {
+            JsonNode value = root.findValue(field);
+            if (value != null && value.isValueNode() && !value.asText().isBlank()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTruthy(JsonNode status) {
+        if (status.isBoolean()) {
+            return status.booleanValue();
+        }
+        if (status.isNumber()) {
+            return status.asLong() != 0;
+        }
+        String text = status.asText().trim();
+        return text.equals("1") || text.equalsIgnoreCase("true") || text.equalsIgnoreCase("success")
+            || text.equalsIgnoreCase("ok");
+    }
+
+    private void evictLocal(Long agentBusCoreSystemId) {
+        invalidationEpoch.incrementAndGet();
+        cache.invalidate(agentBusCoreSystemId);
+        log.debug("Evicted BMSLG session for agent bus core system: {}", agentBusCoreSystemId);
+    }
+
+    /** Sign-in credentials; the password stays encrypted while cached */
+    private record Credentials(String loginName, String encryptedPassword) {
+    }
+
+    record SignIn(BmslgSession session, boolean cacheable) {
+    }
+
+    private record CachedSession(BmslgSession session, Credentials credentials) {
+    }
+}
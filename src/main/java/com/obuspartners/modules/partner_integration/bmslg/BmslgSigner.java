@@ -0,0 +1,171 @@
+package com.obuspartners.modules.partner_integration.bmslg;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request-signing engine for BMSLG endpoints
+ *
+ * Computes GET/POST keys from the recipes in {@link BmslgEndpoint} and the
+ * chained password hash used at sign-in. Digests are per-thread instances and
+ * intermediate results are hex-encoded into per-thread buffers and fed
+ * straight into the next digest, so a chain allocates only its final string.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Component
+public class BmslgSigner {
+
+    /** Password hash applied before the auth-key digest: SHA1, then SHA512 */
+    private static final List<BmslgDigest> PASSWORD_PRE_HASH = List.of(BmslgDigest.SHA1, BmslgDigest.SHA512);
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_DIGEST_BYTES = 64;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Hex digest of a string with the algorithm selected by an auth key
+     *
+     * @param authKey algorithm (1=MD5, 2=SHA1, 3=SHA256, 4=SHA512)
+     * @param input the string to hash
+     * @return lowercase hex digest, or null when the input is null or the key is not supported
+     */
+    public String hash(int authKey, String input) {
+        BmslgDigest algorithm = BmslgDigest.ofAuthKey(authKey);
+        if (input == null || algorithm == null) {
+            return null;
+        }
+        Scratch scratch = SCRATCH.get();
+        scratch.text.setLength(0);
+        scratch.text.append(input);
+        return chain(scratch, List.of(), algorithm);
+    }
+
+    /**
+     * Compute a key from a recipe
+     *
+     * @param authKey the request's auth key
+     * @param recipe the key recipe
+     * @param fields form field values by name
+     * @return lowercase hex key, or null when the auth key is not supported
+     */
+    public String key(int authKey, BmslgEndpoint.KeyRecipe recipe, Map<String, String> fields) {
+        BmslgDigest algorithm = BmslgDigest.ofAuthKey(authKey);
+        if (algorithm == null) {
+            return null;
+        }
+        Scratch scratch = SCRATCH.get();
+        StringBuilder text = scratch.text;
+        text.setLength(0);
+        for (String field : recipe.fields()) {
+            text.append(fields.get(field));
+        }
+        text.append(recipe.salt());
+        return chain(scratch, recipe.preHash(), algorithm);
+    }
+
+    /**
+     * Encrypt an agent password for sign-in: SHA1, then SHA512, then the auth-key algorithm
+     *
+     * @param authKey the request's auth key
+     * @param password the plain password
+     * @return lowercase hex digest, or null when the password is null or the key is not supported
+     */
+    public String encryptPassword(int authKey, String password) {
+        BmslgDigest algorithm = BmslgDigest.ofAuthKey(authKey);
+        if (password == null || algorithm == null) {
+            return null;
+        }
+        Scratch scratch = SCRATCH.get();
+        scratch.text.setLength(0);
+        scratch.text.append(password);
+        return chain(scratch, PASSWORD_PRE_HASH, algorithm);
+    }
+
+    /**
+     * Sign a request: sets the POST key in the form and returns the GET parameters
+     *
+     * @param endpoint the endpoint
+     * @param authKey the request's auth key (also expected as the form's auth_key)
+     * @param form form fields; its "key" field is replaced
+     * @return query parameters carrying the GET key
+     */
+    public Map<String, String> sign(BmslgEndpoint endpoint, int authKey, Map<String, String> form) {
+        form.put("key", key(authKey, endpoint.getPostKey(), form));
+        return Map.of("key", key(authKey, endpoint.getGetKey(), form));
+    }
+
+    private static String chain(Scratch scratch, List<BmslgDigest> preHash, BmslgDigest last) {
+        ByteBuffer input = scratch.encode();
+        byte[] source = input.array();
+        int sourceLength = input.limit();
+        byte[] target = scratch.hexA;
+
+        for (BmslgDigest step : preHash) {
+            int hexLength = hexDigest(step, source, sourceLength, scratch.hash, target);
+            source = target;
+            sourceLength = hexLength;
+            target = target == scratch.hexA ? scratch.hexB : scratch.hexA;
+        }
+        int hexLength = hexDigest(last, source, sourceLength, scratch.hash, target);
+        return new String(target, 0, hexLength, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int hexDigest(BmslgDigest algorithm, byte[] input, int length, byte[] hash, byte[] hexOut) {
+        MessageDigest digest = algorithm.digest();
+        digest.update(input, 0, length);
+        int hashLength;
+        try {
+            hashLength = digest.digest(hash, 0, hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Digest failed", e);
+        }
+        for (int i = 0; i < hashLength; i++) {
+            int value = hash[i] & 0xff;
+            hexOut[2 * i] = HEX[value >>> 4];
+            hexOut[2 * i + 1] = HEX[value & 0x0f];
+        }
+        return 2 * hashLength;
+    }
+
+    /**
+     * Per-thread buffers
+     */
+    private static final class Scratch {
+        final StringBuilder text = new StringBuilder(256);
+        final byte[] hash = new byte[MAX_DIGEST_BYTES];
+        final byte[] hexA = new byte[2 * MAX_DIGEST_BYTES];
+        final byte[] hexB = new byte[2 * MAX_DIGEST_BYTES];
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(768);
+
+        /**
+         * UTF-8 bytes of {@link #text}, in the reused buffer
+         */
+        ByteBuffer encode() {
+            int maxBytes = (int) Math.ceil(text.length() * (double) encoder.maxBytesPerChar());
+            if (bytes.capacity() < maxBytes) {
+                bytes = ByteBuffer.allocate(maxBytes);
+            }
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(text), bytes, true);
+            encoder.flush(bytes);
+            bytes.flip();
+            return bytes;
+        }
+    }
+}
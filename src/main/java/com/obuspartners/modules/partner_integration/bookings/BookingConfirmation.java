@@ -0,0 +1,21 @@
+package com.obuspartners.modules.partner_integration.bookings;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Held seats to be booked on a bus core system
+ *
+ * @param holdId the hold, sent as idempotency reference
+ * @param scheduleId the trip's ID in the bus core system
+ * @param fromStationId departure station ID
+ * @param toStationId arrival station ID
+ * @param travelDate travel date
+ * @param seatNumbers seat numbers
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record BookingConfirmation(String holdId, String scheduleId, String fromStationId, String toStationId,
+                                  LocalDate travelDate, List<Integer> seatNumbers) {
+}
@@ -0,0 +1,37 @@
+package com.obuspartners.modules.partner_integration.bookings;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Adapter that books held seats on one kind of bus core system
+ *
+ * Adapters are Spring beans; for each bus core system the first adapter (in
+ * {@code @Order}) that supports it is used. Calls must give up after
+ * {@code timeout}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public interface BookingProvider {
+
+    /**
+     * Whether this adapter can book on the given bus core system
+     */
+    boolean supports(BusCoreSystem busCoreSystem);
+
+    /**
+     * Book held seats on a bus core system for an agent
+     *
+     * @param agentBusCoreSystem the agent's assignment (credentials) on the bus core system
+     * @param confirmation the seats to book
+     * @param timeout time left for this call
+     * @return the booking reference and amount
+     * @throws BookingRejectedException when the system refuses the booking (e.g. seat already sold)
+     */
+    BookingReceipt confirm(AgentBusCoreSystem agentBusCoreSystem, BookingConfirmation confirmation, Duration timeout)
+        throws IOException, InterruptedException;
+}
@@ -0,0 +1,16 @@
+package com.obuspartners.modules.partner_integration.bookings;
+
+import java.math.BigDecimal;
+
+/**
+ * A bus core system's answer to a confirmed booking
+ *
+ * @param reference the system's booking reference
+ * @param totalAmount amount charged for the booking, or null when the system did not say
+ * @param currency ISO currency code of the amount, or null
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record BookingReceipt(String reference, BigDecimal totalAmount, String currency) {
+}
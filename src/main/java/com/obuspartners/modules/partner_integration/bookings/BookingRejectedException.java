@@ -0,0 +1,17 @@
+package com.obuspartners.modules.partner_integration.bookings;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A bus core system refused a booking; retrying will not help
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public class BookingRejectedException extends ApiException {
+
+    public BookingRejectedException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
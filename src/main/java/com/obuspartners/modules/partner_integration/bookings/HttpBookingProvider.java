@@ -0,0 +1,129 @@
+package com.obuspartners.modules.partner_integration.bookings;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Fallback booking adapter for bus core systems exposing a JSON booking endpoint
+ *
+ * POSTs {@code {reference, schedule_id, from, to, date, seats, agent_login}}
+ * to the system's {@code baseUrl} plus {@code app.gateway.booking.http.path}
+ * and reads the booking reference from {@code booking_reference},
+ * {@code reference} or {@code booking_id}, and the amount from
+ * {@code total_amount}, {@code amount} or {@code total} with
+ * {@code currency}, at the root or under {@code data}.
+ * A 4xx answer is a rejection; 5xx and I/O errors count as failures of the
+ * system. Systems with another protocol get their own {@link BookingProvider},
+ * ordered before this one.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class HttpBookingProvider implements BookingProvider {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    @Value("${app.gateway.booking.http.path:/bookings/confirm}")
+    private String confirmPath;
+
+    public HttpBookingProvider(ObjectMapper objectMapper,
+                               @Value("${app.gateway.booking.http.connect-timeout-ms:3000}") long connectTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    @Override
+    public boolean supports(BusCoreSystem busCoreSystem) {
+        String baseUrl = busCoreSystem.getBaseUrl();
+        return baseUrl != null && (baseUrl.startsWith("http://") || baseUrl.startsWith("https://"));
+    }
+
+    @Override
+    public BookingReceipt confirm(AgentBusCoreSystem agentBusCoreSystem, BookingConfirmation confirmation, Duration timeout)
+            throws IOException, InterruptedException {
+        BusCoreSystem busCoreSystem = agentBusCoreSystem.getBusCoreSystem();
+        ObjectNode body = objectMapper.createObjectNode()
+            .put("reference", confirmation.holdId())
+            .put("schedule_id", confirmation.scheduleId())
+            .put("from", confirmation.fromStationId())
+            .put("to", confirmation.toStationId())
+            .put("date", confirmation.travelDate().toString())
+            .put("agent_login", agentBusCoreSystem.getAgentLoginName());
+        confirmation.seatNumbers().forEach(body.putArray("seats")::add);
+
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+            .uri(URI.create(stripTrailingSlash(busCoreSystem.getBaseUrl()) + confirmPath))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+
+        HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 == 4) {
+            throw new BookingRejectedException(busCoreSystem.getCode() + " refused the booking (HTTP "
+                + response.statusCode() + ")");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(busCoreSystem.getCode() + " booking returned HTTP " + response.statusCode());
+        }
+        JsonNode root = objectMapper.readTree(response.body());
+        JsonNode data = root.path("data");
+        String reference = text(root, data, "booking_reference", "reference", "booking_id");
+        if (reference == null) {
+            throw new IOException(busCoreSystem.getCode() + " booking response has no booking reference");
+        }
+        BigDecimal totalAmount = null;
+        String amount = text(root, data, "total_amount", "amount", "total");
+        if (amount != null) {
+            try {
+                totalAmount = new BigDecimal(amount);
+            } catch (NumberFormatException e) {
+                log.warn("{} booking {} has an unreadable amount: {}", busCoreSystem.getCode(), reference, amount);
+            }
+        }
+        return new BookingReceipt(reference, totalAmount, text(root, data, "currency"));
+    }
+
+    /**
+     * The first of the fields present at the root, else under data
+     */
+    private static String text(JsonNode root, JsonNode data, String... fields) {
+        for (JsonNode node : new JsonNode[] {root, data}) {
+            for (String field : fields) {
+                JsonNode value = node.get(field);
+                if (value != null && value.isValueNode() && !value.asText().isBlank()) {
+                    return value.asText().trim();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Partner Integration Bookings Package
+ * 
+ * This package contains the adapters that confirm held seats as bookings
+ * on the bus core systems.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.partner_integration.bookings;
@@ -0,0 +1,162 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker
+ *
+ * CLOSED: calls pass and their outcomes fill a sliding window; once the
+ * window holds at least {@code minimumCalls} outcomes and the failure rate
+ * reaches the threshold, the circuit opens. OPEN: calls are rejected until
+ * {@code openDuration} has passed. HALF_OPEN: up to {@code halfOpenCalls}
+ * trial calls pass; one failure opens the circuit again, all succeeding
+ * closes it.
+ *
+ * Every transition starts a new generation. Callers get the generation as a
+ * permit and report it with the outcome, so calls started before a
+ * transition do not count towards the new state.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Returned by {@link #tryAcquirePermission()} when the call is not permitted */
+    public static final long REJECTED = -1;
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    /** Ring buffer of recent outcomes, true = failure */
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, UpstreamSettings settings) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, settings.slidingWindowSize())];
+        this.minimumCalls = Math.max(1, Math.min(settings.minimumCalls(), window.length));
+        this.failureRateThreshold = settings.failureRateThreshold();
+        this.openNanos = settings.openDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, settings.halfOpenCalls());
+    }
+
+    /**
+     * @return a permit to pass to {@link #onResult} or {@link #release}, or {@link #REJECTED}
+     */
+    public synchronized long tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                return REJECTED;
+            }
+            halfOpenPermits++;
+        }
+        return generation;
+    }
+
+    /**
+     * Record the outcome of a permitted call
+     */
+    public synchronized void onResult(long permit, boolean success) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (!success) {
+                transition(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            if (recorded == window.length) {
+                if (window[next]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            window[next] = !success;
+            if (!success) {
+                failures++;
+            }
+            next = (next + 1) % window.length;
+            if (recorded >= minimumCalls && failures * 100L >= (long) failureRateThreshold * recorded) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Return a permit whose call was not made (or was cancelled) without recording an outcome
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * Close the circuit and forget recorded outcomes
+     */
+    public synchronized void reset() {
+        transition(State.CLOSED);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return failure percentage over the window, or -1 while fewer than the minimum calls are recorded
+     */
+    public synchronized float getFailureRate() {
+        return recorded < minimumCalls ? -1f : failures * 100f / recorded;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return recorded;
+    }
+
+    private void transition(State target) {
+        if (state != target) {
+            if (target == State.OPEN && state == State.HALF_OPEN) {
+                log.warn("Circuit for upstream {} reopened, a trial call failed", name);
+            } else if (target == State.OPEN) {
+                log.warn("Circuit for upstream {} opened ({} of last {} calls failed)", name, failures, recorded);
+            } else {
+                log.info("Circuit for upstream {} moved from {} to {}", name, state, target);
+            }
+        }
+        state = target;
+        generation++;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (target == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (target != State.OPEN) {
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
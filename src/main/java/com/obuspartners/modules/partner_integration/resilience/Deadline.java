@@ -0,0 +1,65 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import java.time.Duration;
+
+/**
+ * Time budget of the current request, held per thread
+ *
+ * {@link RequestDeadlineFilter} opens a deadline for every HTTP request;
+ * {@link UpstreamGuard} caps each upstream call at the time that is left, so
+ * a request never waits on an upstream longer than its caller will wait for
+ * it. Threads without a deadline use the per-upstream timeout only.
+ *
+ * The deadline is not inherited by other threads; work handed to another
+ * thread should open its own scope with {@link #remaining()}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private Deadline() {
+    }
+
+    /**
+     * Open a deadline for the current thread; an enclosing earlier deadline is kept
+     *
+     * @param budget time from now
+     * @return scope that restores the previous deadline when closed
+     */
+    public static Scope start(Duration budget) {
+        Long previous = DEADLINE_NANOS.get();
+        long deadline = System.nanoTime() + budget.toNanos();
+        if (previous == null || deadline - previous < 0) {
+            DEADLINE_NANOS.set(deadline);
+        }
+        return () -> {
+            if (previous == null) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Time left until the current thread's deadline
+     *
+     * @return the remaining time (zero or negative once passed), or null without a deadline
+     */
+    public static Duration remaining() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? null : Duration.ofNanos(deadline - System.nanoTime());
+    }
+
+    /**
+     * Deadline scope; closing it does not throw
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
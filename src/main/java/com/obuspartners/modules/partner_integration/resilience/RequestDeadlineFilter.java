@@ -0,0 +1,54 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Opens a {@link Deadline} for every HTTP request
+ *
+ * The budget is {@code app.resilience.request-deadline-ms}; a client may ask
+ * for a shorter one with the {@value #TIMEOUT_HEADER} header (milliseconds).
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    @Value("${app.resilience.request-deadline-ms:30000}")
+    private long requestDeadlineMs;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        try (Deadline.Scope ignored = Deadline.start(Duration.ofMillis(budgetMillis(request)))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private long budgetMillis(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) {
+                    return Math.min(requested, requestDeadlineMs);
+                }
+            } catch (NumberFormatException e) {
+                // ignore malformed values and use the default budget
+            }
+        }
+        return requestDeadlineMs;
+    }
+}
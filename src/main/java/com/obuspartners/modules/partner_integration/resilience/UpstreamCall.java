@@ -0,0 +1,25 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import java.time.Duration;
+
+/**
+ * A call to an upstream system, run by an {@link UpstreamGuard}
+ *
+ * The call should pass {@code timeout} on to its client (e.g. as the HTTP
+ * request timeout) so that the request is abandoned upstream as well.
+ *
+ * @param <T> the result type
+ * @param <E> the checked exception the call may throw
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface UpstreamCall<T, E extends Exception> {
+
+    /**
+     * @param timeout time left for this call
+     * @return the result
+     */
+    T call(Duration timeout) throws E, InterruptedException;
+}
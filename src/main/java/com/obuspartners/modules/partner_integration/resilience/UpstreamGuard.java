@@ -0,0 +1,527 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker, bulkhead and timeout around the calls to one upstream
+ *
+ * A call is rejected without being made when the circuit is open, when no
+ * bulkhead slot frees up within {@code maxWait}, or when the request
+ * {@link Deadline} has already passed. Otherwise it runs on a virtual thread
+ * and the caller waits at most the upstream timeout, capped at the time left
+ * until the deadline; on timeout the call is interrupted and the caller gets
+ * an {@link UpstreamUnavailableException}. The bulkhead slot is held until
+ * the call really ends, so a hanging upstream can tie up at most
+ * {@code maxConcurrentCalls} threads.
+ *
+ * Results matching the failure predicate (e.g. HTTP 5xx) count as failures
+ * for the circuit breaker, as do exceptions unless the caller classifies them
+ * otherwise (e.g. an HTTP 4xx, which shows the upstream is answering); the
+ * caller still gets them.
+ *
+ * Idempotent reads can be hedged: if no response arrives within
+ * {@code hedgeDelay}, a second request is sent and the first successful
+ * response wins. A hedge is only sent when the circuit and bulkhead allow it.
+ *
+ * Metrics, tagged with the upstream name: {@code upstream.calls} (timer per
+ * outcome), {@code upstream.circuit.state} (0 closed, 1 open, 2 half-open),
+ * {@code upstream.circuit.failure.rate}, {@code upstream.bulkhead.available}
+ * and {@code upstream.hedges} (sent / won).
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class UpstreamGuard {
+
+    public enum Outcome { SUCCESS, FAILURE, TIMEOUT, CANCELLED, CIRCUIT_OPEN, BULKHEAD_FULL, DEADLINE_EXCEEDED }
+
+    private static final String CALLS_METRIC = "upstream.calls";
+
+    private static final Predicate<Throwable> ANY_ERROR = error -> true;
+
+    private final String name;
+    private final UpstreamSettings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final ExecutorService executor;
+    private final Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    /**
+     * @param name upstream name, used in metrics and errors
+     * @param settings the upstream's settings
+     * @param executor executor running the calls, one (virtual) thread per call
+     * @param meterRegistry registry for the upstream's metrics
+     */
+    public UpstreamGuard(String name, UpstreamSettings settings, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.circuitBreaker = new CircuitBreaker(name, settings);
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls());
+        this.executor = executor;
+
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder(CALLS_METRIC)
+                .description("Guarded upstream call latency by outcome")
+                .tag("upstream", name)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        Gauge.builder("upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("Circuit state: 0 closed, 1 open, 2 half-open")
+            .tag("upstream", name)
+            .register(meterRegistry);
+        Gauge.builder("upstream.circuit.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+            .description("Failure percentage over the circuit breaker window, -1 until enough calls")
+            .tag("upstream", name)
+            .register(meterRegistry);
+        Gauge.builder("upstream.bulkhead.available", bulkhead, Semaphore::availablePermits)
+            .description("Free concurrent call slots")
+            .tag("upstream", name)
+            .register(meterRegistry);
+        this.hedgesSent = Counter.builder("upstream.hedges").tag("upstream", name).tag("result", "sent").register(meterRegistry);
+        this.hedgesWon = Counter.builder("upstream.hedges").tag("upstream", name).tag("result", "won").register(meterRegistry);
+    }
+
+    /**
+     * Run a call; every completed call counts as a success
+     */
+    public <T, E extends Exception> T execute(UpstreamCall<T, E> call) throws E, InterruptedException {
+        return execute(call, result -> false);
+    }
+
+    /**
+     * Run a call and wait for its result
+     *
+     * @param call the call
+     * @param isFailure results to count as failures
+     * @return the call's result
+     * @throws E the call's exception
+     * @throws UpstreamUnavailableException if the call was rejected or timed out
+     */
+    public <T, E extends Exception> T execute(UpstreamCall<T, E> call, Predicate<? super T> isFailure)
+            throws E, InterruptedException {
+        return execute(call, isFailure, ANY_ERROR);
+    }
+
+    /**
+     * Run a call and wait for its result, choosing which exceptions count against the circuit
+     *
+     * @param call the call
+     * @param isFailure results to count as failures
+     * @param isFailureError exceptions to count as failures; others count as successes
+     * @return the call's result
+     * @throws E the call's exception
+     * @throws UpstreamUnavailableException if the call was rejected or timed out
+     */
+    public <T, E extends Exception> T execute(UpstreamCall<T, E> call, Predicate<? super T> isFailure,
+                                              Predicate<? super Throwable> isFailureError)
+            throws E, InterruptedException {
+        Duration timeout = callTimeout();
+        Race<T> race = new Race<>();
+        race.add(start(call, timeout, isFailure, isFailureError, false));
+        return awaitResult(race, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Run an idempotent call, sending a second request if the first is slow
+     *
+     * Behaves as {@link #execute(UpstreamCall, Predicate)} when the hedge delay is zero.
+     */
+    public <T, E extends Exception> T executeHedged(UpstreamCall<T, E> call, Predicate<? super T> isFailure)
+            throws E, InterruptedException {
+        Duration hedgeDelay = settings.hedgeDelay();
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative()) {
+            return execute(call, isFailure);
+        }
+        Duration timeout = callTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Race<T> race = new Race<>();
+        race.add(start(call, timeout, isFailure, ANY_ERROR, false));
+        try {
+            if (!race.await(Math.min(hedgeDelay.toNanos(), timeout.toNanos()))) {
+                long remaining = deadline - System.nanoTime();
+                Attempt<T> hedge = remaining > 0 ? tryStartHedge(call, Duration.ofNanos(remaining), isFailure) : null;
+                if (hedge != null) {
+                    hedgesSent.increment();
+                    race.add(hedge);
+                }
+            }
+        } catch (InterruptedException e) {
+            race.cancelAll(Outcome.CANCELLED);
+            throw e;
+        }
+        return awaitResult(race, deadline);
+    }
+
+    /**
+     * Run a call without blocking the caller
+     *
+     * @return future completed with the call's result, or exceptionally with its
+     *         exception or an {@link UpstreamUnavailableException}
+     */
+    public <T> CompletableFuture<T> executeAsync(UpstreamCall<T, ?> call, Predicate<? super T> isFailure) {
+        Duration timeout;
+        Attempt<T> attempt;
+        try {
+            timeout = callTimeout();
+            attempt = start(call, timeout, isFailure, ANY_ERROR, false);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        attempt.result.whenComplete((value, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        });
+        CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!attempt.result.isDone()) {
+                attempt.cancel(Outcome.TIMEOUT);
+                future.completeExceptionally(new UpstreamUnavailableException(name, Outcome.TIMEOUT));
+            }
+        });
+        return future;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UpstreamSettings getSettings() {
+        return settings;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Close the circuit and forget recorded outcomes
+     */
+    public void reset() {
+        log.info("Resetting circuit for upstream {}", name);
+        circuitBreaker.reset();
+    }
+
+    /**
+     * Current state and call counts since startup
+     */
+    public Status getStatus() {
+        Map<String, Long> calls = new LinkedHashMap<>();
+        timers.forEach((outcome, timer) -> calls.put(outcome.name(), timer.count()));
+        return new Status(name, circuitBreaker.getState(), circuitBreaker.getFailureRate(),
+            circuitBreaker.getBufferedCalls(), bulkhead.availablePermits(), settings.maxConcurrentCalls(),
+            calls, (long) hedgesSent.count(), (long) hedgesWon.count(), settings);
+    }
+
+    /**
+     * Timeout of a call started now: the upstream timeout, capped by the request deadline
+     */
+    private Duration callTimeout() {
+        Duration timeout = settings.timeout();
+        Duration remaining = Deadline.remaining();
+        if (remaining != null) {
+            if (remaining.isNegative() || remaining.isZero()) {
+                throw reject(Outcome.DEADLINE_EXCEEDED);
+            }
+            if (remaining.compareTo(timeout) < 0) {
+                timeout = remaining;
+            }
+        }
+        return timeout;
+    }
+
+    private <T> Attempt<T> tryStartHedge(UpstreamCall<T, ?> call, Duration timeout, Predicate<? super T> isFailure) {
+        try {
+            return start(call, timeout, isFailure, ANY_ERROR, true);
+        } catch (UpstreamUnavailableException | InterruptedException e) {
+            log.debug("Not hedging call to {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Acquire a circuit permit and a bulkhead slot, then start the call on its own thread
+     */
+    private <T> Attempt<T> start(UpstreamCall<T, ?> call, Duration timeout, Predicate<? super T> isFailure,
+                                 Predicate<? super Throwable> isFailureError, boolean hedge) throws InterruptedException {
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit == CircuitBreaker.REJECTED) {
+            throw hedge ? new UpstreamUnavailableException(name, Outcome.CIRCUIT_OPEN) : reject(Outcome.CIRCUIT_OPEN);
+        }
+
+        Duration maxWait = hedge ? Duration.ZERO : settings.maxWait().compareTo(timeout) < 0 ? settings.maxWait() : timeout;
+        boolean acquired;
+        try {
+            acquired = maxWait.isZero() || maxWait.isNegative()
+                ? bulkhead.tryAcquire()
+                : bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            circuitBreaker.release(permit);
+            throw e;
+        }
+        if (!acquired) {
+            circuitBreaker.release(permit);
+            throw hedge ? new UpstreamUnavailableException(name, Outcome.BULKHEAD_FULL) : reject(Outcome.BULKHEAD_FULL);
+        }
+
+        Attempt<T> attempt = new Attempt<>(permit, hedge);
+        try {
+            attempt.task = executor.submit(() -> run(attempt, call, timeout, isFailure, isFailureError));
+        } catch (RejectedExecutionException e) {
+            attempt.releaseSlot();
+            attempt.finish(Outcome.CANCELLED);
+            throw new UpstreamUnavailableException(name, Outcome.CANCELLED);
+        }
+        return attempt;
+    }
+
+    private <T> void run(Attempt<T> attempt, UpstreamCall<T, ?> call, Duration timeout, Predicate<? super T> isFailure,
+                         Predicate<? super Throwable> isFailureError) {
+        if (!attempt.started.compareAndSet(false, true)) {
+            // cancelled before it started; cancel() has released the slot
+            return;
+        }
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        T value = null;
+        Throwable error = null;
+        try {
+            value = call.call(timeout);
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            attempt.releaseSlot();
+        }
+
+        if (error != null) {
+            // The client's own timeout can fire just before the caller's; report both the same way
+            if (error instanceof HttpTimeoutException || error instanceof SocketTimeoutException
+                    || System.nanoTime() - deadlineNanos >= 0) {
+                attempt.finish(Outcome.TIMEOUT);
+                attempt.result.completeExceptionally(new UpstreamUnavailableException(name, Outcome.TIMEOUT));
+                return;
+            }
+            boolean failed;
+            try {
+                failed = isFailureError.test(error);
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+            attempt.succeeded = !failed;
+            attempt.finish(failed ? Outcome.FAILURE : Outcome.SUCCESS);
+            attempt.result.completeExceptionally(error);
+            return;
+        }
+        boolean failed;
+        try {
+            failed = isFailure.test(value);
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        attempt.succeeded = !failed;
+        attempt.finish(failed ? Outcome.FAILURE : Outcome.SUCCESS);
+        attempt.result.complete(value);
+    }
+
+    private <T, E extends Exception> T awaitResult(Race<T> race, long deadlineNanos) throws E, InterruptedException {
+        try {
+            if (!race.await(deadlineNanos - System.nanoTime())) {
+                race.cancelAll(Outcome.TIMEOUT);
+                log.warn("Call to upstream {} timed out", name);
+                throw new UpstreamUnavailableException(name, Outcome.TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            race.cancelAll(Outcome.CANCELLED);
+            throw e;
+        }
+        Attempt<T> winner = race.winner.resultNow();
+        race.cancelOthers(winner);
+        if (winner.hedge && winner.succeeded) {
+            hedgesWon.increment();
+        }
+        return this.<T, E>resultOf(winner);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> T resultOf(Attempt<T> attempt) throws E {
+        if (attempt.result.state() == Future.State.SUCCESS) {
+            return attempt.result.resultNow();
+        }
+        Throwable error = attempt.result.exceptionNow();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        if (error instanceof InterruptedException) {
+            // the call was interrupted by cancellation, not the caller
+            throw new UpstreamUnavailableException(name, Outcome.CANCELLED);
+        }
+        // UpstreamCall only throws E or InterruptedException as checked exceptions
+        throw (E) error;
+    }
+
+    private UpstreamUnavailableException reject(Outcome outcome) {
+        timers.get(outcome).record(0, TimeUnit.NANOSECONDS);
+        log.debug("Call to upstream {} rejected: {}", name, outcome);
+        return new UpstreamUnavailableException(name, outcome);
+    }
+
+    /**
+     * One request to the upstream
+     */
+    private final class Attempt<T> {
+        final long permit;
+        final boolean hedge;
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicBoolean finished = new AtomicBoolean();
+        /** Set by whichever comes first: the call starting, or a cancel before it started */
+        final AtomicBoolean started = new AtomicBoolean();
+        final AtomicBoolean released = new AtomicBoolean();
+        volatile boolean succeeded;
+        volatile Future<?> task;
+
+        Attempt(long permit, boolean hedge) {
+            this.permit = permit;
+            this.hedge = hedge;
+        }
+
+        /** Record the outcome once; a cancelled call does not count for the circuit */
+        void finish(Outcome outcome) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            if (outcome == Outcome.CANCELLED) {
+                circuitBreaker.release(permit);
+            } else {
+                circuitBreaker.onResult(permit, outcome == Outcome.SUCCESS);
+            }
+            timers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /** Give the bulkhead slot back, once however the attempt ends */
+        void releaseSlot() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+
+        /**
+         * Stop the attempt; a running call keeps its slot until it returns, a call
+         * that has not started yet (still queued, or never to run once its task is
+         * cancelled) gives it back here
+         */
+        void cancel(Outcome outcome) {
+            finish(outcome);
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+            if (started.compareAndSet(false, true)) {
+                releaseSlot();
+            }
+        }
+    }
+
+    /**
+     * Attempts of one call; the first success wins, or the last failure if none succeeds
+     */
+    private static final class Race<T> {
+        final List<Attempt<T>> attempts = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Attempt<T>> winner = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger();
+
+        void add(Attempt<T> attempt) {
+            attempts.add(attempt);
+            pending.incrementAndGet();
+            attempt.result.whenComplete((value, error) -> {
+                if (attempt.succeeded || pending.decrementAndGet() == 0) {
+                    winner.complete(attempt);
+                }
+            });
+        }
+
+        boolean await(long nanos) throws InterruptedException {
+            if (nanos <= 0) {
+                return winner.isDone();
+            }
+            try {
+                winner.get(nanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+
+        void cancelOthers(Attempt<T> keep) {
+            for (Attempt<T> attempt : attempts) {
+                if (attempt != keep && !attempt.result.isDone()) {
+                    attempt.cancel(Outcome.CANCELLED);
+                }
+            }
+        }
+
+        void cancelAll(Outcome outcome) {
+            for (Attempt<T> attempt : attempts) {
+                attempt.cancel(outcome);
+            }
+        }
+    }
+
+    /**
+     * State of an upstream guard
+     *
+     * @param upstream upstream name
+     * @param state circuit state
+     * @param failureRate failure percentage over the circuit window, -1 until enough calls
+     * @param bufferedCalls outcomes in the circuit window
+     * @param availableConcurrentCalls free bulkhead slots
+     * @param maxConcurrentCalls bulkhead size
+     * @param calls number of calls per outcome since startup
+     * @param hedgesSent hedged requests sent
+     * @param hedgesWon hedged requests that answered first
+     * @param settings the upstream's settings
+     */
+    public record Status(String upstream, CircuitBreaker.State state, float failureRate, int bufferedCalls,
+                         int availableConcurrentCalls, int maxConcurrentCalls, Map<String, Long> calls,
+                         long hedgesSent, long hedgesWon, UpstreamSettings settings) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One {@link UpstreamGuard} per upstream system
+ *
+ * Guards are created on first use with the settings resolved by
+ * {@link UpstreamSettings#resolve}. Guarded calls run on virtual threads,
+ * so a hanging upstream ties up bulkhead slots but no platform threads.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class UpstreamGuardRegistry {
+
+    public static final String BMSLG = "bmslg";
+    public static final String MIXX = "mixx";
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("upstream-call-", 0).factory());
+    private final ConcurrentMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamGuardRegistry(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    /**
+     * The guard of an upstream, created on first use
+     *
+     * @param upstream upstream name, e.g. {@link #BMSLG}
+     * @return the guard
+     */
+    public UpstreamGuard guard(String upstream) {
+        return guards.computeIfAbsent(upstream, name -> {
+            UpstreamSettings settings = UpstreamSettings.resolve(environment, name);
+            log.info("Upstream guard {} created: {}", name, settings);
+            return new UpstreamGuard(name, settings, executor, meterRegistry);
+        });
+    }
+
+    /**
+     * An existing guard
+     */
+    public Optional<UpstreamGuard> find(String upstream) {
+        return Optional.ofNullable(guards.get(upstream));
+    }
+
+    /**
+     * All guards created so far, by name
+     */
+    public List<UpstreamGuard> getGuards() {
+        return guards.values().stream().sorted(Comparator.comparing(UpstreamGuard::getName)).toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
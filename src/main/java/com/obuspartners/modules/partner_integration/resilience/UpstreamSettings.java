@@ -0,0 +1,73 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Timeout, bulkhead, circuit breaker and hedging settings of one upstream
+ *
+ * Built-in defaults can be overridden per upstream with
+ * {@code app.resilience.<upstream>.timeout-ms}, {@code .max-concurrent-calls},
+ * {@code .max-wait-ms}, {@code .sliding-window-size}, {@code .minimum-calls},
+ * {@code .failure-rate-threshold}, {@code .open-duration-ms},
+ * {@code .half-open-calls} and {@code .hedge-delay-ms}; unknown upstreams use
+ * {@code app.resilience.default.*}.
+ *
+ * @param timeout maximum duration of one call
+ * @param maxConcurrentCalls calls allowed in flight at once (bulkhead size)
+ * @param maxWait how long a call may wait for a free bulkhead slot
+ * @param slidingWindowSize number of recent calls the failure rate is computed over
+ * @param minimumCalls calls needed in the window before the circuit can open
+ * @param failureRateThreshold failure percentage at which the circuit opens
+ * @param openDuration how long the circuit rejects calls before letting trial calls through
+ * @param halfOpenCalls trial calls that must succeed to close the circuit again
+ * @param hedgeDelay delay before a hedged call sends a second request; zero disables hedging
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record UpstreamSettings(Duration timeout, int maxConcurrentCalls, Duration maxWait,
+                               int slidingWindowSize, int minimumCalls, int failureRateThreshold,
+                               Duration openDuration, int halfOpenCalls, Duration hedgeDelay) {
+
+    public static final String DEFAULT = "default";
+
+    /** Built-in settings; MIXX is called from Kafka consumers, which may wait briefly for a slot */
+    static final Map<String, UpstreamSettings> DEFAULTS = Map.of(
+        DEFAULT, new UpstreamSettings(Duration.ofSeconds(20), 32, Duration.ZERO,
+            20, 10, 50, Duration.ofSeconds(30), 3, Duration.ZERO),
+        UpstreamGuardRegistry.BMSLG, new UpstreamSettings(Duration.ofSeconds(20), 32, Duration.ZERO,
+            20, 10, 50, Duration.ofSeconds(30), 3, Duration.ofSeconds(2)),
+        UpstreamGuardRegistry.MIXX, new UpstreamSettings(Duration.ofSeconds(15), 8, Duration.ofSeconds(2),
+            20, 10, 50, Duration.ofSeconds(30), 3, Duration.ZERO));
+
+    /**
+     * Settings of an upstream: configured values over the built-in defaults
+     *
+     * @param environment the Spring environment
+     * @param upstream the upstream name
+     * @return the settings
+     */
+    public static UpstreamSettings resolve(Environment environment, String upstream) {
+        UpstreamSettings fallback = upstream.equals(DEFAULT)
+            ? DEFAULTS.get(DEFAULT)
+            : DEFAULTS.getOrDefault(upstream, resolve(environment, DEFAULT));
+        String prefix = "app.resilience." + upstream + ".";
+        return new UpstreamSettings(
+            millis(environment, prefix + "timeout-ms", fallback.timeout()),
+            environment.getProperty(prefix + "max-concurrent-calls", Integer.class, fallback.maxConcurrentCalls()),
+            millis(environment, prefix + "max-wait-ms", fallback.maxWait()),
+            environment.getProperty(prefix + "sliding-window-size", Integer.class, fallback.slidingWindowSize()),
+            environment.getProperty(prefix + "minimum-calls", Integer.class, fallback.minimumCalls()),
+            environment.getProperty(prefix + "failure-rate-threshold", Integer.class, fallback.failureRateThreshold()),
+            millis(environment, prefix + "open-duration-ms", fallback.openDuration()),
+            environment.getProperty(prefix + "half-open-calls", Integer.class, fallback.halfOpenCalls()),
+            millis(environment, prefix + "hedge-delay-ms", fallback.hedgeDelay()));
+    }
+
+    private static Duration millis(Environment environment, String key, Duration fallback) {
+        return Duration.ofMillis(environment.getProperty(key, Long.class, fallback.toMillis()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.obuspartners.modules.partner_integration.resilience;
+
+import com.obuspartners.modules.common.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a guarded upstream call is not attempted or does not finish in time
+ *
+ * The call was rejected by the circuit breaker or bulkhead, the request
+ * deadline had already passed, or the call timed out. Maps to 504 for
+ * timeouts and 503 otherwise.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public class UpstreamUnavailableException extends ApiException {
+
+    private final String upstream;
+    private final UpstreamGuard.Outcome reason;
+
+    public UpstreamUnavailableException(String upstream, UpstreamGuard.Outcome reason) {
+        super(message(upstream, reason), status(reason));
+        this.upstream = upstream;
+        this.reason = reason;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public UpstreamGuard.Outcome getReason() {
+        return reason;
+    }
+
+    private static String message(String upstream, UpstreamGuard.Outcome reason) {
+        return switch (reason) {
+            case CIRCUIT_OPEN -> "Upstream " + upstream + " is unavailable (circuit open)";
+            case BULKHEAD_FULL -> "Upstream " + upstream + " is busy, too many concurrent calls";
+            case DEADLINE_EXCEEDED -> "Request deadline exceeded before calling " + upstream;
+            case TIMEOUT -> "Upstream " + upstream + " did not respond in time";
+            default -> "Upstream " + upstream + " call failed: " + reason;
+        };
+    }
+
+    private static HttpStatus status(UpstreamGuard.Outcome reason) {
+        return reason == UpstreamGuard.Outcome.TIMEOUT || reason == UpstreamGuard.Outcome.DEADLINE_EXCEEDED
+            ? HttpStatus.GATEWAY_TIMEOUT
+            : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
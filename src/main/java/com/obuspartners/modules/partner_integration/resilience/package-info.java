@@ -0,0 +1,12 @@
+/**
+ * Partner Integration Resilience Package
+ * 
+ * This package guards outbound calls to upstream partner systems (BMSLG,
+ * MIXX) with per-upstream circuit breakers, bulkheads, deadline-aware
+ * timeouts and optional hedged requests.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.partner_integration.resilience;
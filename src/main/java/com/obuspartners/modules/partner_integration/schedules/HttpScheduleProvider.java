@@ -0,0 +1,161 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fallback schedule adapter for bus core systems exposing a JSON search endpoint
+ *
+ * POSTs {@code {from, to, date, passengers, class, agent_login}} to the system's
+ * {@code baseUrl} plus {@code app.gateway.schedule-search.http.path} and
+ * reads a JSON array of trips, either at the root or under {@code data} or
+ * {@code schedules}. Field names are matched leniently (e.g. {@code id} or
+ * {@code schedule_id}, {@code fare} or {@code price}). Systems with another
+ * protocol get their own {@link ScheduleProvider}, ordered before this one.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class HttpScheduleProvider implements ScheduleProvider {
+
+    private static final DateTimeFormatter SPACE_SEPARATED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    @Value("${app.gateway.schedule-search.http.path:/schedules/search}")
+    private String searchPath;
+
+    public HttpScheduleProvider(ObjectMapper objectMapper,
+                                @Value("${app.gateway.schedule-search.http.connect-timeout-ms:3000}") long connectTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    @Override
+    public boolean supports(BusCoreSystem busCoreSystem) {
+        String baseUrl = busCoreSystem.getBaseUrl();
+        return baseUrl != null && (baseUrl.startsWith("http://") || baseUrl.startsWith("https://"));
+    }
+
+    @Override
+    public List<Schedule> search(AgentBusCoreSystem agentBusCoreSystem, ScheduleSearchRequest request, Duration timeout)
+            throws IOException, InterruptedException {
+        BusCoreSystem busCoreSystem = agentBusCoreSystem.getBusCoreSystem();
+        ObjectNode body = objectMapper.createObjectNode()
+            .put("from", request.fromStationId())
+            .put("to", request.toStationId())
+            .put("date", request.travelDate().toString())
+            .put("passengers", request.passengers())
+            .put("agent_login", agentBusCoreSystem.getAgentLoginName());
+        if (request.passengerClass() != null) {
+            body.put("class", request.passengerClass());
+        }
+
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+            .uri(URI.create(stripTrailingSlash(busCoreSystem.getBaseUrl()) + searchPath))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+
+        HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(busCoreSystem.getCode() + " schedule search returned HTTP " + response.statusCode());
+        }
+        return parse(busCoreSystem.getCode(), request, objectMapper.readTree(response.body()));
+    }
+
+    private List<Schedule> parse(String code, ScheduleSearchRequest request, JsonNode root) {
+        JsonNode trips = root.isArray() ? root : root.has("data") ? root.get("data") : root.path("schedules");
+        List<Schedule> schedules = new ArrayList<>(trips.size());
+        for (JsonNode trip : trips) {
+            String scheduleId = text(trip, "schedule_id", "scheduleId", "id");
+            if (scheduleId == null) {
+                continue;
+            }
+            String fare = text(trip, "fare", "price");
+            String seats = text(trip, "available_seats", "availableSeats", "seats");
+            schedules.add(new Schedule(
+                code,
+                scheduleId,
+                text(trip, "operator_name", "operatorName", "operator"),
+                firstNonNull(text(trip, "from", "from_station_id"), request.fromStationId()),
+                firstNonNull(text(trip, "to", "to_station_id"), request.toStationId()),
+                dateTime(text(trip, "departure_time", "departureTime", "departure")),
+                dateTime(text(trip, "arrival_time", "arrivalTime", "arrival")),
+                decimal(fare),
+                firstNonNull(text(trip, "currency"), "TZS"),
+                seats != null && seats.matches("\\d+") ? Integer.parseInt(seats) : -1));
+        }
+        return schedules;
+    }
+
+    private static String text(JsonNode node, String... fields) {
+        for (String field : fields) {
+            JsonNode value = node.get(field);
+            if (value != null && value.isValueNode() && !value.asText().isBlank()) {
+                return value.asText().trim();
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime dateTime(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return text.indexOf('T') > 0 ? LocalDateTime.parse(text) : LocalDateTime.parse(text, SPACE_SEPARATED);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal decimal(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String firstNonNull(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,35 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import java.util.List;
+
+/**
+ * Outcome of the schedule search on one bus core system
+ *
+ * @param busCoreSystemCode bus core system code
+ * @param providerName bus core system provider
+ * @param status how the search on this system ended
+ * @param schedules schedules found; empty unless the status is OK or STALE
+ * @param elapsedMillis time from the start of the fan-out until this result
+ * @param message error or cache detail, or null
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record ProviderResult(String busCoreSystemCode, String providerName, Status status,
+                             List<Schedule> schedules, long elapsedMillis, String message) {
+
+    public enum Status {
+        /** The system answered, or its answer was cached moments ago */
+        OK,
+        /** The system did not answer; schedules are its cached timetable, with seats unknown */
+        STALE,
+        /** The system did not answer within its budget or the overall deadline */
+        TIMEOUT,
+        /** The system answered with an error or could not be reached */
+        ERROR,
+        /** The system's circuit is open or too many calls are in flight */
+        UNAVAILABLE,
+        /** No adapter supports the system */
+        UNSUPPORTED
+    }
+}
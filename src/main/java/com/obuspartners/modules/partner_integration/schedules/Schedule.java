@@ -0,0 +1,27 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One bookable trip offered by a bus core system
+ *
+ * @param busCoreSystemCode code of the bus core system offering the trip
+ * @param scheduleId the trip's ID in that bus core system
+ * @param operatorName bus operator
+ * @param fromStationId departure station ID
+ * @param toStationId arrival station ID
+ * @param departureTime departure, or null when the provider sent none
+ * @param arrivalTime arrival, or null when the provider sent none
+ * @param fare fare per seat
+ * @param currency fare currency
+ * @param availableSeats free seats, or -1 when unknown
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record Schedule(String busCoreSystemCode, String scheduleId, String operatorName,
+                       String fromStationId, String toStationId,
+                       LocalDateTime departureTime, LocalDateTime arrivalTime,
+                       BigDecimal fare, String currency, int availableSeats) {
+}
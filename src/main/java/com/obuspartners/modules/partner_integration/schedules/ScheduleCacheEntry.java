@@ -0,0 +1,21 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import java.util.List;
+
+/**
+ * Cached search answer of one bus core system for one trip (route and date)
+ * and passenger class
+ *
+ * Each passenger class has its own entry, so answers for different classes
+ * never overwrite each other. A booking on the trip moves the trip to a new
+ * epoch, which drops the availability of every class at once.
+ *
+ * @param schedules the system's answer, with seats for one passenger; empty for "no trips"
+ * @param fetchedAtMillis when the system answered (epoch ms)
+ * @param tripEpoch the trip's epoch when the search started
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record ScheduleCacheEntry(List<Schedule> schedules, long fetchedAtMillis, long tripEpoch) {
+}
@@ -0,0 +1,37 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adapter that searches schedules on one kind of bus core system
+ *
+ * Adapters are Spring beans; for each bus core system the first adapter (in
+ * {@code @Order}) that supports it is used. Calls are made from a virtual
+ * thread and must give up after {@code timeout}.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public interface ScheduleProvider {
+
+    /**
+     * Whether this adapter can search the given bus core system
+     */
+    boolean supports(BusCoreSystem busCoreSystem);
+
+    /**
+     * Search schedules on a bus core system for an agent
+     *
+     * @param agentBusCoreSystem the agent's assignment (credentials) on the bus core system
+     * @param request search criteria
+     * @param timeout time left for this call
+     * @return the schedules found
+     */
+    List<Schedule> search(AgentBusCoreSystem agentBusCoreSystem, ScheduleSearchRequest request, Duration timeout)
+        throws IOException, InterruptedException;
+}
@@ -0,0 +1,259 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Short-lived cache of schedule search answers per bus core system, route,
+ * travel date and passenger class
+ *
+ * Popular corridors are searched over and over; within a few seconds the
+ * answer of a bus core system barely changes, so it is reused:
+ * <ul>
+ *   <li>Availability: an answer with trips is served for
+ *       {@code availability-ttl-seconds} (30 by default)</li>
+ *   <li>Negative: an answer without trips is served for
+ *       {@code negative-ttl-seconds} (10 by default)</li>
+ *   <li>Timetable: the trips of the last answer are kept for
+ *       {@code timetable-ttl-seconds} (15 minutes by default) and served, with
+ *       seats unknown, when the system does not answer</li>
+ * </ul>
+ * Settings are under {@code app.gateway.schedule-search.cache.}.
+ *
+ * Entries live in {@value #CACHE_NAME}, shared between nodes, one per
+ * passenger class. Each trip also has an epoch there: a confirmed booking
+ * ({@link BookingConfirmedEvent}) moves its trip to a new epoch on every node,
+ * and availability is only served when it was fetched by a search that
+ * started in the current epoch. A search that was already running when the
+ * booking happened cannot bring back what it saw; callers capture
+ * {@link #currentEpoch} before asking the system and pass it to {@link #put}.
+ * Timetables outlive epochs, as a booking changes seats, not trips.
+ *
+ * Lookups are counted in {@code schedule.cache.lookups}, tagged with
+ * {@code result} hit, negative_hit, miss or stale; hits and negative hits are
+ * upstream calls saved.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ScheduleSearchCache {
+
+    public static final String CACHE_NAME = "scheduleCache";
+
+    private static final String ANY_CLASS = "*";
+    private static final String EPOCH_SUFFIX = "#epoch";
+
+    private final CacheManager cacheManager;
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter staleServed;
+    private final Counter stores;
+    private final Counter bookingEvictions;
+
+    @Value("${app.gateway.schedule-search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.gateway.schedule-search.cache.availability-ttl-seconds:30}")
+    private long availabilityTtlSeconds;
+
+    @Value("${app.gateway.schedule-search.cache.negative-ttl-seconds:10}")
+    private long negativeTtlSeconds;
+
+    @Value("${app.gateway.schedule-search.cache.timetable-ttl-seconds:900}")
+    private long timetableTtlSeconds;
+
+    public ScheduleSearchCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.hits = lookups(meterRegistry, "hit");
+        this.negativeHits = lookups(meterRegistry, "negative_hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.staleServed = lookups(meterRegistry, "stale");
+        this.stores = Counter.builder("schedule.cache.stores")
+            .description("Schedule search answers cached")
+            .register(meterRegistry);
+        this.bookingEvictions = Counter.builder("schedule.cache.evictions")
+            .description("Cached trips dropped")
+            .tag("reason", "booking")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The trip's current epoch; capture before asking the system and pass to
+     * {@link #find} and {@link #put}
+     *
+     * @param busCoreSystemCode bus core system code
+     * @param request search criteria
+     * @return the epoch, 0 when the trip was never evicted
+     */
+    public long currentEpoch(String busCoreSystemCode, ScheduleSearchRequest request) {
+        Cache cache = cache();
+        if (!enabled || cache == null) {
+            return 0;
+        }
+        Long epoch = cache.get(epochKey(tripKey(busCoreSystemCode, request.fromStationId(), request.toStationId(),
+            request.travelDate())), Long.class);
+        return epoch != null ? epoch : 0;
+    }
+
+    /**
+     * The system's recent answer to this search
+     *
+     * @param busCoreSystemCode bus core system code
+     * @param request search criteria
+     * @param tripEpoch the trip's epoch, from {@link #currentEpoch}
+     * @return schedules with seats for one passenger (possibly none), or null when the system has to be asked
+     */
+    public List<Schedule> find(String busCoreSystemCode, ScheduleSearchRequest request, long tripEpoch) {
+        if (!enabled) {
+            return null;
+        }
+        ScheduleCacheEntry entry = entry(busCoreSystemCode, request);
+        if (entry != null && entry.tripEpoch() == tripEpoch) {
+            boolean negative = entry.schedules().isEmpty();
+            long ttlSeconds = negative ? negativeTtlSeconds : availabilityTtlSeconds;
+            if (ageMillis(entry) < ttlSeconds * 1000) {
+                (negative ? negativeHits : hits).increment();
+                return entry.schedules();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * The trips of the system's last answer to this search, for when it does not answer now
+     *
+     * @param busCoreSystemCode bus core system code
+     * @param request search criteria
+     * @return the trips with seats unknown (-1), or null when none are known
+     */
+    public List<Schedule> findTimetable(String busCoreSystemCode, ScheduleSearchRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        ScheduleCacheEntry entry = entry(busCoreSystemCode, request);
+        if (entry == null || entry.schedules().isEmpty() || ageMillis(entry) >= timetableTtlSeconds * 1000) {
+            return null;
+        }
+        staleServed.increment();
+        return entry.schedules().stream()
+            .map(schedule -> new Schedule(schedule.busCoreSystemCode(), schedule.scheduleId(), schedule.operatorName(),
+                schedule.fromStationId(), schedule.toStationId(), schedule.departureTime(), schedule.arrivalTime(),
+                schedule.fare(), schedule.currency(), -1))
+            .toList();
+    }
+
+    /**
+     * Cache the system's answer to this search, unless the trip moved to a new
+     * epoch since the search started
+     *
+     * @param busCoreSystemCode bus core system code
+     * @param request search criteria
+     * @param schedules the answer, with seats for one passenger; empty for "no trips"
+     * @param tripEpoch the trip's epoch captured before the system was asked
+     */
+    public void put(String busCoreSystemCode, ScheduleSearchRequest request, List<Schedule> schedules, long tripEpoch) {
+        Cache cache = cache();
+        if (!enabled || cache == null || currentEpoch(busCoreSystemCode, request) != tripEpoch) {
+            return;
+        }
+        // Written with the epoch of the search; if the trip moves on meanwhile, find() no longer serves it
+        cache.put(entryKey(busCoreSystemCode, request),
+            new ScheduleCacheEntry(new ArrayList<>(schedules), System.currentTimeMillis(), tripEpoch));
+        stores.increment();
+    }
+
+    /**
+     * Drop the availability cached for a trip, on every node; again after the current transaction commits
+     *
+     * @param busCoreSystemCode bus core system code
+     * @param fromStationId departure station ID
+     * @param toStationId arrival station ID
+     * @param travelDate travel date
+     */
+    public void evictTrip(String busCoreSystemCode, String fromStationId, String toStationId, LocalDate travelDate) {
+        Cache cache = cache();
+        if (cache == null) {
+            return;
+        }
+        String key = epochKey(tripKey(busCoreSystemCode, fromStationId, toStationId, travelDate));
+        cache.put(key, nextEpoch());
+        CacheInvalidationBus.runAfterCommit(() -> cache.put(key, nextEpoch()));
+        log.debug("Moved cached schedules to a new epoch for trip: {}", key);
+    }
+
+    @EventListener
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        if (event.getBusCoreSystemCode() == null || event.getTravelDate() == null) {
+            return;
+        }
+        evictTrip(event.getBusCoreSystemCode(), event.getFromStationId(), event.getToStationId(), event.getTravelDate());
+        bookingEvictions.increment();
+    }
+
+    private ScheduleCacheEntry entry(String busCoreSystemCode, ScheduleSearchRequest request) {
+        Cache cache = cache();
+        return cache != null ? cache.get(entryKey(busCoreSystemCode, request), ScheduleCacheEntry.class) : null;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static String tripKey(String busCoreSystemCode, String fromStationId, String toStationId, LocalDate travelDate) {
+        return busCoreSystemCode + ':' + fromStationId + ':' + toStationId + ':' + travelDate;
+    }
+
+    private static String entryKey(String busCoreSystemCode, ScheduleSearchRequest request) {
+        return tripKey(busCoreSystemCode, request.fromStationId(), request.toStationId(), request.travelDate())
+            + '#' + passengerClass(request);
+    }
+
+    private static String epochKey(String tripKey) {
+        return tripKey + EPOCH_SUFFIX;
+    }
+
+    /**
+     * A new epoch: random rather than incremented, since the shared cache has
+     * no atomic increment; never 0, the epoch of a trip that was never evicted
+     */
+    private static long nextEpoch() {
+        long epoch;
+        do {
+            epoch = ThreadLocalRandom.current().nextLong();
+        } while (epoch == 0);
+        return epoch;
+    }
+
+    private static String passengerClass(ScheduleSearchRequest request) {
+        return request.passengerClass() != null ? request.passengerClass() : ANY_CLASS;
+    }
+
+    private static long ageMillis(ScheduleCacheEntry entry) {
+        return System.currentTimeMillis() - entry.fetchedAtMillis();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("schedule.cache.lookups")
+            .description("Schedule search cache lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import java.time.LocalDate;
+
+/**
+ * Schedule search criteria
+ *
+ * @param fromStationId departure station ID
+ * @param toStationId arrival station ID
+ * @param travelDate travel date
+ * @param passengers number of seats wanted
+ * @param passengerClass seat class, or null for any
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record ScheduleSearchRequest(String fromStationId, String toStationId, LocalDate travelDate, int passengers,
+                                    String passengerClass) {
+
+    /**
+     * The same criteria for a different number of seats
+     */
+    public ScheduleSearchRequest withPassengers(int passengers) {
+        return passengers == this.passengers ? this
+            : new ScheduleSearchRequest(fromStationId, toStationId, travelDate, passengers, passengerClass);
+    }
+}
@@ -0,0 +1,18 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import java.util.List;
+
+/**
+ * Merged schedule search over all bus core systems of an agent
+ *
+ * @param schedules schedules of every system that answered, by departure time then fare
+ * @param providers outcome per bus core system, in order of arrival
+ * @param complete whether every system returned its schedules (status OK)
+ * @param elapsedMillis duration of the whole search
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record ScheduleSearchResult(List<Schedule> schedules, List<ProviderResult> providers,
+                                   boolean complete, long elapsedMillis) {
+}
@@ -0,0 +1,238 @@
+package com.obuspartners.modules.partner_integration.schedules;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.agent_management.service.AgentBusCoreSystemService;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+import com.obuspartners.modules.partner_integration.resilience.Deadline;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuard;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Searches schedules on all bus core systems of an agent in parallel
+ *
+ * Every active assignment of the agent is searched on its own virtual
+ * thread, through the upstream guard {@code bms-<code>} (circuit breaker,
+ * bulkhead). Each system gets its own time budget
+ * ({@code app.gateway.schedule-search.providers.<code>.timeout-ms}, default
+ * {@code provider-timeout-ms}), capped by the overall deadline
+ * ({@code deadline-ms}, capped in turn by the request {@link Deadline}).
+ *
+ * Results are handed to the caller as they arrive. When the overall deadline
+ * passes, systems that have not answered are cancelled and reported as
+ * TIMEOUT, so a slow system never holds back the others.
+ *
+ * Answers are reused for a few seconds through {@link ScheduleSearchCache};
+ * systems are always asked for one passenger and the seats wanted are
+ * filtered here, so searches for any number of passengers share an answer.
+ * A system that does not answer is reported as STALE with its cached
+ * timetable, when there is one.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ScheduleSearchService {
+
+    static final String UPSTREAM_PREFIX = "bms-";
+
+    private final List<ScheduleProvider> providers;
+    private final AgentBusCoreSystemService agentBusCoreSystemService;
+    private final UpstreamGuardRegistry upstreamGuardRegistry;
+    private final ScheduleSearchCache scheduleSearchCache;
+    private final Environment environment;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("schedule-search-", 0).factory());
+
+    @Value("${app.gateway.schedule-search.deadline-ms:8000}")
+    private long deadlineMs;
+
+    @Value("${app.gateway.schedule-search.provider-timeout-ms:5000}")
+    private long providerTimeoutMs;
+
+    public ScheduleSearchService(List<ScheduleProvider> providers, AgentBusCoreSystemService agentBusCoreSystemService,
+                                 UpstreamGuardRegistry upstreamGuardRegistry, ScheduleSearchCache scheduleSearchCache,
+                                 Environment environment) {
+        this.providers = providers;
+        this.agentBusCoreSystemService = agentBusCoreSystemService;
+        this.upstreamGuardRegistry = upstreamGuardRegistry;
+        this.scheduleSearchCache = scheduleSearchCache;
+        this.environment = environment;
+    }
+
+    /**
+     * Search the bus core systems the agent is actively assigned to
+     *
+     * @param agentPassName the agent's pass name
+     * @param request search criteria
+     * @param onResult called on the calling thread with each system's result as it arrives
+     * @return the merged result
+     */
+    public ScheduleSearchResult search(String agentPassName, ScheduleSearchRequest request,
+                                       Consumer<ProviderResult> onResult) {
+        List<AgentBusCoreSystem> assignments = agentBusCoreSystemService.getActiveAssignmentsByAgentPassName(agentPassName);
+        log.debug("Searching schedules for agent {} on {} bus core systems", agentPassName, assignments.size());
+        return search(assignments, request, onResult);
+    }
+
+    /**
+     * Search the given assignments' bus core systems
+     *
+     * @param assignments agent assignments, with their bus core systems loaded
+     * @param request search criteria
+     * @param onResult called on the calling thread with each system's result as it arrives
+     * @return the merged result
+     */
+    public ScheduleSearchResult search(List<AgentBusCoreSystem> assignments, ScheduleSearchRequest request,
+                                       Consumer<ProviderResult> onResult) {
+        long start = System.nanoTime();
+        Duration budget = Duration.ofMillis(deadlineMs);
+        Duration remaining = Deadline.remaining();
+        if (remaining != null && remaining.compareTo(budget) < 0) {
+            budget = remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+        long deadline = start + budget.toNanos();
+
+        List<ProviderResult> results = new ArrayList<>(assignments.size());
+        List<Schedule> schedules = new ArrayList<>();
+        Consumer<ProviderResult> deliver = result -> {
+            results.add(result);
+            schedules.addAll(result.schedules());
+            onResult.accept(result);
+        };
+
+        BlockingQueue<ProviderResult> arrivals = new LinkedBlockingQueue<>();
+        Map<String, Future<?>> running = new LinkedHashMap<>();
+        Map<String, BusCoreSystem> systems = new LinkedHashMap<>();
+        for (AgentBusCoreSystem assignment : assignments) {
+            BusCoreSystem system = assignment.getBusCoreSystem();
+            Optional<ScheduleProvider> provider = providers.stream().filter(p -> p.supports(system)).findFirst();
+            if (provider.isEmpty()) {
+                deliver.accept(new ProviderResult(system.getCode(), system.getProviderName(),
+                    ProviderResult.Status.UNSUPPORTED, List.of(), elapsedMillis(start), "No schedule adapter for this system"));
+                continue;
+            }
+            Duration providerBudget = providerBudget(system.getCode(), budget);
+            systems.put(system.getCode(), system);
+            running.put(system.getCode(), executor.submit(() ->
+                arrivals.add(searchOne(provider.get(), assignment, request, providerBudget, start))));
+        }
+
+        int outstanding = running.size();
+        try {
+            while (outstanding > 0) {
+                ProviderResult result = arrivals.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (result == null) {
+                    break;
+                }
+                outstanding--;
+                running.remove(result.busCoreSystemCode());
+                deliver.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        running.forEach((code, task) -> {
+            task.cancel(true);
+            BusCoreSystem system = systems.get(code);
+            deliver.accept(unanswered(system, request, ProviderResult.Status.TIMEOUT,
+                "No answer within the search deadline", start));
+        });
+
+        schedules.sort(Comparator.comparing(Schedule::departureTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Schedule::fare, Comparator.nullsLast(Comparator.naturalOrder())));
+        boolean complete = results.stream().allMatch(result -> result.status() == ProviderResult.Status.OK);
+        return new ScheduleSearchResult(schedules, results, complete, elapsedMillis(start));
+    }
+
+    private ProviderResult searchOne(ScheduleProvider provider, AgentBusCoreSystem assignment,
+                                     ScheduleSearchRequest request, Duration budget, long start) {
+        BusCoreSystem system = assignment.getBusCoreSystem();
+        long cacheEpoch = scheduleSearchCache.currentEpoch(system.getCode(), request);
+        List<Schedule> cached = scheduleSearchCache.find(system.getCode(), request, cacheEpoch);
+        if (cached != null) {
+            return new ProviderResult(system.getCode(), system.getProviderName(), ProviderResult.Status.OK,
+                withSeats(cached, request.passengers()), elapsedMillis(start), "From cache");
+        }
+
+        UpstreamGuard guard = upstreamGuardRegistry.guard(UPSTREAM_PREFIX + system.getCode().toLowerCase(Locale.ROOT));
+        ScheduleSearchRequest onePassenger = request.withPassengers(1);
+        try (Deadline.Scope ignored = Deadline.start(budget)) {
+            List<Schedule> found = guard.execute(timeout -> provider.search(assignment, onePassenger, timeout));
+            scheduleSearchCache.put(system.getCode(), request, found, cacheEpoch);
+            return new ProviderResult(system.getCode(), system.getProviderName(), ProviderResult.Status.OK,
+                withSeats(found, request.passengers()), elapsedMillis(start), null);
+        } catch (UpstreamUnavailableException e) {
+            ProviderResult.Status status = e.getReason() == UpstreamGuard.Outcome.TIMEOUT
+                || e.getReason() == UpstreamGuard.Outcome.DEADLINE_EXCEEDED
+                ? ProviderResult.Status.TIMEOUT : ProviderResult.Status.UNAVAILABLE;
+            return unanswered(system, request, status, e.getMessage(), start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unanswered(system, request, ProviderResult.Status.TIMEOUT, "Cancelled at the search deadline", start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Schedule search on {} failed: {}", system.getCode(), e.getMessage());
+            return unanswered(system, request, ProviderResult.Status.ERROR, e.getMessage(), start);
+        }
+    }
+
+    /**
+     * Result for a system that did not answer: its cached timetable when there is one
+     */
+    private ProviderResult unanswered(BusCoreSystem system, ScheduleSearchRequest request,
+                                      ProviderResult.Status status, String message, long start) {
+        List<Schedule> timetable = scheduleSearchCache.findTimetable(system.getCode(), request);
+        if (timetable != null) {
+            return new ProviderResult(system.getCode(), system.getProviderName(), ProviderResult.Status.STALE,
+                timetable, elapsedMillis(start), message + "; timetable from cache, seats unknown");
+        }
+        return new ProviderResult(system.getCode(), system.getProviderName(), status, List.of(),
+            elapsedMillis(start), message);
+    }
+
+    private static List<Schedule> withSeats(List<Schedule> schedules, int passengers) {
+        return schedules.stream()
+            .filter(schedule -> schedule.availableSeats() < 0 || schedule.availableSeats() >= passengers)
+            .toList();
+    }
+
+    private Duration providerBudget(String code, Duration overall) {
+        long configured = environment.getProperty(
+            "app.gateway.schedule-search.providers." + code + ".timeout-ms", Long.class, providerTimeoutMs);
+        Duration budget = Duration.ofMillis(configured);
+        return budget.compareTo(overall) < 0 ? budget : overall;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Partner Integration Schedules Package
+ * 
+ * This package contains the schedule search fan-out across the bus core
+ * systems an agent is assigned to, and the provider adapters it calls.
+ * 
+ * @author OBUS Team
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+package com.obuspartners.modules.partner_integration.schedules;
@@ -0,0 +1,15 @@
+package com.obuspartners.modules.partner_integration.stations;
+
+/**
+ * Station entry of the BMSLG station catalog
+ *
+ * @param id BMSLG station ID
+ * @param name station name (English)
+ * @param swahiliName station name in Swahili, if provided
+ * @param region region or city, if provided
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record Station(String id, String name, String swahiliName, String region) {
+}
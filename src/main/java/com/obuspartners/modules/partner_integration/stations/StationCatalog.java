@@ -0,0 +1,360 @@
+package com.obuspartners.modules.partner_integration.stations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable, indexed catalog of BMSLG stations
+ *
+ * Built once from a BMSLG station response. Supports lookup by ID and
+ * case- and accent-insensitive type-ahead search over English and Swahili
+ * names: a sorted index of whole names and name words answers prefix
+ * queries with a binary search, and a trigram index finds names containing
+ * the query elsewhere in the name or with a small typo in a longer query.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public final class StationCatalog {
+
+    private static final List<String> ID_FIELDS = List.of("id", "station_id", "stationid", "stn_id", "code");
+    private static final List<String> NAME_FIELDS = List.of("name", "station_name", "stationname", "stn_name", "name_en", "en_name");
+    private static final List<String> SWAHILI_NAME_FIELDS = List.of("name_sw", "sw_name", "station_name_sw", "swahili_name", "namesw", "name_swahili");
+    private static final List<String> REGION_FIELDS = List.of("region", "region_name", "regionname", "city");
+
+    private static final int RANK_NAME_PREFIX = 0;
+    private static final int RANK_WORD_PREFIX = 1;
+    private static final int RANK_TRIGRAM = 2;
+
+    /** Share of the query's trigrams a name must contain to match */
+    private static final double TRIGRAM_MATCH_RATIO = 0.6;
+
+    private final String rawBody;
+    private final Instant loadedAt;
+    private final List<Station> stations;
+    private final Map<String, Station> byId;
+    private final int[] nameLengths;
+
+    // Prefix index: sorted keys (whole normalized names and their words) with the station they belong to
+    private final String[] prefixKeys;
+    private final int[] prefixStations;
+    private final byte[] prefixRanks;
+
+    // Trigram index: trigram -> ascending station indexes
+    private final Map<String, int[]> trigramIndex;
+
+    private StationCatalog(String rawBody, List<Station> stations) {
+        this.rawBody = rawBody;
+        this.loadedAt = Instant.now();
+        this.stations = Collections.unmodifiableList(stations);
+
+        Map<String, Station> ids = new HashMap<>(stations.size() * 2);
+        for (Station station : stations) {
+            ids.putIfAbsent(station.id(), station);
+        }
+        this.byId = Collections.unmodifiableMap(ids);
+        this.nameLengths = stations.stream().mapToInt(StationCatalog::nameLength).toArray();
+
+        List<PrefixEntry> entries = new ArrayList<>(stations.size() * 4);
+        Map<String, List<Integer>> trigrams = new HashMap<>();
+        for (int i = 0; i < stations.size(); i++) {
+            Station station = stations.get(i);
+            indexName(i, station.name(), entries, trigrams);
+            indexName(i, station.swahiliName(), entries, trigrams);
+        }
+        entries.sort(Comparator.comparing(PrefixEntry::key));
+        this.prefixKeys = new String[entries.size()];
+        this.prefixStations = new int[entries.size()];
+        this.prefixRanks = new byte[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            PrefixEntry entry = entries.get(i);
+            prefixKeys[i] = entry.key();
+            prefixStations[i] = entry.station();
+            prefixRanks[i] = (byte) entry.rank();
+        }
+
+        Map<String, int[]> trigramArrays = new HashMap<>(trigrams.size() * 2);
+        trigrams.forEach((trigram, list) ->
+            trigramArrays.put(trigram, list.stream().mapToInt(Integer::intValue).distinct().toArray()));
+        this.trigramIndex = trigramArrays;
+    }
+
+    /**
+     * Parse a BMSLG station response
+     *
+     * The stations are taken from the response itself when it is a JSON array,
+     * otherwise from the first nested array of objects that carry a station name.
+     *
+     * @param rawBody the response body
+     * @param objectMapper JSON mapper
+     * @return the catalog (empty when no stations are found)
+     * @throws IOException when the body is not valid JSON
+     */
+    public static StationCatalog parse(String rawBody, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(rawBody);
+        JsonNode array = findStationArray(root);
+        List<Station> stations = new ArrayList<>();
+        if (array != null) {
+            for (JsonNode node : array) {
+                Station station = toStation(node);
+                if (station != null) {
+                    stations.add(station);
+                }
+            }
+        }
+        return new StationCatalog(rawBody, stations);
+    }
+
+    /**
+     * Empty catalog
+     */
+    public static StationCatalog empty() {
+        return new StationCatalog(null, new ArrayList<>());
+    }
+
+    public String getRawBody() {
+        return rawBody;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    public int size() {
+        return stations.size();
+    }
+
+    /**
+     * Find a station by its BMSLG ID
+     */
+    public Optional<Station> findById(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Type-ahead search
+     *
+     * Stations whose name starts with the query come first, then stations with
+     * a name word starting with it, then (for queries of three or more
+     * characters) names sharing most of the query's trigrams. Ties go to the
+     * shorter name.
+     *
+     * @param query the text typed so far
+     * @param limit maximum number of results
+     * @return the best matches, best first
+     */
+    public List<Station> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0 || stations.isEmpty()) {
+            return List.of();
+        }
+
+        int[] bestRank = new int[stations.size()];
+        Arrays.fill(bestRank, Integer.MAX_VALUE);
+        BitSet matched = new BitSet(stations.size());
+
+        for (int i = lowerBound(normalized); i < prefixKeys.length && prefixKeys[i].startsWith(normalized); i++) {
+            int station = prefixStations[i];
+            matched.set(station);
+            bestRank[station] = Math.min(bestRank[station], prefixRanks[i]);
+        }
+
+        int[] trigramHits = null;
+        if (matched.cardinality() < limit && normalized.length() >= 3) {
+            List<String> queryTrigrams = trigrams(normalized);
+            trigramHits = new int[stations.size()];
+            for (String trigram : queryTrigrams) {
+                int[] postings = trigramIndex.get(trigram);
+                if (postings != null) {
+                    for (int station : postings) {
+                        trigramHits[station]++;
+                    }
+                }
+            }
+            int required = Math.max(1, (int) Math.ceil(queryTrigrams.size() * TRIGRAM_MATCH_RATIO));
+            for (int station = 0; station < trigramHits.length; station++) {
+                if (trigramHits[station] >= required && !matched.get(station)) {
+                    matched.set(station);
+                    bestRank[station] = RANK_TRIGRAM;
+                }
+            }
+        }
+
+        // Keep only the best `limit` matches: a common word can match a large part of the catalog
+        int[] hits = trigramHits;
+        Comparator<Integer> order = Comparator
+            .<Integer>comparingInt(station -> bestRank[station])
+            .thenComparingInt(station -> hits != null ? -hits[station] : 0)
+            .thenComparingInt(station -> nameLengths[station])
+            .thenComparing(station -> stations.get(station).name(), Comparator.nullsLast(Comparator.naturalOrder()));
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, matched.cardinality()) + 1, order.reversed());
+        for (int station = matched.nextSetBit(0); station >= 0; station = matched.nextSetBit(station + 1)) {
+            if (best.size() < limit) {
+                best.add(station);
+            } else if (order.compare(station, best.peek()) < 0) {
+                best.poll();
+                best.add(station);
+            }
+        }
+
+        Station[] results = new Station[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = stations.get(best.poll());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Lowercase, strip accents and reduce everything but letters and digits to single spaces
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && result.length() > 0) {
+                    result.append(' ');
+                }
+                pendingSpace = false;
+                result.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return result.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void indexName(int station, String name, List<PrefixEntry> entries, Map<String, List<Integer>> trigrams) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        entries.add(new PrefixEntry(normalized, station, RANK_NAME_PREFIX));
+        int wordStart = normalized.indexOf(' ') + 1;
+        while (wordStart > 0 && wordStart < normalized.length()) {
+            entries.add(new PrefixEntry(normalized.substring(wordStart), station, RANK_WORD_PREFIX));
+            wordStart = normalized.indexOf(' ', wordStart) + 1;
+        }
+        for (String trigram : trigrams(normalized)) {
+            trigrams.computeIfAbsent(trigram, k -> new ArrayList<>()).add(station);
+        }
+    }
+
+    private static List<String> trigrams(String normalized) {
+        List<String> result = new ArrayList<>(Math.max(0, normalized.length() - 2));
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            String trigram = normalized.substring(i, i + 3);
+            if (!result.contains(trigram)) {
+                result.add(trigram);
+            }
+        }
+        return result;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = prefixKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prefixKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int nameLength(Station station) {
+        return station.name() != null ? station.name().length() : Integer.MAX_VALUE;
+    }
+
+    private static JsonNode findStationArray(JsonNode root) {
+        ArrayDeque<JsonNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            JsonNode node = queue.poll();
+            if (node.isArray()) {
+                for (JsonNode element : node) {
+                    if (element.isObject() && field(lowercaseFields(element), NAME_FIELDS) != null) {
+                        return node;
+                    }
+                }
+            }
+            if (node.isContainerNode()) {
+                node.elements().forEachRemaining(queue::add);
+            }
+        }
+        return null;
+    }
+
+    private static Station toStation(JsonNode node) {
+        if (!node.isObject()) {
+            return null;
+        }
+        Map<String, JsonNode> fields = lowercaseFields(node);
+        String name = field(fields, NAME_FIELDS);
+        String id = field(fields, ID_FIELDS);
+        if (name == null || id == null) {
+            return null;
+        }
+        return new Station(id, name.trim(), trimmed(field(fields, SWAHILI_NAME_FIELDS)), trimmed(field(fields, REGION_FIELDS)));
+    }
+
+    private static Map<String, JsonNode> lowercaseFields(JsonNode node) {
+        Map<String, JsonNode> fields = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> entry = iterator.next();
+            fields.putIfAbsent(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        return fields;
+    }
+
+    private static String field(Map<String, JsonNode> fields, List<String> candidates) {
+        for (String candidate : candidates) {
+            JsonNode value = fields.get(candidate);
+            if (value != null && value.isValueNode() && !value.isNull() && !value.asText().isBlank()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    private static String trimmed(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    private record PrefixEntry(String key, int station, int rank) {
+    }
+}
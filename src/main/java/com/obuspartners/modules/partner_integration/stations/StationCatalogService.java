@@ -0,0 +1,126 @@
+package com.obuspartners.modules.partner_integration.stations;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obuspartners.modules.common.exception.ApiException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Node-local, parsed view of the cached BMSLG station list
+ *
+ * The shared stationCache keeps the raw BMSLG response; this service parses it
+ * once per node into a {@link StationCatalog} and rechecks the cache every
+ * refresh interval, rebuilding only when the body has changed. Only one thread
+ * rechecks at a time while the others keep using the current catalog; callers
+ * block only for the very first load.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class StationCatalogService {
+
+    private final StationService stationService;
+    private final ObjectMapper objectMapper;
+    private final long refreshMillis;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile StationCatalog catalog;
+    private volatile long checkedAtMillis;
+
+    public StationCatalogService(StationService stationService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.stations.catalog.refresh-seconds:60}") long refreshSeconds) {
+        this.stationService = stationService;
+        this.objectMapper = objectMapper;
+        this.refreshMillis = refreshSeconds * 1000L;
+    }
+
+    /**
+     * Type-ahead search over station names
+     *
+     * @param query the text typed so far
+     * @param limit maximum number of results
+     * @return the best matches, best first
+     */
+    public List<Station> search(String query, int limit) {
+        return getCatalog().search(query, limit);
+    }
+
+    /**
+     * Find a station by its BMSLG ID
+     */
+    public Optional<Station> findById(String id) {
+        return getCatalog().findById(id);
+    }
+
+    /**
+     * Current catalog, refreshed from stationCache when the refresh interval has passed
+     */
+    public StationCatalog getCatalog() {
+        StationCatalog current = catalog;
+        if (current == null) {
+            refreshLock.lock();
+            try {
+                if (catalog == null) {
+                    refresh(null);
+                }
+                return catalog;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        if (System.currentTimeMillis() - checkedAtMillis >= refreshMillis && refreshLock.tryLock()) {
+            try {
+                if (System.currentTimeMillis() - checkedAtMillis >= refreshMillis) {
+                    refresh(current);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Station catalog refresh failed, keeping catalog loaded at {}: {}", current.getLoadedAt(), e.getMessage());
+                checkedAtMillis = System.currentTimeMillis();
+            } finally {
+                refreshLock.unlock();
+            }
+            return catalog;
+        }
+        return current;
+    }
+
+    /**
+     * Make the next call recheck stationCache; the current catalog keeps
+     * serving until a changed station list has been parsed
+     */
+    public void invalidate() {
+        checkedAtMillis = 0;
+    }
+
+    private void refresh(StationCatalog current) {
+        Object body = stationService.fetchAllStations();
+        String rawBody = body != null ? body.toString() : null;
+        checkedAtMillis = System.currentTimeMillis();
+        if (current != null && rawBody != null && rawBody.equals(current.getRawBody())) {
+            return;
+        }
+        if (rawBody == null || rawBody.isBlank()) {
+            throw new ApiException("Station list is not available", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            long started = System.nanoTime();
+            StationCatalog parsed = StationCatalog.parse(rawBody, objectMapper);
+            catalog = parsed;
+            log.info("Station catalog built: {} stations in {} ms", parsed.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new ApiException("Station list could not be parsed: " + e.getMessage(), HttpStatus.BAD_GATEWAY);
+        }
+    }
+}
@@ -1,39 +1,57 @@
 package com.obuspartners.modules.partner_integration.stations;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.obuspartners.modules.common.cache.TwoLevelCache;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.DistributedLock;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgClient;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgEndpoint;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSigner;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service implementation for fetching station data from BMSLG API with caching support.
- * 
+ *
  * Features:
- * - 5-minute TTL cache to reduce API calls and improve performance
- * - Automatic cache expiration and refresh
+ * - Stations are fresh for {@code fresh-seconds} (1 hour by default)
+ * - Refresh-ahead: the list is reloaded in the background shortly before it goes stale
+ * - Single-flight: one upstream call per node at a time, and one per cluster via a Redis lock
+ * - Stale-if-error: the last good list is served while a refresh runs or BMSLG is down
  * - Manual cache clearing capability
  * - Cache statistics for monitoring
- * 
+ *
  * Cache behavior:
- * - First request: Fetches data from BMSLG API and caches it
- * - Subsequent requests within 5 minutes: Returns cached data
- * - After 5 minutes: Cache expires, next request fetches fresh data
- * 
+ * - The snapshot is kept in this node's memory and shared through stationCache
+ * - Requests never wait for BMSLG once a snapshot exists, even a stale one
+ * - Only a node with no snapshot at all waits, joining the one load in flight
+ * - After a failed refresh, BMSLG is not retried for {@code retry-seconds}
+ *
  * @author OBUS Team
  * @version 1.0.0
  */
@@ -42,82 +60,63 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class StationServiceImpl implements StationService {
 
-    private static final String BMSLG_SEARCH_STATIONS_URL = "https://bms.oacl.co.tz/api/Agents-V8/Search-Stations.php";
-    private static final String STATION_SALT = "5t@t!0n$";
+    private static final String CACHE_NAME = "stationCache";
+    private static final String CACHE_KEY = "all_stations";
+    private static final String LOCK_NAME = "station-refresh";
+    private static final long SHARED_POLL_MILLIS = 250;
 
-    @Override
-    @Cacheable(value = "stationCache", key = "'all_stations'")
-    public Object fetchAllStations() {
-        log.info("Cache miss or expired, fetching fresh station data from BMSLG");
-        try {
-            // Generate random auth key (1-5, but we removed RIPEMD160 support, so 1-4)
-            Random random = new Random();
-            int authKey = random.nextInt(4) + 1; // Random between 1-4
+    private final BmslgClient bmslgClient;
+    private final BmslgSigner signer;
+    private final CacheManager cacheManager;
+    private final DistributedLock distributedLock;
 
-            // Prepare POST data
-            Map<String, String> postData = new HashMap<>();
-            postData.put("imei", "123456789012345");
-            postData.put("lat", "0.0");
-            postData.put("long", "0.0");
-            postData.put("ip", "192.168.0.101");
-            postData.put("owner_id", "64");
-            postData.put("auth_key", String.valueOf(authKey));
-            postData.put("key", ""); // Will be calculated
-            postData.put("is_from", "4");
-            postData.put("pltfm", "0"); // 0=ANDROID AGENT NORMAL, 1=ANDROID AGENT SPECIAL, 2=ANDROID AGENT SHORT, 3=ANDROID AGENT CARGO
-            postData.put("lang", "0"); // 0=English, 1=Swahili
-            postData.put("app_ver", "4.88");
+    @Value("${app.stations.cache.fresh-seconds:3600}")
+    private long freshSeconds;
 
-            // Prepare GET data
-            Map<String, String> getData = new HashMap<>();
-            getData.put("key", ""); // Will be calculated
-
-            // Calculate GET key: encrypt(auth_key, owner_id + auth_key + "5t@t!0n$")
-            String getKeyInput = postData.get("owner_id") + postData.get("auth_key") + STATION_SALT;
-            String getKey = encrypt(authKey, getKeyInput);
-            getData.put("key", getKey);
-
-            // Calculate POST key: encrypt(auth_key, raw_string)
-            String rawString = postData.get("owner_id") + postData.get("is_from") + postData.get("pltfm") +
-                              postData.get("lang") + postData.get("imei") + postData.get("lat") +
-                              postData.get("long") + postData.get("ip") + postData.get("auth_key") + STATION_SALT;
-            String postKey = encrypt(authKey, rawString);
-            postData.put("key", postKey);
-
-            // Build URL with GET parameters
-            StringBuilder urlBuilder = new StringBuilder(BMSLG_SEARCH_STATIONS_URL);
-            urlBuilder.append("?");
-            getData.forEach((key, value) ->
-                urlBuilder.append(key).append("=").append(value).append("&"));
-            String url = urlBuilder.toString().replaceAll("&$", "");
-
-            // Build POST body
-            StringBuilder postBody = new StringBuilder();
-            postData.forEach((key, value) ->
-                postBody.append(key).append("=").append(value).append("&"));
-            String postBodyStr = postBody.toString().replaceAll("&$", "");
-
-            log.info("BMSLG Search Stations URL: {}", url);
-            log.info("BMSLG Search Stations Payload: {}", postBodyStr);
-
-            // Send HTTP request
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(postBodyStr))
-                .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    @Value("${app.stations.cache.refresh-ahead-seconds:300}")
+    private long refreshAheadSeconds;
 
-            log.info("BMSLG Search Stations HTTP Code: {}", response.statusCode());
-            log.info("BMSLG Search Stations Response: {}", response.body());
+    @Value("${app.stations.cache.retry-seconds:30}")
+    private long retrySeconds;
 
-            return response.body();
+    @Value("${app.stations.cache.lock-ttl-seconds:60}")
+    private long lockTtlSeconds;
 
-        } catch (IOException | InterruptedException e) {
-            log.error("Error during BMSLG stations fetch", e);
-            throw new RuntimeException("Failed to fetch stations: " + e.getMessage(), e);
+    @Value("${app.stations.cache.cold-wait-ms:30000}")
+    private long coldWaitMillis;
+
+    private final AtomicReference<CompletableFuture<StationSnapshot>> inFlight = new AtomicReference<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "station-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile StationSnapshot current;
+
+    /** No refresh is started before this time (epoch ms); set after a failure */
+    private volatile long nextAttemptAt;
+
+    @Override
+    public Object fetchAllStations() {
+        StationSnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            return awaitLoad().body();
+        }
+        if (isRefreshDue(snapshot)) {
+            refreshAsync();
+        }
+        return snapshot.body();
+    }
+
+    /**
+     * Refresh ahead of expiry on nodes that are serving stations
+     */
+    @Scheduled(fixedDelayString = "${app.stations.cache.check-interval-ms:60000}")
+    public void refreshAhead() {
+        StationSnapshot snapshot = current;
+        if (snapshot != null && isRefreshDue(snapshot)) {
+            refreshAsync();
         }
     }
 
@@ -125,8 +124,13 @@ public class StationServiceImpl implements StationService {
      * Clear the station cache manually
      * Useful for forcing a fresh fetch on next request
      */
-    @CacheEvict(value = "stationCache", key = "'all_stations'")
     public void clearStationCache() {
+        current = null;
+        nextAttemptAt = 0;
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(CACHE_KEY);
+        }
         log.info("Station cache cleared manually");
     }
 
@@ -135,62 +139,236 @@ public class StationServiceImpl implements StationService {
      * @return Map containing cache statistics
      */
     public Map<String, Object> getCacheStats() {
+        StationSnapshot snapshot = current;
+        long now = System.currentTimeMillis();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("cacheType", "Spring Cache (Redis or In-Memory)");
-        stats.put("cacheName", "stationCache");
-        stats.put("cacheKey", "all_stations");
-        stats.put("ttlSeconds", 3600);
-        stats.put("ttlMinutes", 60);
-        stats.put("note", "Cache statistics depend on underlying cache implementation");
+        stats.put("cacheName", CACHE_NAME);
+        stats.put("cacheKey", CACHE_KEY);
+        stats.put("cacheSize", snapshot != null ? 1 : 0);
+        stats.put("ttlSeconds", freshSeconds);
+        stats.put("refreshAheadSeconds", refreshAheadSeconds);
+        stats.put("cachedAt", snapshot != null ? Instant.ofEpochMilli(snapshot.fetchedAtMillis()).toString() : null);
+        stats.put("ageSeconds", snapshot != null ? (now - snapshot.fetchedAtMillis()) / 1000 : null);
+        stats.put("isExpired", snapshot == null || now - snapshot.fetchedAtMillis() >= freshSeconds * 1000);
+        stats.put("refreshInFlight", inFlight.get() != null);
+        stats.put("retryBlockedUntil", nextAttemptAt > now ? Instant.ofEpochMilli(nextAttemptAt).toString() : null);
+        if (cacheManager.getCache(CACHE_NAME) instanceof TwoLevelCache sharedCache) {
+            stats.put("sharedCache", sharedCache.getStats());
+        }
         return stats;
     }
 
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
     /**
-     * Encrypts a string using the specified algorithm
-     *
-     * @param algorithmType Algorithm type (1=MD5, 2=SHA1, 3=SHA256, 4=SHA512)
-     * @param input The string to encrypt
-     * @return Encrypted string or null if algorithm not supported
+     * This node's snapshot, or the shared one when this node has none yet
      */
-    private String encrypt(int algorithmType, String input) {
-        if (input == null) {
-            return null;
+    private StationSnapshot snapshot() {
+        StationSnapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = readShared();
+            if (snapshot != null) {
+                current = snapshot;
+            }
         }
+        return snapshot;
+    }
 
+    private boolean isRefreshDue(StationSnapshot snapshot) {
+        long now = System.currentTimeMillis();
+        return now >= refreshAt(snapshot) && now >= nextAttemptAt;
+    }
+
+    private long refreshAt(StationSnapshot snapshot) {
+        return snapshot.fetchedAtMillis() + Math.max(0, freshSeconds - refreshAheadSeconds) * 1000;
+    }
+
+    /**
+     * Block until the load in flight completes (starting one if needed)
+     */
+    private StationSnapshot awaitLoad() {
         try {
-            MessageDigest digest;
-            switch (algorithmType) {
-                case 1:
-                    digest = MessageDigest.getInstance("MD5");
-                    break;
-                case 2:
-                    digest = MessageDigest.getInstance("SHA-1");
-                    break;
-                case 3:
-                    digest = MessageDigest.getInstance("SHA-256");
-                    break;
-                case 4:
-                    digest = MessageDigest.getInstance("SHA-512");
-                    break;
-                default:
-                    log.warn("Unsupported algorithm type: {}", algorithmType);
-                    return null;
+            return refreshAsync().get(coldWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ApiException("Station list is not available yet, please retry", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new RuntimeException("Failed to fetch stations: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching stations", e);
+        }
+    }
 
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+    /**
+     * Start a refresh on the refresh thread, or join the one already running
+     */
+    private CompletableFuture<StationSnapshot> refreshAsync() {
+        while (true) {
+            CompletableFuture<StationSnapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
             }
-            return hexString.toString();
+            CompletableFuture<StationSnapshot> started = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, started)) {
+                continue;
+            }
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        started.complete(refresh());
+                    } catch (Throwable t) {
+                        started.completeExceptionally(t);
+                    } finally {
+                        inFlight.compareAndSet(started, null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.compareAndSet(started, null);
+                started.completeExceptionally(e);
+            }
+            return started;
+        }
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            log.error("Algorithm not supported: {}", algorithmType, e);
+    /**
+     * Bring this node's snapshot up to date; runs on the refresh thread only
+     */
+    private StationSnapshot refresh() {
+        StationSnapshot local = current;
+        StationSnapshot shared = readShared();
+        if (shared != null && (local == null || shared.fetchedAtMillis() > local.fetchedAtMillis())) {
+            current = shared;
+            local = shared;
+        }
+        if (local != null && System.currentTimeMillis() < refreshAt(local)) {
+            return local;
+        }
+
+        String token = distributedLock.tryLock(LOCK_NAME, Duration.ofSeconds(lockTtlSeconds));
+        if (token == null) {
+            if (local != null) {
+                // Another node is refreshing; pick up its result on a later check
+                nextAttemptAt = System.currentTimeMillis() + retrySeconds * 1000;
+                return local;
+            }
+            StationSnapshot loaded = awaitShared();
+            if (loaded != null) {
+                current = loaded;
+                return loaded;
+            }
+            log.warn("Timed out waiting for another node to load stations, fetching from BMSLG directly");
+        }
+
+        try {
+            StationSnapshot fresh = new StationSnapshot(fetchFromBmslg(), System.currentTimeMillis());
+            writeShared(fresh);
+            current = fresh;
+            nextAttemptAt = 0;
+            return fresh;
+        } catch (RuntimeException e) {
+            nextAttemptAt = System.currentTimeMillis() + retrySeconds * 1000;
+            if (local != null) {
+                log.warn("BMSLG station refresh failed, serving stations fetched at {}: {}",
+                    Instant.ofEpochMilli(local.fetchedAtMillis()), e.getMessage());
+                return local;
+            }
+            throw e;
+        } finally {
+            distributedLock.unlock(LOCK_NAME, token);
+        }
+    }
+
+    /**
+     * Wait for the node holding the lock to publish its result
+     */
+    private StationSnapshot awaitShared() {
+        long deadline = System.currentTimeMillis() + Math.min(coldWaitMillis, lockTtlSeconds * 1000);
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(SHARED_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            StationSnapshot shared = readShared();
+            if (shared != null) {
+                return shared;
+            }
+        }
+        return null;
+    }
+
+    private StationSnapshot readShared() {
+        try {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            return cache != null ? cache.get(CACHE_KEY, StationSnapshot.class) : null;
+        } catch (RuntimeException e) {
+            // Unreachable Redis, or an entry written in an older format
+            log.warn("Could not read shared station cache: {}", e.getMessage());
             return null;
         }
     }
+
+    private void writeShared(StationSnapshot snapshot) {
+        try {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                cache.put(CACHE_KEY, snapshot);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not write shared station cache: {}", e.getMessage());
+        }
+    }
+
+    private String fetchFromBmslg() {
+        log.info("Fetching fresh station data from BMSLG");
+        try {
+            // Generate random auth key (1-5, but we removed RIPEMD160 support, so 1-4)
+            int authKey = ThreadLocalRandom.current().nextInt(4) + 1; // Random between 1-4
+
+            // Prepare POST data
+            Map<String, String> postData = new LinkedHashMap<>();
+            postData.put("imei", "123456789012345");
+            postData.put("lat", "0.0");
+            postData.put("long", "0.0");
+            postData.put("ip", "192.168.0.101");
+            postData.put("owner_id", "64");
+            postData.put("auth_key", String.valueOf(authKey));
+            postData.put("key", ""); // Will be calculated
+            postData.put("is_from", "4");
+            postData.put("pltfm", "0"); // 0=ANDROID AGENT NORMAL, 1=ANDROID AGENT SPECIAL, 2=ANDROID AGENT SHORT, 3=ANDROID AGENT CARGO
+            postData.put("lang", "0"); // 0=English, 1=Swahili
+            postData.put("app_ver", "4.88");
+
+            // Sign: GET key = encrypt(auth_key, owner_id + auth_key + salt), POST key = encrypt(auth_key, fields + salt)
+            Map<String, String> getData = signer.sign(BmslgEndpoint.SEARCH_STATIONS, authKey, postData);
+
+            log.debug("BMSLG Search Stations request prepared (auth key: {})", authKey);
+
+            // Station search is an idempotent read, so a slow request is hedged
+            HttpResponse<String> response = bmslgClient.postFormHedged(BmslgEndpoint.SEARCH_STATIONS.getName(), BmslgEndpoint.SEARCH_STATIONS.getUrl(), getData, postData);
+
+            log.info("BMSLG Search Stations HTTP Code: {}", response.statusCode());
+            log.debug("BMSLG Search Stations Response: {}", response.body());
+
+            // Never cache an error page over a good station list
+            if (response.statusCode() / 100 != 2 || response.body() == null || response.body().isBlank()) {
+                throw new RuntimeException("Failed to fetch stations: BMSLG returned HTTP " + response.statusCode());
+            }
+            return response.body();
+
+        } catch (IOException e) {
+            log.error("Error during BMSLG stations fetch", e);
+            throw new RuntimeException("Failed to fetch stations: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching stations", e);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package com.obuspartners.modules.partner_integration.stations;
+
+import java.io.Serializable;
+
+/**
+ * BMSLG station response as held in stationCache
+ *
+ * @param body the raw response body
+ * @param fetchedAtMillis when it was fetched from BMSLG (epoch ms)
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public record StationSnapshot(String body, long fetchedAtMillis) implements Serializable {
+}
@@ -56,6 +56,10 @@ public class PartnerApiKey {
     @Size(max = 200, message = "API secret must not exceed 200 characters")
     private String apiSecret;
 
+    @Column(name = "signing_secret", length = 500)
+    @Size(max = 500, message = "Signing secret must not exceed 500 characters")
+    private String signingSecret; // Encrypted HMAC request-signing secret
+
     @Column(name = "description", length = 500)
     @Size(max = 500, message = "Description must not exceed 500 characters")
     private String description;
@@ -87,6 +91,9 @@ public class PartnerApiKey {
     @Column(name = "usage_count")
     private Long usageCount = 0L;
 
+    @Column(name = "rate_limit_per_minute")
+    private Integer rateLimitPerMinute; // Overrides the partner tier limit when set
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
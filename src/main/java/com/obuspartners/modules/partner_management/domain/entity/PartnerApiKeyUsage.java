@@ -0,0 +1,51 @@
+package com.obuspartners.modules.partner_management.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-minute API key usage rollup
+ *
+ * Written in batches by the usage meter. Several rows may exist for the same
+ * key and minute (one per application node or flush), so readers must SUM
+ * request counts.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "partner_api_key_usage",
+       indexes = {
+           @Index(name = "idx_api_key_usage_partner_bucket", columnList = "partner_id, bucket_start"),
+           @Index(name = "idx_api_key_usage_key_bucket", columnList = "api_key_id, bucket_start")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartnerApiKeyUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "api_key_id", nullable = false)
+    private Long apiKeyId;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -7,22 +7,24 @@ package com.obuspartners.modules.partner_management.domain.enums;
  * @version 1.0.0
  */
 public enum PartnerTier {
-    BRONZE("BRONZE", "Bronze", "Entry-level partner tier with basic benefits", "#cd7f32"),
-    SILVER("SILVER", "Silver", "Mid-level partner tier with enhanced benefits", "#c0c0c0"),
-    GOLD("GOLD", "Gold", "Premium partner tier with advanced benefits", "#ffd700"),
-    PLATINUM("PLATINUM", "Platinum", "High-tier partner with exclusive benefits", "#e5e4e2"),
-    DIAMOND("DIAMOND", "Diamond", "Top-tier partner with maximum benefits", "#b9f2ff");
+    BRONZE("BRONZE", "Bronze", "Entry-level partner tier with basic benefits", "#cd7f32", 100),
+    SILVER("SILVER", "Silver", "Mid-level partner tier with enhanced benefits", "#c0c0c0", 600),
+    GOLD("GOLD", "Gold", "Premium partner tier with advanced benefits", "#ffd700", 3_000),
+    PLATINUM("PLATINUM", "Platinum", "High-tier partner with exclusive benefits", "#e5e4e2", 12_000),
+    DIAMOND("DIAMOND", "Diamond", "Top-tier partner with maximum benefits", "#b9f2ff", 60_000);
 
     private final String name;
     private final String displayName;
     private final String description;
     private final String colorCode;
+    private final int requestsPerMinute;
 
-    PartnerTier(String name, String displayName, String description, String colorCode) {
+    PartnerTier(String name, String displayName, String description, String colorCode, int requestsPerMinute) {
         this.name = name;
         this.displayName = displayName;
         this.description = description;
         this.colorCode = colorCode;
+        this.requestsPerMinute = requestsPerMinute;
     }
 
     public String getName() {
@@ -40,4 +42,11 @@ public enum PartnerTier {
     public String getColorCode() {
         return colorCode;
     }
+
+    /**
+     * Default API rate limit for keys of partners in this tier
+     */
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
 }
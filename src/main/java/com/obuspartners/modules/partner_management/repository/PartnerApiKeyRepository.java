@@ -24,6 +24,12 @@ public interface PartnerApiKeyRepository extends JpaRepository<PartnerApiKey, Lo
      */
     Optional<PartnerApiKey> findByApiKey(String apiKey);
 
+    /**
+     * Find API key by the actual API key string with its partner fetched
+     */
+    @Query("SELECT pak FROM PartnerApiKey pak JOIN FETCH pak.partner WHERE pak.apiKey = :apiKey")
+    Optional<PartnerApiKey> findByApiKeyWithPartner(@Param("apiKey") String apiKey);
+
     /**
      * Check if API key exists
      */
@@ -0,0 +1,50 @@
+package com.obuspartners.modules.partner_management.repository;
+
+import com.obuspartners.modules.partner_management.domain.entity.PartnerApiKeyUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for per-minute API key usage rollups
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Repository
+public interface PartnerApiKeyUsageRepository extends JpaRepository<PartnerApiKeyUsage, Long> {
+
+    /**
+     * Total requests made by a partner in a time range
+     */
+    @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM PartnerApiKeyUsage u " +
+           "WHERE u.partnerId = :partnerId AND u.bucketStart >= :from AND u.bucketStart < :to")
+    long sumRequestsByPartner(@Param("partnerId") Long partnerId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    /**
+     * Per-minute request counts for a partner in a time range
+     *
+     * @return rows of [bucketStart, requestCount]
+     */
+    @Query("SELECT u.bucketStart, SUM(u.requestCount) FROM PartnerApiKeyUsage u " +
+           "WHERE u.partnerId = :partnerId AND u.bucketStart >= :from AND u.bucketStart < :to " +
+           "GROUP BY u.bucketStart ORDER BY u.bucketStart")
+    List<Object[]> findUsageHistoryByPartner(@Param("partnerId") Long partnerId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    /**
+     * Total requests made with an API key in a time range
+     */
+    @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM PartnerApiKeyUsage u " +
+           "WHERE u.apiKeyId = :apiKeyId AND u.bucketStart >= :from AND u.bucketStart < :to")
+    long sumRequestsByApiKey(@Param("apiKeyId") Long apiKeyId,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,219 @@
+package com.obuspartners.modules.partner_management.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind API key usage meter
+ *
+ * Requests are counted in memory in per-key, per-minute buckets backed by
+ * striped counters, so recording usage costs no database access. A scheduled
+ * flush applies the accumulated deltas to partner_api_keys.usage_count /
+ * last_used_at with one batched UPDATE, and writes a row per key and closed
+ * minute into the partner_api_key_usage rollup table. Usage is keyed by
+ * the key's ID, so requests counted just before a key is regenerated are
+ * still written to it.
+ *
+ * If a flush fails nothing is marked as flushed and the deltas are retried
+ * on the next run.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiKeyUsageMeter {
+
+    private static final String UPDATE_USAGE_SQL =
+        "UPDATE partner_api_keys " +
+        "SET usage_count = COALESCE(usage_count, 0) + ?, " +
+        "last_used_at = GREATEST(COALESCE(last_used_at, ?), ?) " +
+        "WHERE id = ?";
+
+    private static final String INSERT_ROLLUP_SQL =
+        "INSERT INTO partner_api_key_usage (api_key_id, partner_id, bucket_start, request_count, created_at) " +
+        "SELECT id, partner_id, ?, ?, ? FROM partner_api_keys WHERE id = ?";
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Minutes a bucket stays open after its minute ends, so requests that
+     * picked the bucket just before the boundary are still counted
+     */
+    @Value("${app.api-key-usage.close-grace-minutes:1}")
+    private long closeGraceMinutes;
+
+    private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public ApiKeyUsageMeter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Record one request made with an API key
+     *
+     * @param apiKeyId the API key ID
+     */
+    public void record(long apiKeyId) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.computeIfAbsent(new BucketKey(apiKeyId, now / MINUTE_MILLIS), k -> new Bucket());
+        bucket.count.increment();
+        bucket.lastUsedMillis.accumulate(now);
+    }
+
+    /**
+     * Number of requests recorded but not yet flushed (approximate)
+     */
+    public long pendingCount() {
+        long pending = 0;
+        for (Bucket bucket : buckets.values()) {
+            pending += bucket.count.sum() - bucket.flushedCount;
+        }
+        return pending;
+    }
+
+    /**
+     * Flush accumulated usage to the database
+     */
+    @Scheduled(fixedDelayString = "${app.api-key-usage.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        try {
+            flush(false);
+        } catch (Exception e) {
+            log.error("Error flushing API key usage, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush(true);
+        } catch (Exception e) {
+            log.error("Error flushing API key usage on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply pending deltas and write rollups for closed minutes
+     *
+     * @param closeAll treat every bucket as closed (shutdown)
+     */
+    synchronized void flush(boolean closeAll) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        long closeBefore = System.currentTimeMillis() / MINUTE_MILLIS - closeGraceMinutes;
+
+        Map<Long, KeyDelta> keyDeltas = new HashMap<>();
+        List<Map.Entry<BucketKey, Bucket>> closedBuckets = new ArrayList<>();
+        List<Long> snapshots = new ArrayList<>();
+        List<Map.Entry<BucketKey, Bucket>> openBuckets = new ArrayList<>();
+        List<Long> openSnapshots = new ArrayList<>();
+
+        for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            long total = bucket.count.sum();
+            long delta = total - bucket.flushedCount;
+            boolean closed = closeAll || entry.getKey().minute() < closeBefore;
+
+            if (delta > 0) {
+                keyDeltas.computeIfAbsent(entry.getKey().apiKeyId(), k -> new KeyDelta())
+                    .add(delta, bucket.lastUsedMillis.get());
+            }
+            if (closed) {
+                closedBuckets.add(entry);
+                snapshots.add(total);
+            } else if (delta > 0) {
+                openBuckets.add(entry);
+                openSnapshots.add(total);
+            }
+        }
+
+        if (keyDeltas.isEmpty() && closedBuckets.isEmpty()) {
+            return;
+        }
+
+        Timestamp flushedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> usageUpdates = new ArrayList<>(keyDeltas.size());
+        keyDeltas.forEach((apiKeyId, keyDelta) -> {
+            Timestamp lastUsed = toTimestamp(keyDelta.lastUsedMillis);
+            usageUpdates.add(new Object[] { keyDelta.count, lastUsed, lastUsed, apiKeyId });
+        });
+
+        List<Object[]> rollupInserts = new ArrayList<>(closedBuckets.size());
+        for (int i = 0; i < closedBuckets.size(); i++) {
+            long requests = snapshots.get(i);
+            if (requests > 0) {
+                BucketKey key = closedBuckets.get(i).getKey();
+                rollupInserts.add(new Object[] { toTimestamp(key.minute() * MINUTE_MILLIS), requests, flushedAt, key.apiKeyId() });
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!usageUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_USAGE_SQL, usageUpdates);
+            }
+            if (!rollupInserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, rollupInserts);
+            }
+        });
+
+        // Only reached on commit: mark deltas as applied and drop closed buckets
+        for (int i = 0; i < closedBuckets.size(); i++) {
+            Map.Entry<BucketKey, Bucket> entry = closedBuckets.get(i);
+            buckets.remove(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < openBuckets.size(); i++) {
+            openBuckets.get(i).getValue().flushedCount = openSnapshots.get(i);
+        }
+
+        log.debug("Flushed API key usage: {} keys updated, {} minute rollups written",
+                 usageUpdates.size(), rollupInserts.size());
+    }
+
+    private static Timestamp toTimestamp(long epochMillis) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    private record BucketKey(long apiKeyId, long minute) {
+    }
+
+    private static final class Bucket {
+        final LongAdder count = new LongAdder();
+        final LongAccumulator lastUsedMillis = new LongAccumulator(Math::max, 0L);
+        /** Portion of count already applied to usage_count; only touched by the flusher */
+        volatile long flushedCount;
+    }
+
+    private static final class KeyDelta {
+        long count;
+        long lastUsedMillis;
+
+        void add(long delta, long lastUsed) {
+            count += delta;
+            lastUsedMillis = Math.max(lastUsedMillis, lastUsed);
+        }
+    }
+}
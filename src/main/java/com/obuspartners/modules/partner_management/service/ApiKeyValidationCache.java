@@ -0,0 +1,255 @@
+package com.obuspartners.modules.partner_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-based cache of successful API key/secret validations
+ *
+ * Entries are keyed by API key and hold a keyed digest (HMAC-SHA256 with a
+ * per-process random key) of the secret that was verified, never the secret
+ * itself. A presented secret is accepted from cache only when its digest
+ * matches. Entries never outlive the key's own expiry and are invalidated on
+ * every node when a key is disabled, revoked, regenerated or changed.
+ *
+ * Decrypted request-signing keys are cached alongside, under the same TTL and
+ * invalidation rules.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ApiKeyValidationCache {
+
+    static final String INVALIDATION_CHANNEL = "obus:cache:api-key-validation:invalidate";
+
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
+    private final CacheInvalidationBus invalidationBus;
+
+    @Value("${app.security.api-key-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.api-key-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.security.api-key-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, CachedValidation> cache;
+    private Cache<String, PartnerApiKeyService.SigningKey> signingKeys;
+    private ThreadLocal<Mac> secretDigester;
+
+    /**
+     * Bumped on every invalidation; a validation that started before an
+     * invalidation must not populate the cache with what it read.
+     */
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    public ApiKeyValidationCache(CacheInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] digestKey = new byte[32];
+        new SecureRandom().nextBytes(digestKey);
+        SecretKeySpec keySpec = new SecretKeySpec(digestKey, DIGEST_ALGORITHM);
+        secretDigester = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, CachedValidation>() {
+                @Override
+                public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+                    return Math.min(ttlNanos, nanosUntil(value.info().getExpiresAt()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+        signingKeys = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, PartnerApiKeyService.SigningKey>() {
+                @Override
+                public long expireAfterCreate(String key, PartnerApiKeyService.SigningKey value, long currentTime) {
+                    return Math.min(ttlNanos, nanosUntil(value.getApiKeyInfo().getExpiresAt()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, PartnerApiKeyService.SigningKey value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, PartnerApiKeyService.SigningKey value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+        invalidationBus.subscribe(INVALIDATION_CHANNEL, this::evictLocal);
+        log.info("API key validation cache initialized (enabled: {}, ttl: {}s, max size: {})", enabled, ttlSeconds, maxSize);
+    }
+
+    /**
+     * Look up a previously successful validation for the presented credentials
+     *
+     * @param apiKey the API key string
+     * @param apiSecret the presented API secret
+     * @return the cached key information, or null when not cached or the secret differs
+     */
+    public PartnerApiKeyService.ApiKeyInfo get(String apiKey, String apiSecret) {
+        if (!enabled) {
+            return null;
+        }
+        CachedValidation cached = cache.getIfPresent(apiKey);
+        if (cached == null) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(cached.secretDigest(), digest(apiSecret))) {
+            return null;
+        }
+        return cached.info();
+    }
+
+    /**
+     * Current invalidation epoch; capture before reading the key from the database
+     * and pass to {@link #put} so stale reads are not cached
+     */
+    public long currentEpoch() {
+        return invalidationEpoch.get();
+    }
+
+    /**
+     * Cache a successful validation
+     *
+     * @param apiKey the API key string
+     * @param apiSecret the verified API secret
+     * @param info the resolved key information (must not contain the secret)
+     * @param epoch the epoch captured before the database read
+     */
+    public void put(String apiKey, String apiSecret, PartnerApiKeyService.ApiKeyInfo info, long epoch) {
+        if (!enabled || nanosUntil(info.getExpiresAt()) <= 0) {
+            return;
+        }
+        CachedValidation value = new CachedValidation(digest(apiSecret), info);
+        cache.put(apiKey, value);
+        if (invalidationEpoch.get() != epoch) {
+            // An invalidation raced with this validation; drop what we just stored
+            cache.asMap().remove(apiKey, value);
+        }
+    }
+
+    /**
+     * Look up a cached request-signing key
+     *
+     * @param apiKey the API key string
+     * @return the signing key, or null when not cached
+     */
+    public PartnerApiKeyService.SigningKey getSigningKey(String apiKey) {
+        return enabled ? signingKeys.getIfPresent(apiKey) : null;
+    }
+
+    /**
+     * Cache a request-signing key
+     *
+     * @param apiKey the API key string
+     * @param signingKey the signing key
+     * @param epoch the epoch captured before the database read
+     */
+    public void putSigningKey(String apiKey, PartnerApiKeyService.SigningKey signingKey, long epoch) {
+        if (!enabled || nanosUntil(signingKey.getApiKeyInfo().getExpiresAt()) <= 0) {
+            return;
+        }
+        signingKeys.put(apiKey, signingKey);
+        if (invalidationEpoch.get() != epoch) {
+            signingKeys.asMap().remove(apiKey, signingKey);
+        }
+    }
+
+    /**
+     * Invalidate an API key on this node now, and on every node once the
+     * current transaction commits
+     *
+     * @param apiKey the API key string
+     */
+    public void invalidate(String apiKey) {
+        if (apiKey == null) {
+            return;
+        }
+        evictLocal(apiKey);
+        CacheInvalidationBus.runAfterCommit(() -> {
+            evictLocal(apiKey);
+            invalidationBus.publish(INVALIDATION_CHANNEL, apiKey);
+        });
+    }
+
+    /**
+     * Number of cached validations (approximate)
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void evictLocal(String apiKey) {
+        invalidationEpoch.incrementAndGet();
+        cache.invalidate(apiKey);
+        signingKeys.invalidate(apiKey);
+        log.debug("Evicted API key from validation cache: {}", apiKey);
+    }
+
+    private byte[] digest(String apiSecret) {
+        return secretDigester.get().doFinal(apiSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long nanosUntil(LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return Long.MAX_VALUE;
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), expiresAt);
+        if (remaining.isNegative()) {
+            return 0;
+        }
+        return remaining.getSeconds() >= Long.MAX_VALUE / 1_000_000_000L ? Long.MAX_VALUE : remaining.toNanos();
+    }
+
+    private record CachedValidation(byte[] secretDigest, PartnerApiKeyService.ApiKeyInfo info) {
+    }
+}
@@ -130,11 +130,12 @@ public interface PartnerApiKeyService {
     Optional<ApiKeyInfo> validateApiKeyAndSecret(String apiKey, String apiSecret);
 
     /**
-     * Record API key usage
+     * Get the request-signing key of a usable API key
      * 
      * @param apiKey the API key string
+     * @return the signing key, empty if the key is unknown, not usable or has no signing secret
      */
-    void recordApiKeyUsage(String apiKey);
+    Optional<SigningKey> getSigningKey(String apiKey);
 
     /**
      * Get expired API keys
@@ -155,16 +156,22 @@ public interface PartnerApiKeyService {
      * API Key Information class
      */
     class ApiKeyInfo {
+        private Long apiKeyId;
         private String apiKeyUid;
         private String apiKey;
         private String apiSecret;
+        private String signingSecret;
         private String partnerUid;
+        private Long partnerId;
+        private String partnerCode;
+        private String partnerBusinessName;
         private String keyName;
         private String description;
         private String environment;
         private Set<String> permissions;
         private LocalDateTime expiresAt;
         private boolean isPrimary;
+        private int rateLimitPerMinute;
 
         public ApiKeyInfo() {}
 
@@ -175,6 +182,9 @@ public interface PartnerApiKeyService {
         }
 
         // Getters and setters
+        public Long getApiKeyId() { return apiKeyId; }
+        public void setApiKeyId(Long apiKeyId) { this.apiKeyId = apiKeyId; }
+
         public String getApiKeyUid() { return apiKeyUid; }
         public void setApiKeyUid(String apiKeyUid) { this.apiKeyUid = apiKeyUid; }
 
@@ -184,8 +194,17 @@ public interface PartnerApiKeyService {
         public String getApiSecret() { return apiSecret; }
         public void setApiSecret(String apiSecret) { this.apiSecret = apiSecret; }
 
+        public String getSigningSecret() { return signingSecret; }
+        public void setSigningSecret(String signingSecret) { this.signingSecret = signingSecret; }
+
         public String getPartnerUid() { return partnerUid; }
         public void setPartnerUid(String partnerUid) { this.partnerUid = partnerUid; }
+        public Long getPartnerId() { return partnerId; }
+        public void setPartnerId(Long partnerId) { this.partnerId = partnerId; }
+        public String getPartnerCode() { return partnerCode; }
+        public void setPartnerCode(String partnerCode) { this.partnerCode = partnerCode; }
+        public String getPartnerBusinessName() { return partnerBusinessName; }
+        public void setPartnerBusinessName(String partnerBusinessName) { this.partnerBusinessName = partnerBusinessName; }
 
         public String getKeyName() { return keyName; }
         public void setKeyName(String keyName) { this.keyName = keyName; }
@@ -204,6 +223,25 @@ public interface PartnerApiKeyService {
 
         public boolean isPrimary() { return isPrimary; }
         public void setPrimary(boolean primary) { isPrimary = primary; }
+
+        public int getRateLimitPerMinute() { return rateLimitPerMinute; }
+        public void setRateLimitPerMinute(int rateLimitPerMinute) { this.rateLimitPerMinute = rateLimitPerMinute; }
+    }
+
+    /**
+     * Request-signing key: the key information plus the raw HMAC secret
+     */
+    class SigningKey {
+        private final ApiKeyInfo apiKeyInfo;
+        private final byte[] secret;
+
+        public SigningKey(ApiKeyInfo apiKeyInfo, byte[] secret) {
+            this.apiKeyInfo = apiKeyInfo;
+            this.secret = secret;
+        }
+
+        public ApiKeyInfo getApiKeyInfo() { return apiKeyInfo; }
+        public byte[] getSecret() { return secret; }
     }
 
     /**
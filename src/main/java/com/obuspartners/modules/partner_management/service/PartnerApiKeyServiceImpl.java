@@ -1,19 +1,23 @@
 package com.obuspartners.modules.partner_management.service;
 
+import com.obuspartners.modules.common.service.PasswordEncryptionService;
+import com.obuspartners.modules.common.service.PasswordVerificationExecutor;
 import com.obuspartners.modules.partner_management.domain.entity.Partner;
 import com.obuspartners.modules.partner_management.domain.entity.PartnerApiKey;
 import com.obuspartners.modules.partner_management.repository.PartnerRepository;
 import com.obuspartners.modules.partner_management.repository.PartnerApiKeyRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import de.huxhorn.sulky.ulid.ULID;
 
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -34,14 +38,24 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
     private final PartnerRepository partnerRepository;
     private final PartnerApiKeyRepository partnerApiKeyRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final ApiKeyValidationCache apiKeyValidationCache;
+    private final PasswordEncryptionService passwordEncryptionService;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final SecureRandom secureRandom = new SecureRandom();
     private final ULID ulid = new ULID();
 
     public PartnerApiKeyServiceImpl(PartnerRepository partnerRepository, 
                                    PartnerApiKeyRepository partnerApiKeyRepository,
-                                   @Lazy BCryptPasswordEncoder passwordEncoder) {
+                                   @Lazy BCryptPasswordEncoder passwordEncoder,
+                                   ApiKeyValidationCache apiKeyValidationCache,
+                                   PasswordEncryptionService passwordEncryptionService,
+                                   @Lazy PasswordVerificationExecutor passwordVerificationExecutor) {
         this.partnerRepository = partnerRepository;
         this.partnerApiKeyRepository = partnerApiKeyRepository;
         this.passwordEncoder = passwordEncoder;
+        this.apiKeyValidationCache = apiKeyValidationCache;
+        this.passwordEncryptionService = passwordEncryptionService;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
     }
 
     @Override
@@ -60,12 +74,14 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
                     existingPrimary.setIsPrimary(false);
                     existingPrimary.setUpdatedBy(createdBy);
                     partnerApiKeyRepository.save(existingPrimary);
+                    evictApiKeyFromCache(existingPrimary.getApiKey());
                 });
         }
 
         String newApiKeyUid = ulid.nextULID();
         String newApiKey = generateSecureApiKey();
         String newApiSecret = generateSecureApiSecret();
+        String newSigningSecret = generateSecureSigningSecret();
 
         PartnerApiKey partnerApiKey = new PartnerApiKey();
         partnerApiKey.setUid(newApiKeyUid);
@@ -73,6 +89,7 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         partnerApiKey.setKeyName(keyName);
         partnerApiKey.setApiKey(newApiKey);
         partnerApiKey.setApiSecret(passwordEncoder.encode(newApiSecret));
+        partnerApiKey.setSigningSecret(encryptSigningSecret(newSigningSecret));
         partnerApiKey.setDescription(description);
         partnerApiKey.setEnvironment(environment);
         partnerApiKey.setPermissions(permissions);
@@ -89,6 +106,7 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         apiKeyInfo.setApiKeyUid(newApiKeyUid);
         apiKeyInfo.setApiKey(newApiKey);
         apiKeyInfo.setApiSecret(newApiSecret);
+        apiKeyInfo.setSigningSecret(partnerApiKey.getSigningSecret() != null ? newSigningSecret : null);
         apiKeyInfo.setPartnerUid(partnerUid);
         apiKeyInfo.setKeyName(keyName);
         apiKeyInfo.setDescription(description);
@@ -123,22 +141,30 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         log.info("Regenerating API key: {}", apiKeyUid);
         
         PartnerApiKey partnerApiKey = findApiKeyByUid(apiKeyUid);
+        String oldApiKey = partnerApiKey.getApiKey(); // Get old API key for cache eviction
         
         String newApiKey = generateSecureApiKey();
         String newApiSecret = generateSecureApiSecret();
+        String newSigningSecret = generateSecureSigningSecret();
 
         partnerApiKey.setApiKey(newApiKey);
         partnerApiKey.setApiSecret(passwordEncoder.encode(newApiSecret));
+        partnerApiKey.setSigningSecret(encryptSigningSecret(newSigningSecret));
         partnerApiKey.setUpdatedBy(updatedBy);
         partnerApiKey.setLastUsedAt(LocalDateTime.now());
 
         partnerApiKeyRepository.save(partnerApiKey);
+        
+        // Evict old credentials from cache
+        evictApiKeyFromCache(oldApiKey);
+        
         log.info("API key regenerated successfully");
 
         ApiKeyInfo apiKeyInfo = new ApiKeyInfo();
         apiKeyInfo.setApiKeyUid(apiKeyUid);
         apiKeyInfo.setApiKey(newApiKey);
         apiKeyInfo.setApiSecret(newApiSecret);
+        apiKeyInfo.setSigningSecret(partnerApiKey.getSigningSecret() != null ? newSigningSecret : null);
         apiKeyInfo.setPartnerUid(partnerApiKey.getPartner().getUid());
         apiKeyInfo.setKeyName(partnerApiKey.getKeyName());
         apiKeyInfo.setDescription(partnerApiKey.getDescription());
@@ -267,6 +293,7 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
                 existingPrimary.setIsPrimary(false);
                 existingPrimary.setUpdatedBy(updatedBy);
                 partnerApiKeyRepository.save(existingPrimary);
+                evictApiKeyFromCache(existingPrimary.getApiKey());
             });
         
         // Set this as primary
@@ -274,6 +301,7 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         partnerApiKey.setUpdatedBy(updatedBy);
         
         partnerApiKeyRepository.save(partnerApiKey);
+        evictApiKeyFromCache(partnerApiKey.getApiKey());
         log.info("Primary API key set successfully");
     }
 
@@ -287,6 +315,7 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         partnerApiKey.setUpdatedBy(updatedBy);
         
         partnerApiKeyRepository.save(partnerApiKey);
+        evictApiKeyFromCache(partnerApiKey.getApiKey());
         log.info("API key permissions updated successfully");
     }
 
@@ -300,14 +329,23 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         partnerApiKey.setUpdatedBy(updatedBy);
         
         partnerApiKeyRepository.save(partnerApiKey);
+        evictApiKeyFromCache(partnerApiKey.getApiKey());
         log.info("API key expiration updated successfully");
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ApiKeyInfo> validateApiKeyAndSecret(String apiKey, String apiSecret) {
         log.debug("Validating API key and secret: {}", apiKey);
         
-        Optional<PartnerApiKey> partnerApiKeyOpt = partnerApiKeyRepository.findByApiKey(apiKey);
+        // Fast path: previously verified credentials (no DB query, no BCrypt)
+        ApiKeyInfo cachedInfo = apiKeyValidationCache.get(apiKey, apiSecret);
+        if (cachedInfo != null) {
+            return Optional.of(cachedInfo);
+        }
+        
+        long cacheEpoch = apiKeyValidationCache.currentEpoch();
+        Optional<PartnerApiKey> partnerApiKeyOpt = partnerApiKeyRepository.findByApiKeyWithPartner(apiKey);
         
         if (partnerApiKeyOpt.isEmpty()) {
             log.warn("API key not found: {}", apiKey);
@@ -321,38 +359,46 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
             return Optional.empty();
         }
         
-        // Verify the secret
-        if (!passwordEncoder.matches(apiSecret, partnerApiKey.getApiSecret())) {
+        // Verify the secret on the bounded verification pool, off the request thread
+        if (!passwordVerificationExecutor.matches(apiSecret, partnerApiKey.getApiSecret())) {
             log.warn("API secret does not match for key: {}", apiKey);
             return Optional.empty();
         }
         
-        ApiKeyInfo apiKeyInfo = new ApiKeyInfo();
-        apiKeyInfo.setApiKeyUid(partnerApiKey.getUid());
-        apiKeyInfo.setApiKey(partnerApiKey.getApiKey());
-        apiKeyInfo.setPartnerUid(partnerApiKey.getPartner().getUid());
-        apiKeyInfo.setKeyName(partnerApiKey.getKeyName());
-        apiKeyInfo.setDescription(partnerApiKey.getDescription());
-        apiKeyInfo.setEnvironment(partnerApiKey.getEnvironment());
-        apiKeyInfo.setPermissions(partnerApiKey.getPermissions());
-        apiKeyInfo.setExpiresAt(partnerApiKey.getExpiresAt());
-        apiKeyInfo.setPrimary(partnerApiKey.getIsPrimary());
+        ApiKeyInfo apiKeyInfo = mapToValidatedApiKeyInfo(partnerApiKey);
+        apiKeyValidationCache.put(apiKey, apiSecret, apiKeyInfo, cacheEpoch);
         
         return Optional.of(apiKeyInfo);
     }
 
     @Override
-    @Transactional
-    public void recordApiKeyUsage(String apiKey) {
-        log.debug("Recording API key usage: {}", apiKey);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<SigningKey> getSigningKey(String apiKey) {
+        SigningKey cachedKey = apiKeyValidationCache.getSigningKey(apiKey);
+        if (cachedKey != null) {
+            return Optional.of(cachedKey);
+        }
         
-        Optional<PartnerApiKey> partnerApiKeyOpt = partnerApiKeyRepository.findByApiKey(apiKey);
+        long cacheEpoch = apiKeyValidationCache.currentEpoch();
+        Optional<PartnerApiKey> partnerApiKeyOpt = partnerApiKeyRepository.findByApiKeyWithPartner(apiKey);
         
-        if (partnerApiKeyOpt.isPresent()) {
-            PartnerApiKey partnerApiKey = partnerApiKeyOpt.get();
-            partnerApiKey.incrementUsage();
-            partnerApiKeyRepository.save(partnerApiKey);
+        if (partnerApiKeyOpt.isEmpty() || !partnerApiKeyOpt.get().isUsable()) {
+            log.warn("API key not found or not usable for signed request: {}", apiKey);
+            return Optional.empty();
         }
+        
+        PartnerApiKey partnerApiKey = partnerApiKeyOpt.get();
+        if (partnerApiKey.getSigningSecret() == null) {
+            log.warn("API key has no signing secret, regenerate it to use signed requests: {}", apiKey);
+            return Optional.empty();
+        }
+        
+        byte[] secret = passwordEncryptionService.decryptPassword(partnerApiKey.getSigningSecret())
+            .getBytes(StandardCharsets.UTF_8);
+        SigningKey signingKey = new SigningKey(mapToValidatedApiKeyInfo(partnerApiKey), secret);
+        apiKeyValidationCache.putSigningKey(apiKey, signingKey, cacheEpoch);
+        
+        return Optional.of(signingKey);
     }
 
     @Override
@@ -406,11 +452,35 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
     }
 
     /**
-     * Helper method to evict API key from cache
+     * Map a successfully validated key to the information shared with callers (no secrets)
+     */
+    private ApiKeyInfo mapToValidatedApiKeyInfo(PartnerApiKey partnerApiKey) {
+        ApiKeyInfo apiKeyInfo = new ApiKeyInfo();
+        apiKeyInfo.setApiKeyId(partnerApiKey.getId());
+        apiKeyInfo.setApiKeyUid(partnerApiKey.getUid());
+        apiKeyInfo.setApiKey(partnerApiKey.getApiKey());
+        apiKeyInfo.setPartnerUid(partnerApiKey.getPartner().getUid());
+        apiKeyInfo.setPartnerId(partnerApiKey.getPartner().getId());
+        apiKeyInfo.setPartnerCode(partnerApiKey.getPartner().getCode());
+        apiKeyInfo.setPartnerBusinessName(partnerApiKey.getPartner().getBusinessName());
+        apiKeyInfo.setKeyName(partnerApiKey.getKeyName());
+        apiKeyInfo.setDescription(partnerApiKey.getDescription());
+        apiKeyInfo.setEnvironment(partnerApiKey.getEnvironment());
+        apiKeyInfo.setPermissions(partnerApiKey.getPermissions() != null ? Set.copyOf(partnerApiKey.getPermissions()) : null);
+        apiKeyInfo.setExpiresAt(partnerApiKey.getExpiresAt());
+        apiKeyInfo.setPrimary(partnerApiKey.getIsPrimary());
+        apiKeyInfo.setRateLimitPerMinute(partnerApiKey.getRateLimitPerMinute() != null
+                ? partnerApiKey.getRateLimitPerMinute()
+                : partnerApiKey.getPartner().getTier().getRequestsPerMinute());
+        return apiKeyInfo;
+    }
+
+    /**
+     * Helper method to evict API key from the validation cache on all nodes
      */
-    @CacheEvict(value = "apiKeyValidation", key = "#apiKey")
     private void evictApiKeyFromCache(String apiKey) {
         log.debug("Evicting API key from cache: {}", apiKey);
+        apiKeyValidationCache.invalidate(apiKey);
     }
 
     /**
@@ -433,4 +503,26 @@ public class PartnerApiKeyServiceImpl implements PartnerApiKeyService {
         String secret2 = UUID.randomUUID().toString().replace("-", "").substring(0, 8);
         return secret1 + secret2;
     }
+
+    /**
+     * Generate request-signing secret (256 bits, URL-safe Base64)
+     */
+    private String generateSecureSigningSecret() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return "sk_" + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Encrypt a signing secret for storage; without an encryption key the
+     * API key is issued without request-signing support
+     */
+    private String encryptSigningSecret(String signingSecret) {
+        try {
+            return passwordEncryptionService.encryptPassword(signingSecret);
+        } catch (RuntimeException e) {
+            log.warn("Request signing secret not issued, encryption unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
 }
\ No newline at end of file
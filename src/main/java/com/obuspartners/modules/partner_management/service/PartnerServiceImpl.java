@@ -21,6 +21,7 @@ import com.obuspartners.modules.partner_management.domain.entity.Partner;
 import com.obuspartners.modules.partner_management.domain.enums.PartnerStatus;
 import com.obuspartners.modules.partner_management.domain.enums.PartnerTier;
 import com.obuspartners.modules.partner_management.domain.enums.PartnerType;
+import com.obuspartners.modules.partner_management.repository.PartnerApiKeyRepository;
 import com.obuspartners.modules.partner_management.repository.PartnerRepository;
 import com.obuspartners.modules.user_and_role_management.domain.entity.User;
 import com.obuspartners.modules.user_and_role_management.repository.UserRepository;
@@ -41,6 +42,8 @@ public class PartnerServiceImpl implements PartnerService {
 
     private final PartnerRepository partnerRepository;
     private final UserRepository userRepository;
+    private final PartnerApiKeyRepository partnerApiKeyRepository;
+    private final ApiKeyValidationCache apiKeyValidationCache;
 
     @Override
     @Transactional
@@ -357,6 +360,7 @@ public class PartnerServiceImpl implements PartnerService {
         partner.setTier(tier);
         partner.setUpdatedBy(getCurrentUser());
         Partner updatedPartner = partnerRepository.save(partner);
+        evictPartnerApiKeys(updatedPartner.getUid());
         log.info("Successfully updated partner tier to {} for partner ID: {}", tier, partnerId);
         return convertToResponseDto(updatedPartner);
     }
@@ -370,6 +374,7 @@ public class PartnerServiceImpl implements PartnerService {
         partner.setTier(tier);
         partner.setUpdatedBy(getCurrentUser());
         Partner updatedPartner = partnerRepository.save(partner);
+        evictPartnerApiKeys(updatedPartner.getUid());
         log.info("Successfully updated partner tier to {} for partner UID: {}", tier, uid);
         return convertToResponseDto(updatedPartner);
     }
@@ -954,4 +959,13 @@ public class PartnerServiceImpl implements PartnerService {
             throw new DuplicateResourceException("Tax identification number already exists: " + updateRequest.getTaxIdentificationNumber());
         }
     }
+
+    /**
+     * Evict a partner's API keys from the validation cache so tier-derived
+     * settings (such as rate limits) apply on the next request
+     */
+    private void evictPartnerApiKeys(String partnerUid) {
+        partnerApiKeyRepository.findByPartnerUidOrderByCreatedAtDesc(partnerUid)
+                .forEach(partnerApiKey -> apiKeyValidationCache.invalidate(partnerApiKey.getApiKey()));
+    }
 }
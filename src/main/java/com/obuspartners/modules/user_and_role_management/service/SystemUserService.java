@@ -241,7 +241,7 @@ public interface SystemUserService {
      * Update last login date for system user
      * 
      * @param id the system user ID
-     * @return the updated system user
+     * @return the system user; the new last login date is written behind
      */
     SystemUser updateLastLogin(Long id);
 
@@ -249,7 +249,7 @@ public interface SystemUserService {
      * Update last login date for system user by UID
      * 
      * @param uid the system user UID
-     * @return the updated system user
+     * @return the system user; the new last login date is written behind
      */
     SystemUser updateLastLoginByUid(String uid);
 
@@ -11,6 +11,7 @@ import com.obuspartners.modules.user_and_role_management.repository.SystemUserRe
 import com.obuspartners.modules.user_and_role_management.repository.UserRepository;
 import com.obuspartners.modules.partner_management.repository.PartnerRepository;
 import com.obuspartners.modules.partner_management.domain.entity.Partner;
+import com.obuspartners.modules.common.service.ActivityTracker;
 import com.obuspartners.modules.common.util.PasswordHelperService;
 import com.obuspartners.modules.common.service.EmailService;
 import com.obuspartners.modules.common.exception.ApiException;
@@ -52,6 +53,9 @@ public class SystemUserServiceImpl implements SystemUserService {
     @Autowired
     private PartnerRepository partnerRepository;
 
+    @Autowired
+    private ActivityTracker activityTracker;
+
     @Override
     public SystemUser createPartnerUser(CreatePartnerUserRequestDto request) {
         // Validate username uniqueness
@@ -549,16 +553,24 @@ public class SystemUserServiceImpl implements SystemUserService {
     public SystemUser updateLastLogin(Long id) {
         SystemUser systemUser = systemUserRepository.findById(id)
                 .orElseThrow(() -> new ApiException("System user not found with ID: " + id, HttpStatus.NOT_FOUND));
-        systemUser.setLastLoginDate(LocalDateTime.now());
-        return systemUserRepository.save(systemUser);
+        return touchLastLogin(systemUser);
     }
 
     @Override
     public SystemUser updateLastLoginByUid(String uid) {
         SystemUser systemUser = systemUserRepository.findByUid(uid)
                 .orElseThrow(() -> new ApiException("System user not found with UID: " + uid, HttpStatus.NOT_FOUND));
-        systemUser.setLastLoginDate(LocalDateTime.now());
-        return systemUserRepository.save(systemUser);
+        return touchLastLogin(systemUser);
+    }
+
+    /**
+     * Record the login through the write-behind tracker. The managed entity is
+     * left untouched so the transaction does not flush it as a full row update;
+     * its lastLoginDate shows the new value once the tracker has flushed.
+     */
+    private SystemUser touchLastLogin(SystemUser systemUser) {
+        activityTracker.touch(ActivityTracker.Activity.SYSTEM_USER_LAST_LOGIN, systemUser.getId());
+        return systemUser;
     }
 
 
@@ -1,9 +1,11 @@
 package com.obuspartners.modules.user_and_role_management.service;
 
+import com.obuspartners.modules.agent_management.service.AgentPrincipalResolver;
 import com.obuspartners.modules.user_and_role_management.domain.entity.Role;
 import com.obuspartners.modules.user_and_role_management.domain.entity.User;
 import com.obuspartners.modules.user_and_role_management.repository.RoleRepository;
 import com.obuspartners.modules.user_and_role_management.repository.UserRepository;
+import com.obuspartners.modules.auth_management.service.TokenVersionStore;
 import com.obuspartners.modules.common.exception.ApiException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +34,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionStore tokenVersionStore;
+    private final AgentPrincipalResolver agentPrincipalResolver;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -103,6 +107,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteById(Long id) {
         log.debug("Deleting user by ID: {}", id);
+        userRepository.findById(id).ifPresent(user -> {
+            tokenVersionStore.bump(user.getUsername());
+            if (user.isAgent()) {
+                agentPrincipalResolver.evictAgent(user.getAgent().getId());
+            }
+        });
         userRepository.deleteById(id);
         log.info("User deleted successfully with ID: {}", id);
     }
@@ -114,6 +124,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ApiException("User not found with ID: " + id, HttpStatus.NOT_FOUND));
         user.setEnabled(enabled);
         User updatedUser = userRepository.save(user);
+        // Revoke access tokens issued before this change
+        tokenVersionStore.bump(updatedUser.getUsername());
         log.info("User enabled status updated to: {} for user ID: {}", enabled, id);
         return updatedUser;
     }
@@ -128,6 +140,7 @@ public class UserServiceImpl implements UserService {
         
         user.addRole(role);
         User updatedUser = userRepository.save(user);
+        tokenVersionStore.bump(updatedUser.getUsername());
         log.info("Role '{}' added to user '{}' successfully", role.getRoleType(), user.getUsername());
         return updatedUser;
     }
@@ -142,6 +155,7 @@ public class UserServiceImpl implements UserService {
         
         user.removeRole(role);
         User updatedUser = userRepository.save(user);
+        tokenVersionStore.bump(updatedUser.getUsername());
         log.info("Role '{}' removed from user '{}' successfully", role.getRoleType(), user.getUsername());
         return updatedUser;
     }
@@ -169,6 +183,7 @@ public class UserServiceImpl implements UserService {
         user.setRequirePasswordChange(false);
         
         User updatedUser = userRepository.save(user);
+        tokenVersionStore.bump(updatedUser.getUsername());
         log.info("Password changed successfully for user ID: {}", userId);
         return updatedUser;
     }
@@ -0,0 +1,147 @@
+package com.obuspartners.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.auth_management.util.JwtUtil;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import com.obuspartners.modules.common.service.PasswordVerificationExecutor;
+import com.obuspartners.modules.partner_management.service.ApiKeyValidationCache;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+
+/**
+ * Agent logins per second on one core, before and after the login pipeline rework
+ *
+ * Database round trips are excluded; both variants do the CPU work of a
+ * login. legacyLogin BCrypt-checks the partner secret and the pass code,
+ * issues the tokens, re-parses the access token for its expiry and builds two
+ * formatters. pipelinedLogin accepts the partner secret from the validation
+ * cache, BCrypt-checks the pass code on a single-thread verification pool,
+ * issues the tokens and formats the known expiry with a shared formatter.
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.AgentLoginBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class AgentLoginBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256-signing";
+    private static final String API_KEY = "obus_benchmark_key";
+    private static final String API_SECRET = "benchmark-api-secret";
+    private static final String PASS_CODE = "benchmark-pass-code";
+    private static final DateTimeFormatter RESPONSE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String apiSecretHash;
+    private String passCodeHash;
+    private JwtUtil jwtUtil;
+    private UserDetails agent;
+    private ApiKeyValidationCache validationCache;
+    private PasswordVerificationExecutor verificationExecutor;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        apiSecretHash = passwordEncoder.encode(API_SECRET);
+        passCodeHash = passwordEncoder.encode(PASS_CODE);
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        agent = User.withUsername("PARTNER-0001").password(passCodeHash).authorities("ROLE_AGENT").build();
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        CacheInvalidationBus invalidationBus = new CacheInvalidationBus(
+            beanFactory.getBeanProvider(StringRedisTemplate.class),
+            beanFactory.getBeanProvider(RedisMessageListenerContainer.class));
+        validationCache = new ApiKeyValidationCache(invalidationBus);
+        ReflectionTestUtils.setField(validationCache, "enabled", true);
+        ReflectionTestUtils.setField(validationCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(validationCache, "maxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(validationCache, "init");
+        PartnerApiKeyService.ApiKeyInfo info = new PartnerApiKeyService.ApiKeyInfo();
+        info.setApiKey(API_KEY);
+        info.setPartnerCode("PARTNER");
+        info.setPermissions(Set.of("READ"));
+        validationCache.put(API_KEY, API_SECRET, info, validationCache.currentEpoch());
+
+        verificationExecutor = new PasswordVerificationExecutor(passwordEncoder);
+        ReflectionTestUtils.setField(verificationExecutor, "threads", 1);
+        ReflectionTestUtils.setField(verificationExecutor, "queueCapacity", 64);
+        ReflectionTestUtils.setField(verificationExecutor, "timeoutMs", 5000L);
+        ReflectionTestUtils.invokeMethod(verificationExecutor, "init");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(verificationExecutor, "shutdown");
+    }
+
+    @Benchmark
+    public void legacyLogin(Blackhole blackhole) {
+        blackhole.consume(passwordEncoder.matches(API_SECRET, apiSecretHash));
+        blackhole.consume(passwordEncoder.matches(PASS_CODE, passCodeHash));
+        String accessToken = jwtUtil.generateToken(agent);
+        blackhole.consume(jwtUtil.generateRefreshToken(agent));
+        blackhole.consume(DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss")
+            .format(jwtUtil.getExpirationDateFromToken(accessToken).toInstant().atZone(ZoneOffset.UTC).toLocalDateTime()));
+        blackhole.consume(DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss").format(LocalDateTime.now()));
+        blackhole.consume(accessToken);
+    }
+
+    @Benchmark
+    public void pipelinedLogin(Blackhole blackhole) {
+        blackhole.consume(validationCache.get(API_KEY, API_SECRET));
+        blackhole.consume(verificationExecutor.matches(PASS_CODE, passCodeHash));
+        Date issuedAt = new Date();
+        blackhole.consume(jwtUtil.generateToken(agent, issuedAt));
+        blackhole.consume(jwtUtil.generateRefreshToken(agent));
+        blackhole.consume(RESPONSE_DATE_FORMAT.format(jwtUtil.getAccessTokenExpiration(issuedAt).toInstant().atZone(ZoneOffset.UTC)));
+        blackhole.consume(RESPONSE_DATE_FORMAT.format(LocalDateTime.now()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AgentLoginBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.obuspartners.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.obuspartners.modules.partner_integration.bmslg.Auth;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSigner;
+
+/**
+ * Signing cost of one BMSLG sign-in request (password hash plus GET and POST keys)
+ *
+ * legacySignIn reproduces the previous Auth implementation:
+ * MessageDigest.getInstance per hash and Integer.toHexString hex encoding.
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.BmslgSigningBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BmslgSigningBenchmark {
+
+    @Param({"1", "4"})
+    private int authKey;
+
+    private Auth auth;
+
+    @Setup
+    public void setUp() {
+        auth = new Auth(null, new BmslgSigner());
+    }
+
+    @Benchmark
+    public void legacySignIn(Blackhole blackhole) {
+        String getKey = legacyEncrypt(authKey, legacyEncrypt(1, legacyEncrypt(4, "64" + authKey + "l0g!n")));
+        String encryptedPassword = legacyEncrypt(authKey, legacyEncrypt(4, legacyEncrypt(2, "S3cret!")));
+        String rawString = "agent01" + encryptedPassword + "4" + "0" + "0" + "123456789012345" + "0.0" + "0.0"
+            + "192.168.0.101" + "64" + authKey + "5mS!0g1n";
+        String postKey = legacyEncrypt(authKey, legacyEncrypt(1, legacyEncrypt(4, rawString)));
+        blackhole.consume(getKey);
+        blackhole.consume(postKey);
+    }
+
+    @Benchmark
+    public Auth.AuthRequestData signerSignIn() {
+        return auth.createAuthRequest("agent01", "S3cret!", "123456789012345", "0.0", "0.0",
+            "192.168.0.101", "64", authKey, "4", "0", "0", "4.88");
+    }
+
+    private static String legacyEncrypt(int algorithmType, String input) {
+        try {
+            MessageDigest digest = switch (algorithmType) {
+                case 1 -> MessageDigest.getInstance("MD5");
+                case 2 -> MessageDigest.getInstance("SHA-1");
+                case 3 -> MessageDigest.getInstance("SHA-256");
+                default -> MessageDigest.getInstance("SHA-512");
+            };
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hash) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) {
+                    hexString.append('0');
+                }
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(BmslgSigningBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package com.obuspartners.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerEntryType;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerAccount;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerJournal;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.Posting;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ledger postings per second on one node, committed to the journal
+ *
+ * Every posting is a booking commission with an agent share: three entries
+ * on a partner and an agent account, out of 1,000 partners and 10,000
+ * agents. "journal" posts a burst of postings through LedgerJournal and
+ * waits until the last one has committed, so the result counts committed
+ * postings, not queued ones. "transactionPerPosting" is the naive
+ * alternative: one transaction per posting with an INSERT per entry and a
+ * balance upsert per entry. The database is in-memory H2 in MySQL mode, so
+ * the numbers leave out network round trips and commit fsyncs, the costs
+ * that batching saves most of on MySQL.
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.LedgerJournalBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class LedgerJournalBenchmark {
+
+    private static final int BURST = 20_000;
+    private static final int SINGLE = 1_000;
+    private static final int PARTNERS = 1_000;
+    private static final int AGENTS = 10_000;
+
+    private static final String INSERT_ENTRY_SQL =
+        "INSERT INTO ledger_entries (posting_id, account_type, account_id, entry_type, amount_minor, currency, " +
+        "reference, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_BALANCE_SQL =
+        "INSERT INTO ledger_balances (account_type, account_id, currency, balance_minor, entry_count, updated_at) " +
+        "VALUES (?, ?, ?, ?, 1, ?) ON DUPLICATE KEY UPDATE balance_minor = balance_minor + VALUES(balance_minor), " +
+        "entry_count = entry_count + 1, updated_at = VALUES(updated_at)";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private LedgerJournal journal;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // One reused connection, as from a pool; the writer is the only thread using it
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            "jdbc:h2:mem:ledger-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE ledger_entries (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "posting_id VARCHAR(26) NOT NULL, account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, "
+            + "entry_type VARCHAR(40) NOT NULL, amount_minor BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, "
+            + "reference VARCHAR(100), created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_ledger_entries_account ON ledger_entries (account_type, account_id, currency, id)");
+        jdbcTemplate.execute("CREATE TABLE ledger_balances (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, "
+            + "balance_minor BIGINT NOT NULL, entry_count BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL, "
+            + "CONSTRAINT uk_ledger_balances_account UNIQUE (account_type, account_id, currency))");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        journal = new LedgerJournal(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(journal, "rowsPerStatement", 500);
+        ReflectionTestUtils.setField(journal, "maxBatchPostings", 5_000);
+        ReflectionTestUtils.setField(journal, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(journal, "maxPendingPostings", 200_000);
+        ReflectionTestUtils.setField(journal, "balanceMaxAgeMs", 2_000L);
+        ReflectionTestUtils.setField(journal, "retryBackoffMs", 1_000L);
+        ReflectionTestUtils.setField(journal, "balanceLoadTimeoutMs", 5_000L);
+        journal.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        journal.shutdown();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void journal() {
+        CompletableFuture<Void> committed = null;
+        for (int i = 0; i < BURST; i++) {
+            committed = journal.post(posting());
+        }
+        committed.join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SINGLE)
+    public void transactionPerPosting() {
+        for (int i = 0; i < SINGLE; i++) {
+            Posting posting = posting();
+            Timestamp createdAt = Timestamp.valueOf(posting.createdAt());
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Posting.Entry entry : posting.entries()) {
+                    jdbcTemplate.update(INSERT_ENTRY_SQL, posting.postingId(), entry.account().type().name(),
+                        entry.account().id(), entry.type().name(), entry.amountMinor(), entry.account().currency(),
+                        posting.reference(), createdAt);
+                    jdbcTemplate.update(UPSERT_BALANCE_SQL, entry.account().type().name(), entry.account().id(),
+                        entry.account().currency(), entry.amountMinor(), createdAt);
+                }
+            });
+        }
+    }
+
+    private Posting posting() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LedgerAccount partner = LedgerAccount.partner(random.nextInt(PARTNERS), "TZS");
+        LedgerAccount agent = LedgerAccount.agent(random.nextInt(AGENTS), "TZS");
+        long commission = 100 + random.nextInt(100_000);
+        long share = commission * 2 / 5;
+        return new Posting(Long.toString(++sequence), "BK-" + sequence, LocalDateTime.now(), List.of(
+            new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, commission),
+            new Posting.Entry(partner, LedgerEntryType.AGENT_COMMISSION_SHARE, -share),
+            new Posting.Entry(agent, LedgerEntryType.AGENT_COMMISSION_SHARE, share)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LedgerJournalBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,193 @@
+package com.obuspartners.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationStatus;
+import com.obuspartners.modules.ledger_and_settlement_management.reconciliation.ReconciliationEngine;
+
+/**
+ * Time to reconcile a day's bus core export on a small heap
+ *
+ * Reconciles an export of {@code bookings} synthetic bookings against the
+ * H2 database file of SettlementBatchBenchmark (generated if missing), in
+ * a JVM with a 256 MB heap of which H2's page cache takes 64 MB. The
+ * export is written once next to the database: every 97th booking is left
+ * out, every 101st differs by one minor unit and 1,000 bookings are added.
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.ReconciliationBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx256m")
+@Timeout(time = 60, timeUnit = TimeUnit.MINUTES)
+public class ReconciliationBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 31);
+    private static final String SYSTEM = "BMSLG";
+    private static final int ADDED = 1_000;
+
+    @Param({ "10000000" })
+    private long bookings;
+
+    @Param({ "32" })
+    private long sortBufferMb;
+
+    private JdbcTemplate jdbcTemplate;
+    private ReconciliationEngine engine;
+    private Path export;
+    private Path spillDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String file = new File(System.getProperty("java.io.tmpdir"), "obus-settlement-" + bookings).getPath();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:file:" + file + ";MODE=MySQL;DB_CLOSE_DELAY=-1;CACHE_SIZE=65536", "sa", ""));
+        if (!generated(file)) {
+            SettlementDataGenerator.createSchema(jdbcTemplate);
+            SettlementDataGenerator.generatePartners(jdbcTemplate, 1_000, 100, 42);
+            SettlementDataGenerator.generateBookings(jdbcTemplate, 1_000, 100, bookings, DATE, 42);
+            SettlementDataGenerator.createIndexes(jdbcTemplate);
+        }
+        SettlementDataGenerator.createReconciliationSchema(jdbcTemplate);
+        SettlementDataGenerator.createSystemIndex(jdbcTemplate);
+
+        export = Path.of(file + "-export.csv");
+        if (!Files.exists(export)) {
+            writeExport(export);
+        }
+        spillDirectory = Files.createTempDirectory("obus-reconciliation");
+
+        engine = new ReconciliationEngine(jdbcTemplate);
+        ReflectionTestUtils.setField(engine, "sortBufferMb", sortBufferMb);
+        ReflectionTestUtils.setField(engine, "tempDir", spillDirectory.toString());
+        ReflectionTestUtils.setField(engine, "fetchSize", 1_000);
+        ReflectionTestUtils.setField(engine, "writeBatchSize", 1_000);
+        ReflectionTestUtils.setField(engine, "defaultCurrency", "TZS");
+    }
+
+    private boolean generated(String file) {
+        if (!new File(file + ".mv.db").exists()) {
+            return false;
+        }
+        try {
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM settlement_bookings", Long.class) == bookings) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // Generation stopped before the tables were created
+        }
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        return false;
+    }
+
+    private void writeExport(Path path) throws IOException {
+        Path partial = Path.of(path + ".partial");
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(partial, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("reference,amount,currency\n");
+            long[] row = { 0 };
+            jdbcTemplate.setFetchSize(10_000);
+            jdbcTemplate.query("SELECT booking_reference, amount_minor, currency FROM settlement_bookings "
+                + "WHERE bus_core_system_code = ? AND booked_at >= ? AND booked_at < ?", (RowCallbackHandler) rs -> {
+                    long amount = rs.getLong(2);
+                    if (++row[0] % 97 == 0) {
+                        return;
+                    }
+                    if (row[0] % 101 == 0) {
+                        amount += 1;
+                    }
+                    try {
+                        writer.write(rs.getString(1) + "," + BigDecimal.valueOf(amount, 2).toPlainString() + ","
+                            + rs.getString(3) + "\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, SYSTEM, Timestamp.valueOf(DATE.atStartOfDay()), Timestamp.valueOf(DATE.plusDays(1).atStartOfDay()));
+            jdbcTemplate.setFetchSize(-1);
+            for (int i = 0; i < ADDED; i++) {
+                writer.write("ADDED-" + i + ",1000.00,TZS\n");
+            }
+        }
+        Files.move(partial, path);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearResults() {
+        jdbcTemplate.execute("TRUNCATE TABLE reconciliation_mismatches");
+        jdbcTemplate.execute("TRUNCATE TABLE reconciliation_runs");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        jdbcTemplate.execute("SHUTDOWN");
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    @Benchmark
+    public ReconciliationRunDto reconcile() throws IOException {
+        long started = System.nanoTime();
+        ReconciliationRunDto run;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(export), 1 << 16)) {
+            run = engine.reconcile(SYSTEM, DATE, in);
+        }
+        if (run.getStatus() != ReconciliationStatus.COMPLETED || run.getLedgerLines() != bookings) {
+            throw new IllegalStateException("Reconciliation did not complete: " + run);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%n%d + %d lines in %d ms (%d/s), %d missing, %d extra, %d drift, %d spill files, "
+                + "heap %d of %d MB%n", run.getBusCoreLines(), run.getLedgerLines(), elapsedMs,
+            (run.getBusCoreLines() + run.getLedgerLines()) * 1000 / Math.max(1, elapsedMs), run.getMissing(),
+            run.getExtra(), run.getAmountDrift(), run.getSpillFiles(),
+            (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20);
+        return run;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ReconciliationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.obuspartners.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.obuspartners.modules.common.cache.CompactRedisSerializer;
+import com.obuspartners.modules.partner_integration.stations.StationSnapshot;
+import com.obuspartners.modules.partner_management.domain.dto.PartnerResponseDto;
+import com.obuspartners.modules.partner_management.domain.enums.PartnerStatus;
+import com.obuspartners.modules.partner_management.domain.enums.PartnerTier;
+import com.obuspartners.modules.partner_management.domain.enums.PartnerType;
+
+/**
+ * Redis cache value size and (de)serialization cost: JSON vs compact binary
+ *
+ * "json" is GenericJackson2JsonRedisSerializer as previously configured in
+ * RedisCacheConfig (with the Java time module, which PartnerResponseDto needs);
+ * "compact" is CompactRedisSerializer with the default 1 KiB compression
+ * threshold. Encoded sizes are printed during setup. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.RedisSerializerBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"partner", "stations"})
+    private String payload;
+
+    @Param({"json", "compact"})
+    private String serializer;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        redisSerializer = "json".equals(serializer) ? jsonSerializer() : new CompactRedisSerializer(1024);
+        value = "partner".equals(payload) ? partner() : stations(400);
+        encoded = redisSerializer.serialize(value);
+        if (!value.equals(redisSerializer.deserialize(encoded))) {
+            throw new IllegalStateException("Round trip changed the value");
+        }
+        System.out.printf("%n%s/%s: %d bytes%n", payload, serializer, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(encoded);
+    }
+
+    private static RedisSerializer<Object> jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    private static PartnerResponseDto partner() {
+        LocalDateTime created = LocalDateTime.of(2025, 3, 14, 9, 26, 53);
+        return PartnerResponseDto.builder()
+            .id(1042L)
+            .uid("01HQ3K7ZPV2N8XW4YJ6TB5M9CD")
+            .code("PRT-DSM-0042")
+            .businessName("Kilimanjaro Express Agents")
+            .legalName("Kilimanjaro Express Agents Limited")
+            .email("operations@kilimanjaro-express.co.tz")
+            .phoneNumber("+255754123456")
+            .businessRegistrationNumber("BRELA-138842")
+            .taxIdentificationNumber("TIN-104-552-981")
+            .businessAddress("Plot 12, Morogoro Road, Kariakoo")
+            .city("Dar es Salaam")
+            .state("Dar es Salaam")
+            .country("Tanzania")
+            .postalCode("11101")
+            .status(PartnerStatus.values()[0])
+            .type(PartnerType.values()[0])
+            .tier(PartnerTier.GOLD)
+            .isActive(true)
+            .isVerified(true)
+            .commissionRate(7.5)
+            .contactPersonName("Amina Mwakyusa")
+            .contactPersonEmail("amina.mwakyusa@kilimanjaro-express.co.tz")
+            .contactPersonPhone("+255713987654")
+            .description("Ticketing agent network covering the northern corridor")
+            .notes("Settlement weekly, Mondays")
+            .createdAt(created)
+            .updatedAt(created.plusDays(30))
+            .createdByUsername("admin")
+            .createdByEmail("admin@obus.co.tz")
+            .updatedByUsername("ops.manager")
+            .updatedByEmail("ops.manager@obus.co.tz")
+            .build();
+    }
+
+    /**
+     * Station list shaped like the BMSLG search-stations response
+     */
+    private static StationSnapshot stations(int count) {
+        String[] regions = {"Dar es Salaam", "Arusha", "Mwanza", "Dodoma", "Mbeya", "Morogoro", "Tanga", "Kigoma"};
+        StringBuilder body = new StringBuilder("{\"status\":1,\"message\":\"Success\",\"data\":[");
+        for (int i = 0; i < count; i++) {
+            String region = regions[i % regions.length];
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"station_id\":\"").append(1000 + i)
+                .append("\",\"station_name\":\"").append(region).append(" Stand ").append(i)
+                .append("\",\"station_name_sw\":\"Stendi ya ").append(region).append(' ').append(i)
+                .append("\",\"region_name\":\"").append(region)
+                .append("\",\"is_active\":\"1\",\"latitude\":\"-").append(3 + i % 8).append('.').append(1000 + i)
+                .append("\",\"longitude\":\"3").append(3 + i % 7).append('.').append(2000 + i).append("\"}");
+        }
+        body.append("]}");
+        return new StationSnapshot(body.toString(), 1_760_000_000_000L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RedisSerializerBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
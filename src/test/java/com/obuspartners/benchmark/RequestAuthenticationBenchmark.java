@@ -0,0 +1,101 @@
+package com.obuspartners.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.obuspartners.modules.common.security.RequestSignatureVerifier;
+
+/**
+ * Compares per-core cost of partner request authentication schemes
+ *
+ * bcryptSecret is the uncached X-API-Secret check (BCrypt compare of the
+ * stored hash); hmacSignature is the X-Signature check over a ~1 KB JSON
+ * body (SHA-256 of the body, HMAC-SHA256 of the canonical string and a
+ * constant-time compare). Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.RequestAuthenticationBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class RequestAuthenticationBenchmark {
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String apiSecret;
+    private String apiSecretHash;
+
+    private byte[] signingSecret;
+    private byte[] body;
+    private String timestamp;
+    private String nonce;
+    private byte[] providedSignature;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        apiSecret = "benchmark-api-secret-0123456789abcdef";
+        apiSecretHash = passwordEncoder.encode(apiSecret);
+
+        signingSecret = new byte[32];
+        new SecureRandom().nextBytes(signingSecret);
+
+        StringBuilder json = new StringBuilder("{\"passengers\":[");
+        while (json.length() < 1000) {
+            json.append("{\"name\":\"Passenger\",\"seat\":\"A1\",\"phone\":\"+255700000000\"},");
+        }
+        json.setLength(json.length() - 1);
+        json.append("]}");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        timestamp = Long.toString(System.currentTimeMillis() / 1000);
+        nonce = "3f1c2a7e-9b0d-4c55-8a1e-5d6f7a8b9c0d";
+        String canonical = RequestSignatureVerifier.canonicalString(
+            "POST", "/api/v1/partner/bookings", timestamp, nonce, body);
+        providedSignature = HexFormat.of().parseHex(
+            HexFormat.of().formatHex(RequestSignatureVerifier.sign(signingSecret, canonical)));
+    }
+
+    @Benchmark
+    public boolean bcryptSecret() {
+        return passwordEncoder.matches(apiSecret, apiSecretHash);
+    }
+
+    @Benchmark
+    public boolean hmacSignature() {
+        String canonical = RequestSignatureVerifier.canonicalString(
+            "POST", "/api/v1/partner/bookings", timestamp, nonce, body);
+        return MessageDigest.isEqual(RequestSignatureVerifier.sign(signingSecret, canonical), providedSignature);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RequestAuthenticationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
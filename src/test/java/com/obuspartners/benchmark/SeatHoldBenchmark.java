@@ -0,0 +1,129 @@
+package com.obuspartners.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.booking_management.seats.SeatHold;
+import com.obuspartners.modules.booking_management.seats.SeatHoldEngine;
+import com.obuspartners.modules.booking_management.seats.SeatHoldReplicator;
+import com.obuspartners.modules.booking_management.seats.SeatMap;
+import com.obuspartners.modules.booking_management.seats.TripKey;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Seat hold throughput on contended and uncontended trips
+ *
+ * 8 threads hold (and release) a random seat on one of {@code trips} trips
+ * of 60 seats: with 1 trip every thread fights for the same seat map. "engine"
+ * is SeatHoldEngine on a single node (no Redis round trip), "seatMap" the CAS
+ * bitmap alone. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.SeatHoldBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SeatHoldBenchmark {
+
+    private static final int SEATS = 60;
+
+    @Param({"1", "1000"})
+    private int trips;
+
+    private SeatHoldEngine engine;
+    private TripKey[] tripKeys;
+    private SeatMap[] seatMaps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StaticListableBeanFactory noRedis = new StaticListableBeanFactory();
+        SeatHoldReplicator replicator = new SeatHoldReplicator(
+            noRedis.getBeanProvider(StringRedisTemplate.class),
+            new CacheInvalidationBus(noRedis.getBeanProvider(StringRedisTemplate.class),
+                noRedis.getBeanProvider(RedisMessageListenerContainer.class)));
+        engine = new SeatHoldEngine(replicator, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "holdTtlSeconds", 600L);
+        ReflectionTestUtils.setField(engine, "maxSeatsPerTrip", SEATS);
+        ReflectionTestUtils.setField(engine, "maxSeatsPerHold", 4);
+        ReflectionTestUtils.setField(engine, "wheelTickMs", 100L);
+        ReflectionTestUtils.setField(engine, "wheelSize", 512);
+        engine.init();
+
+        tripKeys = new TripKey[trips];
+        seatMaps = new SeatMap[trips];
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (int i = 0; i < trips; i++) {
+            tripKeys[i] = new TripKey("BMSLG", "TRIP-" + i, date);
+            seatMaps[i] = new SeatMap(SEATS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public boolean engine() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TripKey trip = tripKeys[random.nextInt(trips)];
+        SeatHold hold;
+        try {
+            hold = engine.hold(trip, "DSM", "ARU", new int[] {1 + random.nextInt(SEATS)}, "agent");
+        } catch (ApiException e) {
+            return false;
+        }
+        return engine.release(hold);
+    }
+
+    @Benchmark
+    public boolean seatMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeatMap seatMap = seatMaps[random.nextInt(trips)];
+        int[] seats = {1 + random.nextInt(SEATS)};
+        if (seatMap.tryClaim(seats) != SeatMap.CLAIMED) {
+            return false;
+        }
+        seatMap.release(seats);
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SeatHoldBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.obuspartners.benchmark;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.SettlementRunStatus;
+import com.obuspartners.modules.ledger_and_settlement_management.settlement.SettlementEngine;
+
+/**
+ * Time to settle a day of bookings
+ *
+ * Each iteration settles one date of {@code bookings} synthetic bookings
+ * (see SettlementDataGenerator: 1,000 partners with 100 agents each) from
+ * scratch, against an H2 database file in MySQL mode. The file is kept in
+ * the temp directory and reused by later runs with the same number of
+ * bookings, as generating 10 million bookings takes a while (the first
+ * warmup iteration includes it). The heap is mostly H2's 512 MB page
+ * cache, which runs in the benchmark JVM. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.SettlementBatchBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Timeout(time = 60, timeUnit = TimeUnit.MINUTES)
+public class SettlementBatchBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 31);
+    private static final int PARTNERS = 1_000;
+    private static final int AGENTS_PER_PARTNER = 100;
+
+    @Param({ "10000000" })
+    private long bookings;
+
+    @Param({ "4" })
+    private int parallelism;
+
+    private JdbcTemplate jdbcTemplate;
+    private SettlementEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String file = new File(System.getProperty("java.io.tmpdir"), "obus-settlement-" + bookings).getPath();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:file:" + file + ";MODE=MySQL;DB_CLOSE_DELAY=-1;CACHE_SIZE=524288", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!generated(file)) {
+            long started = System.nanoTime();
+            SettlementDataGenerator.createSchema(jdbcTemplate);
+            SettlementDataGenerator.generatePartners(jdbcTemplate, PARTNERS, AGENTS_PER_PARTNER, 42);
+            SettlementDataGenerator.generateBookings(jdbcTemplate, PARTNERS, AGENTS_PER_PARTNER, bookings, DATE, 42);
+            SettlementDataGenerator.createIndexes(jdbcTemplate);
+            System.out.printf("%nGenerated %d bookings in %d s%n", bookings,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        }
+
+        engine = new SettlementEngine(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(engine, "parallelism", parallelism);
+        ReflectionTestUtils.setField(engine, "fetchSize", 1_000);
+        ReflectionTestUtils.setField(engine, "writeBatchSize", 1_000);
+        ReflectionTestUtils.setField(engine, "staleRunMinutes", 30L);
+        ReflectionTestUtils.setField(engine, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(engine, "agentShare", new BigDecimal("0.40"));
+        ReflectionTestUtils.setField(engine, "superAgentShare", new BigDecimal("0.25"));
+    }
+
+    /**
+     * Whether the database file holds all bookings; an incomplete file is deleted
+     */
+    private boolean generated(String file) {
+        if (!new File(file + ".mv.db").exists()) {
+            return false;
+        }
+        try {
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM settlement_bookings", Long.class) == bookings) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // Generation stopped before the tables were created
+        }
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        return false;
+    }
+
+    @Setup(Level.Iteration)
+    public void clearResults() {
+        jdbcTemplate.execute("TRUNCATE TABLE settlement_results");
+        jdbcTemplate.execute("TRUNCATE TABLE settlement_partitions");
+        jdbcTemplate.execute("TRUNCATE TABLE settlement_runs");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public SettlementRunDto settle() {
+        SettlementRunDto run = engine.settle(DATE);
+        if (run.getStatus() != SettlementRunStatus.COMPLETED || run.getBookingsProcessed() != bookings) {
+            throw new IllegalStateException("Settlement did not complete: " + run);
+        }
+        System.out.printf("%n%d bookings in %d ms (%d/s), %d partners%n", run.getBookingsProcessed(),
+            run.getElapsedMs(), run.getBookingsPerSecond(), run.getPartitionsDone());
+        return run;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SettlementBatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,198 @@
+package com.obuspartners.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Synthetic partners, agents and a day of bookings for settlement
+ *
+ * Every partner gets {@code agentsPerPartner} agents: one in ten is a super
+ * agent, half are sub-agents of one of the partner's super agents, the
+ * rest book on their own. Bookings fall on partners with a skew (the first
+ * partners get most of them), one in ten has no agent, one in twenty is in
+ * KES instead of TZS, and amounts are 10,000-150,000 in whole units. The
+ * same seed gives the same data.
+ *
+ * createSchema() creates the settlement and reconciliation tables plus the
+ * columns of partners and agents that settlement reads, for an empty H2
+ * database; createIndexes() adds the bookings indexes, best after
+ * generating them.
+ * To create an H2 database file with 1,000 partners, 100 agents each and a
+ * day of bookings:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.SettlementDataGenerator
+ *     -Dexec.args="/tmp/settlement 10000000 2026-01-31"
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+public final class SettlementDataGenerator {
+
+    private static final int INSERT_BATCH = 50_000;
+
+    private static final String INSERT_PARTNER_SQL = "INSERT INTO partners (id, commission_rate) VALUES (?, ?)";
+    private static final String INSERT_AGENT_SQL = "INSERT INTO agents (id, partner_id, super_agent_id) VALUES (?, ?, ?)";
+    private static final String INSERT_BOOKING_SQL =
+        "INSERT INTO settlement_bookings (booking_reference, bus_core_system_code, partner_id, agent_id, " +
+        "amount_minor, currency, booked_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private SettlementDataGenerator() {
+    }
+
+    public static void createSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE partners (id BIGINT PRIMARY KEY, commission_rate DOUBLE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE agents (id BIGINT PRIMARY KEY, partner_id BIGINT NOT NULL, super_agent_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE settlement_bookings (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "booking_reference VARCHAR(100) NOT NULL, bus_core_system_code VARCHAR(50), partner_id BIGINT NOT NULL, "
+            + "agent_id BIGINT, amount_minor BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, booked_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE settlement_runs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "settlement_date DATE NOT NULL, status VARCHAR(20) NOT NULL, attempts INT NOT NULL, "
+            + "partitions_total INT NOT NULL, partitions_done INT NOT NULL, bookings_processed BIGINT NOT NULL, "
+            + "started_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL, finished_at TIMESTAMP, "
+            + "CONSTRAINT uk_settlement_runs_date UNIQUE (settlement_date))");
+        jdbcTemplate.execute("CREATE TABLE settlement_partitions (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "run_id BIGINT NOT NULL, partner_id BIGINT NOT NULL, booking_count BIGINT NOT NULL, "
+            + "completed_at TIMESTAMP NOT NULL, CONSTRAINT uk_settlement_partitions_run_partner UNIQUE (run_id, partner_id))");
+        jdbcTemplate.execute("CREATE TABLE settlement_results (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "run_id BIGINT NOT NULL, settlement_date DATE NOT NULL, partner_id BIGINT NOT NULL, "
+            + "account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, "
+            + "booking_count BIGINT NOT NULL, gross_amount_minor BIGINT NOT NULL, commission_minor BIGINT NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL, "
+            + "CONSTRAINT uk_settlement_results_account UNIQUE (settlement_date, partner_id, account_type, account_id, currency))");
+        createReconciliationSchema(jdbcTemplate);
+    }
+
+    /**
+     * Create the reconciliation tables, if missing
+     */
+    public static void createReconciliationSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS reconciliation_runs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "bus_core_system_code VARCHAR(50) NOT NULL, reconciliation_date DATE NOT NULL, status VARCHAR(20) NOT NULL, "
+            + "bus_core_lines BIGINT NOT NULL, ledger_lines BIGINT NOT NULL, invalid_lines BIGINT NOT NULL, "
+            + "matched BIGINT NOT NULL, missing BIGINT NOT NULL, extra BIGINT NOT NULL, amount_drift BIGINT NOT NULL, "
+            + "spill_files INT NOT NULL, started_at TIMESTAMP NOT NULL, finished_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS reconciliation_mismatches (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "run_id BIGINT NOT NULL, bus_core_system_code VARCHAR(50) NOT NULL, reconciliation_date DATE NOT NULL, "
+            + "mismatch_type VARCHAR(20) NOT NULL, booking_reference VARCHAR(100) NOT NULL, bus_core_amount_minor BIGINT, "
+            + "bus_core_currency VARCHAR(3), ledger_amount_minor BIGINT, ledger_currency VARCHAR(3), created_at TIMESTAMP NOT NULL)");
+    }
+
+    /**
+     * Create the indexes settlement and reconciliation read bookings through; faster after the bookings are inserted
+     */
+    public static void createIndexes(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE INDEX idx_settlement_bookings_partner ON settlement_bookings "
+            + "(partner_id, booked_at, agent_id, amount_minor, currency)");
+        createSystemIndex(jdbcTemplate);
+    }
+
+    /**
+     * Create the index reconciliation reads a bus core system's bookings through, if missing
+     */
+    public static void createSystemIndex(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_settlement_bookings_system ON settlement_bookings "
+            + "(bus_core_system_code, booked_at, booking_reference, amount_minor, currency)");
+    }
+
+    /**
+     * Insert partners with their agents
+     *
+     * Agent IDs are partnerId * agentsPerPartner + n, partner IDs start at 1.
+     */
+    public static void generatePartners(JdbcTemplate jdbcTemplate, int partners, int agentsPerPartner, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement partner = con.prepareStatement(INSERT_PARTNER_SQL);
+                 PreparedStatement agent = con.prepareStatement(INSERT_AGENT_SQL)) {
+                int superAgents = Math.max(1, agentsPerPartner / 10);
+                for (long p = 1; p <= partners; p++) {
+                    partner.setLong(1, p);
+                    // 1.00% to 10.00% in steps of 0.25
+                    partner.setDouble(2, 1 + random.nextInt(37) * 0.25);
+                    partner.addBatch();
+                    for (int n = 0; n < agentsPerPartner; n++) {
+                        agent.setLong(1, agentId(p, n, agentsPerPartner));
+                        agent.setLong(2, p);
+                        if (n >= superAgents && n < superAgents + agentsPerPartner / 2) {
+                            agent.setLong(3, agentId(p, random.nextInt(superAgents), agentsPerPartner));
+                        } else {
+                            agent.setNull(3, Types.BIGINT);
+                        }
+                        agent.addBatch();
+                    }
+                    agent.executeBatch();
+                }
+                partner.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Insert bookings on a date, committed every {@value #INSERT_BATCH} rows
+     */
+    public static void generateBookings(JdbcTemplate jdbcTemplate, int partners, int agentsPerPartner,
+                                        long bookings, LocalDate date, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long dayStart = Timestamp.valueOf(date.atStartOfDay()).getTime();
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(INSERT_BOOKING_SQL)) {
+                for (long b = 1; b <= bookings; b++) {
+                    double skew = random.nextDouble();
+                    long partnerId = 1 + (long) (skew * skew * partners);
+                    ps.setString(1, "SYN-" + b);
+                    ps.setString(2, "BMSLG");
+                    ps.setLong(3, partnerId);
+                    if (random.nextInt(10) == 0) {
+                        ps.setNull(4, Types.BIGINT);
+                    } else {
+                        ps.setLong(4, agentId(partnerId, random.nextInt(agentsPerPartner), agentsPerPartner));
+                    }
+                    ps.setLong(5, (10_000 + random.nextInt(140_001)) * 100L);
+                    ps.setString(6, random.nextInt(20) == 0 ? "KES" : "TZS");
+                    ps.setTimestamp(7, new Timestamp(dayStart + random.nextLong(86_400_000L)));
+                    ps.addBatch();
+                    if (b % INSERT_BATCH == 0) {
+                        ps.executeBatch();
+                        con.commit();
+                    }
+                }
+                ps.executeBatch();
+                con.commit();
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static long agentId(long partnerId, int n, int agentsPerPartner) {
+        return partnerId * agentsPerPartner + n;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: SettlementDataGenerator h2-file bookings [yyyy-mm-dd]");
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:file:" + args[0] + ";MODE=MySQL", "sa", ""));
+        long bookings = Long.parseLong(args[1]);
+        LocalDate date = args.length > 2 ? LocalDate.parse(args[2]) : LocalDate.now().minusDays(1);
+        long started = System.nanoTime();
+        createSchema(jdbcTemplate);
+        generatePartners(jdbcTemplate, 1_000, 100, 42);
+        generateBookings(jdbcTemplate, 1_000, 100, bookings, date, 42);
+        createIndexes(jdbcTemplate);
+        System.out.printf("Generated %d bookings on %s in %d ms%n", bookings, date, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,117 @@
+package com.obuspartners.benchmark;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.obuspartners.modules.partner_integration.stations.Station;
+import com.obuspartners.modules.partner_integration.stations.StationCatalog;
+
+/**
+ * Latency of one station type-ahead search
+ *
+ * indexedSearch uses the StationCatalog prefix and trigram indexes;
+ * scanSearch normalizes and scans every station name per query, as a
+ * search over the raw station list would. Queries cover a name prefix, a
+ * later-word prefix and a misspelled name. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.StationSearchBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StationSearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "ba", "ga", "mo", "yo", "ki", "li", "ma", "nja", "ro", "dar", "sa", "la", "to", "ngo", "mwa", "nza",
+        "ta", "bo", "ra", "si", "nyi", "du", "shi", "ku", "ha", "ze", "mbe", "ya", "lu", "we"
+    };
+    private static final String[] SUFFIXES = { "", " Mjini", " Stendi", " Kati", " Junction", " Terminal" };
+
+    @Param({"2000", "10000"})
+    private int stationCount;
+
+    @Param({"dar", "stendi", "morogorro"})
+    private String query;
+
+    private StationCatalog catalog;
+    private List<Station> stations;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode array = objectMapper.createArrayNode();
+        Random random = new Random(42);
+        array.addObject().put("id", "morogoro").put("name", "Morogoro").put("region", "Morogoro");
+        array.addObject().put("id", "dar").put("name", "Dar es Salaam").put("region", "Dar es Salaam");
+        for (int i = 0; i < stationCount; i++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            name.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+            array.addObject().put("id", "S" + i).put("name", name.toString()).put("region", "Region " + (i % 31));
+        }
+        catalog = StationCatalog.parse(objectMapper.writeValueAsString(array), objectMapper);
+        stations = catalog.getStations();
+    }
+
+    @Benchmark
+    public List<Station> indexedSearch() {
+        return catalog.search(query, 10);
+    }
+
+    @Benchmark
+    public List<Station> scanSearch() {
+        String normalized = normalize(query);
+        List<Station> matches = new ArrayList<>();
+        for (Station station : stations) {
+            if (normalize(station.name()).contains(normalized)) {
+                matches.add(station);
+            }
+        }
+        matches.sort(Comparator.comparingInt(station -> station.name().length()));
+        return matches.size() > 10 ? matches.subList(0, 10) : matches;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(StationSearchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
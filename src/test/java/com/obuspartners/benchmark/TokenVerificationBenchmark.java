@@ -0,0 +1,106 @@
+package com.obuspartners.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
+import com.obuspartners.modules.auth_management.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Compares per-request token verification paths
+ *
+ * legacyJwtUtil reproduces the previous JwtUtil behaviour (key and parser
+ * rebuilt per call, token parsed once for the subject and again inside
+ * validateToken for subject and expiration). Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.obuspartners.benchmark.TokenVerificationBenchmark
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256-signing";
+
+    private JwtUtil jwtUtil;
+    private TokenVerifier tokenVerifier;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        tokenVerifier = new TokenVerifier(jwtUtil);
+        ReflectionTestUtils.setField(tokenVerifier, "maxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(tokenVerifier, "init");
+
+        user = User.withUsername("PARTNER-0001").password("x").authorities("ROLE_AGENT").build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyJwtUtil() {
+        String username = legacyClaims(token).getSubject();
+        Claims claims = legacyClaims(token);
+        Date expiration = legacyClaims(token).getExpiration();
+        return username.equals(user.getUsername()) && claims.getSubject().equals(username) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean jwtUtilPrebuiltParser() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean tokenVerifierCached() {
+        return tokenVerifier.verify(token)
+            .map(claims -> jwtUtil.validateClaims(claims, user))
+            .orElse(false);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TokenVerificationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,273 @@
+package com.obuspartners.test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.obuspartners.api.gateway.GatewayBookingController;
+import com.obuspartners.api.gateway.GatewayScheduleSearchController;
+import com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal;
+import com.obuspartners.modules.agent_management.domain.enums.AgentStatus;
+import com.obuspartners.modules.agent_management.service.AgentPrincipalResolver;
+import com.obuspartners.modules.auth_management.security.StatelessTokenAuthenticator;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldRequestDto;
+import com.obuspartners.modules.booking_management.domain.dto.SeatHoldResponseDto;
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+import com.obuspartners.modules.booking_management.service.BookingService;
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
+import com.obuspartners.modules.auth_management.util.JwtUtil;
+import com.obuspartners.modules.common.security.AgentJwtRequestFilter;
+import com.obuspartners.modules.common.security.ApiKeyAuthenticationFilter;
+import com.obuspartners.modules.common.security.CachedBodyHttpServletRequest;
+import com.obuspartners.modules.common.security.JwtAuthenticationEntryPoint;
+import com.obuspartners.modules.common.security.JwtRequestFilter;
+import com.obuspartners.modules.common.security.PartnerCredentialsVerifier;
+import com.obuspartners.modules.common.security.RequestSignatureVerifier;
+import com.obuspartners.modules.common.security.SecurityConfig;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchRequest;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchResult;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchService;
+import com.obuspartners.modules.partner_management.service.ApiKeyUsageMeter;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Test class to verify that agent API calls reach the controllers as the
+ * agent, through the security chain and the API key filter in the order
+ * they are registered in the servlet container
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@SpringJUnitWebConfig(AgentApiFilterChainTest.Config.class)
+@TestPropertySource(properties = {"jwt.secret=test", "jwt.expiration=3600000", "jwt.refresh-expiration=86400000"})
+class AgentApiFilterChainTest {
+
+    private static final String API_KEY = "key-1";
+    private static final String API_SECRET = "secret-1";
+    private static final String AGENT_TOKEN = "agent-token";
+    private static final String AGENT = "agent-7";
+    private static final String PARTNER_UID = "partner-uid-3";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private TokenVerifier tokenVerifier;
+
+    @Autowired
+    private AgentPrincipalResolver agentPrincipalResolver;
+
+    @Autowired
+    private PartnerApiKeyService partnerApiKeyService;
+
+    @Autowired
+    private RequestSignatureVerifier requestSignatureVerifier;
+
+    @Autowired
+    private ApiKeyUsageMeter apiKeyUsageMeter;
+
+    @Autowired
+    private ScheduleSearchService scheduleSearchService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Spring Security's chain is registered at order -100, the API key filter near the lowest
+        // precedence and the agent filter, as a plain component, at the lowest
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .addFilters(context.getBean("springSecurityFilterChain", Filter.class),
+                        context.getBean(ApiKeyAuthenticationFilter.class),
+                        context.getBean(AgentJwtRequestFilter.class))
+            .build();
+
+        clearInvocations(scheduleSearchService, bookingService, requestSignatureVerifier, apiKeyUsageMeter);
+        Claims claims = Jwts.claims().setSubject(AGENT);
+        when(tokenVerifier.verify(any(HttpServletRequest.class))).thenReturn(Optional.of(claims));
+        when(agentPrincipalResolver.resolve(any(Claims.class), eq(AGENT_TOKEN)))
+            .thenReturn(Optional.of(new AgentPrincipal(AGENT, 7L, 3L, AgentStatus.ACTIVE)));
+
+        PartnerApiKeyService.ApiKeyInfo apiKeyInfo = new PartnerApiKeyService.ApiKeyInfo(API_KEY, API_SECRET, PARTNER_UID);
+        apiKeyInfo.setApiKeyId(11L);
+        when(partnerApiKeyService.validateApiKeyAndSecret(API_KEY, API_SECRET)).thenReturn(Optional.of(apiKeyInfo));
+        when(requestSignatureVerifier.getMaxBodyBytes()).thenReturn(1_048_576);
+        when(requestSignatureVerifier.verify(any(CachedBodyHttpServletRequest.class))).thenReturn(Optional.of(apiKeyInfo));
+
+        when(scheduleSearchService.search(anyString(), any(ScheduleSearchRequest.class), any()))
+            .thenReturn(new ScheduleSearchResult(List.of(), List.of(), true, 5));
+        when(bookingService.holdSeats(anyString(), any(SeatHoldRequestDto.class)))
+            .thenReturn(SeatHoldResponseDto.builder().holdId("hold-1").status(SeatHoldStatus.HELD).build());
+        when(bookingService.confirmHold(anyString(), anyString()))
+            .thenReturn(SeatHoldResponseDto.builder().holdId("hold-1").status(SeatHoldStatus.CONFIRMED)
+                .bookingReference("BK-1").build());
+    }
+
+    @Test
+    void testScheduleSearchRunsForTheAgentNotThePartner() throws Exception {
+        mockMvc.perform(asAgent(scheduleSearch()))
+            .andExpect(status().isOk());
+
+        verify(scheduleSearchService).search(eq(AGENT), any(ScheduleSearchRequest.class), any());
+        verify(scheduleSearchService, never()).search(eq(PARTNER_UID), any(ScheduleSearchRequest.class), any());
+    }
+
+    @Test
+    void testScheduleSearchWithoutAgentTokenIsRefused() throws Exception {
+        mockMvc.perform(scheduleSearch().header("X-API-Key", API_KEY).header("X-API-Secret", API_SECRET))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(scheduleSearchService);
+    }
+
+    @Test
+    void testAgentTokenWithWrongApiSecretIsRefused() throws Exception {
+        mockMvc.perform(scheduleSearch()
+                .header("X-API-Key", API_KEY)
+                .header("X-API-Secret", "wrong-secret")
+                .header("Authorization", "Bearer " + AGENT_TOKEN))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.errorType").value("INVALID_CREDENTIALS"));
+
+        verifyNoInteractions(scheduleSearchService);
+    }
+
+    @Test
+    void testSignedAgentRequestIsVerifiedOnce() throws Exception {
+        mockMvc.perform(scheduleSearch()
+                .header("X-API-Key", API_KEY)
+                .header(RequestSignatureVerifier.SIGNATURE_HEADER, "c2lnbmF0dXJl")
+                .header(RequestSignatureVerifier.TIMESTAMP_HEADER, String.valueOf(System.currentTimeMillis() / 1000))
+                .header(RequestSignatureVerifier.NONCE_HEADER, "nonce-1")
+                .header("Authorization", "Bearer " + AGENT_TOKEN))
+            .andExpect(status().isOk());
+
+        // A second verification would find the nonce spent
+        verify(requestSignatureVerifier, times(1)).verify(any(CachedBodyHttpServletRequest.class));
+        verify(apiKeyUsageMeter, times(1)).record(11L);
+        verify(scheduleSearchService).search(eq(AGENT), any(ScheduleSearchRequest.class), any());
+    }
+
+    @Test
+    void testSeatsAreHeldForTheAgent() throws Exception {
+        mockMvc.perform(asAgent(post("/partner/v1/agent-api/bookings/holds"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"busCoreSystemCode": "BMSLG", "scheduleId": "S-1", "fromStationId": "DAR",
+                     "toStationId": "ARU", "travelDate": "%s", "seatNumbers": [4, 5]}
+                    """.formatted(LocalDate.now().plusDays(1))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.data.holdId").value("hold-1"));
+
+        verify(bookingService).holdSeats(eq(AGENT), any(SeatHoldRequestDto.class));
+    }
+
+    @Test
+    void testHoldIsConfirmedForTheAgent() throws Exception {
+        mockMvc.perform(asAgent(post("/partner/v1/agent-api/bookings/holds/hold-1/confirm")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.bookingReference").value("BK-1"));
+
+        verify(bookingService).confirmHold(AGENT, "hold-1");
+    }
+
+    private static MockHttpServletRequestBuilder scheduleSearch() {
+        return get("/partner/v1/agent-api/schedules/search")
+            .param("from", "DAR")
+            .param("to", "ARU")
+            .param("date", LocalDate.now().plusDays(1).toString());
+    }
+
+    private static MockHttpServletRequestBuilder asAgent(MockHttpServletRequestBuilder request) {
+        return request
+            .header("X-API-Key", API_KEY)
+            .header("X-API-Secret", API_SECRET)
+            .header("Authorization", "Bearer " + AGENT_TOKEN);
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, JwtRequestFilter.class,
+             AgentJwtRequestFilter.class, ApiKeyAuthenticationFilter.class, PartnerCredentialsVerifier.class,
+             GatewayScheduleSearchController.class, GatewayBookingController.class})
+    static class Config {
+
+        @Bean
+        TokenVerifier tokenVerifier() {
+            return mock(TokenVerifier.class);
+        }
+
+        @Bean
+        AgentPrincipalResolver agentPrincipalResolver() {
+            return mock(AgentPrincipalResolver.class);
+        }
+
+        @Bean
+        PartnerApiKeyService partnerApiKeyService() {
+            return mock(PartnerApiKeyService.class);
+        }
+
+        @Bean
+        RequestSignatureVerifier requestSignatureVerifier() {
+            return mock(RequestSignatureVerifier.class);
+        }
+
+        @Bean
+        ApiKeyUsageMeter apiKeyUsageMeter() {
+            return mock(ApiKeyUsageMeter.class);
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class);
+        }
+
+        @Bean
+        JwtUtil jwtUtil() {
+            return mock(JwtUtil.class);
+        }
+
+        @Bean
+        StatelessTokenAuthenticator statelessTokenAuthenticator() {
+            return mock(StatelessTokenAuthenticator.class);
+        }
+
+        @Bean
+        ScheduleSearchService scheduleSearchService() {
+            return mock(ScheduleSearchService.class);
+        }
+
+        @Bean
+        BookingService bookingService() {
+            return mock(BookingService.class);
+        }
+    }
+}
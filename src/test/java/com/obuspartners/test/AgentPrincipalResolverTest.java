@@ -0,0 +1,137 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.agent_management.domain.dto.AgentPrincipal;
+import com.obuspartners.modules.agent_management.domain.enums.AgentStatus;
+import com.obuspartners.modules.agent_management.repository.AgentRepository;
+import com.obuspartners.modules.agent_management.service.AgentPrincipalResolver;
+import com.obuspartners.modules.auth_management.security.TokenVerifier;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Verifies that evicting an agent drops only its cached principals, through the per-agent index
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class AgentPrincipalResolverTest {
+
+    @Mock
+    private TokenVerifier tokenVerifier;
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private AgentPrincipalResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new AgentPrincipalResolver(tokenVerifier, agentRepository, invalidationBus);
+        ReflectionTestUtils.setField(resolver, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(resolver, "maxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(resolver, "init");
+        when(agentRepository.findPrincipalByPassName(anyString())).thenAnswer(call -> {
+            String passName = call.getArgument(0);
+            long agentId = Long.parseLong(passName.substring("agent".length()));
+            return Optional.of(new AgentPrincipal(passName, agentId, 1L, AgentStatus.ACTIVE));
+        });
+    }
+
+    @Test
+    void testEvictionDropsOnlyTheAgentsTokens() {
+        for (int token = 0; token < 3; token++) {
+            resolve("agent1", "t1-" + token);
+            resolve("agent2", "t2-" + token);
+        }
+        verify(agentRepository, times(6)).findPrincipalByPassName(anyString());
+
+        resolver.evictAgent(1L);
+
+        for (int token = 0; token < 3; token++) {
+            resolve("agent1", "t1-" + token);
+            resolve("agent2", "t2-" + token);
+        }
+        verify(agentRepository, times(6)).findPrincipalByPassName("agent1");
+        verify(agentRepository, times(3)).findPrincipalByPassName("agent2");
+        assertEquals(2, tokenIndex().size());
+    }
+
+    @Test
+    void testIndexIsEmptiedWithTheCache() {
+        resolve("agent1", "t1");
+        resolve("agent2", "t2");
+
+        resolver.evictAgent(1L);
+        resolver.evictAgent(2L);
+        resolver.evictAgent(3L);
+
+        assertTrue(tokenIndex().isEmpty());
+        verify(invalidationBus, times(3)).publish(anyString(), anyString());
+    }
+
+    @Test
+    void testFreshEntryOverAnExpiredOneStaysIndexed() throws Exception {
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(agentRepository.findPrincipalByPassName("agent1"))
+            .thenAnswer(call -> {
+                lookupStarted.countDown();
+                releaseLookup.await();
+                return Optional.of(new AgentPrincipal("agent1", 1L, 1L, AgentStatus.ACTIVE));
+            })
+            .thenReturn(Optional.of(new AgentPrincipal("agent1", 1L, 1L, AgentStatus.ACTIVE)));
+
+        // A slow lookup is in flight while another request caches a short-lived entry for the same token
+        Thread slowLookup = Thread.ofVirtual().start(() -> resolve("agent1", "t1"));
+        lookupStarted.await();
+        long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000; // token expiry has second precision
+        resolve("agent1", "t1", expiresAt - System.currentTimeMillis());
+        Thread.sleep(expiresAt + 100 - System.currentTimeMillis());
+
+        // The slow lookup lands on the expired entry; its removal must not unindex the fresh one
+        releaseLookup.countDown();
+        slowLookup.join();
+        assertEquals(Map.of(1L, Set.of("t1")), Map.copyOf(tokenIndex()));
+
+        resolver.evictAgent(1L);
+        resolve("agent1", "t1");
+        verify(agentRepository, times(3)).findPrincipalByPassName("agent1");
+    }
+
+    private void resolve(String passName, String tokenId) {
+        resolve(passName, tokenId, 600_000);
+    }
+
+    private void resolve(String passName, String tokenId, long expiresInMillis) {
+        Claims claims = Jwts.claims().setSubject(passName).setId(tokenId)
+            .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+        assertTrue(resolver.resolve(claims, "header.payload.signature").isPresent());
+    }
+
+    private Map<?, ?> tokenIndex() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(resolver, "tokenIdsByAgent");
+    }
+}
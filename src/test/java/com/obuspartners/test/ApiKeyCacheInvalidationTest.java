@@ -0,0 +1,157 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import com.obuspartners.modules.common.service.PasswordEncryptionService;
+import com.obuspartners.modules.common.service.PasswordVerificationExecutor;
+import com.obuspartners.modules.partner_management.domain.entity.Partner;
+import com.obuspartners.modules.partner_management.domain.entity.PartnerApiKey;
+import com.obuspartners.modules.partner_management.repository.PartnerApiKeyRepository;
+import com.obuspartners.modules.partner_management.repository.PartnerRepository;
+import com.obuspartners.modules.partner_management.service.ApiKeyValidationCache;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyServiceImpl;
+
+/**
+ * Verifies that a key revoked or regenerated on one node is rejected by another node's validation cache
+ *
+ * Two nodes share a repository and an in-memory stand-in for the Redis
+ * invalidation channel.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ApiKeyCacheInvalidationTest {
+
+    private static final String API_KEY = "ak_live_node_test";
+    private static final String API_SECRET = "secret-1";
+
+    @Mock
+    private PartnerRepository partnerRepository;
+
+    @Mock
+    private PartnerApiKeyRepository partnerApiKeyRepository;
+
+    @Mock
+    private PasswordEncryptionService passwordEncryptionService;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final InMemoryBus channel = new InMemoryBus();
+    private PartnerApiKey partnerApiKey;
+    private PartnerApiKeyService nodeA;
+    private PartnerApiKeyService nodeB;
+    private ApiKeyValidationCache cacheB;
+
+    @BeforeEach
+    void setUp() {
+        Partner partner = new Partner();
+        partner.setId(1L);
+        partner.setUid("partner-1");
+        partnerApiKey = new PartnerApiKey();
+        partnerApiKey.setUid("key-1");
+        partnerApiKey.setApiKey(API_KEY);
+        partnerApiKey.setApiSecret(passwordEncoder.encode(API_SECRET));
+        partnerApiKey.setRateLimitPerMinute(60);
+        partnerApiKey.setPartner(partner);
+        lenient().when(partnerApiKeyRepository.findByUid("key-1")).thenReturn(Optional.of(partnerApiKey));
+        lenient().when(partnerApiKeyRepository.findByApiKeyWithPartner(anyString()))
+            .thenAnswer(call -> call.getArgument(0).equals(partnerApiKey.getApiKey()) ? Optional.of(partnerApiKey) : Optional.empty());
+
+        nodeA = node(cache());
+        cacheB = cache();
+        nodeB = node(cacheB);
+    }
+
+    @Test
+    void testRevokedKeyIsRejectedOnOtherNode() {
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isPresent());
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isPresent());
+        assertEquals(1, cacheB.size());
+        verify(partnerApiKeyRepository, times(1)).findByApiKeyWithPartner(API_KEY);
+
+        doAnswer(call -> { partnerApiKey.setApiKey(null); return null; }).when(partnerApiKeyRepository).delete(partnerApiKey);
+        nodeA.revokeApiKey("key-1", "admin");
+
+        assertEquals(0, cacheB.size());
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isEmpty());
+    }
+
+    @Test
+    void testRegeneratedKeyIsRejectedOnOtherNode() {
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isPresent());
+
+        PartnerApiKeyService.ApiKeyInfo regenerated = nodeA.regenerateApiKey("key-1", "admin");
+
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isEmpty());
+        assertTrue(nodeB.validateApiKeyAndSecret(regenerated.getApiKey(), API_SECRET).isEmpty());
+        assertTrue(nodeB.validateApiKeyAndSecret(regenerated.getApiKey(), regenerated.getApiSecret()).isPresent());
+    }
+
+    @Test
+    void testDisabledKeyIsRejectedOnOtherNode() {
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isPresent());
+
+        nodeA.disableApiKey("key-1", "admin");
+
+        assertTrue(nodeB.validateApiKeyAndSecret(API_KEY, API_SECRET).isEmpty());
+    }
+
+    private ApiKeyValidationCache cache() {
+        ApiKeyValidationCache cache = new ApiKeyValidationCache(channel);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        return cache;
+    }
+
+    private PartnerApiKeyService node(ApiKeyValidationCache cache) {
+        PasswordVerificationExecutor verificationExecutor = new PasswordVerificationExecutor(passwordEncoder);
+        ReflectionTestUtils.setField(verificationExecutor, "queueCapacity", 16);
+        ReflectionTestUtils.setField(verificationExecutor, "timeoutMs", 5000L);
+        ReflectionTestUtils.invokeMethod(verificationExecutor, "init");
+        return new PartnerApiKeyServiceImpl(partnerRepository, partnerApiKeyRepository, passwordEncoder, cache,
+            passwordEncryptionService, verificationExecutor);
+    }
+
+    /**
+     * Delivers every published message to the subscribers of all nodes, like Redis pub/sub
+     */
+    private static final class InMemoryBus extends CacheInvalidationBus {
+
+        private final Map<String, List<Consumer<String>>> subscribers = new HashMap<>();
+
+        InMemoryBus() {
+            super(null, null);
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> handler) {
+            subscribers.computeIfAbsent(channel, c -> new ArrayList<>()).add(handler);
+        }
+
+        @Override
+        public void publish(String channel, String payload) {
+            subscribers.getOrDefault(channel, List.of()).forEach(handler -> handler.accept(payload));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.modules.partner_management.service.ApiKeyUsageMeter;
+
+/**
+ * Verifies that metered API key usage is written to the key it was recorded for
+ *
+ * Runs against an in-memory H2 database in MySQL mode.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class ApiKeyUsageMeterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ApiKeyUsageMeter meter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+            "jdbc:h2:mem:usage-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE partner_api_keys (id BIGINT PRIMARY KEY, partner_id BIGINT NOT NULL, "
+            + "api_key VARCHAR(100) NOT NULL, usage_count BIGINT, last_used_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE partner_api_key_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "api_key_id BIGINT NOT NULL, partner_id BIGINT NOT NULL, bucket_start TIMESTAMP NOT NULL, "
+            + "request_count BIGINT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.update("INSERT INTO partner_api_keys (id, partner_id, api_key, usage_count) VALUES (1, 10, 'ak_old', 5), (2, 20, 'ak_other', NULL)");
+
+        meter = new ApiKeyUsageMeter(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(meter, "closeGraceMinutes", 1L);
+    }
+
+    @Test
+    void testUsageSurvivesKeyRegeneration() {
+        meter.record(1L);
+        meter.record(1L);
+        meter.record(2L);
+        jdbcTemplate.update("UPDATE partner_api_keys SET api_key = 'ak_new' WHERE id = 1");
+        meter.record(1L);
+
+        ReflectionTestUtils.invokeMethod(meter, "flush", true);
+
+        assertEquals(8L, jdbcTemplate.queryForObject("SELECT usage_count FROM partner_api_keys WHERE id = 1", Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT usage_count FROM partner_api_keys WHERE id = 2", Long.class));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+            "SELECT SUM(request_count) FROM partner_api_key_usage WHERE api_key_id = 1 AND partner_id = 10", Long.class));
+        assertEquals(0L, meter.pendingCount());
+    }
+}
@@ -0,0 +1,111 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.env.MockEnvironment;
+
+import com.obuspartners.modules.partner_integration.bmslg.BmslgClient;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifies that the shared BMSLG client reuses connections against a local stub server
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class BmslgClientConnectionReuseTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private BmslgClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/Agents-V8/Sign-In.php", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            queries.add(exchange.getRequestURI().getRawQuery());
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/Agents-V8/Sign-In.php";
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new BmslgClient(meterRegistry, new UpstreamGuardRegistry(meterRegistry, new MockEnvironment()), 2000, 5000, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testSequentialRequestsReuseOneConnection() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            HttpResponse<String> response = client.postForm("sign-in", baseUrl, Map.of("key", "k" + i), Map.of("username", "agent"));
+            assertEquals(200, response.statusCode());
+        }
+
+        Set<Integer> distinctPorts = clientPorts.stream().collect(Collectors.toSet());
+        assertEquals(10, clientPorts.size());
+        assertEquals(1, distinctPorts.size(), "all requests should use one pooled connection, saw ports " + clientPorts);
+    }
+
+    @Test
+    void testAsyncRequestsAreTimedPerEndpoint() throws Exception {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[5];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = client.postFormAsync("sign-in", baseUrl, Map.of(), Map.of("username", "agent"));
+        }
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+
+        assertEquals(5, meterRegistry.get("bmslg.client.requests")
+            .tag("endpoint", "sign-in")
+            .tag("outcome", "SUCCESS")
+            .timer()
+            .count());
+    }
+
+    @Test
+    void testFormAndQueryAreUrlEncoded() throws Exception {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", "agent one&two");
+        form.put("lat", "0.0");
+        form.put("key", "");
+
+        client.postForm("sign-in", baseUrl, Map.of("key", "a+b"), form);
+
+        assertEquals("username=agent+one%26two&lat=0.0&key=", bodies.get(0));
+        assertEquals("key=a%2Bb", queries.get(0));
+    }
+}
@@ -0,0 +1,109 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+import com.obuspartners.modules.common.service.PasswordEncryptionService;
+import com.obuspartners.modules.partner_integration.bmslg.Auth;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSession;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSessionCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifies BMSLG session reuse, expiry and invalidation per AgentBusCoreSystem
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class BmslgSessionCacheTest {
+
+    @Mock
+    private Auth auth;
+
+    @Mock
+    private PasswordEncryptionService passwordEncryptionService;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private BmslgSessionCache sessionCache;
+    private AgentBusCoreSystem agentBusCoreSystem;
+
+    @BeforeEach
+    void setUp() {
+        sessionCache = new BmslgSessionCache(auth, passwordEncryptionService, invalidationBus,
+            new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sessionCache, "defaultTtlSeconds", 1800L);
+        ReflectionTestUtils.setField(sessionCache, "maxTtlSeconds", 86400L);
+        ReflectionTestUtils.setField(sessionCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(sessionCache, "ownerId", "64");
+        ReflectionTestUtils.setField(sessionCache, "zone", "Africa/Dar_es_Salaam");
+        ReflectionTestUtils.invokeMethod(sessionCache, "init");
+
+        agentBusCoreSystem = new AgentBusCoreSystem();
+        agentBusCoreSystem.setId(7L);
+        agentBusCoreSystem.setAgentLoginName("agent7");
+        agentBusCoreSystem.setEncryptedPassword("enc-1");
+        lenient().when(passwordEncryptionService.decryptPassword(anyString())).thenReturn("secret");
+    }
+
+    @Test
+    void testSessionIsReusedUntilItExpires() {
+        when(auth.authenticateWithDefaults("agent7", "secret", "64"))
+            .thenReturn(new Auth.AuthResponse(200, "{\"status\":1,\"data\":{\"token\":\"t-1\",\"expires_in\":600}}"));
+
+        BmslgSession first = sessionCache.getSession(agentBusCoreSystem);
+        BmslgSession second = sessionCache.getSession(agentBusCoreSystem);
+
+        assertSame(first, second);
+        assertEquals("t-1", first.token());
+        long ttl = Duration.between(Instant.now(), first.expiresAt()).toSeconds();
+        assertTrue(ttl > 590 && ttl <= 600, "expiry should come from expires_in, was " + ttl + "s");
+        verify(auth, times(1)).authenticateWithDefaults(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testEvictionAndChangedCredentialsSignInAgain() {
+        when(auth.authenticateWithDefaults(anyString(), anyString(), anyString()))
+            .thenReturn(new Auth.AuthResponse(200, "{\"status\":1,\"token\":\"t\"}"));
+
+        sessionCache.getSession(agentBusCoreSystem);
+        sessionCache.evict(7L);
+        sessionCache.getSession(agentBusCoreSystem);
+
+        // Another node changed the password but this node missed the eviction
+        agentBusCoreSystem.setEncryptedPassword("enc-2");
+        sessionCache.getSession(agentBusCoreSystem);
+
+        verify(auth, times(3)).authenticateWithDefaults(anyString(), anyString(), anyString());
+        verify(invalidationBus).publish(anyString(), eq("7"));
+    }
+
+    @Test
+    void testRejectedSignInIsNotCached() {
+        when(auth.authenticateWithDefaults(anyString(), anyString(), anyString()))
+            .thenReturn(new Auth.AuthResponse(200, "{\"status\":0,\"message\":\"Invalid credentials\"}"));
+
+        sessionCache.getSession(agentBusCoreSystem);
+        sessionCache.getSession(agentBusCoreSystem);
+
+        assertEquals(0, sessionCache.size());
+        verify(auth, times(2)).authenticateWithDefaults(anyString(), anyString(), anyString());
+    }
+}
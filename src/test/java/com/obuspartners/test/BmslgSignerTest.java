@@ -0,0 +1,89 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.obuspartners.modules.partner_integration.bmslg.Auth;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgEndpoint;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSigner;
+
+/**
+ * Golden vectors for BMSLG request signing
+ *
+ * Expected values were produced by the previous per-call MessageDigest
+ * implementation in Auth and StationServiceImpl.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class BmslgSignerTest {
+
+    private final BmslgSigner signer = new BmslgSigner();
+    private final Auth auth = new Auth(null, signer);
+
+    @ParameterizedTest
+    @CsvSource({
+        "1, c670bc93e823f603dae9ed1c3082ba74, b2add4f06c29b2bce1a2f50b151d6b39, 73c799162a7e8bb034b1ea6e753fad78",
+        "2, 8bc12b5c49ba3f6c90ac811c690e49410c9b287a, d33fc439c0e0c924507b4e3f4da043a57e02cd0a, 497451b9f427cfb9fdd50124b55f716990f95252",
+        "3, 204919659b682bbb4823d61baa0276af4f3e0a993960e1588ceeb3a5a351541d, d1bba258c80502d72bd3a7cddfa5e79b9156a3e68efa34cc78d26f23a8a7e66e, 01f73c2389eae101551f7f96bc4ff43e06f9f1b3859fa98578ac5397324301f8",
+        "4, 604dcec018177bb5683601786d82cb4586aa51779f6721914ea0c8c2361cc42806ed7bbe9640ab6bcc2873e109f217a8040950593fdd47d1a0cf9f7b31d34777, 1804ea229680881a9f8d7454b1aed2163b0ed153bb3d7d84f5ba44e2a4b6b62e438fbf5c6dea74ffa789122401308c48ded9035219d278c99775d53bf6a3ba61, ec22850111bdea8506aede467f58c2c40a0906a190e1544c11731b9d402224379b3be2e38a496051aed7d7837daf43f783e0e94f9194d00cffd149bcf45534d2"
+    })
+    void testSignInKeys(int authKey, String getKey, String encryptedPassword, String postKey) {
+        Auth.AuthRequestData data = auth.createAuthRequest("agent01", "S3cret!", "123456789012345", "0.0", "0.0",
+            "192.168.0.101", "64", authKey, "4", "0", "0", "4.88");
+
+        assertEquals(getKey, data.getGetKey());
+        assertEquals(encryptedPassword, data.getEncryptedPassword());
+        assertEquals(postKey, data.getPostKey());
+    }
+
+    @Test
+    void testSignInKeysWithNonAsciiInput() {
+        Auth.AuthRequestData data = auth.createAuthRequest("mwanaidi.ß", "Pässwörd€", "356938035643809", "-6.7924", "39.2083",
+            "10.0.0.7", "1207", 3, "4", "1", "1", "4.88");
+
+        assertEquals("e8add4a29aaf47d5c1a7c6d2f810745e56d73610bd971774cc045bac46cae038", data.getGetKey());
+        assertEquals("60d625fc4a570fe1ba1d35c1161cc4b8218b472e9f287fb74e7c81067b46079c", data.getEncryptedPassword());
+        assertEquals("fd40b78a984792e028293a1539c67a515bf4b0c2b4e9370a6fb7a49efa3bc69f", data.getPostKey());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "1, 1106fac0cdd7bba2ff882a7f0629b6c9, b7ec6a6e4fa9f0554bf9d947260ce4c2",
+        "2, fc438b40630a62d22da67384b6a4d7cf61506f6d, 076beba2e05ae65ec559969e208b1686d9bf154f",
+        "3, a5bb869524cd77a5046f05b3da29b4c821b4ae852cc1d22abeb8ab2b3e32b975, 02378832d041f974d37632eb3af55f8874e40e8a33618f71fe82deb363f31497",
+        "4, b5b8138f73c91173c24e0e422b2a8956fbfcc08c8d93f6118ac895438252a3bd8c7367be87a2b0bf73915b5a23ece4deb28f4a8c764db807119b0f242b8fc16f, cf9c09627326658e91723e7736176ea1aaccf731f995509c57122153d25546299f98089263c29efbdc9bf6894d4eb4e84925b85f83c472eaa5e8382f279a4e48"
+    })
+    void testSearchStationsKeys(int authKey, String getKey, String postKey) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("imei", "123456789012345");
+        form.put("lat", "0.0");
+        form.put("long", "0.0");
+        form.put("ip", "192.168.0.101");
+        form.put("owner_id", "64");
+        form.put("auth_key", String.valueOf(authKey));
+        form.put("key", "");
+        form.put("is_from", "4");
+        form.put("pltfm", "0");
+        form.put("lang", "0");
+        form.put("app_ver", "4.88");
+
+        Map<String, String> query = signer.sign(BmslgEndpoint.SEARCH_STATIONS, authKey, form);
+
+        assertEquals(getKey, query.get("key"));
+        assertEquals(postKey, form.get("key"));
+    }
+
+    @Test
+    void testUnsupportedOrMissingInput() {
+        assertNull(signer.hash(5, "x"));
+        assertNull(signer.hash(1, null));
+        assertNull(auth.encrypt(0, "x"));
+    }
+}
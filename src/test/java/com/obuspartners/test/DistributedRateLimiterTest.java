@@ -0,0 +1,178 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.common.service.DistributedRateLimiter;
+
+/**
+ * Verifies that several nodes sharing one Redis bucket together reach the configured rate,
+ * because the unused part of an expired lease goes back to the bucket
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class DistributedRateLimiterTest {
+
+    private static final String API_KEY = "key-1";
+    private static final int LIMIT_PER_MINUTE = 1200;
+
+    private final SimulatedClock clock = new SimulatedClock();
+    private final InMemoryRedis redis = new InMemoryRedis(clock);
+
+    private List<DistributedRateLimiter> nodes;
+
+    @BeforeEach
+    void setUp() {
+        nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(node());
+        }
+    }
+
+    @Test
+    void testNodesTogetherReachConfiguredRate() {
+        // One busy node takes 100 requests/s against a limit of 20/s; the other three see
+        // one request a second, so each of their 4-token leases leaves 3 tokens unused
+        long[] intervals = { 10, 1000, 1000, 1000 };
+        long[] offsets = { 0, 250, 500, 750 };
+        long end = 600_000;
+        long measureFrom = 300_000;
+        long admitted = 0;
+        for (long t = 0; t < end; t++) {
+            clock.now = t;
+            for (int n = 0; n < nodes.size(); n++) {
+                if (t % 1000 == 999) {
+                    nodes.get(n).returnExpiredLeases();
+                }
+                if (t < offsets[n] || (t - offsets[n]) % intervals[n] != 0) {
+                    continue;
+                }
+                if (nodes.get(n).tryAcquire(API_KEY, LIMIT_PER_MINUTE).allowed() && t >= measureFrom) {
+                    admitted++;
+                }
+            }
+        }
+
+        long expected = LIMIT_PER_MINUTE * (end - measureFrom) / 60_000;
+        assertTrue(admitted >= expected * 95 / 100, "admitted " + admitted + " of " + expected);
+        assertTrue(admitted <= expected + 4 * 4, "admitted " + admitted + " of " + expected);
+    }
+
+    @Test
+    void testExpiredLeaseOfQuietNodeIsReturned() {
+        DistributedRateLimiter node = nodes.get(0);
+        redis.seed(API_KEY, 100, 0);
+        clock.now = 0;
+        assertTrue(node.tryAcquire(API_KEY, LIMIT_PER_MINUTE).allowed());
+        assertEquals(96, redis.tokens(), 0.001);
+
+        clock.now = 100;
+        node.returnExpiredLeases();
+        assertEquals(96, redis.tokens(), 0.001);
+
+        // 300ms of refill at 0.02/ms plus the 3 tokens the node never used
+        clock.now = 300;
+        node.returnExpiredLeases();
+        assertEquals(96 + 6 + 3, redis.tokens(), 0.001);
+
+        node.returnExpiredLeases();
+        assertEquals(96 + 6 + 3, redis.tokens(), 0.001);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DistributedRateLimiter node() {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redis);
+        DistributedRateLimiter limiter = new DistributedRateLimiter(provider);
+        ReflectionTestUtils.setField(limiter, "leaseMillis", 200L);
+        ReflectionTestUtils.setField(limiter, "maxLeaseTokens", 1000);
+        ReflectionTestUtils.setField(limiter, "redisRetryMillis", 5000L);
+        ReflectionTestUtils.setField(limiter, "maxTrackedKeys", 1000L);
+        ReflectionTestUtils.setField(limiter, "clock", clock);
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+        return limiter;
+    }
+
+    /**
+     * Clock moved by the test, shared by the nodes and the bucket
+     */
+    private static final class SimulatedClock extends Clock {
+
+        long now;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(now);
+        }
+    }
+
+    /**
+     * Single-bucket stand-in for Redis that applies the token bucket script's arithmetic
+     */
+    private static final class InMemoryRedis extends StringRedisTemplate {
+
+        private final SimulatedClock clock;
+        private final Map<String, double[]> buckets = new HashMap<>();
+
+        InMemoryRedis(SimulatedClock clock) {
+            this.clock = clock;
+        }
+
+        void seed(String apiKey, double tokens, long at) {
+            buckets.put("obus:ratelimit:" + apiKey, new double[] { tokens, at });
+        }
+
+        double tokens() {
+            return buckets.values().iterator().next()[0];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            double capacity = Double.parseDouble((String) args[0]);
+            double rate = Double.parseDouble((String) args[1]);
+            long requested = Long.parseLong((String) args[2]);
+            long returned = Long.parseLong((String) args[3]);
+            long now = clock.now;
+
+            double[] state = buckets.computeIfAbsent(keys.get(0), k -> new double[] { capacity, now });
+            if (now > state[1]) {
+                state[0] = Math.min(capacity, state[0] + (now - state[1]) * rate);
+                state[1] = now;
+            }
+            state[0] = Math.min(capacity, state[0] + returned);
+            long granted = Math.max(0, Math.min(requested, (long) Math.floor(state[0])));
+            state[0] -= granted;
+            long untilFull = (long) Math.ceil((capacity - state[0]) / rate);
+            long untilNext = state[0] < 1 ? (long) Math.ceil((1 - state[0]) / rate) : 0;
+            return (T) List.of(granted, (long) Math.floor(state[0]), untilFull, untilNext);
+        }
+    }
+}
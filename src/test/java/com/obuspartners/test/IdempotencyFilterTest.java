@@ -0,0 +1,181 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obuspartners.modules.common.idempotency.IdempotencyFilter;
+import com.obuspartners.modules.common.idempotency.IdempotencyStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Test class to verify that retried POST requests with an Idempotency-Key
+ * run once and get the first response back
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/partner/v1/agents/register-self";
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile int status = 201;
+
+    private IdempotencyFilter filter;
+
+    /** Stands in for the controller: counts executions and answers with the request body */
+    private final HttpServlet controller = new HttpServlet() {
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            int execution = executions.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"execution\":" + execution + ",\"echo\":" + body + "}");
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyStore store = new IdempotencyStore(
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "windowSeconds", 3600L);
+        ReflectionTestUtils.setField(store, "localMaxSize", 1000L);
+        store.init();
+
+        filter = new IdempotencyFilter(store, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of(PATH));
+        ReflectionTestUtils.setField(filter, "waitSeconds", 5L);
+        ReflectionTestUtils.setField(filter, "maxRequestBytes", 1024);
+        ReflectionTestUtils.setField(filter, "maxResponseBytes", 1024);
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRetryGetsFirstResponseWithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = send("key-1", "{\"name\":\"a\"}");
+        MockHttpServletResponse retry = send("key-1", "{\"name\":\"a\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        send("key-2", "{\"name\":\"a\"}");
+        assertEquals(2, executions.get(), "a new key runs again");
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRefused() throws Exception {
+        send("key-1", "{\"name\":\"a\"}");
+        MockHttpServletResponse other = send("key-1", "{\"name\":\"b\"}");
+
+        assertEquals(422, other.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testServerErrorsAreNotStored() throws Exception {
+        status = 502;
+        send("key-1", "{}");
+        status = 201;
+        MockHttpServletResponse retry = send("key-1", "{}");
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(pool.submit(() -> {
+                    authenticate();
+                    return send("key-1", "{\"name\":\"a\"}");
+                }));
+            }
+            // Let the duplicates pile up behind the first execution
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (executions.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            String body = null;
+            int replays = 0;
+            for (Future<MockHttpServletResponse> future : responses) {
+                MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+                assertEquals(201, response.getStatus());
+                body = body == null ? response.getContentAsString() : body;
+                assertEquals(body, response.getContentAsString());
+                if ("true".equals(response.getHeader(IdempotencyFilter.REPLAYED_HEADER))) {
+                    replays++;
+                }
+            }
+            assertEquals(1, executions.get());
+            assertEquals(3, replays);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private MockHttpServletResponse send(String idempotencyKey, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(controller));
+        return response;
+    }
+
+    private static void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("partner-1", null, Collections.emptyList()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.LedgerBalanceDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerAccountType;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.LedgerEntryType;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerAccount;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.LedgerJournal;
+import com.obuspartners.modules.ledger_and_settlement_management.journal.Posting;
+import com.obuspartners.modules.ledger_and_settlement_management.service.LedgerServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test class to verify that ledger balances kept in memory, their
+ * checkpoints and the journal agree under concurrent postings
+ *
+ * Runs against an in-memory H2 database in MySQL mode.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class LedgerJournalTest {
+
+    private static final int ACCOUNTS = 20;
+
+    private JdbcTemplate jdbcTemplate;
+    private LedgerJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+            "jdbc:h2:mem:ledger-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE ledger_entries (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "posting_id VARCHAR(26) NOT NULL, account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, "
+            + "entry_type VARCHAR(40) NOT NULL, amount_minor BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, "
+            + "reference VARCHAR(100), created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE ledger_balances (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "account_type VARCHAR(20) NOT NULL, account_id BIGINT NOT NULL, currency VARCHAR(3) NOT NULL, "
+            + "balance_minor BIGINT NOT NULL, entry_count BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL, "
+            + "CONSTRAINT uk_ledger_balances_account UNIQUE (account_type, account_id, currency))");
+        jdbcTemplate.execute("CREATE TABLE ledger_dead_letters (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "posting_id VARCHAR(26) NOT NULL, details TEXT NOT NULL, error VARCHAR(500), "
+            + "posted_at TIMESTAMP NOT NULL, created_at TIMESTAMP NOT NULL)");
+
+        journal = new LedgerJournal(jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(journal, "rowsPerStatement", 100);
+        ReflectionTestUtils.setField(journal, "maxBatchPostings", 1000);
+        ReflectionTestUtils.setField(journal, "flushIntervalMs", 5L);
+        ReflectionTestUtils.setField(journal, "maxPendingPostings", 1_000_000);
+        ReflectionTestUtils.setField(journal, "balanceMaxAgeMs", 60_000L);
+        ReflectionTestUtils.setField(journal, "retryBackoffMs", 100L);
+        ReflectionTestUtils.setField(journal, "balanceLoadTimeoutMs", 5000L);
+        journal.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        journal.shutdown();
+    }
+
+    @Test
+    void testConcurrentPostingsKeepBalancesCheckpointsAndJournalInStep() throws Exception {
+        int threads = 8;
+        int postingsPerThread = 5_000;
+        AtomicLongArray expected = new AtomicLongArray(ACCOUNTS);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<Void>> last = new ArrayList<>();
+        List<Future<CompletableFuture<Void>>> submitted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            submitted.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CompletableFuture<Void> committed = null;
+                for (int i = 0; i < postingsPerThread; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = random.nextInt(ACCOUNTS);
+                    long amount = 1 + random.nextInt(10_000);
+                    committed = journal.post(new Posting("P" + i, "REF-" + i, LocalDateTime.now(), List.of(
+                        new Posting.Entry(account(from), LedgerEntryType.BOOKING_COMMISSION, amount),
+                        new Posting.Entry(account(from), LedgerEntryType.AGENT_COMMISSION_SHARE, -amount / 2),
+                        new Posting.Entry(account(to), LedgerEntryType.AGENT_COMMISSION_SHARE, amount / 2))));
+                    expected.addAndGet(from, amount - amount / 2);
+                    expected.addAndGet(to, amount / 2);
+                }
+                return committed;
+            }));
+        }
+        for (Future<CompletableFuture<Void>> future : submitted) {
+            last.add(future.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Balances are exact before anything is written
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(expected.get(i), journal.balance(account(i)), "running balance of account " + i);
+        }
+
+        CompletableFuture.allOf(last.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (journal.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, journal.pendingCount());
+
+        Long entries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_entries", Long.class);
+        assertEquals(3L * threads * postingsPerThread, entries);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(expected.get(i), journal.checkpointBalance(account(i)), "checkpoint of account " + i);
+            assertEquals(expected.get(i), journal.journalSum(account(i)), "journal of account " + i);
+            assertEquals(expected.get(i), journal.balance(account(i)), "running balance of account " + i);
+        }
+    }
+
+    @Test
+    void testBalanceIncludesPostingsMadeOnOtherNodes() throws Exception {
+        LedgerAccount partner = account(1);
+        journal.post(new Posting("P1", "REF-1", LocalDateTime.now(), List.of(
+            new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, 500)))).get(10, TimeUnit.SECONDS);
+        assertEquals(500, journal.balance(partner));
+
+        // Another node's batch lands in the checkpoint
+        jdbcTemplate.update("UPDATE ledger_balances SET balance_minor = balance_minor + 250 WHERE account_id = 1");
+        ReflectionTestUtils.setField(journal, "balanceMaxAgeMs", 0L);
+        journal.balance(partner);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (journal.balance(partner) != 750 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(750, journal.balance(partner));
+    }
+
+    @Test
+    void testConfirmedBookingPostsPartnerAndAgentCommission() throws Exception {
+        LedgerServiceImpl ledgerService = new LedgerServiceImpl(journal);
+        ReflectionTestUtils.setField(ledgerService, "defaultCurrency", "TZS");
+        ReflectionTestUtils.setField(ledgerService, "agentShare", new BigDecimal("0.40"));
+
+        BookingConfirmedEvent booking = BookingConfirmedEvent.builder()
+            .bookingReference("BK-1")
+            .busCoreSystemCode("BMSLG")
+            .travelDate(LocalDate.now())
+            .agentId(7L)
+            .partnerId(3L)
+            .partnerCommissionRate(5.0)
+            .totalAmount(new BigDecimal("45000"))
+            .currency("tzs")
+            .build();
+        assertTrue(ledgerService.postBookingCommission(booking));
+
+        // 5% of 45,000.00 = 2,250.00, of which 40% goes to the agent
+        LedgerBalanceDto partner = ledgerService.getBalance(LedgerAccountType.PARTNER, 3L, "TZS");
+        LedgerBalanceDto agent = ledgerService.getBalance(LedgerAccountType.AGENT, 7L, null);
+        assertEquals(135_000L, partner.getBalanceMinor());
+        assertEquals(0, new BigDecimal("900.00").compareTo(agent.getBalance()));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (journal.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        LedgerBalanceDto verified = ledgerService.verifyBalance(LedgerAccountType.PARTNER, 3L, "TZS");
+        assertTrue(verified.getConsistent());
+        assertEquals(135_000L, verified.getJournalBalanceMinor());
+
+        booking.setTotalAmount(null);
+        assertFalse(ledgerService.postBookingCommission(booking), "bookings without an amount post nothing");
+    }
+
+    @Test
+    void testRefusedPostingIsDeadLetteredAndTheRestIsWritten() throws Exception {
+        LedgerAccount partner = account(1);
+        List<CompletableFuture<Void>> good = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            good.add(journal.post(new Posting("G" + i, "REF-" + i, LocalDateTime.now(), List.of(
+                new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, 100)))));
+        }
+        // The reference is longer than its column
+        CompletableFuture<Void> refused = journal.post(new Posting("BAD", "R".repeat(150), LocalDateTime.now(), List.of(
+            new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, 1_000))));
+        good.add(journal.post(new Posting("G3", "REF-3", LocalDateTime.now(), List.of(
+            new Posting.Entry(partner, LedgerEntryType.BOOKING_COMMISSION, 100)))));
+
+        CompletableFuture.allOf(good.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, () -> refused.get(10, TimeUnit.SECONDS));
+        assertEquals(0, journal.pendingCount());
+
+        assertEquals(400, journal.journalSum(partner));
+        assertEquals(400, journal.checkpointBalance(partner));
+        assertEquals(400, journal.balance(partner), "the refused posting is taken off the running balance");
+        String details = jdbcTemplate.queryForObject(
+            "SELECT details FROM ledger_dead_letters WHERE posting_id = 'BAD'", String.class);
+        assertTrue(details.contains("BOOKING_COMMISSION 1000"), details);
+    }
+
+    @Test
+    void testFirstBalanceReadGivesUpWhenTheWriterIsGone() throws Exception {
+        journal.shutdown();
+        ReflectionTestUtils.setField(journal, "balanceLoadTimeoutMs", 100L);
+        ApiException unavailable = assertThrows(ApiException.class, () -> journal.balance(account(5)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getStatusCode());
+    }
+
+    private static LedgerAccount account(int i) {
+        return LedgerAccount.partner(i, "TZS");
+    }
+}
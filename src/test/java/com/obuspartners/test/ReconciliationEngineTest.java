@@ -0,0 +1,173 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.benchmark.SettlementDataGenerator;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.ReconciliationRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.ReconciliationStatus;
+import com.obuspartners.modules.ledger_and_settlement_management.reconciliation.ReconciliationEngine;
+
+/**
+ * Test class to verify reconciliation of bus core exports, in memory and with spilled sort runs
+ *
+ * Runs against an in-memory H2 database in MySQL mode.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class ReconciliationEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 14);
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private ReconciliationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+            "jdbc:h2:mem:reconciliation-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        SettlementDataGenerator.createSchema(jdbcTemplate);
+        SettlementDataGenerator.createIndexes(jdbcTemplate);
+
+        engine = new ReconciliationEngine(jdbcTemplate);
+        ReflectionTestUtils.setField(engine, "sortBufferMb", 64L);
+        ReflectionTestUtils.setField(engine, "tempDir", tempDir.toString());
+        ReflectionTestUtils.setField(engine, "fetchSize", 100);
+        ReflectionTestUtils.setField(engine, "writeBatchSize", 7);
+        ReflectionTestUtils.setField(engine, "defaultCurrency", "TZS");
+    }
+
+    @Test
+    void testMissingExtraAndDriftingBookingsAreReported() {
+        booking("BK-1", "BMSLG", 4_500_000, "TZS", DATE.atTime(9, 0));
+        booking("BK-2", "BMSLG", 1_000_000, "TZS", DATE.atTime(23, 59));
+        booking("BK-3", "BMSLG", 2_000_000, "TZS", DATE.atTime(12, 0));
+        booking("BK-4", "BMSLG", 150_050, "KES", DATE.atTime(0, 0));
+        booking("BK-5", "BMSLG", 700_000, "TZS", DATE.atTime(10, 0));
+        booking("BK-6", "BMSLG", 300_000, "TZS", DATE.atTime(10, 0));
+        booking("BK-6", "BMSLG", 300_000, "TZS", DATE.atTime(10, 5));
+        // Other systems and dates are not part of the export
+        booking("BK-7", "OTHER", 100_000, "TZS", DATE.atTime(10, 0));
+        booking("BK-8", "BMSLG", 100_000, "TZS", DATE.plusDays(1).atStartOfDay());
+
+        String export = String.join("\n",
+            "reference,amount,currency",
+            "\"BK-3\",\"20000.00\",TZS",
+            "BK-1,45000",
+            "BK-2,10000.01,TZS",
+            "BK-4,1500.5,kes",
+            "BK-9,2500.00,TZS",
+            "BK-6,3000.00",
+            "BK-5,7000.00,KES",
+            "",
+            "BK-10,not-a-number",
+            "BK-11,100,XXX1",
+            "BK-7,1000.00,TZS");
+
+        ReconciliationRunDto run = reconcile(export);
+
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        assertEquals(8L, run.getBusCoreLines());
+        assertEquals(7L, run.getLedgerLines());
+        assertEquals(2L, run.getInvalidLines());
+        assertEquals(4L, run.getMatched());
+        assertEquals(2L, run.getMissing());
+        assertEquals(1L, run.getExtra());
+        assertEquals(2L, run.getAmountDrift());
+        assertEquals(0, run.getSpillFiles());
+        assertNotNull(run.getFinishedAt());
+
+        assertEquals(List.of(
+            "AMOUNT_DRIFT BK-2 1000001 TZS 1000000 TZS",
+            "AMOUNT_DRIFT BK-5 700000 KES 700000 TZS",
+            "EXTRA BK-6 null null 300000 TZS",
+            "MISSING BK-7 100000 TZS null null",
+            "MISSING BK-9 250000 TZS null null"), mismatches(run.getId()));
+    }
+
+    @Test
+    void testSpilledSortRunsGiveTheSameResultAndAreDeleted() throws Exception {
+        SettlementDataGenerator.generatePartners(jdbcTemplate, 10, 10, 3);
+        SettlementDataGenerator.generateBookings(jdbcTemplate, 10, 10, 40_000, DATE, 3);
+
+        // The export misses every 97th booking, differs on every 101st and has 50 bookings we never recorded
+        StringBuilder export = new StringBuilder();
+        long[] expected = new long[4];
+        jdbcTemplate.query("SELECT booking_reference, amount_minor, currency FROM settlement_bookings ORDER BY id DESC",
+            (RowCallbackHandler) rs -> {
+                long row = rs.getRow();
+                long amount = rs.getLong(2);
+                if (row % 97 == 0) {
+                    expected[2]++;
+                    return;
+                }
+                if (row % 101 == 0) {
+                    amount += 1;
+                    expected[3]++;
+                } else {
+                    expected[0]++;
+                }
+                export.append(rs.getString(1)).append(',').append(BigDecimal.valueOf(amount, 2).toPlainString())
+                    .append(',').append(rs.getString(3)).append('\n');
+            });
+        for (int i = 0; i < 50; i++) {
+            export.append("BMS-").append(i).append(",1000.00,TZS\n");
+            expected[1]++;
+        }
+
+        ReflectionTestUtils.setField(engine, "sortBufferMb", 1L);
+        ReconciliationRunDto run = reconcile(export.toString());
+
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        assertEquals(40_000L, run.getLedgerLines());
+        assertEquals(List.of(expected[0], expected[1], expected[2], expected[3]),
+            List.of(run.getMatched(), run.getMissing(), run.getExtra(), run.getAmountDrift()));
+        assertTrue(run.getSpillFiles() >= 4, "Expected both sides to spill, got " + run.getSpillFiles());
+        assertEquals(expected[1] + expected[2] + expected[3],
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reconciliation_mismatches WHERE run_id = ?", Long.class, run.getId()));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ReconciliationRunDto reconcile(String export) {
+        return engine.reconcile("BMSLG", DATE, new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void booking(String reference, String system, long amountMinor, String currency, LocalDateTime bookedAt) {
+        jdbcTemplate.update("INSERT INTO settlement_bookings (booking_reference, bus_core_system_code, partner_id, "
+            + "amount_minor, currency, booked_at) VALUES (?, ?, 1, ?, ?, ?)",
+            reference, system, amountMinor, currency, Timestamp.valueOf(bookedAt));
+    }
+
+    private List<String> mismatches(long runId) {
+        return jdbcTemplate.query("SELECT mismatch_type, booking_reference, bus_core_amount_minor, bus_core_currency, "
+            + "ledger_amount_minor, ledger_currency FROM reconciliation_mismatches WHERE run_id = ? "
+            + "ORDER BY mismatch_type, booking_reference",
+            (rs, rowNum) -> rs.getString(1) + " " + rs.getString(2) + " " + rs.getObject(3) + " " + rs.getString(4)
+                + " " + rs.getObject(5) + " " + rs.getString(6), runId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.common.security.CachedBodyHttpServletRequest;
+import com.obuspartners.modules.common.security.RequestSignatureVerifier;
+import com.obuspartners.modules.common.security.SignatureReplayGuard;
+import com.obuspartners.modules.partner_management.service.PartnerApiKeyService;
+
+/**
+ * Verifies HMAC request signatures, the timestamp window and nonce replay protection
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestSignatureVerifierTest {
+
+    private static final String API_KEY = "obus_test_key";
+    private static final byte[] SECRET = "signing-secret-0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final String BODY = "{\"from\":\"DAR\",\"to\":\"ARU\"}";
+
+    @Mock
+    private PartnerApiKeyService partnerApiKeyService;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private SignatureReplayGuard replayGuard;
+    private RequestSignatureVerifier verifier;
+    private PartnerApiKeyService.ApiKeyInfo keyInfo;
+
+    @BeforeEach
+    void setUp() {
+        replayGuard = new SignatureReplayGuard(redisTemplateProvider);
+        ReflectionTestUtils.setField(replayGuard, "maxSkewSeconds", 300L);
+        ReflectionTestUtils.setField(replayGuard, "nonceCacheMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(replayGuard, "init");
+
+        verifier = new RequestSignatureVerifier(partnerApiKeyService, replayGuard);
+        ReflectionTestUtils.setField(verifier, "maxBodyBytes", 1024 * 1024);
+
+        keyInfo = new PartnerApiKeyService.ApiKeyInfo(API_KEY, null, "partner-1");
+        lenient().when(partnerApiKeyService.getSigningKey(API_KEY))
+            .thenReturn(Optional.of(new PartnerApiKeyService.SigningKey(keyInfo, SECRET)));
+        lenient().when(partnerApiKeyService.getSigningKey(argThat(key -> !API_KEY.equals(key))))
+            .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testValidSignatureIsAccepted() throws Exception {
+        Optional<PartnerApiKeyService.ApiKeyInfo> verified = verifier.verify(
+            signed(API_KEY, SECRET, now(), "nonce-1", BODY, BODY));
+
+        assertTrue(verified.isPresent());
+        assertSame(keyInfo, verified.get());
+    }
+
+    @Test
+    void testTamperedBodyIsRejected() throws Exception {
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, now(), "nonce-1", BODY, BODY.replace("ARU", "MWZ"))).isEmpty());
+    }
+
+    @Test
+    void testSignatureWithWrongKeyIsRejected() throws Exception {
+        byte[] otherSecret = "another-secret-0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+        assertTrue(verifier.verify(signed(API_KEY, otherSecret, now(), "nonce-1", BODY, BODY)).isEmpty());
+        assertTrue(verifier.verify(signed("obus_unknown_key", SECRET, now(), "nonce-2", BODY, BODY)).isEmpty());
+    }
+
+    @Test
+    void testTimestampOutsideWindowIsRejected() throws Exception {
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, now() - 301, "nonce-1", BODY, BODY)).isEmpty());
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, now() + 301, "nonce-2", BODY, BODY)).isEmpty());
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, now() - 299, "nonce-3", BODY, BODY)).isPresent());
+        verify(partnerApiKeyService, times(1)).getSigningKey(anyString());
+    }
+
+    @Test
+    void testReplayedNonceIsRejected() throws Exception {
+        long timestamp = now();
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, timestamp, "nonce-1", BODY, BODY)).isPresent());
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, timestamp, "nonce-1", BODY, BODY)).isEmpty());
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, timestamp, "nonce-2", BODY, BODY)).isPresent());
+    }
+
+    @Test
+    void testNonceUsedOnAnotherNodeIsRejected() throws Exception {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(eq("obus:auth:nonce:" + API_KEY + ":nonce-1"), anyString(), any())).thenReturn(false);
+
+        assertTrue(verifier.verify(signed(API_KEY, SECRET, now(), "nonce-1", BODY, BODY)).isEmpty());
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * A request signed over {@code signedBody} that carries {@code sentBody}
+     */
+    private CachedBodyHttpServletRequest signed(String apiKey, byte[] secret, long timestamp, String nonce,
+                                                String signedBody, String sentBody) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/schedules/search");
+        request.setQueryString("page=1");
+        request.setContent(sentBody.getBytes(StandardCharsets.UTF_8));
+        String canonical = RequestSignatureVerifier.canonicalString("POST", "/api/v1/schedules/search?page=1",
+            Long.toString(timestamp), nonce, signedBody.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("X-API-Key", apiKey);
+        request.addHeader(RequestSignatureVerifier.TIMESTAMP_HEADER, Long.toString(timestamp));
+        request.addHeader(RequestSignatureVerifier.NONCE_HEADER, nonce);
+        request.addHeader(RequestSignatureVerifier.SIGNATURE_HEADER,
+            HexFormat.of().formatHex(RequestSignatureVerifier.sign(secret, canonical)));
+        return new CachedBodyHttpServletRequest(request, verifier.getMaxBodyBytes());
+    }
+}
@@ -0,0 +1,256 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import com.obuspartners.modules.partner_integration.schedules.ProviderResult;
+import com.obuspartners.modules.partner_integration.schedules.Schedule;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleCacheEntry;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleProvider;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchCache;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchRequest;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchResult;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifies reuse, negative caching, booking invalidation (also of searches
+ * already running) and the timetable fallback of the schedule search cache
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class ScheduleSearchCacheTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.now().plusDays(1);
+
+    /** Requests the provider received */
+    private final List<ScheduleSearchRequest> upstreamRequests = new CopyOnWriteArrayList<>();
+    /** Answer of the provider: trips, none, or a failure */
+    private volatile List<Schedule> answer;
+    private volatile boolean failing;
+    /** Runs while the provider answers */
+    private volatile Runnable onSearch = () -> { };
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private ScheduleSearchCache cache;
+    private ScheduleSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        answer = List.of(schedule("DSM-ARU-0600", 2), schedule("DSM-ARU-0800", 30));
+        ScheduleProvider provider = new ScheduleProvider() {
+            @Override
+            public boolean supports(BusCoreSystem system) {
+                return true;
+            }
+
+            @Override
+            public List<Schedule> search(AgentBusCoreSystem assignment, ScheduleSearchRequest request, Duration timeout)
+                    throws IOException {
+                upstreamRequests.add(request);
+                onSearch.run();
+                if (failing) {
+                    throw new IOException("connection refused");
+                }
+                return answer;
+            }
+        };
+
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager();
+        cache = new ScheduleSearchCache(cacheManager, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "availabilityTtlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 10L);
+        ReflectionTestUtils.setField(cache, "timetableTtlSeconds", 900L);
+
+        UpstreamGuardRegistry guards = new UpstreamGuardRegistry(new SimpleMeterRegistry(), new MockEnvironment());
+        service = new ScheduleSearchService(List.of(provider), null, guards, cache, new MockEnvironment());
+        ReflectionTestUtils.setField(service, "deadlineMs", 2_000L);
+        ReflectionTestUtils.setField(service, "providerTimeoutMs", 2_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    void repeatedSearchIsServedFromCacheForAnyNumberOfPassengers() {
+        ScheduleSearchResult first = search(request(1, null, TRAVEL_DATE));
+        ScheduleSearchResult second = search(request(3, null, TRAVEL_DATE));
+
+        assertEquals(1, upstreamRequests.size());
+        assertEquals(1, upstreamRequests.get(0).passengers(), "systems are always asked for one passenger");
+        assertEquals(2, first.schedules().size());
+        assertEquals(List.of("DSM-ARU-0800"), second.schedules().stream().map(Schedule::scheduleId).toList());
+        assertEquals(ProviderResult.Status.OK, second.providers().get(0).status());
+        assertEquals(1.0, lookups("hit"));
+        assertEquals(1.0, lookups("miss"));
+
+        // Another passenger class is another answer
+        search(request(1, "VIP", TRAVEL_DATE));
+        assertEquals(2, upstreamRequests.size());
+    }
+
+    @Test
+    void emptyAnswerIsCachedBriefly() {
+        answer = List.of();
+
+        search(request(1, null, TRAVEL_DATE));
+        search(request(1, null, TRAVEL_DATE));
+        assertEquals(1, upstreamRequests.size());
+        assertEquals(1.0, lookups("negative_hit"));
+
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 0L);
+        search(request(1, null, TRAVEL_DATE));
+        assertEquals(2, upstreamRequests.size());
+    }
+
+    @Test
+    void confirmedBookingEvictsOnlyItsTrip() {
+        LocalDate otherDate = TRAVEL_DATE.plusDays(1);
+        search(request(1, null, TRAVEL_DATE));
+        search(request(1, "VIP", TRAVEL_DATE));
+        search(request(1, null, otherDate));
+        assertEquals(3, upstreamRequests.size());
+
+        cache.onBookingConfirmed(BookingConfirmedEvent.builder()
+            .busCoreSystemCode("BMSLG").scheduleId("DSM-ARU-0600")
+            .fromStationId("DSM").toStationId("ARU").travelDate(TRAVEL_DATE).seats(1)
+            .build());
+
+        search(request(1, null, TRAVEL_DATE));
+        search(request(1, "VIP", TRAVEL_DATE));
+        search(request(1, null, otherDate));
+        assertEquals(5, upstreamRequests.size(), "both classes of the booked trip are asked again, the other date is not");
+    }
+
+    @Test
+    void bookingDuringASearchKeepsItsAnswerOutOfTheCache() {
+        // The booking is confirmed while the system is answering an earlier search
+        onSearch = () -> cache.onBookingConfirmed(BookingConfirmedEvent.builder()
+            .busCoreSystemCode("BMSLG").scheduleId("DSM-ARU-0600")
+            .fromStationId("DSM").toStationId("ARU").travelDate(TRAVEL_DATE).seats(1)
+            .build());
+        search(request(1, null, TRAVEL_DATE));
+        onSearch = () -> { };
+
+        search(request(1, null, TRAVEL_DATE));
+        search(request(1, null, TRAVEL_DATE));
+        assertEquals(2, upstreamRequests.size(), "the answer from before the booking is not served");
+    }
+
+    @Test
+    void putAfterEvictFromASearchThatStartedEarlierIsNotServed() {
+        ScheduleSearchRequest request = request(1, null, TRAVEL_DATE);
+        long startedAt = cache.currentEpoch("BMSLG", request);
+
+        cache.evictTrip("BMSLG", "DSM", "ARU", TRAVEL_DATE);
+        cache.put("BMSLG", request, List.of(schedule("DSM-ARU-0600", 2)), startedAt);
+        assertNull(cache.find("BMSLG", request, cache.currentEpoch("BMSLG", request)));
+
+        // Even an answer written past the epoch check is not served in the new epoch
+        cacheManager.getCache(ScheduleSearchCache.CACHE_NAME).put("BMSLG:DSM:ARU:" + TRAVEL_DATE + "#*",
+            new ScheduleCacheEntry(List.of(schedule("DSM-ARU-0600", 2)), System.currentTimeMillis(), startedAt));
+        assertNull(cache.find("BMSLG", request, cache.currentEpoch("BMSLG", request)));
+
+        // A search from the new epoch is cached again
+        long epoch = cache.currentEpoch("BMSLG", request);
+        cache.put("BMSLG", request, List.of(schedule("DSM-ARU-0600", 1)), epoch);
+        assertEquals(1, cache.find("BMSLG", request, epoch).get(0).availableSeats());
+    }
+
+    @Test
+    void concurrentAnswersForOtherClassesAreAllKept() throws Exception {
+        int trips = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (String passengerClass : List.of("ECONOMY", "VIP")) {
+            writers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int day = 0; day < trips; day++) {
+                    ScheduleSearchRequest request = request(1, passengerClass, TRAVEL_DATE.plusDays(day));
+                    cache.put("BMSLG", request, answer, cache.currentEpoch("BMSLG", request));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int day = 0; day < trips; day++) {
+            for (String passengerClass : List.of("ECONOMY", "VIP")) {
+                ScheduleSearchRequest request = request(1, passengerClass, TRAVEL_DATE.plusDays(day));
+                assertNotNull(cache.find("BMSLG", request, cache.currentEpoch("BMSLG", request)),
+                    passengerClass + " on day " + day);
+            }
+        }
+    }
+
+    @Test
+    void timetableIsServedWithUnknownSeatsWhenTheSystemFails() {
+        search(request(1, null, TRAVEL_DATE));
+        ReflectionTestUtils.setField(cache, "availabilityTtlSeconds", 0L);
+        failing = true;
+
+        ScheduleSearchResult result = search(request(4, null, TRAVEL_DATE));
+
+        assertEquals(2, upstreamRequests.size());
+        ProviderResult providerResult = result.providers().get(0);
+        assertEquals(ProviderResult.Status.STALE, providerResult.status());
+        assertEquals(2, providerResult.schedules().size());
+        assertTrue(providerResult.schedules().stream().allMatch(schedule -> schedule.availableSeats() == -1));
+        assertFalse(result.complete());
+        assertEquals(1.0, lookups("stale"));
+    }
+
+    private ScheduleSearchResult search(ScheduleSearchRequest request) {
+        BusCoreSystem system = new BusCoreSystem();
+        system.setCode("BMSLG");
+        system.setProviderName("BMSLG Provider");
+        AgentBusCoreSystem assignment = new AgentBusCoreSystem();
+        assignment.setBusCoreSystem(system);
+        return service.search(List.of(assignment), request, providerResult -> { });
+    }
+
+    private static ScheduleSearchRequest request(int passengers, String passengerClass, LocalDate travelDate) {
+        return new ScheduleSearchRequest("DSM", "ARU", travelDate, passengers, passengerClass);
+    }
+
+    private static Schedule schedule(String scheduleId, int seats) {
+        return new Schedule("BMSLG", scheduleId, "Kilimanjaro Express", "DSM", "ARU",
+            TRAVEL_DATE.atTime(6, 0), TRAVEL_DATE.atTime(15, 0), BigDecimal.valueOf(45_000), "TZS", seats);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("schedule.cache.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,142 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.agent_management.domain.entity.AgentBusCoreSystem;
+import com.obuspartners.modules.bus_core_system.domain.entity.BusCoreSystem;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import com.obuspartners.modules.partner_integration.schedules.ProviderResult;
+import com.obuspartners.modules.partner_integration.schedules.Schedule;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleProvider;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchCache;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchRequest;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchResult;
+import com.obuspartners.modules.partner_integration.schedules.ScheduleSearchService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifies that the schedule search fan-out streams results as they arrive
+ * and never waits on a slow bus core system past the deadline
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class ScheduleSearchFanOutTest {
+
+    private static final ScheduleSearchRequest REQUEST =
+        new ScheduleSearchRequest("DSM", "ARU", LocalDate.now().plusDays(1), 1, null);
+
+    /** Latency per bus core system code; negative means the system fails */
+    private final Map<String, Long> latencyMs = Map.of("FAST", 20L, "MEDIUM", 150L, "SLOW", 5_000L, "BROKEN", -1L);
+
+    private ScheduleSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        ScheduleProvider provider = new ScheduleProvider() {
+            @Override
+            public boolean supports(BusCoreSystem system) {
+                return latencyMs.containsKey(system.getCode());
+            }
+
+            @Override
+            public List<Schedule> search(AgentBusCoreSystem assignment, ScheduleSearchRequest request, Duration timeout)
+                    throws IOException, InterruptedException {
+                String code = assignment.getBusCoreSystem().getCode();
+                long latency = latencyMs.get(code);
+                if (latency < 0) {
+                    throw new IOException("connection reset");
+                }
+                Thread.sleep(latency);
+                LocalDateTime departure = request.travelDate().atTime(6, 0).plusMinutes(latency);
+                return List.of(new Schedule(code, code + "-1", code + " Coaches", request.fromStationId(),
+                    request.toStationId(), departure, departure.plusHours(9), BigDecimal.valueOf(45_000), "TZS", 30));
+            }
+        };
+        UpstreamGuardRegistry guards = new UpstreamGuardRegistry(new SimpleMeterRegistry(), new MockEnvironment());
+        // Settings are not injected here, so the cache stays disabled
+        ScheduleSearchCache cache = new ScheduleSearchCache(new ConcurrentMapCacheManager(), new SimpleMeterRegistry());
+        service = new ScheduleSearchService(List.of(provider), null, guards, cache, new MockEnvironment());
+        ReflectionTestUtils.setField(service, "deadlineMs", 600L);
+        ReflectionTestUtils.setField(service, "providerTimeoutMs", 2_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    void slowSystemIsReportedAsTimeoutWithoutHoldingBackTheOthers() {
+        List<String> arrivals = new ArrayList<>();
+        long start = System.nanoTime();
+
+        ScheduleSearchResult result = service.search(
+            assignments("SLOW", "MEDIUM", "FAST", "BROKEN", "UNKNOWN"), REQUEST,
+            providerResult -> arrivals.add(providerResult.busCoreSystemCode()));
+
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(elapsedMs < 1_500, "search waited " + elapsedMs + "ms on the slow system");
+
+        // Unsupported first (known up front), then in order of arrival, the slow one last
+        assertEquals(5, arrivals.size());
+        assertEquals("UNKNOWN", arrivals.get(0));
+        assertTrue(arrivals.indexOf("FAST") < arrivals.indexOf("MEDIUM"));
+        assertEquals("SLOW", arrivals.get(4));
+        assertEquals(ProviderResult.Status.TIMEOUT, status(result, "SLOW"));
+        assertEquals(ProviderResult.Status.ERROR, status(result, "BROKEN"));
+        assertEquals(ProviderResult.Status.UNSUPPORTED, status(result, "UNKNOWN"));
+        assertEquals(ProviderResult.Status.OK, status(result, "FAST"));
+        assertFalse(result.complete());
+
+        assertEquals(List.of("FAST", "MEDIUM"),
+            result.schedules().stream().map(Schedule::busCoreSystemCode).toList());
+    }
+
+    @Test
+    void perSystemBudgetCapsASystemBelowTheOverallDeadline() {
+        ReflectionTestUtils.setField(service, "providerTimeoutMs", 80L);
+
+        ScheduleSearchResult result = service.search(assignments("FAST", "MEDIUM"), REQUEST, providerResult -> { });
+
+        assertEquals(ProviderResult.Status.OK, status(result, "FAST"));
+        assertEquals(ProviderResult.Status.TIMEOUT, status(result, "MEDIUM"));
+        assertTrue(result.elapsedMillis() < 600, "MEDIUM should time out on its own budget");
+    }
+
+    private static List<AgentBusCoreSystem> assignments(String... codes) {
+        List<AgentBusCoreSystem> assignments = new ArrayList<>();
+        for (String code : codes) {
+            BusCoreSystem system = new BusCoreSystem();
+            system.setCode(code);
+            system.setProviderName(code + " Provider");
+            AgentBusCoreSystem assignment = new AgentBusCoreSystem();
+            assignment.setBusCoreSystem(system);
+            assignments.add(assignment);
+        }
+        return assignments;
+    }
+
+    private static ProviderResult.Status status(ScheduleSearchResult result, String code) {
+        return result.providers().stream()
+            .filter(providerResult -> providerResult.busCoreSystemCode().equals(code))
+            .findFirst().orElseThrow().status();
+    }
+}
@@ -0,0 +1,280 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obuspartners.modules.booking_management.domain.enums.SeatHoldStatus;
+import com.obuspartners.modules.booking_management.seats.SeatHold;
+import com.obuspartners.modules.booking_management.seats.SeatHoldEngine;
+import com.obuspartners.modules.booking_management.seats.SeatHoldReplicator;
+import com.obuspartners.modules.booking_management.seats.SeatMap;
+import com.obuspartners.modules.booking_management.seats.TripKey;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Races many threads for the seats of one trip and verifies that no seat is
+ * ever held twice, plus hold expiry, replication from other nodes and the
+ * Redis fence around confirmation
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatHoldEngineStressTest {
+
+    private static final int SEATS = 40;
+    private static final TripKey TRIP = new TripKey("BMSLG", "DSM-ARU-0600", LocalDate.now().plusDays(1));
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SeatHoldEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = engine(new SeatHoldReplicator(
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class), invalidationBus));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void noSeatIsEverHeldTwiceUnderContention() throws Exception {
+        engine.init();
+        int threads = 32;
+        int attemptsPerThread = 5_000;
+        AtomicIntegerArray holders = new AtomicIntegerArray(SEATS + 1);
+        AtomicLong doubleHolds = new AtomicLong();
+        AtomicLong successes = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<SeatHold>>> kept = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            kept.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<SeatHold> mine = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int[] seats = random.ints(1 + random.nextInt(3), 1, SEATS + 1).toArray();
+                    SeatHold hold;
+                    try {
+                        hold = engine.hold(TRIP, "DSM", "ARU", seats, "agent");
+                    } catch (ApiException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                        conflicts.incrementAndGet();
+                        continue;
+                    }
+                    successes.incrementAndGet();
+                    for (int seat : hold.getSeats()) {
+                        if (holders.incrementAndGet(seat) != 1) {
+                            doubleHolds.incrementAndGet();
+                        }
+                    }
+                    mine.add(hold);
+                    // Release most holds again so seats keep changing hands
+                    if (random.nextInt(10) < 9 || mine.size() > 1) {
+                        SeatHold released = mine.remove(random.nextInt(mine.size()));
+                        for (int seat : released.getSeats()) {
+                            holders.decrementAndGet(seat);
+                        }
+                        assertTrue(engine.release(released));
+                    }
+                }
+                return mine;
+            }));
+        }
+        start.countDown();
+        int stillHeld = 0;
+        for (Future<List<SeatHold>> future : kept) {
+            for (SeatHold hold : future.get(60, TimeUnit.SECONDS)) {
+                assertEquals(SeatHoldStatus.HELD, hold.getStatus());
+                stillHeld += hold.getSeats().length;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(0, doubleHolds.get(), "a seat was held by two holds at once");
+        assertTrue(successes.get() > 0 && conflicts.get() > 0, "the trip should have been contended");
+        int taken = 0;
+        for (int seat = 1; seat <= SEATS; seat++) {
+            assertTrue(holders.get(seat) <= 1);
+            assertEquals(holders.get(seat) == 1, engine.isTaken(TRIP, seat), "seat map disagrees on seat " + seat);
+            taken += holders.get(seat);
+        }
+        assertEquals(stillHeld, taken);
+    }
+
+    @Test
+    void holdExpiresOnTheWheelUnlessBeingConfirmed() throws Exception {
+        ReflectionTestUtils.setField(engine, "holdTtlSeconds", 1L);
+        engine.init();
+
+        SeatHold expiring = engine.hold(TRIP, "DSM", "ARU", new int[] {1, 2}, "agent");
+        SeatHold confirming = engine.hold(TRIP, "DSM", "ARU", new int[] {3}, "agent");
+        assertTrue(engine.beginConfirm(confirming));
+
+        // The status changes just before the counter is incremented
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("seat.holds").tag("result", "expired").counter().count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(SeatHoldStatus.EXPIRED, expiring.getStatus());
+        assertFalse(engine.isTaken(TRIP, 1));
+        assertEquals(SeatHoldStatus.CONFIRMING, confirming.getStatus(), "a hold being confirmed must not expire");
+        assertTrue(engine.isTaken(TRIP, 3));
+
+        assertTrue(engine.completeConfirm(confirming, "BK-1"));
+        assertEquals(SeatHoldStatus.CONFIRMED, confirming.getStatus());
+        assertFalse(engine.release(confirming), "sold seats cannot be released");
+        assertTrue(engine.isTaken(TRIP, 3));
+        assertEquals(1.0, meterRegistry.get("seat.holds").tag("result", "expired").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void holdsFromOtherNodesBlockSeatsUntilReleased() {
+        engine.init();
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(anyString(), listener.capture());
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        listener.getValue().accept("other-node\nH\n" + TRIP.asString() + "\nremote-1\n5,6\n" + expiresAt);
+        ApiException refused = assertThrows(ApiException.class,
+            () -> engine.hold(TRIP, "DSM", "ARU", new int[] {6}, "agent"));
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+
+        listener.getValue().accept("other-node\nR\n" + TRIP.asString() + "\nremote-1\n5,6\n0");
+        SeatHold hold = engine.hold(TRIP, "DSM", "ARU", new int[] {6}, "agent");
+        assertEquals(SeatHoldStatus.HELD, hold.getStatus());
+        verify(invalidationBus, atLeastOnce()).publish(anyString(), contains("\nH\n"));
+    }
+
+    @Test
+    void confirmationKeepsTheSeatsInRedisOrIsRefused() {
+        SeatHoldReplicator replicator = mock(SeatHoldReplicator.class);
+        engine = engine(replicator);
+        ReflectionTestUtils.setField(engine, "holdTtlSeconds", 60L);
+        engine.init();
+        when(replicator.claim(eq(TRIP), anyString(), any(), any())).thenReturn(SeatMap.CLAIMED);
+
+        // The hold's time ran out in Redis and another node claimed seat 2
+        SeatHold lost = engine.hold(TRIP, "DSM", "ARU", new int[] {1, 2}, "agent");
+        when(replicator.extend(eq(TRIP), eq(lost.getHoldId()), any(), any())).thenReturn(false);
+        assertFalse(engine.beginConfirm(lost));
+        assertEquals(SeatHoldStatus.EXPIRED, lost.getStatus());
+        assertFalse(engine.isTaken(TRIP, 2));
+
+        // A failed confirmation gives the seats back their own expiry in Redis
+        SeatHold kept = engine.hold(TRIP, "DSM", "ARU", new int[] {3}, "agent");
+        when(replicator.extend(eq(TRIP), eq(kept.getHoldId()), any(), any())).thenReturn(true);
+        assertTrue(engine.beginConfirm(kept));
+        verify(replicator).extend(eq(TRIP), eq(kept.getHoldId()), any(),
+            argThat(until -> until.isAfter(kept.getExpiresAt())));
+        engine.abortConfirm(kept);
+        assertEquals(SeatHoldStatus.HELD, kept.getStatus());
+        verify(replicator).extend(eq(TRIP), eq(kept.getHoldId()), any(), eq(kept.getExpiresAt()));
+    }
+
+    @Test
+    void seatsSoldElsewhereDuringConfirmationAreAConflict() {
+        SeatHoldReplicator replicator = mock(SeatHoldReplicator.class);
+        engine = engine(replicator);
+        engine.init();
+        when(replicator.claim(eq(TRIP), anyString(), any(), any())).thenReturn(SeatMap.CLAIMED);
+
+        SeatHold conflicting = engine.hold(TRIP, "DSM", "ARU", new int[] {1, 2}, "agent");
+        assertTrue(engine.beginConfirm(conflicting));
+        when(replicator.sell(eq(TRIP), eq(conflicting.getHoldId()), any())).thenReturn(0);
+        assertFalse(engine.completeConfirm(conflicting, "BK-1"));
+        assertEquals(SeatHoldStatus.RELEASED, conflicting.getStatus());
+        assertFalse(engine.isTaken(TRIP, 1));
+
+        SeatHold sold = engine.hold(TRIP, "DSM", "ARU", new int[] {1, 2}, "agent");
+        assertTrue(engine.beginConfirm(sold));
+        when(replicator.sell(eq(TRIP), eq(sold.getHoldId()), any())).thenReturn(2);
+        assertTrue(engine.completeConfirm(sold, "BK-2"));
+        assertEquals(SeatHoldStatus.CONFIRMED, sold.getStatus());
+        assertTrue(engine.isTaken(TRIP, 1));
+        assertEquals(1.0, meterRegistry.get("seat.holds").tag("result", "confirmed").counter().count());
+    }
+
+    @Test
+    void saleIsRetriedUntilRedisRecordsIt() throws Exception {
+        SeatHoldReplicator replicator = mock(SeatHoldReplicator.class);
+        engine = engine(replicator);
+        ReflectionTestUtils.setField(engine, "saleRetryMs", 20L);
+        engine.init();
+        when(replicator.claim(eq(TRIP), anyString(), any(), any())).thenReturn(SeatMap.CLAIMED);
+
+        // Redis is unreachable for the sale and the first retry, then records it
+        SeatHold hold = engine.hold(TRIP, "DSM", "ARU", new int[] {1, 2}, "agent");
+        assertTrue(engine.beginConfirm(hold));
+        when(replicator.sell(eq(TRIP), eq(hold.getHoldId()), any())).thenReturn(-1, -1, 2);
+        assertTrue(engine.completeConfirm(hold, "BK-1"), "the booking was made");
+        assertEquals(SeatHoldStatus.CONFIRMING, hold.getStatus());
+        assertTrue(engine.isTaken(TRIP, 1));
+        verify(replicator, never()).publish(argThat(replication ->
+            replication.operation() == SeatHoldReplicator.Operation.SALE));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (hold.getStatus() == SeatHoldStatus.CONFIRMING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(SeatHoldStatus.CONFIRMED, hold.getStatus());
+        verify(replicator, times(3)).sell(eq(TRIP), eq(hold.getHoldId()), any());
+        verify(replicator).publish(argThat(replication ->
+            replication.operation() == SeatHoldReplicator.Operation.SALE && replication.holdId().equals(hold.getHoldId())));
+        verify(replicator, never()).release(any(), anyString(), any());
+        assertTrue(engine.isTaken(TRIP, 1));
+        assertEquals(1.0, meterRegistry.get("seat.holds").tag("result", "confirmed").counter().count());
+    }
+
+    private SeatHoldEngine engine(SeatHoldReplicator replicator) {
+        meterRegistry = new SimpleMeterRegistry();
+        SeatHoldEngine seatHoldEngine = new SeatHoldEngine(replicator, meterRegistry);
+        ReflectionTestUtils.setField(seatHoldEngine, "holdTtlSeconds", 600L);
+        ReflectionTestUtils.setField(seatHoldEngine, "confirmTimeoutSeconds", 120L);
+        ReflectionTestUtils.setField(seatHoldEngine, "saleRetryMs", 1000L);
+        ReflectionTestUtils.setField(seatHoldEngine, "maxSeatsPerTrip", SEATS);
+        ReflectionTestUtils.setField(seatHoldEngine, "maxSeatsPerHold", 4);
+        ReflectionTestUtils.setField(seatHoldEngine, "wheelTickMs", 10L);
+        ReflectionTestUtils.setField(seatHoldEngine, "wheelSize", 64);
+        return seatHoldEngine;
+    }
+}
@@ -0,0 +1,111 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.benchmark.SettlementDataGenerator;
+import com.obuspartners.modules.booking_management.domain.event.BookingConfirmedEvent;
+import com.obuspartners.modules.ledger_and_settlement_management.settlement.SettlementBookingRecorder;
+
+/**
+ * Test class to verify that the settlement booking recorder drops only the
+ * bookings the database refuses, and keeps everything while it is unreachable
+ *
+ * Runs against an in-memory H2 database in MySQL mode.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class SettlementBookingRecorderTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private boolean unreachable;
+    private SettlementBookingRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+            "jdbc:h2:mem:settlement-bookings-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (unreachable) {
+                    throw new DataAccessResourceFailureException("Connection refused");
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        SettlementDataGenerator.createSchema(jdbcTemplate);
+
+        recorder = new SettlementBookingRecorder(jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(recorder, "defaultCurrency", "TZS");
+        ReflectionTestUtils.setField(recorder, "batchSize", 1000);
+        ReflectionTestUtils.setField(recorder, "maxPending", 5);
+    }
+
+    @Test
+    void testRefusedBookingIsDroppedAndTheRestRecorded() {
+        recorder.onBookingConfirmed(booking("BK-1"));
+        recorder.onBookingConfirmed(booking("BK-" + "X".repeat(100)));
+        recorder.onBookingConfirmed(booking("BK-3"));
+
+        // The refused booking is split out and retried once on the next flush
+        recorder.scheduledFlush();
+        assertEquals(List.of("BK-1"), references());
+        assertEquals(2, recorder.pendingCount());
+
+        recorder.scheduledFlush();
+        assertEquals(List.of("BK-1", "BK-3"), references());
+        assertEquals(0, recorder.pendingCount());
+
+        // Later bookings are neither held up nor dropped
+        for (int i = 4; i <= 8; i++) {
+            recorder.onBookingConfirmed(booking("BK-" + i));
+        }
+        recorder.scheduledFlush();
+        assertEquals(List.of("BK-1", "BK-3", "BK-4", "BK-5", "BK-6", "BK-7", "BK-8"), references());
+    }
+
+    @Test
+    void testBookingsAreKeptWhileTheDatabaseIsUnreachable() {
+        unreachable = true;
+        recorder.onBookingConfirmed(booking("BK-1"));
+        recorder.onBookingConfirmed(booking("BK-2"));
+        for (int i = 0; i < 5; i++) {
+            recorder.scheduledFlush();
+        }
+        assertEquals(2, recorder.pendingCount());
+
+        unreachable = false;
+        recorder.scheduledFlush();
+        assertEquals(List.of("BK-1", "BK-2"), references());
+        assertEquals(0, recorder.pendingCount());
+    }
+
+    private List<String> references() {
+        return jdbcTemplate.queryForList("SELECT booking_reference FROM settlement_bookings ORDER BY id", String.class);
+    }
+
+    private static BookingConfirmedEvent booking(String reference) {
+        return BookingConfirmedEvent.builder()
+            .bookingReference(reference)
+            .busCoreSystemCode("BMSLG")
+            .partnerId(1L)
+            .agentId(7L)
+            .totalAmount(new BigDecimal("25000"))
+            .currency("TZS")
+            .build();
+    }
+}
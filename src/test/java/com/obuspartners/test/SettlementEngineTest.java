@@ -0,0 +1,197 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obuspartners.benchmark.SettlementDataGenerator;
+import com.obuspartners.modules.common.exception.ApiException;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.dto.SettlementRunDto;
+import com.obuspartners.modules.ledger_and_settlement_management.domain.enums.SettlementRunStatus;
+import com.obuspartners.modules.ledger_and_settlement_management.settlement.SettlementEngine;
+
+/**
+ * Test class to verify settlement results, checkpoints and resuming a failed run
+ *
+ * Runs against an in-memory H2 database in MySQL mode.
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class SettlementEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 14);
+
+    private JdbcTemplate jdbcTemplate;
+    private SettlementEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+            "jdbc:h2:mem:settlement-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        SettlementDataGenerator.createSchema(jdbcTemplate);
+        SettlementDataGenerator.createIndexes(jdbcTemplate);
+
+        engine = new SettlementEngine(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(engine, "parallelism", 3);
+        ReflectionTestUtils.setField(engine, "fetchSize", 100);
+        ReflectionTestUtils.setField(engine, "writeBatchSize", 7);
+        ReflectionTestUtils.setField(engine, "staleRunMinutes", 30L);
+        ReflectionTestUtils.setField(engine, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(engine, "agentShare", new BigDecimal("0.40"));
+        ReflectionTestUtils.setField(engine, "superAgentShare", new BigDecimal("0.25"));
+    }
+
+    @Test
+    void testCommissionIsSplitBetweenPartnerAgentAndSuperAgent() {
+        jdbcTemplate.update("INSERT INTO partners (id, commission_rate) VALUES (1, 5.0), (2, 2.5)");
+        jdbcTemplate.update("INSERT INTO agents (id, partner_id, super_agent_id) VALUES (10, 1, NULL), (11, 1, 10), (12, 1, NULL)");
+        booking(1, 11, 4_500_000, "TZS", DATE.atTime(9, 0));
+        booking(1, 11, 1_000_000, "TZS", DATE.atTime(23, 59));
+        booking(1, 12, 2_000_000, "TZS", DATE.atTime(12, 0));
+        booking(1, null, 100_000, "TZS", DATE.atTime(0, 0));
+        booking(2, 10, 1_000_003, "KES", DATE.atTime(8, 0));
+        booking(1, 11, 9_999_999, "TZS", DATE.plusDays(1).atStartOfDay());
+        booking(1, 11, 9_999_999, "TZS", DATE.minusDays(1).atTime(23, 59));
+
+        SettlementRunDto run = engine.settle(DATE);
+
+        assertEquals(SettlementRunStatus.COMPLETED, run.getStatus());
+        assertEquals(5L, run.getBookingsProcessed());
+        assertEquals(2, run.getPartitionsTotal());
+        assertEquals(2, run.getPartitionsDone());
+
+        // Partner 1: commissions 225,000 + 50,000 + 100,000 + 5,000; agents get 40% of the first three
+        assertEquals(List.of(4L, 7_600_000L, 380_000L - 150_000L), result(1, "PARTNER", 1, "TZS"));
+        // Sub-agent 11 keeps 75% of 90,000 + 20,000; super agent 10 gets the rest without bookings of its own
+        assertEquals(List.of(2L, 5_500_000L, 82_500L), result(1, "AGENT", 11, "TZS"));
+        assertEquals(List.of(0L, 0L, 27_500L), result(1, "AGENT", 10, "TZS"));
+        assertEquals(List.of(1L, 2_000_000L, 40_000L), result(1, "AGENT", 12, "TZS"));
+        // 2.5% of 1,000,003 = 25,000.075 -> 25,000; agent 40% = 10,000
+        assertEquals(List.of(1L, 1_000_003L, 15_000L), result(2, "PARTNER", 2, "KES"));
+        assertEquals(List.of(1L, 1_000_003L, 10_000L), result(2, "AGENT", 10, "KES"));
+
+        ApiException settled = assertThrows(ApiException.class, () -> engine.settle(DATE));
+        assertEquals(409, settled.getStatusCode().value());
+    }
+
+    @Test
+    void testFailedRunResumesWithPartnersNotCheckpointed() {
+        jdbcTemplate.update("INSERT INTO partners (id, commission_rate) VALUES (1, 5.0), (2, 5.0), (3, 5.0)");
+        booking(1, null, 1_000_000, "TZS", DATE.atTime(10, 0));
+        booking(2, null, 2_000_000, "TZS", DATE.atTime(10, 0));
+        booking(3, null, 3_000_000, "TZS", DATE.atTime(10, 0));
+        // Overflows amount x rate, so partner 2 fails
+        booking(2, null, Long.MAX_VALUE / 2, "TZS", DATE.atTime(11, 0));
+
+        SettlementRunDto failed = engine.settle(DATE);
+        assertEquals(SettlementRunStatus.FAILED, failed.getStatus());
+        assertEquals(1, failed.getPartitionsFailed());
+        assertEquals(2, failed.getPartitionsDone());
+        assertEquals(2L, failed.getBookingsProcessed());
+        assertNull(result(2, "PARTNER", 2, "TZS"));
+
+        jdbcTemplate.update("DELETE FROM settlement_bookings WHERE amount_minor = ?", Long.MAX_VALUE / 2);
+        SettlementRunDto resumed = engine.settle(DATE);
+
+        assertEquals(SettlementRunStatus.COMPLETED, resumed.getStatus());
+        assertEquals(2, resumed.getAttempts());
+        assertEquals(3, resumed.getPartitionsDone());
+        assertEquals(3L, resumed.getBookingsProcessed());
+        assertEquals(List.of(1L, 2_000_000L, 100_000L), result(2, "PARTNER", 2, "TZS"));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM settlement_results", Integer.class));
+    }
+
+    @Test
+    void testRunTakenOverByAnotherNodeIsLeftToIt() {
+        jdbcTemplate.update("INSERT INTO partners (id, commission_rate) VALUES (1, 5.0), (2, 5.0)");
+        booking(1, null, 1_000_000, "TZS", DATE.atTime(10, 0));
+        booking(2, null, 2_000_000, "TZS", DATE.atTime(10, 0));
+
+        SettlementRunDto claimed = engine.claim(DATE);
+        // Another node resumed the run meanwhile
+        jdbcTemplate.update("UPDATE settlement_runs SET attempts = attempts + 1 WHERE id = ?", claimed.getId());
+        SettlementRunDto run = engine.execute(claimed);
+
+        assertEquals(SettlementRunStatus.RUNNING, run.getStatus());
+        assertEquals(0, run.getPartitionsDone());
+        assertNull(run.getFinishedAt());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM settlement_results", Integer.class));
+    }
+
+    @Test
+    void testGeneratedBookingsSettleToTheirRecomputedTotals() {
+        int partners = 12;
+        int agentsPerPartner = 300;
+        SettlementDataGenerator.generatePartners(jdbcTemplate, partners, agentsPerPartner, 7);
+        SettlementDataGenerator.generateBookings(jdbcTemplate, partners, agentsPerPartner, 30_000, DATE, 7);
+
+        SettlementRunDto run = engine.settle(DATE);
+        assertEquals(SettlementRunStatus.COMPLETED, run.getStatus());
+        assertEquals(30_000L, run.getBookingsProcessed());
+
+        // Recompute every account's commission one booking at a time with BigDecimal
+        Map<Long, BigDecimal> rates = new HashMap<>();
+        jdbcTemplate.query("SELECT id, commission_rate FROM partners",
+            rs -> { rates.put(rs.getLong(1), BigDecimal.valueOf(rs.getDouble(2))); });
+        Map<Long, Long> superAgents = new HashMap<>();
+        jdbcTemplate.query("SELECT id, super_agent_id FROM agents WHERE super_agent_id IS NOT NULL",
+            rs -> { superAgents.put(rs.getLong(1), rs.getLong(2)); });
+        Map<String, Long> expected = new HashMap<>();
+        jdbcTemplate.query("SELECT partner_id, agent_id, amount_minor, currency FROM settlement_bookings", rs -> {
+            long partnerId = rs.getLong(1);
+            long agentId = rs.getLong(2);
+            boolean agentBooking = !rs.wasNull();
+            long commission = halfEven(BigDecimal.valueOf(rs.getLong(3)).multiply(rates.get(partnerId)).movePointLeft(2));
+            long agentPart = agentBooking ? halfEven(BigDecimal.valueOf(commission).multiply(new BigDecimal("0.40"))) : 0;
+            String currency = rs.getString(4);
+            expected.merge(partnerId + "/PARTNER/" + partnerId + "/" + currency, commission - agentPart, Long::sum);
+            if (agentBooking) {
+                Long superAgent = superAgents.get(agentId);
+                long superPart = superAgent != null ? halfEven(BigDecimal.valueOf(agentPart).multiply(new BigDecimal("0.25"))) : 0;
+                expected.merge(partnerId + "/AGENT/" + agentId + "/" + currency, agentPart - superPart, Long::sum);
+                if (superPart != 0) {
+                    expected.merge(partnerId + "/AGENT/" + superAgent + "/" + currency, superPart, Long::sum);
+                }
+            }
+        });
+
+        Map<String, Long> actual = new HashMap<>();
+        jdbcTemplate.query("SELECT partner_id, account_type, account_id, currency, commission_minor FROM settlement_results",
+            rs -> { actual.put(rs.getLong(1) + "/" + rs.getString(2) + "/" + rs.getLong(3) + "/" + rs.getString(4), rs.getLong(5)); });
+        assertEquals(expected, actual);
+    }
+
+    private void booking(long partnerId, Integer agentId, long amountMinor, String currency, LocalDateTime bookedAt) {
+        jdbcTemplate.update("INSERT INTO settlement_bookings (booking_reference, partner_id, agent_id, amount_minor, "
+            + "currency, booked_at) VALUES (?, ?, ?, ?, ?, ?)",
+            "BK-" + System.nanoTime(), partnerId, agentId, amountMinor, currency, Timestamp.valueOf(bookedAt));
+    }
+
+    private List<Long> result(long partnerId, String accountType, long accountId, String currency) {
+        return jdbcTemplate.query("SELECT booking_count, gross_amount_minor, commission_minor FROM settlement_results "
+            + "WHERE partner_id = ? AND account_type = ? AND account_id = ? AND currency = ?",
+            (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+            partnerId, accountType, accountId, currency).stream().findFirst().orElse(null);
+    }
+
+    private static long halfEven(BigDecimal value) {
+        return value.setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+}
@@ -0,0 +1,123 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obuspartners.modules.partner_integration.stations.Station;
+import com.obuspartners.modules.partner_integration.stations.StationCatalog;
+import com.obuspartners.modules.partner_integration.stations.StationCatalogService;
+import com.obuspartners.modules.partner_integration.stations.StationService;
+
+/**
+ * Verifies prefix, word and trigram search over the station catalog, and catalog refresh
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class StationCatalogTest {
+
+    private static final String STATIONS = """
+        {"status": 1, "data": [
+          {"id": "1", "name": "Dar es Salaam", "name_sw": "Dar es Salaam", "region": "Dar es Salaam"},
+          {"id": "2", "name": "Darajani", "region": "Zanzibar"},
+          {"id": "3", "name": "Morogoro", "region": "Morogoro"},
+          {"id": "4", "name": "Mbeya", "region": "Mbeya"},
+          {"id": "5", "name": "Arusha Mjini", "name_sw": "Arusha Mjini", "region": "Arusha"},
+          {"id": "6", "name": "Dodoma", "region": "Dodoma"},
+          {"id": "7", "name": "Bagamoyo", "region": "Pwani"},
+          {"id": "8", "name": "Kilimanjaro Airport", "name_sw": "Uwanja wa Ndege Kilimanjaro", "region": "Kilimanjaro"},
+          {"id": "9", "name": "Tanga", "region": "Tanga"},
+          {"id": "10", "name": "Moshi Mjini", "region": "Kilimanjaro"},
+          {"name": "No ID station"}
+        ]}
+        """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private StationService stationService;
+
+    private StationCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        catalog = StationCatalog.parse(STATIONS, objectMapper);
+    }
+
+    @Test
+    void testParseFindsNestedStationArray() {
+        assertEquals(10, catalog.size());
+        assertEquals("Morogoro", catalog.findById("3").map(Station::name).orElseThrow());
+        assertTrue(catalog.findById("11").isEmpty());
+    }
+
+    @Test
+    void testNamePrefixMatchesComeFirstAndShorterNamesWin() {
+        assertEquals(List.of("2", "1"), ids(catalog.search("dar", 10)));
+        assertEquals(List.of("3"), ids(catalog.search("MORO", 10)));
+    }
+
+    @Test
+    void testWordPrefixMatchesFollowNamePrefixMatches() {
+        // "Mjini" is a later word of two names, "Mbeya" starts with "m" as a whole name
+        assertEquals(List.of("4", "3", "10", "5"), ids(catalog.search("m", 10)));
+        assertEquals(List.of("10", "5"), ids(catalog.search("mjini", 10)));
+    }
+
+    @Test
+    void testSwahiliNamesAndAccentsAreSearched() {
+        assertEquals(List.of("8"), ids(catalog.search("ndege", 10)));
+        assertEquals(List.of("6"), ids(catalog.search("Dódoma", 10)));
+    }
+
+    @Test
+    void testTrigramSearchFindsInfixAndTypos() {
+        // Infix: "gamo" is in the middle of Bagamoyo
+        assertEquals(List.of("7"), ids(catalog.search("gamoy", 10)));
+        // Typo: an extra letter in a longer query
+        assertEquals("3", ids(catalog.search("morogorro", 10)).get(0));
+        // Short queries never use trigrams
+        assertTrue(catalog.search("xz", 10).isEmpty());
+        assertTrue(catalog.search("qqqq", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitAndBlankQueries() {
+        assertEquals(1, catalog.search("dar", 1).size());
+        assertTrue(catalog.search("   ", 10).isEmpty());
+        assertTrue(catalog.search(null, 10).isEmpty());
+        assertTrue(catalog.search("dar", 0).isEmpty());
+    }
+
+    @Test
+    void testInvalidateRechecksAndPicksUpChangedList() {
+        StationCatalogService service = new StationCatalogService(stationService, objectMapper, 3600);
+        when(stationService.fetchAllStations()).thenReturn(STATIONS);
+        StationCatalog first = service.getCatalog();
+        assertSame(first, service.getCatalog());
+        verify(stationService, times(1)).fetchAllStations();
+
+        // Unchanged body: rechecked, but the parsed catalog is kept
+        service.invalidate();
+        assertSame(first, service.getCatalog());
+        verify(stationService, times(2)).fetchAllStations();
+
+        when(stationService.fetchAllStations()).thenReturn("[{\"id\": \"1\", \"name\": \"Mwanza\"}]");
+        service.invalidate();
+        assertEquals(List.of("1"), ids(service.search("mwa", 10)));
+    }
+
+    private static List<String> ids(List<Station> stations) {
+        return stations.stream().map(Station::id).toList();
+    }
+}
@@ -1,32 +1,74 @@
 package com.obuspartners.test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.obuspartners.modules.common.service.DistributedLock;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgClient;
+import com.obuspartners.modules.partner_integration.bmslg.BmslgSigner;
 import com.obuspartners.modules.partner_integration.stations.StationServiceImpl;
+import com.obuspartners.modules.partner_integration.stations.StationSnapshot;
 
 /**
- * Test class to verify station caching functionality
- * 
+ * Test class to verify station caching: single-flight loads, refresh-ahead,
+ * stale-if-error and the cluster-wide refresh lock
+ *
  * @author OBUS Team
  * @version 1.0.0
  */
 @ExtendWith(MockitoExtension.class)
 class StationServiceCacheTest {
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private DistributedLock distributedLock;
+
+    @Mock
+    private BmslgClient bmslgClient;
+
+    @Mock
+    private BmslgSigner signer;
+
     @InjectMocks
     private StationServiceImpl stationService;
 
+    private final ConcurrentMapCache stationCache = new ConcurrentMapCache("stationCache");
+
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(stationService, "freshSeconds", 3600L);
+        ReflectionTestUtils.setField(stationService, "refreshAheadSeconds", 300L);
+        ReflectionTestUtils.setField(stationService, "retrySeconds", 30L);
+        ReflectionTestUtils.setField(stationService, "lockTtlSeconds", 60L);
+        ReflectionTestUtils.setField(stationService, "coldWaitMillis", 5_000L);
+        lenient().when(cacheManager.getCache("stationCache")).thenReturn(stationCache);
+
         // Clear cache before each test
         stationService.clearStationCache();
     }
@@ -34,31 +76,157 @@ class StationServiceCacheTest {
     @Test
     void testCacheStatsWhenEmpty() {
         Map<String, Object> stats = stationService.getCacheStats();
-        
+
         assertNotNull(stats);
         assertEquals(0, stats.get("cacheSize"));
-        assertEquals(300L, stats.get("ttlSeconds")); // 5 minutes
+        assertEquals(3600L, stats.get("ttlSeconds")); // 1 hour
         assertNull(stats.get("cachedAt"));
         assertEquals(true, stats.get("isExpired"));
     }
 
     @Test
     void testCacheClearing() {
-        // Verify cache is initially empty
+        // A snapshot shared by another node is picked up
+        long fetchedAt = System.currentTimeMillis();
+        stationCache.put("all_stations", new StationSnapshot("[]", fetchedAt));
+        assertEquals("[]", stationService.fetchAllStations());
+
         Map<String, Object> stats = stationService.getCacheStats();
-        assertEquals(0, stats.get("cacheSize"));
-        
+        assertEquals(1, stats.get("cacheSize"));
+        assertEquals(false, stats.get("isExpired"));
+        assertNotNull(stats.get("cachedAt"));
+
         // Clear cache (should not throw exception)
         assertDoesNotThrow(() -> stationService.clearStationCache());
-        
-        // Verify cache is still empty
+
+        // Verify cache is empty on this node and in the shared cache
         stats = stationService.getCacheStats();
         assertEquals(0, stats.get("cacheSize"));
+        assertNull(stationCache.get("all_stations"));
     }
 
     @Test
     void testCacheTTLConfiguration() {
         Map<String, Object> stats = stationService.getCacheStats();
-        assertEquals(300L, stats.get("ttlSeconds")); // 5 minutes = 300 seconds
+        assertEquals(3600L, stats.get("ttlSeconds")); // 1 hour = 3600 seconds
+        assertEquals(300L, stats.get("refreshAheadSeconds"));
+    }
+
+    @Test
+    void testConcurrentMissesMakeOneUpstreamCall() throws Exception {
+        lenient().when(distributedLock.tryLock(eq("station-refresh"), any(Duration.class))).thenReturn("token");
+        CountDownLatch release = new CountDownLatch(1);
+        stubUpstream(release, "[\"fresh\"]");
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(stationService::fetchAllStations));
+            }
+            verify(bmslgClient, timeout(2_000)).postFormHedged(anyString(), anyString(), any(), any());
+            Thread.sleep(200); // let the other callers join the load in flight
+            release.countDown();
+
+            for (Future<Object> result : results) {
+                assertEquals("[\"fresh\"]", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(bmslgClient, times(1)).postFormHedged(anyString(), anyString(), any(), any());
+        verify(distributedLock, times(1)).tryLock(eq("station-refresh"), any(Duration.class));
+    }
+
+    @Test
+    void testStaleSnapshotIsServedWhileRefreshIsInFlight() throws Exception {
+        lenient().when(distributedLock.tryLock(eq("station-refresh"), any(Duration.class))).thenReturn("token");
+        CountDownLatch release = new CountDownLatch(1);
+        stubUpstream(release, "[\"fresh\"]");
+        stationCache.put("all_stations", new StationSnapshot("[\"stale\"]", System.currentTimeMillis() - 4_000_000));
+
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+        verify(bmslgClient, timeout(2_000)).postFormHedged(anyString(), anyString(), any(), any());
+        assertEquals(true, stationService.getCacheStats().get("refreshInFlight"));
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+
+        release.countDown();
+        awaitTrue(() -> "[\"fresh\"]".equals(stationService.fetchAllStations()));
+        verify(bmslgClient, times(1)).postFormHedged(anyString(), anyString(), any(), any());
+        assertEquals("[\"fresh\"]", stationCache.get("all_stations", StationSnapshot.class).body());
+    }
+
+    @Test
+    void testStaleSnapshotIsServedWhenBmslgFails() throws Exception {
+        lenient().when(distributedLock.tryLock(eq("station-refresh"), any(Duration.class))).thenReturn("token");
+        when(bmslgClient.postFormHedged(anyString(), anyString(), any(), any()))
+            .thenThrow(new IOException("connection refused"));
+        stationCache.put("all_stations", new StationSnapshot("[\"stale\"]", System.currentTimeMillis() - 4_000_000));
+
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+        awaitTrue(() -> stationService.getCacheStats().get("retryBlockedUntil") != null);
+
+        // Still served, and BMSLG is left alone until the retry time
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+        verify(bmslgClient, times(1)).postFormHedged(anyString(), anyString(), any(), any());
+        verify(distributedLock).unlock("station-refresh", "token");
+    }
+
+    @Test
+    void testRefreshAheadFiresBeforeExpiry() throws Exception {
+        lenient().when(distributedLock.tryLock(eq("station-refresh"), any(Duration.class))).thenReturn("token");
+        stubUpstream(new CountDownLatch(0), "[\"fresh\"]");
+
+        // 3000s old: before the refresh-ahead window, nothing to do
+        ReflectionTestUtils.setField(stationService, "current",
+            new StationSnapshot("[\"current\"]", System.currentTimeMillis() - 3_000_000));
+        stationService.refreshAhead();
+        Thread.sleep(200);
+        verifyNoInteractions(bmslgClient);
+
+        // 3400s old: inside the last 300s before expiry
+        ReflectionTestUtils.setField(stationService, "current",
+            new StationSnapshot("[\"current\"]", System.currentTimeMillis() - 3_400_000));
+        assertEquals(false, stationService.getCacheStats().get("isExpired"));
+        stationService.refreshAhead();
+
+        verify(bmslgClient, timeout(2_000)).postFormHedged(anyString(), anyString(), any(), any());
+        awaitTrue(() -> "[\"fresh\"]".equals(stationService.fetchAllStations()));
+    }
+
+    @Test
+    void testNodeThatLosesTheLockDoesNotCallUpstream() throws Exception {
+        when(distributedLock.tryLock(eq("station-refresh"), any(Duration.class))).thenReturn(null);
+        stationCache.put("all_stations", new StationSnapshot("[\"stale\"]", System.currentTimeMillis() - 4_000_000));
+
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+        awaitTrue(() -> stationService.getCacheStats().get("retryBlockedUntil") != null);
+
+        assertEquals("[\"stale\"]", stationService.fetchAllStations());
+        verify(distributedLock, times(1)).tryLock(eq("station-refresh"), any(Duration.class));
+        verifyNoInteractions(bmslgClient);
+        verify(distributedLock, never()).unlock(anyString(), any());
+    }
+
+    /**
+     * BMSLG answers with the given body once released
+     */
+    @SuppressWarnings("unchecked")
+    private void stubUpstream(CountDownLatch release, String body) throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        lenient().when(response.statusCode()).thenReturn(200);
+        lenient().when(response.body()).thenReturn(body);
+        lenient().when(bmslgClient.postFormHedged(anyString(), anyString(), any(), any())).thenAnswer(call -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
     }
 }
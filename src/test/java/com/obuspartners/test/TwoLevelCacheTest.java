@@ -0,0 +1,119 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+
+import com.obuspartners.modules.common.cache.CacheSpec;
+import com.obuspartners.modules.common.cache.TwoLevelCacheManager;
+import com.obuspartners.modules.common.service.CacheInvalidationBus;
+
+/**
+ * Verifies that concurrent misses share one load and that loads run outside the L1 lock
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(null, invalidationBus,
+            name -> new CacheSpec(100, Duration.ofMinutes(1), Duration.ofMinutes(1)), List.of("test"), 5000);
+        cache = manager.getCache("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("key", () -> {
+                loaderCalls.incrementAndGet();
+                release.await();
+                return "value";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals("value", cache.get("key", () -> "reloaded"));
+    }
+
+    @Test
+    void testEvictDuringLoadIsNotBlockedAndDropsTheLoadedValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> slowLoad = executor.submit(() -> cache.get("key", () -> {
+            loading.countDown();
+            release.await();
+            return "stale";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Neither the same key nor others wait for the running loader
+        executor.submit(() -> cache.evict("key")).get(1, TimeUnit.SECONDS);
+        assertEquals("other", executor.submit(() -> cache.get("other", () -> "other")).get(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals("stale", slowLoad.get(5, TimeUnit.SECONDS));
+        assertNull(cache.get("key"), "a value loaded before the eviction must not be stored");
+        assertEquals("fresh", cache.get("key", () -> "fresh"));
+    }
+
+    @Test
+    void testLoaderFailureReachesEveryWaiterAndIsNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> cache.get("key", () -> {
+                loaderCalls.incrementAndGet();
+                release.await();
+                throw new IllegalStateException("upstream down");
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, e.getCause());
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+}
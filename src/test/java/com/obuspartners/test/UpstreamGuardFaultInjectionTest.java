@@ -0,0 +1,283 @@
+package com.obuspartners.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.obuspartners.modules.partner_integration.bmslg.BmslgClient;
+import com.obuspartners.modules.partner_integration.resilience.CircuitBreaker;
+import com.obuspartners.modules.partner_integration.resilience.Deadline;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamCall;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuard;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamGuardRegistry;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamSettings;
+import com.obuspartners.modules.partner_integration.resilience.UpstreamUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifies circuit breaker, bulkhead, deadline and hedging of BMSLG calls
+ * against a local stub server that injects latency and errors
+ *
+ * @author OBUS Team
+ * @version 1.0.0
+ */
+class UpstreamGuardFaultInjectionTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    /** Status code the stub answers with */
+    private volatile int status = 200;
+    /** Delay of the stub's first response */
+    private volatile long firstDelayMs;
+    /** Delay of every later response */
+    private volatile long delayMs;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamGuardRegistry guards;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/stub", exchange -> {
+            int number = requests.incrementAndGet();
+            try {
+                Thread.sleep(number == 1 ? firstDelayMs : delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = ("{\"request\":" + number + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/stub";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testCircuitOpensOnServerErrorsAndRejectsWithoutCalling() throws Exception {
+        BmslgClient client = client(Map.of("sliding-window-size", "4", "minimum-calls", "4", "open-duration-ms", "60000"));
+        status = 500;
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(500, client.postForm("stub", baseUrl, Map.of(), Map.of()).statusCode());
+        }
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+            () -> client.postForm("stub", baseUrl, Map.of(), Map.of()));
+
+        assertEquals(UpstreamGuard.Outcome.CIRCUIT_OPEN, rejected.getReason());
+        assertEquals(4, requests.get(), "an open circuit must not call the upstream");
+        assertEquals(CircuitBreaker.State.OPEN, guard().getState());
+    }
+
+    @Test
+    void testCircuitClosesAfterSuccessfulTrialCall() throws Exception {
+        BmslgClient client = client(Map.of("sliding-window-size", "2", "minimum-calls", "2",
+            "open-duration-ms", "200", "half-open-calls", "1"));
+        status = 503;
+        client.postForm("stub", baseUrl, Map.of(), Map.of());
+        client.postForm("stub", baseUrl, Map.of(), Map.of());
+        assertEquals(CircuitBreaker.State.OPEN, guard().getState());
+
+        status = 200;
+        Thread.sleep(300);
+
+        assertEquals(200, client.postForm("stub", baseUrl, Map.of(), Map.of()).statusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, guard().getState());
+    }
+
+    @Test
+    void testSlowUpstreamIsCutOffAtRequestDeadline() {
+        BmslgClient client = client(Map.of("timeout-ms", "10000"));
+        delayMs = 3000;
+        firstDelayMs = 3000;
+
+        long start = System.nanoTime();
+        UpstreamUnavailableException timedOut;
+        try (Deadline.Scope ignored = Deadline.start(Duration.ofMillis(300))) {
+            timedOut = assertThrows(UpstreamUnavailableException.class,
+                () -> client.postForm("stub", baseUrl, Map.of(), Map.of()));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(UpstreamGuard.Outcome.TIMEOUT, timedOut.getReason());
+        assertTrue(elapsedMs < 2000, "caller should be released at the deadline, waited " + elapsedMs + "ms");
+        assertEquals(1L, guard().getStatus().calls().get("TIMEOUT"));
+    }
+
+    @Test
+    void testBulkheadRejectsCallsBeyondConcurrencyLimit() throws Exception {
+        BmslgClient client = client(Map.of("max-concurrent-calls", "2"));
+        firstDelayMs = 500;
+        delayMs = 500;
+
+        CompletableFuture<HttpResponse<String>> first = client.postFormAsync("stub", baseUrl, Map.of(), Map.of());
+        CompletableFuture<HttpResponse<String>> second = client.postFormAsync("stub", baseUrl, Map.of(), Map.of());
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+            () -> client.postForm("stub", baseUrl, Map.of(), Map.of()));
+
+        assertEquals(UpstreamGuard.Outcome.BULKHEAD_FULL, rejected.getReason());
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, second.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(2, guard().getStatus().availableConcurrentCalls());
+    }
+
+    @Test
+    void testHedgedRequestAnswersWhenFirstIsSlow() throws Exception {
+        BmslgClient client = client(Map.of("hedge-delay-ms", "100"));
+        firstDelayMs = 3000;
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.postFormHedged("stub", baseUrl, Map.of(), Map.of());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("{\"request\":2}", response.body());
+        assertTrue(elapsedMs < 2000, "hedge should answer before the slow request, waited " + elapsedMs + "ms");
+        UpstreamGuard.Status status = guard().getStatus();
+        assertEquals(1, status.hedgesSent());
+        assertEquals(1, status.hedgesWon());
+    }
+
+    @Test
+    void testHedgeCancelledBeforeItStartsReturnsItsBulkheadSlot() throws Exception {
+        // The first request gets a thread; the hedge is held in the queue until the first answers and cancels it
+        HoldingExecutor executor = new HoldingExecutor(1);
+        UpstreamGuard guard = new UpstreamGuard("stub", settings(2, Duration.ofMillis(50)), executor,
+            new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = guard.executeHedged(timeout -> {
+            calls.incrementAndGet();
+            Thread.sleep(300);
+            return "first";
+        }, value -> false);
+        executor.runHeld();
+
+        assertEquals("first", result);
+        assertEquals(1, calls.get(), "the cancelled hedge must not run");
+        UpstreamGuard.Status status = guard.getStatus();
+        assertEquals(1, status.hedgesSent());
+        assertEquals(2, status.availableConcurrentCalls(), "a hedge cancelled before it started leaked its slot");
+    }
+
+    @Test
+    void testClientErrorsCanBeExcludedFromCircuitFailures() throws Exception {
+        UpstreamGuard guard = new UpstreamGuard("stub", settings(8, Duration.ZERO), Executors.newVirtualThreadPerTaskExecutor(),
+            new SimpleMeterRegistry());
+        UpstreamCall<String, RuntimeException> rejectedRequest = timeout -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        };
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.execute(rejectedRequest, value -> false,
+                error -> !(error instanceof HttpClientErrorException)));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> guard.execute(rejectedRequest, value -> false));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+    }
+
+    private static UpstreamSettings settings(int maxConcurrentCalls, Duration hedgeDelay) {
+        return new UpstreamSettings(Duration.ofSeconds(5), maxConcurrentCalls, Duration.ZERO,
+            4, 4, 50, Duration.ofSeconds(60), 1, hedgeDelay);
+    }
+
+    private BmslgClient client(Map<String, String> settings) {
+        MockEnvironment environment = new MockEnvironment();
+        settings.forEach((key, value) -> environment.setProperty("app.resilience.bmslg." + key, value));
+        meterRegistry = new SimpleMeterRegistry();
+        guards = new UpstreamGuardRegistry(meterRegistry, environment);
+        return new BmslgClient(meterRegistry, guards, 2000, 10000, 4, 100);
+    }
+
+    /**
+     * Runs the first tasks on their own threads and holds later ones until asked
+     */
+    private static final class HoldingExecutor extends AbstractExecutorService {
+
+        private final AtomicInteger threadsLeft;
+        private final List<Runnable> held = new CopyOnWriteArrayList<>();
+
+        HoldingExecutor(int threads) {
+            this.threadsLeft = new AtomicInteger(threads);
+        }
+
+        void runHeld() {
+            held.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (threadsLeft.getAndDecrement() > 0) {
+                Thread.ofVirtual().start(task);
+            } else {
+                held.add(task);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    private UpstreamGuard guard() {
+        return guards.guard(UpstreamGuardRegistry.BMSLG);
+    }
+}